@@ -0,0 +1,158 @@
+-- Query-plan benchmark for db/postgresql/V2__partition_telemetry_tables.sql.
+--
+-- Seeds the pre-V2 layout with millions of rows in a scratch schema, explains
+-- the hot dashboard queries, applies the real migration to that schema and
+-- explains the same reads again. Run it from the repository root against a
+-- throwaway Postgres database (12 or newer):
+--
+--   psql "$BENCH_DB_URL" -v ON_ERROR_STOP=1 -f benchmarks/telemetry-partitioning.sql
+--
+-- Row counts can be scaled with -v students=... -v sessions=... etc.
+
+\if :{?students}
+\else
+    \set students 1000
+\endif
+\if :{?sessions}
+\else
+    \set sessions 100000
+\endif
+\if :{?attempts}
+\else
+    \set attempts 2000000
+\endif
+\if :{?changes}
+\else
+    \set changes 5000000
+\endif
+\if :{?mastery_events}
+\else
+    \set mastery_events 1000000
+\endif
+
+DROP SCHEMA IF EXISTS rishi_bench CASCADE;
+CREATE SCHEMA rishi_bench;
+SET search_path TO rishi_bench;
+\timing on
+
+-- Pre-V2 layout, as created by Hibernate: no (student, time) indexes.
+CREATE TABLE students (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+CREATE TABLE rishi_coding_sessions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id BIGINT NOT NULL REFERENCES students (id),
+    started_at TIMESTAMP NOT NULL,
+    last_activity_at TIMESTAMP,
+    ended_at TIMESTAMP
+);
+CREATE TABLE rishi_compile_attempt_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_id BIGINT NOT NULL REFERENCES rishi_coding_sessions (id),
+    attempted_at TIMESTAMP NOT NULL,
+    attempt_source VARCHAR(64),
+    success BOOLEAN NOT NULL,
+    accuracy_pct DOUBLE PRECISION,
+    mistake_category VARCHAR(64),
+    created_at TIMESTAMP
+);
+CREATE TABLE rishi_code_change_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_id BIGINT NOT NULL REFERENCES rishi_coding_sessions (id),
+    occurred_at TIMESTAMP NOT NULL,
+    inserted_chars INTEGER,
+    deleted_chars INTEGER,
+    activity_state VARCHAR(40),
+    created_at TIMESTAMP
+);
+CREATE TABLE mastery_event_log (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id BIGINT REFERENCES students (id),
+    topic_slug VARCHAR(255),
+    event_type VARCHAR(255),
+    quality_score INTEGER NOT NULL,
+    created_at TIMESTAMP
+);
+
+-- Eighteen months of history.
+INSERT INTO students (name)
+SELECT 'bench-' || g FROM generate_series(1, :students) g;
+
+INSERT INTO rishi_coding_sessions (student_id, started_at, last_activity_at, ended_at)
+SELECT 1 + (g % :students), t, t + INTERVAL '40 minutes', t + INTERVAL '40 minutes'
+FROM (SELECT g, now() - random() * INTERVAL '540 days' AS t
+      FROM generate_series(1, :sessions) g) s;
+
+INSERT INTO rishi_compile_attempt_logs (session_id, attempted_at, attempt_source, success, accuracy_pct,
+        mistake_category, created_at)
+SELECT s.id, s.started_at + random() * INTERVAL '40 minutes',
+       (ARRAY['local_run', 'duel_run', 'leetcode_submit'])[1 + (g % 3)], g % 3 = 0, random() * 100,
+       (ARRAY['NONE', 'COMPILATION_ERROR', 'RUNTIME_ERROR', 'WRONG_ANSWER'])[1 + (g % 4)], now()
+FROM generate_series(1, :attempts) g
+JOIN rishi_coding_sessions s ON s.id = 1 + (g % :sessions);
+
+INSERT INTO rishi_code_change_events (session_id, occurred_at, inserted_chars, deleted_chars, activity_state,
+        created_at)
+SELECT s.id, s.started_at + random() * INTERVAL '40 minutes', (random() * 40)::INT, (random() * 10)::INT,
+       'TYPING', now()
+FROM generate_series(1, :changes) g
+JOIN rishi_coding_sessions s ON s.id = 1 + (g % :sessions);
+
+INSERT INTO mastery_event_log (student_id, topic_slug, event_type, quality_score, created_at)
+SELECT 1 + (g % :students), 'topic-' || (g % 40), 'COMPILER_RUN', g % 6,
+       now() - random() * INTERVAL '540 days'
+FROM generate_series(1, :mastery_events) g;
+
+ANALYZE;
+
+\echo '==== Before V2 ===='
+\set bench_student 42
+\set bench_session 4242
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT l.* FROM rishi_compile_attempt_logs l
+JOIN rishi_coding_sessions s ON s.id = l.session_id
+WHERE s.student_id = :bench_student AND l.attempted_at BETWEEN now() - INTERVAL '30 days' AND now()
+ORDER BY l.attempted_at DESC LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT CAST(l.attempted_at AS DATE), l.attempt_source, l.mistake_category, l.success, COUNT(*)
+FROM rishi_compile_attempt_logs l
+JOIN rishi_coding_sessions s ON s.id = l.session_id
+WHERE s.student_id = :bench_student AND l.attempted_at BETWEEN now() - INTERVAL '60 days' AND now()
+GROUP BY 1, 2, 3, 4;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM rishi_code_change_events WHERE session_id = :bench_session ORDER BY occurred_at;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM mastery_event_log WHERE student_id = :bench_student AND topic_slug = 'topic-2'
+ORDER BY created_at DESC LIMIT 5;
+
+\echo '==== Applying V2 ===='
+\i src/main/resources/db/postgresql/V2__partition_telemetry_tables.sql
+ANALYZE;
+
+\echo '==== After V2 ===='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT l.* FROM rishi_compile_attempt_logs l
+WHERE l.student_id = :bench_student AND l.attempted_at BETWEEN now() - INTERVAL '30 days' AND now()
+ORDER BY l.attempted_at DESC LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT CAST(l.attempted_at AS DATE), l.attempt_source, l.mistake_category, l.success, COUNT(*)
+FROM rishi_compile_attempt_logs l
+WHERE l.student_id = :bench_student AND l.attempted_at BETWEEN now() - INTERVAL '60 days' AND now()
+GROUP BY 1, 2, 3, 4;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM rishi_code_change_events WHERE session_id = :bench_session ORDER BY occurred_at;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM mastery_event_log WHERE student_id = :bench_student AND topic_slug = 'topic-2'
+ORDER BY created_at DESC LIMIT 5;
+
+\timing off
+RESET search_path;
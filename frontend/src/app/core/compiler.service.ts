@@ -1,6 +1,7 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { inject, Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
+import { encodeRishiChangeBatch, RISHI_CHANGE_BATCH_MEDIA_TYPE } from './rishi-change-batch.codec';
 
 export interface CompilationResult {
   success: boolean;
@@ -236,7 +237,14 @@ export class CompilerService {
   }
 
   recordRishiCodeChanges(sessionId: number, request: RishiCodeChangeBatchRequest): Observable<{ acceptedEvents: number }> {
-    return this.http.post<{ acceptedEvents: number }>(`${this.rishiCodingApiUrl}/sessions/${sessionId}/events`, request);
+    const url = `${this.rishiCodingApiUrl}/sessions/${sessionId}/events`;
+    if (request.events.some(event => Number.isNaN(Date.parse(event.timestamp)))) {
+      return this.http.post<{ acceptedEvents: number }>(url, request);
+    }
+    const body = encodeRishiChangeBatch(request.events);
+    return this.http.post<{ acceptedEvents: number }>(url, body.buffer, {
+      headers: new HttpHeaders({ 'Content-Type': RISHI_CHANGE_BATCH_MEDIA_TYPE })
+    });
   }
 
   recordRishiCompileAttempt(sessionId: number, request: RishiCompileAttemptRequest): Observable<RishiCompileAttemptAnalysisResponse> {
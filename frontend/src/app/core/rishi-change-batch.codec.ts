@@ -0,0 +1,61 @@
+import type { RishiCodeChangeEvent } from './compiler.service';
+
+/**
+ * Compact body for POST /api/rishi/coding/sessions/{id}/events.
+ * Mirrors RishiCodeChangeBinaryCodec on the backend (format version 1).
+ */
+export const RISHI_CHANGE_BATCH_MEDIA_TYPE = 'application/vnd.rishi.change-batch';
+
+const VERSION = 1;
+
+export function encodeRishiChangeBatch(events: RishiCodeChangeEvent[]): Uint8Array {
+  const dictionary = new Map<string, number>();
+  for (const event of events) {
+    if (event.activityState != null && !dictionary.has(event.activityState)) {
+      dictionary.set(event.activityState, dictionary.size);
+    }
+  }
+
+  const out: number[] = [VERSION];
+  writeVarint(out, dictionary.size);
+  const utf8 = new TextEncoder();
+  for (const state of dictionary.keys()) {
+    const bytes = utf8.encode(state);
+    writeVarint(out, bytes.length);
+    for (const b of bytes) {
+      out.push(b);
+    }
+  }
+
+  writeVarint(out, events.length);
+  let previous = 0;
+  for (const event of events) {
+    const epochMillis = Date.parse(event.timestamp);
+    const delta = epochMillis - previous;
+    previous = epochMillis;
+    // Zigzag keeps out-of-order timestamps small; float math avoids 32-bit overflow.
+    writeVarint(out, delta >= 0 ? delta * 2 : -delta * 2 - 1);
+    out.push(flagBits(event.editorFocused, 0) | flagBits(event.windowFocused, 2) | flagBits(event.documentVisible, 4));
+    writeVarint(out, event.activityState == null ? 0 : dictionary.get(event.activityState)! + 1);
+    writeVarint(out, event.editorVersion);
+    writeVarint(out, event.rangeOffset);
+    writeVarint(out, event.rangeLength);
+    writeVarint(out, event.insertedChars);
+    writeVarint(out, event.deletedChars);
+    writeVarint(out, event.resultingCodeLength);
+  }
+  return Uint8Array.from(out);
+}
+
+function flagBits(value: boolean | undefined, shift: number): number {
+  return (value == null ? 0 : value ? 2 : 1) << shift;
+}
+
+function writeVarint(out: number[], value: number): void {
+  let remaining = Math.max(0, Math.floor(value || 0));
+  while (remaining >= 0x80) {
+    out.push((remaining % 0x80) | 0x80);
+    remaining = Math.floor(remaining / 0x80);
+  }
+  out.push(remaining);
+}
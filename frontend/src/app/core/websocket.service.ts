@@ -111,6 +111,11 @@ export class WebSocketService {
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
+      beforeConnect: () => {
+        // Duel answers are credited to the user authenticated on CONNECT
+        const token = localStorage.getItem('student_skill_tracker_jwt')?.trim();
+        this.client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+      },
       onConnect: () => {
         this.connected.set(true);
         const pending = [...this.pendingConnectionActions];
@@ -197,6 +202,14 @@ export class WebSocketService {
     });
   }
 
+  public submitCodingSolution(sessionId: string, language: string, sourceCode: string) {
+    if (!this.connected()) return;
+    this.client.publish({
+      destination: `/app/duel/${sessionId}/submitAnswer`,
+      body: JSON.stringify({ language, sourceCode })
+    });
+  }
+
   public advanceRound(sessionId: string, username: string) {
     if (!this.connected()) return;
     this.client.publish({
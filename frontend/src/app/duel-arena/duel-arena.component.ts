@@ -1,5 +1,5 @@
 import { CommonModule } from '@angular/common';
-import { Component, computed, effect, inject, OnDestroy, OnInit, signal } from '@angular/core';
+import { Component, computed, effect, inject, OnDestroy, OnInit, signal, untracked } from '@angular/core';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
 import { LucideAngularModule } from 'lucide-angular';
@@ -155,6 +155,14 @@ export class DuelArenaComponent implements OnInit, OnDestroy {
         this.lastAnswerResult.set(result);
         this.player1Score.set(result.player1Score);
         this.player2Score.set(result.player2Score);
+        const ownCodingResult = untracked(() => result.username === this.currentUserMatchmakingId()
+          && result.round === this.currentRound() && this.codingSubmitted()
+          && this.currentRoundData()?.type === 'CODING');
+        if (ownCodingResult) {
+          setTimeout(() => {
+            this.wsService.advanceRound(this.sessionId(), this.currentUserMatchmakingId());
+          }, 2000);
+        }
       }
     });
 
@@ -509,11 +517,10 @@ export class DuelArenaComponent implements OnInit, OnDestroy {
     this.codingSubmitted.set(true);
     const passed = this.myResult()?.success ? 1 : 0;
     this.endDuelRishiCodingSession('duel_coding_submitted');
-    this.wsService.submitAnswer(this.sessionId(), this.currentUserMatchmakingId(), String(passed));
+    // The server runs the hidden tests and scores the round
+    this.wsService.submitCodingSolution(this.sessionId(), this.selectedLanguage(), this.myCode());
     this.wsService.sendExecuteStatus(this.sessionId(), this.currentUserMatchmakingId(), passed ? 'PASSED' : 'FAILED', passed, 1);
-    setTimeout(() => {
-      this.wsService.advanceRound(this.sessionId(), this.currentUserMatchmakingId());
-    }, 2000);
+    // The round advances once the server's result arrives (see the answer result effect)
   }
 
   private startDuelRishiCodingSession(round: RoundData | null) {
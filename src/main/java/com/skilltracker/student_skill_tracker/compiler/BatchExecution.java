@@ -0,0 +1,136 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs test cases against an already compiled program and grades the
+ * output, for {@link ProgrammingLanguageCompiler#executeBatch}.
+ *
+ * <p>
+ * Cases run on virtual threads, at most {@code parallelism} at a time.
+ * Output is compared line by line ignoring trailing whitespace and trailing
+ * blank lines, as most judges do.
+ * </p>
+ */
+final class BatchExecution {
+
+    /** Concurrent test-case runs per batch. */
+    static final int DEFAULT_PARALLELISM = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private BatchExecution() {
+    }
+
+    /**
+     * @param runner       runs the compiled program on one stdin
+     * @param compileNanos how long the shared compile step took
+     */
+    static BatchExecutionResult run(List<TestCase> testCases, int parallelism, long compileNanos,
+            Function<String, CompilationResult> runner) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<TestCaseResult>> futures = new ArrayList<>(testCases.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < testCases.size(); i++) {
+                int index = i;
+                TestCase testCase = testCases.get(i);
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        long caseStart = System.nanoTime();
+                        CompilationResult run = runner.apply(testCase.getInput());
+                        return grade(index, testCase, run, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - caseStart));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<TestCaseResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(TestCaseResult.builder()
+                        .index(i)
+                        .verdict(TestCaseResult.Verdict.RUNTIME_ERROR)
+                        .error("Exception: " + e.getCause().getMessage())
+                        .build());
+            }
+        }
+        return finish(results, compileNanos, start);
+    }
+
+    /** Every case fails with the compile error; nothing was run. */
+    static BatchExecutionResult compileFailed(List<TestCase> testCases, String error, long compileNanos) {
+        long start = System.nanoTime();
+        List<TestCaseResult> results = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            results.add(TestCaseResult.builder()
+                    .index(i)
+                    .verdict(TestCaseResult.Verdict.COMPILE_ERROR)
+                    .error(error)
+                    .build());
+        }
+        BatchExecutionResult result = finish(results, compileNanos, start);
+        result.setCompiled(false);
+        result.setCompileError(error);
+        return result;
+    }
+
+    static boolean outputMatches(String expected, String actual) {
+        return normalize(expected).equals(normalize(actual));
+    }
+
+    private static TestCaseResult grade(int index, TestCase testCase, CompilationResult run, long elapsedMs) {
+        TestCaseResult.Verdict verdict;
+        if (run.isOutputTruncated()) {
+            verdict = TestCaseResult.Verdict.OUTPUT_LIMIT_EXCEEDED;
+        } else if (run.isTimedOut()) {
+            verdict = TestCaseResult.Verdict.TIMEOUT;
+        } else if (!run.isSuccess()) {
+            verdict = TestCaseResult.Verdict.RUNTIME_ERROR;
+        } else if (outputMatches(testCase.getExpectedOutput(), run.getOutput())) {
+            verdict = TestCaseResult.Verdict.PASSED;
+        } else {
+            verdict = TestCaseResult.Verdict.WRONG_ANSWER;
+        }
+        return TestCaseResult.builder()
+                .index(index)
+                .verdict(verdict)
+                .output(run.getOutput())
+                .error(run.getError())
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private static BatchExecutionResult finish(List<TestCaseResult> results, long compileNanos, long runStart) {
+        int passed = (int) results.stream().filter(r -> r.getVerdict() == TestCaseResult.Verdict.PASSED).count();
+        return BatchExecutionResult.builder()
+                .compiled(true)
+                .compileTimeMs(TimeUnit.NANOSECONDS.toMillis(compileNanos))
+                .totalTimeMs(TimeUnit.NANOSECONDS.toMillis(compileNanos + System.nanoTime() - runStart))
+                .passed(passed)
+                .total(results.size())
+                .results(results)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.lines().map(String::stripTrailing).collect(Collectors.joining("\n")).stripTrailing();
+    }
+}
@@ -0,0 +1,26 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Outcome of running one submission against several test cases after a single compile. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExecutionResult {
+    private boolean compiled;
+    private String compileError;
+    private String language;
+    private long compileTimeMs;
+    private long totalTimeMs;
+    private int passed;
+    private int total;
+    private List<TestCaseResult> results;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,99 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Keeps the first {@code limit - tailSize} bytes written and a ring of the
+ * last {@code tailSize} bytes, so truncated output still shows how it began
+ * and where it stopped. Where bytes were dropped, both sides are cut at a
+ * UTF-8 character boundary.
+ *
+ * <p>
+ * Used by {@link ExecutionSandbox} and inside {@link JavaWorkerMain}, so only
+ * JDK classes may be referenced here.
+ * </p>
+ */
+final class BoundedOutput extends OutputStream {
+
+    private final int limit;
+    private final byte[] head;
+    private final byte[] tail;
+    private int headSize;
+    private long tailWritten;
+    private long total;
+
+    BoundedOutput(int limit, int tailSize) {
+        this.limit = limit;
+        this.head = new byte[limit - tailSize];
+        this.tail = new byte[tailSize];
+    }
+
+    @Override
+    public void write(int b) {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        int copied = 0;
+        if (headSize < head.length) {
+            copied = Math.min(length, head.length - headSize);
+            System.arraycopy(bytes, offset, head, headSize, copied);
+            headSize += copied;
+        }
+        for (int i = offset + copied; i < offset + length; i++) {
+            tail[(int) (tailWritten++ % tail.length)] = bytes[i];
+        }
+        total += length;
+    }
+
+    /** {@code true} once more than {@code limit} bytes were written. */
+    synchronized boolean overflowed() {
+        return total > limit;
+    }
+
+    synchronized String text() {
+        int tailSize = (int) Math.min(tailWritten, tail.length);
+        byte[] ordered = new byte[tailSize];
+        int start = (int) ((tailWritten - tailSize) % Math.max(1, tail.length));
+        for (int i = 0; i < tailSize; i++) {
+            ordered[i] = tail[(start + i) % tail.length];
+        }
+        long omitted = tailWritten - tailSize;
+        if (omitted == 0) {
+            // Nothing dropped: the tail carries straight on from the head.
+            byte[] whole = Arrays.copyOf(head, headSize + tailSize);
+            System.arraycopy(ordered, 0, whole, headSize, tailSize);
+            return new String(whole, StandardCharsets.UTF_8);
+        }
+        int headEnd = characterEnd(head, headSize);
+        int tailStart = characterStart(ordered);
+        return new String(head, 0, headEnd, StandardCharsets.UTF_8)
+                + "\n\n... [" + (omitted + headSize - headEnd + tailStart) + " bytes of output omitted] ...\n\n"
+                + new String(ordered, tailStart, tailSize - tailStart, StandardCharsets.UTF_8);
+    }
+
+    /** Length of {@code bytes[0, size)} without a trailing partial character. */
+    private static int characterEnd(byte[] bytes, int size) {
+        for (int i = size - 1; i >= Math.max(0, size - 4); i--) {
+            int b = bytes[i] & 0xFF;
+            if ((b & 0xC0) == 0x80) {
+                continue;
+            }
+            int length = b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+            return i + length <= size ? size : i;
+        }
+        return size;
+    }
+
+    /** Offset of the first character that starts inside {@code bytes}. */
+    private static int characterStart(byte[] bytes) {
+        int start = 0;
+        while (start < Math.min(bytes.length, 3) && (bytes[start] & 0xC0) == 0x80) {
+            start++;
+        }
+        return start;
+    }
+}
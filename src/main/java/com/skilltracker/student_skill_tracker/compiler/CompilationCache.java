@@ -0,0 +1,293 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content-addressed store of compiled artifacts (class files, C++ binaries)
+ * for the local compilers.
+ *
+ * <p>
+ * Keys hash the language, the toolchain version and the exact source, with
+ * only CRLF line endings folded to LF: whitespace can be significant (C++ raw
+ * strings, Java text blocks), so nothing else is normalized. Each entry is a
+ * directory under the cache root holding the artifacts plus an
+ * {@code entry.properties} file; its modification time records the last hit,
+ * so LRU order survives restarts. Entries are evicted least-recently-used
+ * first once the total size exceeds {@code maxBytes}.
+ * </p>
+ *
+ * <p>
+ * Cached binaries are executed as they are, so the root must be private: it
+ * is created with mode 0700, and an existing root is only used when this
+ * process's user owns it and nobody else can write to it.
+ * </p>
+ */
+final class CompilationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationCache.class);
+    private static final String METADATA_FILE = "entry.properties";
+    private static final String ARTIFACT_DIR = "artifacts";
+    private static final Set<PosixFilePermission> PRIVATE = PosixFilePermissions.fromString("rwx------");
+    /** Bumped whenever key derivation changes, so entries keyed the old way are never hit. */
+    private static final String KEY_VERSION = "2";
+
+    private final Path root;
+    private final long maxBytes;
+    /** Access-ordered: iteration starts at the least recently used entry. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedCompileNanos = new AtomicLong();
+
+    CompilationCache(Path root, long maxBytes) throws IOException {
+        this.root = privateDirectory(root);
+        this.maxBytes = Math.max(0, maxBytes);
+        load();
+    }
+
+    static String key(String language, String toolchain, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(KEY_VERSION.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(language.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(toolchain.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /** Returns the cached artifacts for {@code key}, or {@code null} on a miss. */
+    synchronized Hit get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            Map<String, byte[]> files = ExecutionSandbox.readArtifacts(entry.dir().resolve(ARTIFACT_DIR), "");
+            Files.setLastModifiedTime(entry.dir().resolve(METADATA_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            savedCompileNanos.addAndGet(entry.compileNanos());
+            return new Hit(entry.mainClass(), files);
+        } catch (IOException e) {
+            logger.warn("Dropping unreadable compilation cache entry {}: {}", key, e.getMessage());
+            remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores artifacts produced by a successful compile. {@code files} maps
+     * relative paths to contents; {@code mainClass} is whatever the caller
+     * needs to launch them again.
+     */
+    void put(String key, String mainClass, Map<String, byte[]> files, long compileNanos) {
+        long bytes = files.values().stream().mapToLong(b -> b.length).sum();
+        if (bytes > maxBytes) {
+            return;
+        }
+        Path staging = null;
+        try {
+            staging = Files.createTempDirectory(root, ".staging-");
+            ExecutionSandbox.writeArtifacts(Files.createDirectory(staging.resolve(ARTIFACT_DIR)), files);
+            Properties metadata = new Properties();
+            metadata.setProperty("mainClass", mainClass == null ? "" : mainClass);
+            metadata.setProperty("compileNanos", Long.toString(compileNanos));
+            metadata.setProperty("bytes", Long.toString(bytes));
+            try (OutputStream out = Files.newOutputStream(staging.resolve(METADATA_FILE))) {
+                metadata.store(out, null);
+            }
+
+            synchronized (this) {
+                if (entries.containsKey(key)) {
+                    return;
+                }
+                Path dir = root.resolve(key);
+                try {
+                    Files.move(staging, dir, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    return;
+                }
+                staging = null;
+                entries.put(key, new Entry(dir, mainClass == null ? "" : mainClass, compileNanos, bytes));
+                totalBytes += bytes;
+                evict();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not cache compilation {}: {}", key, e.getMessage());
+        } finally {
+            ExecutionSandbox.deleteWorkspace(staging);
+        }
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    long savedCompileMillis() {
+        return savedCompileNanos.get() / 1_000_000;
+    }
+
+    synchronized int entryCount() {
+        return entries.size();
+    }
+
+    synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    Map<String, Object> stats() {
+        long hitCount = hits();
+        long lookups = hitCount + misses();
+        return Map.of(
+                "hits", hitCount,
+                "misses", misses(),
+                "hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                "savedCompileMillis", savedCompileMillis(),
+                "entries", entryCount(),
+                "sizeBytes", sizeBytes(),
+                "maxBytes", maxBytes);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            eldest.remove();
+            totalBytes -= victim.getValue().bytes();
+            ExecutionSandbox.deleteWorkspace(victim.getValue().dir());
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.bytes();
+            ExecutionSandbox.deleteWorkspace(entry.dir());
+        }
+    }
+
+    /** Creates {@code root} usable by its owner only, or checks that an existing one is. */
+    private static Path privateDirectory(Path root) throws IOException {
+        boolean posix = root.getFileSystem().supportedFileAttributeViews().contains("posix");
+        boolean created = false;
+        if (Files.notExists(root, LinkOption.NOFOLLOW_LINKS)) {
+            if (root.getParent() != null) {
+                Files.createDirectories(root.getParent());
+            }
+            try {
+                if (posix) {
+                    Files.createDirectory(root, PosixFilePermissions.asFileAttribute(PRIVATE));
+                } else {
+                    Files.createDirectory(root);
+                }
+                created = true;
+            } catch (FileAlreadyExistsException e) {
+                // Someone else created it meanwhile: checked below like any existing root.
+            }
+        }
+        if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Compilation cache root " + root + " is not a directory");
+        }
+        if (!posix) {
+            return root;
+        }
+        if (!created) {
+            UserPrincipal owner = Files.getOwner(root, LinkOption.NOFOLLOW_LINKS);
+            UserPrincipal self = root.getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            if (!owner.equals(self)) {
+                throw new IOException("Compilation cache root " + root + " is owned by " + owner.getName());
+            }
+        }
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(root, LinkOption.NOFOLLOW_LINKS);
+        if (!PRIVATE.containsAll(permissions)) {
+            throw new IOException("Compilation cache root " + root + " is accessible to other users ("
+                    + PosixFilePermissions.toString(permissions) + ")");
+        }
+        return root;
+    }
+
+    private void load() throws IOException {
+        List<Loaded> found = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+            for (Path dir : dirs) {
+                if (dir.getFileName().toString().startsWith(".staging-")) {
+                    ExecutionSandbox.deleteWorkspace(dir);
+                    continue;
+                }
+                Path metadataFile = dir.resolve(METADATA_FILE);
+                if (!Files.isRegularFile(metadataFile)) {
+                    ExecutionSandbox.deleteWorkspace(dir);
+                    continue;
+                }
+                try (InputStream in = Files.newInputStream(metadataFile)) {
+                    Properties metadata = new Properties();
+                    metadata.load(in);
+                    found.add(new Loaded(dir.getFileName().toString(), Files.getLastModifiedTime(metadataFile),
+                            new Entry(dir, metadata.getProperty("mainClass", ""),
+                                    Long.parseLong(metadata.getProperty("compileNanos", "0")),
+                                    Long.parseLong(metadata.getProperty("bytes", "0")))));
+                } catch (IOException | NumberFormatException e) {
+                    ExecutionSandbox.deleteWorkspace(dir);
+                }
+            }
+        }
+        found.sort(Comparator.comparing(Loaded::lastUsed));
+        for (Loaded loaded : found) {
+            entries.put(loaded.key(), loaded.entry());
+            totalBytes += loaded.entry().bytes();
+        }
+        evict();
+    }
+
+    record Hit(String mainClass, Map<String, byte[]> files) {
+    }
+
+    private record Entry(Path dir, String mainClass, long compileNanos, long bytes) {
+    }
+
+    private record Loaded(String key, FileTime lastUsed, Entry entry) {
+    }
+}
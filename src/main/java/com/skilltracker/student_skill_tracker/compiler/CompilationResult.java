@@ -18,6 +18,15 @@ public class CompilationResult {
     private String executionTime;
     private String language;
     private LocalDateTime timestamp;
+    /** 1-based place in the execution queue when the run was submitted. */
+    private Integer queuePosition;
+    private Long queueWaitMs;
+    /** Set when a local run was stopped for printing more than {@link #outputLimitBytes}. */
+    private boolean outputTruncated;
+    private boolean timedOut;
+    private Integer outputLimitBytes;
+    /** Execution backend that produced this result (jdoodle, piston, judge0, local). */
+    private String backend;
 
     public String getFormattedResult() {
         if (!success) {
@@ -1,45 +1,208 @@
 package com.skilltracker.student_skill_tracker.compiler;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class CompilerFactory {
 
+    private static final Logger logger = LoggerFactory.getLogger(CompilerFactory.class);
+
     @Value("${piston.api.url:https://emkc.org/api/v2/piston/execute}")
     private String pistonUrl;
 
     @Value("${piston.api.enabled:true}")
     private boolean pistonEnabled;
 
+    // Warm JVMs for local Java runs; 0 keeps the javac + java process per run.
+    @Value("${compiler.java.worker-pool.size:2}")
+    private int javaWorkerPoolSize;
+
+    // Submissions come from different students, so by default a worker runs one and is replaced;
+    // the JVM and javac are still started and warmed before the request arrives.
+    @Value("${compiler.java.worker-pool.max-runs-per-worker:1}")
+    private int javaWorkerMaxRuns;
+
+    // Compiled artifacts keyed by source hash, shared by the local Java and C++ compilers.
+    @Value("${compiler.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${compiler.cache.dir:${java.io.tmpdir}/rishi-compile-cache}")
+    private String cacheDir;
+
+    @Value("${compiler.cache.max-bytes:268435456}")
+    private long cacheMaxBytes;
+
+    // Parent of this instance's reused run directories; blank picks tmpfs (/dev/shm) when it allows executables.
+    @Value("${compiler.workspace.dir:}")
+    private String workspaceDir;
+
+    @Value("${compiler.workspace.pool-size:16}")
+    private int workspacePoolSize;
+
+    private final MeterRegistry meterRegistry;
+    private final RemoteExecutionClient remoteClient;
     private final Map<String, ProgrammingLanguageCompiler> compilers = new HashMap<>();
+    /** Last probe of each compiler's toolchain, so request paths never start processes. */
+    private final Map<ProgrammingLanguageCompiler, ToolchainStatus> toolchains = new ConcurrentHashMap<>();
+    private JavaWorkerPool javaWorkerPool;
+    private CompilationCache compilationCache;
+    private WorkspacePool workspacePool;
+
+    public CompilerFactory(MeterRegistry meterRegistry, RemoteExecutionClient remoteClient) {
+        this.meterRegistry = meterRegistry;
+        this.remoteClient = remoteClient;
+    }
 
     @PostConstruct
     public void init() {
         if (pistonEnabled) {
             // PROACTIVE FIX: Use remote Piston API configured in application.properties
-            compilers.put("java", new PistonCompilerProvider("java", pistonUrl));
-            compilers.put("python", new PistonCompilerProvider("python", pistonUrl));
-            compilers.put("cpp", new PistonCompilerProvider("cpp", pistonUrl));
-            compilers.put("c++", new PistonCompilerProvider("cpp", pistonUrl));
-            compilers.put("javascript", new PistonCompilerProvider("javascript", pistonUrl));
-            compilers.put("js", new PistonCompilerProvider("javascript", pistonUrl));
+            // One provider per language; aliases share it and all share the pooled HTTP client.
+            PistonCompilerProvider cpp = new PistonCompilerProvider("cpp", pistonUrl, remoteClient);
+            PistonCompilerProvider javascript = new PistonCompilerProvider("javascript", pistonUrl, remoteClient);
+            compilers.put("java", new PistonCompilerProvider("java", pistonUrl, remoteClient));
+            compilers.put("python", new PistonCompilerProvider("python", pistonUrl, remoteClient));
+            compilers.put("cpp", cpp);
+            compilers.put("c++", cpp);
+            compilers.put("javascript", javascript);
+            compilers.put("js", javascript);
         } else {
             // Fallback to local if disabled (not recommended for Render)
-            compilers.put("java", new JavaCompiler());
+            openWorkspacePool();
+            CompilationCache cache = openCompilationCache();
+            CppCompiler cppCompiler = new CppCompiler(cache);
+            compilers.put("java", new JavaCompiler(startJavaWorkerPool(), cache));
             compilers.put("python", new PythonCompiler());
-            compilers.put("cpp", new CppCompiler());
-            compilers.put("c++", new CppCompiler());
+            compilers.put("cpp", cppCompiler);
+            compilers.put("c++", cppCompiler);
             compilers.put("javascript", new JavaScriptCompiler());
             compilers.put("js", new JavaScriptCompiler());
         }
+        refreshToolchains();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (javaWorkerPool != null) {
+            javaWorkerPool.close();
+        }
+        ExecutionSandbox.useWorkspacePool(null);
+        if (workspacePool != null) {
+            workspacePool.close();
+        }
+    }
+
+    /**
+     * Probes each toolchain's availability and version. Runs at startup and
+     * then periodically, so an installed or removed toolchain is picked up
+     * without a restart.
+     */
+    @Scheduled(fixedDelayString = "${compiler.toolchain.refresh-ms:600000}",
+            initialDelayString = "${compiler.toolchain.refresh-ms:600000}")
+    public void refreshToolchains() {
+        for (ProgrammingLanguageCompiler compiler : new LinkedHashSet<>(compilers.values())) {
+            boolean available = compiler.isLanguageAvailable();
+            ToolchainStatus status = new ToolchainStatus(available,
+                    available ? compiler.getLanguageVersion() : "Unknown");
+            ToolchainStatus previous = toolchains.put(compiler, status);
+            if (!status.equals(previous)) {
+                logger.info("Toolchain {}: {}", compiler.getLanguageName(),
+                        available ? status.version() : "unavailable");
+            }
+        }
+    }
+
+    /** Hit rate and compile time saved by the compilation cache, for the admin dashboard. */
+    public Map<String, Object> getCompilationCacheStats() {
+        if (compilationCache == null) {
+            return Map.of("enabled", false);
+        }
+        Map<String, Object> stats = new HashMap<>(compilationCache.stats());
+        stats.put("enabled", true);
+        return stats;
+    }
+
+    private CompilationCache openCompilationCache() {
+        if (!cacheEnabled) {
+            return null;
+        }
+        try {
+            CompilationCache cache = new CompilationCache(Path.of(cacheDir), cacheMaxBytes);
+            FunctionCounter.builder("rishi.compiler.cache.hits", cache, CompilationCache::hits)
+                    .description("Local compilations served from the compilation cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rishi.compiler.cache.misses", cache, CompilationCache::misses)
+                    .description("Local compilations that had to run the compiler")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rishi.compiler.cache.saved.ms", cache, CompilationCache::savedCompileMillis)
+                    .description("Compile time skipped thanks to cache hits")
+                    .register(meterRegistry);
+            Gauge.builder("rishi.compiler.cache.size.bytes", cache, CompilationCache::sizeBytes)
+                    .register(meterRegistry);
+            Gauge.builder("rishi.compiler.cache.entries", cache, CompilationCache::entryCount)
+                    .register(meterRegistry);
+            compilationCache = cache;
+            return cache;
+        } catch (IOException e) {
+            logger.warn("Compilation cache unavailable at {}", cacheDir, e);
+            return null;
+        }
+    }
+
+    private void openWorkspacePool() {
+        Path root = workspaceDir == null || workspaceDir.isBlank()
+                ? WorkspacePool.defaultRoot()
+                : Path.of(workspaceDir);
+        try {
+            WorkspacePool pool = new WorkspacePool(root, workspacePoolSize);
+            Gauge.builder("rishi.compiler.workspaces.idle", pool, WorkspacePool::idleCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("rishi.compiler.workspaces.reused", pool, WorkspacePool::reusedCount)
+                    .description("Runs served by a recycled sandbox workspace")
+                    .register(meterRegistry);
+            ExecutionSandbox.useWorkspacePool(pool);
+            workspacePool = pool;
+            logger.info("Sandbox workspaces under {}", pool.root());
+        } catch (IOException e) {
+            logger.warn("Workspace pool unavailable at {}, using a temp directory per run", root, e);
+        }
+    }
+
+    private JavaWorkerPool startJavaWorkerPool() {
+        if (javaWorkerPoolSize <= 0) {
+            return null;
+        }
+        try {
+            javaWorkerPool = new JavaWorkerPool(javaWorkerPoolSize, javaWorkerMaxRuns);
+            return javaWorkerPool;
+        } catch (IOException e) {
+            logger.warn("Java worker pool unavailable, running each submission in a fresh JVM", e);
+            return null;
+        }
+    }
+
+    /** {@code piston} when runs go to the Piston API, {@code local} when they run on this host. */
+    public String getBackendName() {
+        return pistonEnabled ? "piston" : "local";
     }
 
     public ProgrammingLanguageCompiler getCompiler(String language) {
@@ -54,10 +217,11 @@ public class CompilerFactory {
         List<CompilerInfo> available = new ArrayList<>();
         for (Map.Entry<String, ProgrammingLanguageCompiler> entry : compilers.entrySet()) {
             ProgrammingLanguageCompiler compiler = entry.getValue();
-            if (compiler.isLanguageAvailable()) {
+            ToolchainStatus status = toolchains.get(compiler);
+            if (status != null && status.available()) {
                 available.add(new CompilerInfo(
                         compiler.getLanguageName(),
-                        compiler.getLanguageVersion(),
+                        status.version(),
                         entry.getKey()));
             }
         }
@@ -66,6 +230,10 @@ public class CompilerFactory {
 
     public boolean isLanguageSupported(String language) {
         ProgrammingLanguageCompiler compiler = compilers.get(language.toLowerCase());
-        return compiler != null && compiler.isLanguageAvailable();
+        ToolchainStatus status = compiler != null ? toolchains.get(compiler) : null;
+        return status != null && status.available();
+    }
+
+    private record ToolchainStatus(boolean available, String version) {
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class CppCompiler implements ProgrammingLanguageCompiler {
@@ -11,6 +12,19 @@ public class CppCompiler implements ProgrammingLanguageCompiler {
     private static final String LANGUAGE_NAME = "C++";
     private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
     private static final Pattern MAIN_FUNCTION_PATTERN = Pattern.compile("\\bmain\\s*\\(");
+    private static final String EXE_NAME = IS_WINDOWS ? "solution.exe" : "solution";
+
+    private final CompilationCache cache;
+    private volatile String toolchain;
+
+    public CppCompiler() {
+        this(null);
+    }
+
+    /** Reuses syntax checks and linked binaries from {@code cache}, which may be {@code null}. */
+    CppCompiler(CompilationCache cache) {
+        this.cache = cache;
+    }
 
     @Override
     public CompilationResult executeCode(String sourceCode, String input, int timeoutSeconds) {
@@ -20,77 +34,126 @@ public class CppCompiler implements ProgrammingLanguageCompiler {
 
         try {
             ExecutionSandbox.validateSourceSize(sourceCode);
-            workspace = ExecutionSandbox.createWorkspace("cpp");
-            Path sourceFilePath = workspace.resolve("solution.cpp");
-            Path exePath = workspace.resolve(IS_WINDOWS ? "solution.exe" : "solution");
-
-            // Write C++ code
-            Files.writeString(sourceFilePath, sourceCode, StandardCharsets.UTF_8);
-
-            // LeetCode-style C++ solutions often do not define main().
-            // For local run, syntax-check only and return guidance.
-            if (!hasMainFunction) {
-                ExecutionSandbox.ProcessResult syntaxResult = ExecutionSandbox.run(
-                        workspace,
-                        List.of("g++", "-fsyntax-only", sourceFilePath.toString(), "-std=c++17"),
-                        "",
-                        15);
-
-                if (syntaxResult.timedOut()) {
-                    result.setSuccess(false);
-                    result.setError("Compilation timeout");
-                    return result;
-                }
-
-                int syntaxExitCode = syntaxResult.exitCode();
-                if (syntaxExitCode != 0) {
-                    String compileError = syntaxResult.output();
-                    result.setSuccess(false);
-                    result.setError("Compilation error:\n" + compileError);
-                    return result;
-                }
-
-                result.setSuccess(true);
-                result.setError("");
-                result.setOutput("Compilation successful. No main() function detected, so there is nothing to run locally.\n"
-                        + "This is expected for LeetCode-style class/function-only solutions. "
-                        + "Use Submit To LeetCode to execute against test cases.");
+            workspace = ExecutionSandbox.acquireWorkspace();
+            if (compile(result, workspace, sourceCode, hasMainFunction) < 0) {
                 return result;
             }
+            if (!hasMainFunction) {
+                return noMainGuidance(result);
+            }
+            return runBinary(workspace, input, timeoutSeconds);
+        } catch (IllegalArgumentException e) {
+            result.setSuccess(false);
+            result.setError(e.getMessage());
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setError("Exception: " + e.getMessage());
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
 
-            // Compile and link executable when main() exists.
-            ExecutionSandbox.ProcessResult compileResult = ExecutionSandbox.run(
-                    workspace,
-                    List.of("g++", "-o", exePath.toString(), sourceFilePath.toString(), "-std=c++17"),
-                    "",
-                    15);
+        return result;
+    }
 
-            if (compileResult.timedOut()) {
-                result.setSuccess(false);
-                result.setError("Compilation timeout");
-                return result;
+    @Override
+    public BatchExecutionResult executeBatch(String sourceCode, List<TestCase> testCases, int timeoutSeconds) {
+        Path workspace = null;
+        try {
+            ExecutionSandbox.validateSourceSize(sourceCode);
+            if (!MAIN_FUNCTION_PATTERN.matcher(sourceCode).find()) {
+                return BatchExecution.compileFailed(testCases,
+                        "No main() function detected. Test cases are fed on stdin, so the program needs a main().", 0);
             }
-
-            int compileExitCode = compileResult.exitCode();
-            if (compileExitCode != 0) {
-                String compileError = compileResult.output();
-                result.setSuccess(false);
-                result.setError("Compilation error:\n" + compileError);
-                return result;
+            workspace = ExecutionSandbox.acquireWorkspace();
+            CompilationResult compileResult = new CompilationResult();
+            long compileNanos = compile(compileResult, workspace, sourceCode, true);
+            if (compileNanos < 0) {
+                return BatchExecution.compileFailed(testCases, compileResult.getError(), 0);
             }
+            Path dir = workspace;
+            return BatchExecution.run(testCases, BatchExecution.DEFAULT_PARALLELISM, compileNanos,
+                    input -> ExecutionSandbox.runInCopy(dir, caseDir -> runBinary(caseDir, input, timeoutSeconds)));
+        } catch (IllegalArgumentException e) {
+            return BatchExecution.compileFailed(testCases, e.getMessage(), 0);
+        } catch (Exception e) {
+            return BatchExecution.compileFailed(testCases, "Exception: " + e.getMessage(), 0);
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
+    }
+
+    /**
+     * Puts the linked binary into {@code workspace}, from the cache when
+     * possible; without main() only the syntax is checked, and a hit is a
+     * syntax check that already passed.
+     *
+     * @return compile time in nanoseconds (0 on a cache hit), or -1 after
+     *         filling {@code result} with the failure
+     */
+    private long compile(CompilationResult result, Path workspace, String sourceCode, boolean hasMainFunction)
+            throws Exception {
+        String key = cache != null ? CompilationCache.key("cpp", toolchain(), sourceCode) : null;
+        CompilationCache.Hit hit = key != null ? cache.get(key) : null;
+        Path exePath = workspace.resolve(EXE_NAME);
+        if (hit != null) {
+            ExecutionSandbox.writeArtifacts(workspace, hit.files());
+            exePath.toFile().setExecutable(true, true);
+            return 0;
+        }
+
+        // Write C++ code
+        Path sourceFilePath = workspace.resolve("solution.cpp");
+        Files.writeString(sourceFilePath, sourceCode, StandardCharsets.UTF_8);
+
+        // LeetCode-style C++ solutions often do not define main().
+        // For local run, syntax-check only and return guidance.
+        List<String> command = hasMainFunction
+                ? List.of("g++", "-o", exePath.toString(), sourceFilePath.toString(), "-std=c++17")
+                : List.of("g++", "-fsyntax-only", sourceFilePath.toString(), "-std=c++17");
+        long compileStart = System.nanoTime();
+        ExecutionSandbox.ProcessResult compileResult = ExecutionSandbox.run(workspace, command, "", 15);
+
+        if (compileResult.timedOut()) {
+            result.setSuccess(false);
+            result.setError("Compilation timeout");
+            return -1;
+        }
+
+        int compileExitCode = compileResult.exitCode();
+        if (compileExitCode != 0) {
+            String compileError = compileResult.output();
+            result.setSuccess(false);
+            result.setError("Compilation error:\n" + compileError);
+            return -1;
+        }
+
+        long compileNanos = System.nanoTime() - compileStart;
+        if (key != null) {
+            cache.put(key, "", hasMainFunction ? Map.of(EXE_NAME, Files.readAllBytes(exePath)) : Map.of(),
+                    compileNanos);
+        }
+        return compileNanos;
+    }
 
+    private static CompilationResult runBinary(Path workspace, String input, int timeoutSeconds) {
+        CompilationResult result = new CompilationResult();
+        try {
             // Execute (DoS Layer: Resource limits can be added here if OS supports)
             ExecutionSandbox.ProcessResult runResult = ExecutionSandbox.run(
                     workspace,
-                    List.of(exePath.toString()),
+                    List.of(workspace.resolve(EXE_NAME).toString()),
                     input,
                     timeoutSeconds);
 
             if (runResult.timedOut()) {
                 result.setSuccess(false);
+                result.setTimedOut(true);
                 result.setError("Execution timeout (" + timeoutSeconds + " seconds)");
                 return result;
             }
+            if (runResult.outputTruncated()) {
+                return ExecutionSandbox.outputLimitExceeded(result, runResult.output());
+            }
 
             // Capture output
             String output = runResult.output();
@@ -104,20 +167,31 @@ public class CppCompiler implements ProgrammingLanguageCompiler {
                         : "Runtime error (exit code: " + exitCode + "):\n" + output;
                 result.setError(runtimeDetails);
             }
-
-        } catch (IllegalArgumentException e) {
-            result.setSuccess(false);
-            result.setError(e.getMessage());
         } catch (Exception e) {
             result.setSuccess(false);
             result.setError("Exception: " + e.getMessage());
-        } finally {
-            ExecutionSandbox.deleteWorkspace(workspace);
         }
+        return result;
+    }
 
+    private static CompilationResult noMainGuidance(CompilationResult result) {
+        result.setSuccess(true);
+        result.setError("");
+        result.setOutput("Compilation successful. No main() function detected, so there is nothing to run locally.\n"
+                + "This is expected for LeetCode-style class/function-only solutions. "
+                + "Use Submit To LeetCode to execute against test cases.");
         return result;
     }
 
+    private String toolchain() {
+        String version = toolchain;
+        if (version == null) {
+            version = ExecutionSandbox.readCommandOutput(List.of("g++", "--version"), 5).strip() + " -std=c++17";
+            toolchain = version;
+        }
+        return version;
+    }
+
     @Override
     public String getLanguageName() {
         return LANGUAGE_NAME;
@@ -0,0 +1,19 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+/**
+ * Thrown by {@link ExecutionScheduler} when a run cannot even be queued.
+ * {@link #getRetryAfterSeconds()} estimates when a retry is likely to fit.
+ */
+public class ExecutionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExecutionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -4,10 +4,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * Shared sandbox runner for local compiler executions.
@@ -21,15 +25,42 @@ final class ExecutionSandbox {
 
     private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
     private static final int MAX_SOURCE_SIZE_BYTES = 200_000;
+    /** Combined stdout/stderr a run may produce; matches {@code JavaWorkerMain}. */
+    static final int MAX_OUTPUT_BYTES = 1_000_000;
+    private static final int OUTPUT_TAIL_BYTES = 16_384;
+    private static final long READER_GRACE_MS = 1_000;
+
+    /** Set by {@link CompilerFactory} for local execution; without it every run gets a fresh temp dir. */
+    private static volatile WorkspacePool workspacePool;
 
     private ExecutionSandbox() {
     }
 
+    /** A private temp directory for long-lived use; callers remove it with {@link #deleteWorkspace}. */
     static Path createWorkspace(String languageTag) throws IOException {
         String safeTag = languageTag == null ? "code" : languageTag.replaceAll("[^a-zA-Z0-9_-]", "");
         return Files.createTempDirectory("compiler-sandbox-" + safeTag + "-");
     }
 
+    static void useWorkspacePool(WorkspacePool pool) {
+        workspacePool = pool;
+    }
+
+    /** An empty directory for a single run, pooled when possible; return it with {@link #releaseWorkspace}. */
+    static Path acquireWorkspace() throws IOException {
+        WorkspacePool pool = workspacePool;
+        return pool != null ? pool.acquire() : createWorkspace("run");
+    }
+
+    static void releaseWorkspace(Path workspace) {
+        WorkspacePool pool = workspacePool;
+        if (pool != null) {
+            pool.release(workspace);
+        } else {
+            deleteWorkspace(workspace);
+        }
+    }
+
     static void validateSourceSize(String sourceCode) {
         if (sourceCode == null) {
             return;
@@ -48,6 +79,11 @@ final class ExecutionSandbox {
         hardenEnvironment(builder.environment(), workspace);
 
         Process process = builder.start();
+        // Drained while the process runs so a chatty program neither blocks on a
+        // full pipe nor grows the heap; it is killed once it passes the cap.
+        BoundedOutput output = new BoundedOutput(MAX_OUTPUT_BYTES, OUTPUT_TAIL_BYTES);
+        Thread reader = Thread.ofVirtual().name("sandbox-output-" + process.pid())
+                .start(() -> drain(process, output));
         try {
             if (stdin != null && !stdin.isEmpty()) {
                 process.getOutputStream().write(stdin.getBytes(StandardCharsets.UTF_8));
@@ -56,25 +92,134 @@ final class ExecutionSandbox {
 
             boolean completed = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
             if (!completed) {
-                process.destroyForcibly();
-                return new ProcessResult(-1, "Execution timeout (" + timeoutSeconds + " seconds)", true);
+                killTree(process);
+                retireWorkspace(workspace);
+                return new ProcessResult(-1, "Execution timeout (" + timeoutSeconds + " seconds)", true, false);
             }
 
-            String output = readStream(process.getInputStream());
-            return new ProcessResult(process.exitValue(), output, false);
+            reader.join(READER_GRACE_MS);
+            if (reader.isAlive()) {
+                // A grandchild still holds the pipe open and may outlive this run.
+                retireWorkspace(workspace);
+                process.getInputStream().close();
+                reader.join(READER_GRACE_MS);
+            }
+            if (output.overflowed()) {
+                retireWorkspace(workspace);
+            }
+            return new ProcessResult(process.exitValue(), output.text().trim(), false, output.overflowed());
         } finally {
             process.getOutputStream().close();
+            killTree(process);
+        }
+    }
+
+    /**
+     * Kills {@code process} and every descendant still attached to it;
+     * descendants are collected first, since they are reparented once the
+     * process itself is gone.
+     */
+    static void killTree(Process process) {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        process.destroyForcibly();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+    }
+
+    /** Keeps {@code workspace} from being reused by a later run; it is deleted on release. */
+    private static void retireWorkspace(Path workspace) {
+        WorkspacePool pool = workspacePool;
+        if (pool != null) {
+            pool.retire(workspace);
+        }
+    }
+
+    /**
+     * Marks {@code result} as stopped for printing more than
+     * {@link #MAX_OUTPUT_BYTES}, keeping the truncated output for display.
+     */
+    static CompilationResult outputLimitExceeded(CompilationResult result, String output) {
+        result.setSuccess(false);
+        result.setOutput(output);
+        result.setError("Output limit exceeded: the program printed more than " + MAX_OUTPUT_BYTES
+                + " bytes and was stopped.");
+        result.setOutputTruncated(true);
+        result.setOutputLimitBytes(MAX_OUTPUT_BYTES);
+        return result;
+    }
+
+    /** Reads every file under {@code dir} whose name ends with {@code suffix}, keyed by relative path. */
+    static Map<String, byte[]> readArtifacts(Path dir, String suffix) throws IOException {
+        Map<String, byte[]> artifacts = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                if (path.getFileName().toString().endsWith(suffix)) {
+                    artifacts.put(dir.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+                }
+            }
+        }
+        return artifacts;
+    }
+
+    static void writeArtifacts(Path dir, Map<String, byte[]> artifacts) throws IOException {
+        for (Map.Entry<String, byte[]> artifact : artifacts.entrySet()) {
+            Path target = dir.resolve(artifact.getKey()).normalize();
+            if (!target.startsWith(dir)) {
+                throw new IOException("Artifact path escapes the workspace: " + artifact.getKey());
+            }
+            Files.createDirectories(target.getParent());
+            Files.write(target, artifact.getValue());
+        }
+    }
+
+    /** One test case of a batch, run in the workspace it is given. */
+    @FunctionalInterface
+    interface CaseRun {
+        CompilationResult run(Path workspace) throws Exception;
+    }
+
+    /**
+     * Runs one case of a batch in its own workspace holding a copy of
+     * {@code template}, so cases running side by side cannot see or change
+     * each other's files.
+     */
+    static CompilationResult runInCopy(Path template, CaseRun run) {
+        Path workspace = null;
+        try {
+            workspace = acquireWorkspace();
+            copyFiles(template, workspace);
+            return run.run(workspace);
+        } catch (Exception e) {
+            CompilationResult result = new CompilationResult();
+            result.setSuccess(false);
+            result.setError("Exception: " + e.getMessage());
+            return result;
+        } finally {
+            releaseWorkspace(workspace);
+        }
+    }
+
+    /** Copies the files under {@code from} into {@code to}, keeping permissions so binaries stay executable. */
+    private static void copyFiles(Path from, Path to) throws IOException {
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path path : paths.toList()) {
+                Path target = to.resolve(from.relativize(path).toString());
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.createDirectories(target);
+                } else if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.copy(path, target, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
         }
     }
 
     static boolean isCommandAvailable(List<String> command, int timeoutSeconds) {
         try {
-            Path workspace = createWorkspace("check");
+            Path workspace = acquireWorkspace();
             try {
                 ProcessResult result = run(workspace, command, "", timeoutSeconds);
                 return !result.timedOut() && result.exitCode() == 0;
             } finally {
-                deleteWorkspace(workspace);
+                releaseWorkspace(workspace);
             }
         } catch (Exception e) {
             return false;
@@ -83,7 +228,7 @@ final class ExecutionSandbox {
 
     static String readCommandOutput(List<String> command, int timeoutSeconds) {
         try {
-            Path workspace = createWorkspace("version");
+            Path workspace = acquireWorkspace();
             try {
                 ProcessResult result = run(workspace, command, "", timeoutSeconds);
                 if (result.timedOut()) {
@@ -91,7 +236,7 @@ final class ExecutionSandbox {
                 }
                 return result.output();
             } finally {
-                deleteWorkspace(workspace);
+                releaseWorkspace(workspace);
             }
         } catch (Exception e) {
             return "Unknown";
@@ -116,7 +261,7 @@ final class ExecutionSandbox {
         }
     }
 
-    private static void hardenEnvironment(Map<String, String> env, Path workspace) {
+    static void hardenEnvironment(Map<String, String> env, Path workspace) {
         String pathValue = env.getOrDefault("PATH", System.getenv("PATH"));
         String systemRoot = System.getenv("SystemRoot");
         String comSpec = System.getenv("ComSpec");
@@ -142,10 +287,23 @@ final class ExecutionSandbox {
         }
     }
 
-    private static String readStream(InputStream inputStream) throws IOException {
-        return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+    private static void drain(Process process, BoundedOutput output) {
+        byte[] chunk = new byte[8192];
+        try (InputStream in = process.getInputStream()) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                output.write(chunk, 0, read);
+                if (output.overflowed()) {
+                    killTree(process);
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+            // Closed underneath us after the process exited.
+        }
     }
 
-    record ProcessResult(int exitCode, String output, boolean timedOut) {
+    /** {@code outputTruncated} means the process was stopped for exceeding {@link #MAX_OUTPUT_BYTES}. */
+    record ProcessResult(int exitCode, String output, boolean timedOut, boolean outputTruncated) {
     }
 }
@@ -0,0 +1,342 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounds how many code executions run at once and queues the rest fairly.
+ *
+ * <p>
+ * A fixed set of runner threads, sized to the smaller of the CPU count and
+ * the memory budget, takes work round-robin across owners (students), so one
+ * student mashing Run cannot starve the others. Each owner may have only a
+ * few runs queued, and the whole queue is bounded; beyond that
+ * {@link #submit} fails fast with {@link ExecutionRejectedException} and a
+ * retry-after estimate.
+ * </p>
+ *
+ * <p>
+ * Only runs that fork on this host belong here; remote backends have their
+ * own limits. {@link #execute} waits at most {@code max-wait-seconds} for a
+ * run to be picked up and finish; a caller that gives up or is interrupted
+ * takes its run out of the queue, or interrupts it if it already started.
+ * </p>
+ */
+@Service
+public class ExecutionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionScheduler.class);
+
+    private final int concurrency;
+    private final int queueCapacity;
+    private final int maxQueuedPerOwner;
+    private final long maxWaitMillis;
+
+    /** Owners in service order; each maps to its own FIFO of pending tasks. */
+    private final LinkedHashMap<String, Deque<Task<?>>> queues = new LinkedHashMap<>();
+    private int queued;
+    private boolean shutdown;
+
+    private final AtomicInteger running = new AtomicInteger();
+    /** Exponentially weighted average run time, for retry-after hints. */
+    private final AtomicLong averageRunMillis = new AtomicLong(2_000);
+    private final List<Thread> runners = new ArrayList<>();
+
+    private final Timer queueTimer;
+    private final Timer runTimer;
+
+    public ExecutionScheduler(
+            MeterRegistry meterRegistry,
+            @Value("${compiler.scheduler.max-concurrent:0}") int maxConcurrent,
+            @Value("${compiler.scheduler.memory-per-run-mb:256}") long memoryPerRunMb,
+            @Value("${compiler.scheduler.queue-capacity:100}") int queueCapacity,
+            @Value("${compiler.scheduler.max-queued-per-student:2}") int maxQueuedPerOwner,
+            @Value("${compiler.scheduler.max-wait-seconds:120}") long maxWaitSeconds) {
+        this.concurrency = maxConcurrent > 0 ? maxConcurrent : defaultConcurrency(memoryPerRunMb);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.maxQueuedPerOwner = Math.max(1, maxQueuedPerOwner);
+        this.maxWaitMillis = TimeUnit.SECONDS.toMillis(Math.max(1, maxWaitSeconds));
+
+        this.queueTimer = Timer.builder("rishi.compiler.queue.wait")
+                .description("Time code executions spend queued before a runner picks them up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("rishi.compiler.run")
+                .description("Time code executions spend running")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("rishi.compiler.queue.depth", this, ExecutionScheduler::queuedCount).register(meterRegistry);
+        Gauge.builder("rishi.compiler.running", running, AtomicInteger::get).register(meterRegistry);
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread runner = new Thread(this::runLoop, "exec-runner-" + i);
+            runner.setDaemon(true);
+            runner.start();
+            runners.add(runner);
+        }
+        logger.info("Execution scheduler: {} concurrent runs, queue capacity {}", concurrency, this.queueCapacity);
+    }
+
+    /**
+     * Queues {@code work} for {@code owner}.
+     *
+     * @throws ExecutionRejectedException if the owner or the whole queue is full
+     */
+    public <T> Ticket<T> submit(String owner, Callable<T> work) {
+        Task<T> task = enqueue(owner, work);
+        return new Ticket<>(task.position, task.future);
+    }
+
+    /**
+     * Runs {@code work} through the queue and waits for it, at most
+     * {@code max-wait-seconds} in all.
+     *
+     * @throws ExecutionRejectedException if it could not be queued or did not
+     *                                    finish in time
+     */
+    public <T> Outcome<T> execute(String owner, Callable<T> work) throws Exception {
+        Task<T> task = enqueue(owner, work);
+        try {
+            Completed<T> completed = task.future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            return new Outcome<>(completed.value(), task.position, completed.queueWait(), completed.runTime());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            cancel(task);
+            throw new ExecutionRejectedException("Timed out waiting for a code runner. Retry shortly.",
+                    retryAfterSeconds(queuedCount()));
+        } catch (InterruptedException e) {
+            cancel(task);
+            throw e;
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    int queuedCount() {
+        synchronized (queues) {
+            return queued;
+        }
+    }
+
+    private <T> Task<T> enqueue(String owner, Callable<T> work) {
+        synchronized (queues) {
+            if (shutdown) {
+                throw new ExecutionRejectedException("Execution service is shutting down", 5);
+            }
+            Deque<Task<?>> own = queues.get(owner);
+            int ownQueued = own == null ? 0 : own.size();
+            if (ownQueued >= maxQueuedPerOwner) {
+                throw new ExecutionRejectedException(
+                        "You already have " + ownQueued + " runs waiting. Wait for them to finish.",
+                        retryAfterSeconds(ownQueued));
+            }
+            if (queued >= queueCapacity) {
+                throw new ExecutionRejectedException("All code runners are busy. Retry shortly.",
+                        retryAfterSeconds(queued));
+            }
+
+            Task<T> task = new Task<>(owner, work, positionFor(owner, ownQueued), System.nanoTime());
+            if (own == null) {
+                own = new ArrayDeque<>();
+                queues.put(owner, own);
+            }
+            own.addLast(task);
+            queued++;
+            queues.notifyAll();
+            return task;
+        }
+    }
+
+    /**
+     * Takes {@code task} out of the queue, or interrupts its runner if it
+     * already started, so a caller that stopped waiting does not hold a slot.
+     */
+    private void cancel(Task<?> task) {
+        synchronized (queues) {
+            Deque<Task<?>> own = queues.get(task.owner);
+            if (own != null && own.remove(task)) {
+                queued--;
+                if (own.isEmpty()) {
+                    queues.remove(task.owner);
+                }
+            } else if (task.runner != null) {
+                task.runner.interrupt();
+            }
+        }
+        task.future.cancel(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (queues) {
+            shutdown = true;
+            for (Deque<Task<?>> pending : queues.values()) {
+                for (Task<?> task : pending) {
+                    task.future.completeExceptionally(
+                            new ExecutionRejectedException("Execution service is shutting down", 5));
+                }
+            }
+            queues.clear();
+            queued = 0;
+            queues.notifyAll();
+        }
+        runners.forEach(Thread::interrupt);
+    }
+
+    /**
+     * How many runs will start before a new one from {@code owner}, given
+     * round-robin service: every other owner gets at most as many turns as
+     * this owner already has queued, plus one.
+     */
+    private int positionFor(String owner, int ownQueued) {
+        int ahead = ownQueued;
+        for (Map.Entry<String, Deque<Task<?>>> entry : queues.entrySet()) {
+            if (!entry.getKey().equals(owner)) {
+                ahead += Math.min(entry.getValue().size(), ownQueued + 1);
+            }
+        }
+        return ahead + 1;
+    }
+
+    private long retryAfterSeconds(int waitingAhead) {
+        long waves = (waitingAhead + concurrency) / Math.max(1, concurrency);
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waves * averageRunMillis.get()));
+    }
+
+    private void runLoop() {
+        while (true) {
+            Task<?> task;
+            try {
+                task = next();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task != null) {
+                run(task);
+            }
+        }
+    }
+
+    /** Takes the head task of the first owner in line, then sends that owner to the back. */
+    private Task<?> next() throws InterruptedException {
+        synchronized (queues) {
+            while (queued == 0) {
+                if (shutdown) {
+                    throw new InterruptedException();
+                }
+                queues.wait();
+            }
+            Iterator<Map.Entry<String, Deque<Task<?>>>> owners = queues.entrySet().iterator();
+            Map.Entry<String, Deque<Task<?>>> first = owners.next();
+            Task<?> task = first.getValue().pollFirst();
+            owners.remove();
+            if (!first.getValue().isEmpty()) {
+                queues.put(first.getKey(), first.getValue());
+            }
+            queued--;
+            if (task.future.isDone()) {
+                // Cancelled through its ticket while still queued
+                return null;
+            }
+            task.runner = Thread.currentThread();
+            running.incrementAndGet();
+            return task;
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        long started = System.nanoTime();
+        Duration queueWait = Duration.ofNanos(started - task.enqueuedAt);
+        queueTimer.record(queueWait);
+        T value = null;
+        Throwable failure = null;
+        try {
+            value = task.work.call();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        synchronized (queues) {
+            task.runner = null;
+        }
+        // A cancelled run may have left the interrupt meant for it; shutdown is seen in next()
+        Thread.interrupted();
+        Duration runTime = Duration.ofNanos(System.nanoTime() - started);
+        runTimer.record(runTime);
+        averageRunMillis.updateAndGet(avg -> (avg * 7 + runTime.toMillis()) / 8);
+        running.decrementAndGet();
+        if (failure != null) {
+            task.future.completeExceptionally(failure);
+        } else {
+            task.future.complete(new Completed<>(value, queueWait, runTime));
+        }
+    }
+
+    private static int defaultConcurrency(long memoryPerRunMb) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long totalMb = Long.MAX_VALUE;
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            totalMb = os.getTotalMemorySize() / (1024 * 1024);
+        }
+        // Keep half the memory for this application and the OS.
+        long byMemory = totalMb / 2 / Math.max(1, memoryPerRunMb);
+        return (int) Math.max(1, Math.min(cores, byMemory));
+    }
+
+    /** A queued run: its 1-based position at submission time and its eventual result. */
+    public record Ticket<T>(int position, CompletableFuture<Completed<T>> future) {
+    }
+
+    public record Completed<T>(T value, Duration queueWait, Duration runTime) {
+    }
+
+    /** A finished run plus how it was queued. */
+    public record Outcome<T>(T value, int queuePosition, Duration queueWait, Duration runTime) {
+    }
+
+    private static final class Task<T> {
+        private final String owner;
+        private final Callable<T> work;
+        private final int position;
+        private final long enqueuedAt;
+        private final CompletableFuture<Completed<T>> future = new CompletableFuture<>();
+        /** The runner thread while the task runs; guarded by {@code queues}. */
+        private Thread runner;
+
+        private Task(String owner, Callable<T> work, int position, long enqueuedAt) {
+            this.owner = owner;
+            this.work = work;
+            this.position = position;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.skilltracker.student_skill_tracker.compiler;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -17,117 +20,354 @@ public class JavaCompiler implements ProgrammingLanguageCompiler {
     private static final Pattern MAIN_METHOD_PATTERN = Pattern
             .compile("\\b(?:public\\s+)?static\\s+void\\s+main\\s*\\(");
 
+    /** Classes compiled by the workers come from the JDK running this application. */
+    private static final String WORKER_TOOLCHAIN = "javax.tools " + Runtime.version();
+
+    private final JavaWorkerPool workerPool;
+    private final CompilationCache cache;
+    private volatile String javacVersion;
+
+    public JavaCompiler() {
+        this(null, null);
+    }
+
+    /**
+     * Runs on warm worker JVMs from {@code workerPool} when one is ready and
+     * reuses class files from {@code cache}; either may be {@code null}.
+     */
+    JavaCompiler(JavaWorkerPool workerPool, CompilationCache cache) {
+        this.workerPool = workerPool;
+        this.cache = cache;
+    }
+
     @Override
     public CompilationResult executeCode(String sourceCode, String input, int timeoutSeconds) {
         CompilationResult result = new CompilationResult();
-        Path workspace = null;
-        String generatedClassName = "Solution_" + java.util.UUID.randomUUID().toString().replace("-", "");
-        String runClassName = generatedClassName;
-
         try {
             ExecutionSandbox.validateSourceSize(sourceCode);
-            workspace = ExecutionSandbox.createWorkspace("java");
-            Path sourceFile = workspace.resolve(generatedClassName + ".java");
-
-            // Step 1: Normalize class name so launch target matches compiled class.
-            String modifiedSource = sourceCode;
-            Matcher publicClassMatcher = PUBLIC_CLASS_PATTERN.matcher(sourceCode);
-            if (publicClassMatcher.find()) {
-                String classModifiers = publicClassMatcher.group(1);
-                String normalizedModifiers = classModifiers == null ? "" : classModifiers;
-                modifiedSource = publicClassMatcher
-                        .replaceFirst("public " + normalizedModifiers + "class " + generatedClassName);
-                runClassName = generatedClassName;
-            } else {
-                Matcher classMatcher = CLASS_PATTERN.matcher(sourceCode);
-                if (classMatcher.find()) {
-                    runClassName = classMatcher.group(1);
+            boolean hasMain = MAIN_METHOD_PATTERN.matcher(sourceCode).find();
+
+            if (workerPool != null && workerPool.isAvailable()) {
+                CompilationResult pooled = executeOnWorker(result, sourceCode, hasMain, input, timeoutSeconds);
+                if (pooled != null) {
+                    return pooled;
                 }
             }
+            return executeInFreshJvm(result, sourceCode, hasMain, input, timeoutSeconds);
+        } catch (IllegalArgumentException e) {
+            result.setSuccess(false);
+            result.setError(e.getMessage());
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setError("Exception: " + e.getMessage());
+        }
+        return result;
+    }
 
-            // Step 2: Write source code to file
-            Files.writeString(sourceFile, modifiedSource, StandardCharsets.UTF_8);
+    /** Returns {@code null} when no worker was ready. */
+    private CompilationResult executeOnWorker(CompilationResult result, String sourceCode, boolean hasMain,
+            String input, int timeoutSeconds) throws InterruptedException {
+        String key = cache != null ? CompilationCache.key("java", WORKER_TOOLCHAIN, sourceCode) : null;
+        CompilationCache.Hit hit = key != null ? cache.get(key) : null;
+        if (hit != null && !hasMain) {
+            return noMainGuidance(result);
+        }
 
-            // Step 3: Compile
-            ExecutionSandbox.ProcessResult compileResult = ExecutionSandbox.run(
-                    workspace,
-                    List.of("javac", sourceFile.toString()),
-                    "",
-                    10);
+        JavaWorkerPool.Result pooled;
+        String runClassName;
+        if (hit != null) {
+            runClassName = hit.mainClass();
+            pooled = workerPool.execute("", runClassName, "", toClasses(hit.files()), input, timeoutSeconds);
+        } else {
+            PreparedSource prepared = prepare(sourceCode);
+            runClassName = prepared.runClassName();
+            pooled = workerPool.execute(prepared.fileName(), hasMain ? runClassName : "", prepared.source(),
+                    Map.of(), input, timeoutSeconds);
+        }
+        if (pooled == null) {
+            return null;
+        }
+        // The worker sends its classes before the submission runs, so they are safe to share.
+        if (key != null && hit == null && !pooled.classes().isEmpty()) {
+            cache.put(key, runClassName, toArtifacts(pooled.classes()), pooled.compileNanos());
+        }
+        return fromWorker(result, pooled, hasMain, timeoutSeconds);
+    }
 
-            if (compileResult.timedOut()) {
-                result.setSuccess(false);
-                result.setError("Compilation timeout");
-                return result;
+    /** Normalizes the class name so the launch target matches the compiled class. */
+    private static PreparedSource prepare(String sourceCode) {
+        String generatedClassName = "Solution_" + java.util.UUID.randomUUID().toString().replace("-", "");
+        String runClassName = generatedClassName;
+        String modifiedSource = sourceCode;
+        Matcher publicClassMatcher = PUBLIC_CLASS_PATTERN.matcher(sourceCode);
+        if (publicClassMatcher.find()) {
+            String classModifiers = publicClassMatcher.group(1);
+            String normalizedModifiers = classModifiers == null ? "" : classModifiers;
+            modifiedSource = publicClassMatcher
+                    .replaceFirst("public " + normalizedModifiers + "class " + generatedClassName);
+        } else {
+            Matcher classMatcher = CLASS_PATTERN.matcher(sourceCode);
+            if (classMatcher.find()) {
+                runClassName = classMatcher.group(1);
             }
+        }
+        return new PreparedSource(generatedClassName + ".java", modifiedSource, runClassName);
+    }
 
-            int compileExitCode = compileResult.exitCode();
-            if (compileExitCode != 0) {
-                String compileError = compileResult.output();
+    private static CompilationResult fromWorker(CompilationResult result, JavaWorkerPool.Result pooled,
+            boolean hasMain, int timeoutSeconds) {
+        return switch (pooled.status()) {
+            case JavaWorkerMain.STATUS_COMPILE_ERROR -> compileFailed(result, pooled.output());
+            case JavaWorkerMain.STATUS_TIMEOUT -> timedOut(result, timeoutSeconds);
+            case JavaWorkerMain.STATUS_OUTPUT_LIMIT -> ExecutionSandbox.outputLimitExceeded(result, pooled.output());
+            case JavaWorkerMain.STATUS_CRASHED -> {
                 result.setSuccess(false);
-                result.setError("Compilation error: " + compileError);
+                result.setError("Exception: " + pooled.output());
+                yield result;
+            }
+            default -> hasMain ? finished(result, pooled.exitCode(), pooled.output()) : noMainGuidance(result);
+        };
+    }
+
+    private CompilationResult executeInFreshJvm(CompilationResult result, String sourceCode, boolean hasMain,
+            String input, int timeoutSeconds) throws IOException, InterruptedException {
+        Path workspace = ExecutionSandbox.acquireWorkspace();
+        try {
+            String runClassName = compileWithJavac(result, workspace, sourceCode);
+            if (runClassName == null) {
                 return result;
             }
 
             // LeetCode-style Java solutions often have no main(). In that case, local run
             // should report compile success with guidance instead of a runtime failure.
-            if (!MAIN_METHOD_PATTERN.matcher(modifiedSource).find()) {
-                result.setSuccess(true);
-                result.setError("");
-                result.setOutput("Compilation successful. No main() method detected, so there is nothing to run locally.\n"
-                        + "This is expected for LeetCode-style class-only solutions. Use Submit To LeetCode to execute against test cases.");
-                return result;
+            if (!hasMain) {
+                return noMainGuidance(result);
             }
+            return runInFreshJvm(result, workspace, runClassName, input, timeoutSeconds);
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
+    }
 
-            // Step 4: Execute
-            String classPath = workspace.toString();
+    @Override
+    public BatchExecutionResult executeBatch(String sourceCode, List<TestCase> testCases, int timeoutSeconds) {
+        Path workspace = null;
+        try {
+            ExecutionSandbox.validateSourceSize(sourceCode);
+            if (!MAIN_METHOD_PATTERN.matcher(sourceCode).find()) {
+                return BatchExecution.compileFailed(testCases,
+                        "No main() method detected. Test cases are fed on stdin, so the program needs a main().", 0);
+            }
+            workspace = ExecutionSandbox.acquireWorkspace();
+            CompilationResult compileResult = new CompilationResult();
+            long compileStart = System.nanoTime();
+            CompiledProgram program = compileForBatch(compileResult, workspace, sourceCode);
+            long compileNanos = System.nanoTime() - compileStart;
+            if (program == null) {
+                return BatchExecution.compileFailed(testCases, compileResult.getError(), compileNanos);
+            }
 
-            // DoS Security Layer: Add Xshare:off and limit execution resources
-            ExecutionSandbox.ProcessResult runResult = ExecutionSandbox.run(
-                    workspace,
-                    List.of("java", "-Xshare:off", "-Xmx128m", "-cp", classPath, runClassName),
-                    input,
-                    timeoutSeconds);
+            // Each worker serves one run at a time; more parallel cases would only wait for one.
+            int parallelism = workerPool != null && workerPool.isAvailable()
+                    ? Math.min(BatchExecution.DEFAULT_PARALLELISM, workerPool.size())
+                    : BatchExecution.DEFAULT_PARALLELISM;
+            Path dir = workspace;
+            return BatchExecution.run(testCases, parallelism, compileNanos,
+                    input -> runCompiled(program, dir, input, timeoutSeconds));
+        } catch (IllegalArgumentException e) {
+            return BatchExecution.compileFailed(testCases, e.getMessage(), 0);
+        } catch (Exception e) {
+            return BatchExecution.compileFailed(testCases, "Exception: " + e.getMessage(), 0);
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
+    }
 
-            if (runResult.timedOut()) {
-                result.setSuccess(false);
-                result.setError("Execution timeout (" + timeoutSeconds + " seconds)");
-                return result;
+    /**
+     * Compiles once for a batch, on a warm worker when one is ready, leaving
+     * the class files in {@code workspace} for fresh-JVM fallback runs.
+     *
+     * @return {@code null} after filling {@code result} with the failure
+     */
+    private CompiledProgram compileForBatch(CompilationResult result, Path workspace, String sourceCode)
+            throws IOException, InterruptedException {
+        if (workerPool != null && workerPool.isAvailable()) {
+            String key = cache != null ? CompilationCache.key("java", WORKER_TOOLCHAIN, sourceCode) : null;
+            CompilationCache.Hit hit = key != null ? cache.get(key) : null;
+            if (hit != null) {
+                ExecutionSandbox.writeArtifacts(workspace, hit.files());
+                return new CompiledProgram(hit.mainClass(), toClasses(hit.files()));
             }
 
-            // Step 7: Capture output
-            String output = runResult.output();
-            int exitCode = runResult.exitCode();
-
-            result.setSuccess(exitCode == 0);
-            if (exitCode == 0) {
-                result.setOutput(output);
-            } else {
-                result.setOutput("");
-                String runtimeDetails;
-                if (output != null && output.contains("Main method not found")) {
-                    runtimeDetails = "Runtime error: no Java main method found.\n"
-                            + "Local Run executes programs with an entry point. "
-                            + "LeetCode-style class-only solutions need a temporary main() driver for local execution.\n\n"
-                            + output;
-                } else if (output == null || output.isBlank()) {
-                    runtimeDetails = "Runtime error (exit code: " + exitCode + ")";
-                } else {
-                    runtimeDetails = "Runtime error (exit code: " + exitCode + "):\n" + output;
+            PreparedSource prepared = prepare(sourceCode);
+            JavaWorkerPool.Result compiled = workerPool.execute(prepared.fileName(), "", prepared.source(),
+                    Map.of(), "", 1);
+            if (compiled != null && compiled.status() == JavaWorkerMain.STATUS_COMPILE_ERROR) {
+                compileFailed(result, compiled.output());
+                return null;
+            }
+            if (compiled != null && compiled.status() == JavaWorkerMain.STATUS_EXITED
+                    && !compiled.classes().isEmpty()) {
+                Map<String, byte[]> artifacts = toArtifacts(compiled.classes());
+                if (key != null) {
+                    cache.put(key, prepared.runClassName(), artifacts, compiled.compileNanos());
                 }
-                result.setError(runtimeDetails);
+                ExecutionSandbox.writeArtifacts(workspace, artifacts);
+                return new CompiledProgram(prepared.runClassName(), compiled.classes());
             }
+        }
 
-        } catch (IllegalArgumentException e) {
-            result.setSuccess(false);
-            result.setError(e.getMessage());
+        String runClassName = compileWithJavac(result, workspace, sourceCode);
+        if (runClassName == null) {
+            return null;
+        }
+        return new CompiledProgram(runClassName, toClasses(ExecutionSandbox.readArtifacts(workspace, ".class")));
+    }
+
+    private CompilationResult runCompiled(CompiledProgram program, Path workspace, String input,
+            int timeoutSeconds) {
+        CompilationResult result = new CompilationResult();
+        try {
+            if (workerPool != null && workerPool.isAvailable()) {
+                JavaWorkerPool.Result pooled = workerPool.execute("", program.runClassName(), "", program.classes(),
+                        input, timeoutSeconds);
+                if (pooled != null) {
+                    return fromWorker(result, pooled, true, timeoutSeconds);
+                }
+            }
+            return ExecutionSandbox.runInCopy(workspace,
+                    caseDir -> runInFreshJvm(result, caseDir, program.runClassName(), input, timeoutSeconds));
         } catch (Exception e) {
             result.setSuccess(false);
             result.setError("Exception: " + e.getMessage());
-        } finally {
-            ExecutionSandbox.deleteWorkspace(workspace);
+            return result;
         }
+    }
+
+    /**
+     * Puts class files for {@code sourceCode} into {@code workspace}, from the
+     * cache or by running {@code javac}.
+     *
+     * @return the class to launch, or {@code null} after filling
+     *         {@code result} with the compile failure
+     */
+    private String compileWithJavac(CompilationResult result, Path workspace, String sourceCode)
+            throws IOException, InterruptedException {
+        String key = cache != null ? CompilationCache.key("java", javacVersion(), sourceCode) : null;
+        CompilationCache.Hit hit = key != null ? cache.get(key) : null;
+        if (hit != null) {
+            ExecutionSandbox.writeArtifacts(workspace, hit.files());
+            return hit.mainClass();
+        }
+
+        PreparedSource prepared = prepare(sourceCode);
+        Path sourceFile = workspace.resolve(prepared.fileName());
+        Files.writeString(sourceFile, prepared.source(), StandardCharsets.UTF_8);
 
+        long compileStart = System.nanoTime();
+        ExecutionSandbox.ProcessResult compileResult = ExecutionSandbox.run(
+                workspace,
+                List.of("javac", sourceFile.toString()),
+                "",
+                10);
+
+        if (compileResult.timedOut()) {
+            result.setSuccess(false);
+            result.setError("Compilation timeout");
+            return null;
+        }
+        if (compileResult.exitCode() != 0) {
+            compileFailed(result, compileResult.output());
+            return null;
+        }
+        if (key != null) {
+            cache.put(key, prepared.runClassName(), ExecutionSandbox.readArtifacts(workspace, ".class"),
+                    System.nanoTime() - compileStart);
+        }
+        return prepared.runClassName();
+    }
+
+    private static CompilationResult runInFreshJvm(CompilationResult result, Path workspace, String runClassName,
+            String input, int timeoutSeconds) throws IOException, InterruptedException {
+        // DoS Security Layer: Add Xshare:off and limit execution resources
+        ExecutionSandbox.ProcessResult runResult = ExecutionSandbox.run(
+                workspace,
+                List.of("java", "-Xshare:off", "-Xmx128m", "-cp", workspace.toString(), runClassName),
+                input,
+                timeoutSeconds);
+
+        if (runResult.timedOut()) {
+            return timedOut(result, timeoutSeconds);
+        }
+        if (runResult.outputTruncated()) {
+            return ExecutionSandbox.outputLimitExceeded(result, runResult.output());
+        }
+        return finished(result, runResult.exitCode(), runResult.output());
+    }
+
+    private String javacVersion() {
+        String version = javacVersion;
+        if (version == null) {
+            version = ExecutionSandbox.readCommandOutput(List.of("javac", "-version"), 5).strip();
+            javacVersion = version;
+        }
+        return version;
+    }
+
+    /** Cache artifacts ({@code a/B.class}) to binary class names ({@code a.B}) and back. */
+    private static Map<String, byte[]> toClasses(Map<String, byte[]> artifacts) {
+        Map<String, byte[]> classes = new HashMap<>();
+        artifacts.forEach((path, bytes) -> classes.put(
+                path.substring(0, path.length() - ".class".length()).replace('/', '.'), bytes));
+        return classes;
+    }
+
+    private static Map<String, byte[]> toArtifacts(Map<String, byte[]> classes) {
+        Map<String, byte[]> artifacts = new HashMap<>();
+        classes.forEach((name, bytes) -> artifacts.put(name.replace('.', '/') + ".class", bytes));
+        return artifacts;
+    }
+
+    private static CompilationResult compileFailed(CompilationResult result, String compileError) {
+        result.setSuccess(false);
+        result.setError("Compilation error: " + compileError);
+        return result;
+    }
+
+    private static CompilationResult timedOut(CompilationResult result, int timeoutSeconds) {
+        result.setSuccess(false);
+        result.setTimedOut(true);
+        result.setError("Execution timeout (" + timeoutSeconds + " seconds)");
+        return result;
+    }
+
+    private static CompilationResult noMainGuidance(CompilationResult result) {
+        result.setSuccess(true);
+        result.setError("");
+        result.setOutput("Compilation successful. No main() method detected, so there is nothing to run locally.\n"
+                + "This is expected for LeetCode-style class-only solutions. Use Submit To LeetCode to execute against test cases.");
+        return result;
+    }
+
+    private static CompilationResult finished(CompilationResult result, int exitCode, String output) {
+        result.setSuccess(exitCode == 0);
+        if (exitCode == 0) {
+            result.setOutput(output);
+        } else {
+            result.setOutput("");
+            String runtimeDetails;
+            if (output != null && output.contains("Main method not found")) {
+                runtimeDetails = "Runtime error: no Java main method found.\n"
+                        + "Local Run executes programs with an entry point. "
+                        + "LeetCode-style class-only solutions need a temporary main() driver for local execution.\n\n"
+                        + output;
+            } else if (output == null || output.isBlank()) {
+                runtimeDetails = "Runtime error (exit code: " + exitCode + ")";
+            } else {
+                runtimeDetails = "Runtime error (exit code: " + exitCode + "):\n" + output;
+            }
+            result.setError(runtimeDetails);
+        }
         return result;
     }
 
@@ -150,4 +390,11 @@ public class JavaCompiler implements ProgrammingLanguageCompiler {
         String[] lines = output.split("\n");
         return lines.length == 0 ? "Unknown" : lines[0];
     }
+
+    private record PreparedSource(String fileName, String source, String runClassName) {
+    }
+
+    /** Compiled classes keyed by binary name, plus the class to launch. */
+    private record CompiledProgram(String runClassName, Map<String, byte[]> classes) {
+    }
 }
@@ -0,0 +1,487 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Entry point of a pooled Java worker JVM, started by {@link JavaWorkerPool}.
+ *
+ * <p>
+ * The worker reads run requests from stdin and answers each with two
+ * length-prefixed frames on stdout: the classes it compiled, written before
+ * any submission code runs, then the run's result. Each submission is compiled in-process
+ * with {@code javax.tools} into memory and run from its own class loader,
+ * whose parent is the platform loader, so runs share no user classes. Runs
+ * are stopped when they exceed their wall-clock or CPU-time budget. A worker
+ * asks to be recycled when it stopped a run, when the run left any new thread
+ * alive anywhere in the JVM, or when it changed JVM-wide state such as system
+ * properties, the default locale or time zone, or the standard streams.
+ * </p>
+ *
+ * <p>
+ * Only JDK classes and {@link BoundedOutput} may be referenced here: the pool
+ * copies those, with this class and its nest members, to a bare class path
+ * for the child JVM.
+ * </p>
+ */
+public final class JavaWorkerMain {
+
+    static final int FRAME_MAGIC = 0x4A564D31;
+    static final int STATUS_EXITED = 0;
+    static final int STATUS_COMPILE_ERROR = 1;
+    static final int STATUS_TIMEOUT = 2;
+    /** The submission called {@code System.exit}; the exit code is the worker's. */
+    static final int STATUS_PROCESS_EXIT = 3;
+    static final int STATUS_CRASHED = 4;
+    /** The submission printed more than {@code MAX_OUTPUT_BYTES} and was stopped. */
+    static final int STATUS_OUTPUT_LIMIT = 5;
+
+    private static final int MAX_FRAME_BYTES = 8_000_000;
+    /** Same cap and tail as {@code ExecutionSandbox}. */
+    private static final int MAX_OUTPUT_BYTES = 1_000_000;
+    private static final int OUTPUT_TAIL_BYTES = 16_384;
+    private static final long WATCHDOG_INTERVAL_MS = 10;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static DataOutputStream protocolOut;
+    private static final AtomicBoolean responded = new AtomicBoolean(true);
+    private static volatile BoundedOutput currentOutput;
+
+    private JavaWorkerMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        protocolOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // Nothing but frames may reach the real stdout.
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        Runtime.getRuntime().addShutdownHook(new Thread(JavaWorkerMain::reportExit, "worker-exit"));
+
+        javax.tools.JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            writeHello(false, "No system Java compiler (JRE without javac)");
+            return;
+        }
+        warmUp(javac);
+        writeHello(true, System.getProperty("java.version"));
+
+        while (true) {
+            Request request;
+            try {
+                request = Request.read(in);
+            } catch (EOFException e) {
+                return;
+            }
+            if (handle(javac, request)) {
+                Runtime.getRuntime().halt(0);
+            }
+        }
+    }
+
+    /** Runs one request and returns {@code true} if this JVM should be replaced. */
+    private static boolean handle(javax.tools.JavaCompiler javac, Request request) throws IOException {
+        responded.set(false);
+        Map<String, byte[]> classes = request.classes();
+        if (classes.isEmpty()) {
+            StringWriter diagnostics = new StringWriter();
+            long start = System.nanoTime();
+            try {
+                classes = compile(javac, request.fileName(), request.source(), diagnostics);
+            } catch (RuntimeException | OutOfMemoryError e) {
+                writeCompiled(0, Map.of());
+                respond(STATUS_CRASHED, -1, String.valueOf(e), true);
+                return true;
+            }
+            if (classes == null) {
+                writeCompiled(0, Map.of());
+                respond(STATUS_COMPILE_ERROR, 1, diagnostics.toString(), false);
+                return false;
+            }
+            // Handed back for the caller to cache, before the submission can touch anything.
+            writeCompiled(System.nanoTime() - start, classes);
+        } else {
+            writeCompiled(0, Map.of());
+        }
+        if (request.mainClass().isEmpty()) {
+            // Compile-only: class-only solutions have nothing to run.
+            respond(STATUS_EXITED, 0, "", false);
+            return false;
+        }
+        return run(classes, request);
+    }
+
+    private static Map<String, byte[]> compile(javax.tools.JavaCompiler javac, String fileName, String source,
+            StringWriter diagnostics) throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        StandardJavaFileManager standard = javac.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        try (MemoryFileManager fileManager = new MemoryFileManager(standard, classes)) {
+            JavaFileObject unit = new SourceFile(fileName, source);
+            boolean ok = javac.getTask(diagnostics, fileManager, null, List.of("-proc:none", "-g:none"), null,
+                    List.of(unit)).call();
+            return ok ? classes : null;
+        }
+    }
+
+    private static boolean run(Map<String, byte[]> classes, Request request) throws IOException {
+        BoundedOutput output = new BoundedOutput(MAX_OUTPUT_BYTES, OUTPUT_TAIL_BYTES);
+        PrintStream printer = new PrintStream(output, true, StandardCharsets.UTF_8);
+        ThreadGroup group = new ThreadGroup("submission");
+        int[] exitCode = { 0 };
+        boolean[] outOfMemory = { false };
+        // The submission's own loader, so the context loader does not lead back to this class.
+        ClassLoader loader = new MemoryClassLoader(classes, ClassLoader.getPlatformClassLoader());
+
+        Thread runner = new Thread(group, () -> {
+            try {
+                Class<?> mainClass = Class.forName(request.mainClass(), true, loader);
+                Method main = mainClass.getMethod("main", String[].class);
+                if (!Modifier.isStatic(main.getModifiers())) {
+                    throw new NoSuchMethodException();
+                }
+                main.setAccessible(true);
+                main.invoke(null, (Object) new String[0]);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                printer.println("Error: Main method not found in class " + request.mainClass()
+                        + ", please define the main method as:");
+                printer.println("   public static void main(String[] args)");
+                exitCode[0] = 1;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                outOfMemory[0] = cause instanceof OutOfMemoryError;
+                printer.print("Exception in thread \"main\" ");
+                cause.printStackTrace(printer);
+                exitCode[0] = 1;
+            } catch (Throwable t) {
+                outOfMemory[0] = t instanceof OutOfMemoryError;
+                printer.print("Exception in thread \"main\" ");
+                t.printStackTrace(printer);
+                exitCode[0] = 1;
+            }
+        }, "main");
+        runner.setContextClassLoader(loader);
+
+        currentOutput = output;
+        InputStream stdin = new ByteArrayInputStream(request.stdin());
+        System.setIn(stdin);
+        System.setOut(printer);
+        System.setErr(printer);
+        GlobalState before = GlobalState.capture();
+        Set<Long> threadsBefore = liveThreadIds();
+        runner.start();
+
+        boolean exceeded = watch(runner, group, output, request.timeoutMillis());
+        printer.flush();
+        boolean streamsReplaced = System.in != stdin || System.out != printer || System.err != printer;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        System.setIn(InputStream.nullInputStream());
+
+        if (output.overflowed()) {
+            respond(STATUS_OUTPUT_LIMIT, -1, output.text(), true);
+            return true;
+        }
+        if (exceeded) {
+            respond(STATUS_TIMEOUT, -1, output.text(), true);
+            return true;
+        }
+        // Threads left running, in any group, or changed JVM-wide state could reach later runs.
+        Set<Long> leftovers = liveThreadIds();
+        leftovers.removeAll(threadsBefore);
+        boolean recycle = !leftovers.isEmpty() || streamsReplaced || !GlobalState.capture().equals(before)
+                || outOfMemory[0];
+        respond(STATUS_EXITED, exitCode[0], output.text(), recycle);
+        return recycle;
+    }
+
+    /**
+     * Waits for the runner; returns {@code true} if its wall or CPU budget ran
+     * out or it overflowed its output.
+     */
+    private static boolean watch(Thread runner, ThreadGroup group, BoundedOutput output, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        long cpuBudgetNanos = budgetMillis * 1_000_000L;
+        while (true) {
+            try {
+                runner.join(WATCHDOG_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+            if (!runner.isAlive()) {
+                return false;
+            }
+            if (output.overflowed() || System.nanoTime() > deadline || cpuNanos(group) > cpuBudgetNanos) {
+                return true;
+            }
+        }
+    }
+
+    private static Set<Long> liveThreadIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive()) {
+                ids.add(thread.threadId());
+            }
+        }
+        return ids;
+    }
+
+    private static long cpuNanos(ThreadGroup group) {
+        Thread[] threads = new Thread[group.activeCount() + 8];
+        int count = group.enumerate(threads, true);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long cpu = THREADS.getThreadCpuTime(threads[i].threadId());
+            if (cpu > 0) {
+                total += cpu;
+            }
+        }
+        return total;
+    }
+
+    /** Answers the current run if the submission called {@code System.exit}. */
+    private static void reportExit() {
+        BoundedOutput output = currentOutput;
+        if (output == null) {
+            return;
+        }
+        try {
+            // The exit status itself is read by the pool from the process.
+            respond(STATUS_PROCESS_EXIT, -1, output.text(), true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void respond(int status, int exitCode, String output, boolean recycle) throws IOException {
+        if (!responded.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (protocolOut) {
+            protocolOut.writeInt(FRAME_MAGIC);
+            protocolOut.writeInt(status);
+            protocolOut.writeInt(exitCode);
+            writeBytes(protocolOut, output.getBytes(StandardCharsets.UTF_8));
+            protocolOut.writeBoolean(recycle);
+            protocolOut.flush();
+        }
+        currentOutput = null;
+    }
+
+    private static void writeCompiled(long compileNanos, Map<String, byte[]> classes) throws IOException {
+        synchronized (protocolOut) {
+            protocolOut.writeInt(FRAME_MAGIC);
+            protocolOut.writeLong(compileNanos);
+            writeClasses(protocolOut, classes);
+            protocolOut.flush();
+        }
+    }
+
+    private static void writeHello(boolean ready, String detail) throws IOException {
+        protocolOut.writeInt(FRAME_MAGIC);
+        protocolOut.writeBoolean(ready);
+        writeBytes(protocolOut, detail.getBytes(StandardCharsets.UTF_8));
+        protocolOut.flush();
+    }
+
+    /** Loads javac and runs the compile/run path once so the first real request is warm. */
+    private static void warmUp(javax.tools.JavaCompiler javac) {
+        try {
+            Map<String, byte[]> classes = compile(javac, "Warmup.java",
+                    "class Warmup { public static void main(String[] a) { System.out.print(a.length); } }",
+                    new StringWriter());
+            if (classes != null) {
+                Class.forName("Warmup", true, new MemoryClassLoader(classes, ClassLoader.getPlatformClassLoader()))
+                        .getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeClasses(DataOutputStream out, Map<String, byte[]> classes) throws IOException {
+        out.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeBytes(out, entry.getValue());
+        }
+    }
+
+    static Map<String, byte[]> readClasses(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > 10_000) {
+            throw new IOException("Invalid class count " + count);
+        }
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            classes.put(in.readUTF(), readBytes(in));
+        }
+        return classes;
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        return in.readNBytes(length);
+    }
+
+    /**
+     * One run. When {@code classes} (binary name to class file) is not
+     * empty the source is not compiled again.
+     */
+    record Request(String fileName, String mainClass, String source, byte[] stdin, long timeoutMillis,
+            Map<String, byte[]> classes) {
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(fileName);
+            out.writeUTF(mainClass);
+            writeBytes(out, source.getBytes(StandardCharsets.UTF_8));
+            writeBytes(out, stdin);
+            out.writeLong(timeoutMillis);
+            writeClasses(out, classes);
+            out.flush();
+        }
+
+        static Request read(DataInputStream in) throws IOException {
+            String fileName = in.readUTF();
+            String mainClass = in.readUTF();
+            String source = new String(readBytes(in), StandardCharsets.UTF_8);
+            byte[] stdin = readBytes(in);
+            long timeoutMillis = in.readLong();
+            return new Request(fileName, mainClass, source, stdin, timeoutMillis, readClasses(in));
+        }
+    }
+
+    /** The JVM-wide settings a submission can change for every later run on this worker. */
+    private record GlobalState(Map<Object, Object> properties, Locale locale, Locale displayLocale,
+            Locale formatLocale, TimeZone timeZone, Thread.UncaughtExceptionHandler uncaughtHandler) {
+
+        static GlobalState capture() {
+            return new GlobalState(new HashMap<>(System.getProperties()), Locale.getDefault(),
+                    Locale.getDefault(Locale.Category.DISPLAY), Locale.getDefault(Locale.Category.FORMAT),
+                    TimeZone.getDefault(), Thread.getDefaultUncaughtExceptionHandler());
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String fileName;
+        private final String source;
+
+        SourceFile(String fileName, String source) {
+            super(URI.create("string:///" + fileName), Kind.SOURCE);
+            this.fileName = fileName;
+            this.source = source;
+        }
+
+        @Override
+        public String getName() {
+            return fileName;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+
+        private final String className;
+        private final Map<String, byte[]> sink;
+
+        ClassFile(String className, Map<String, byte[]> sink) {
+            super(URI.create("mem:///" + className.replace('.', '/') + ".class"), Kind.CLASS);
+            this.className = className;
+            this.sink = sink;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    sink.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, byte[]> classes;
+
+        MemoryFileManager(JavaFileManager delegate, Map<String, byte[]> classes) {
+            super(delegate);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                FileObject sibling) {
+            return new ClassFile(className, classes);
+        }
+    }
+
+    private static final class MemoryClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
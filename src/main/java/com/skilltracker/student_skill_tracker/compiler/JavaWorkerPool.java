@@ -0,0 +1,304 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a few pre-started {@link JavaWorkerMain} JVMs so local Java runs skip
+ * the {@code javac} and {@code java} cold starts.
+ *
+ * <p>
+ * Each worker runs in its own sandbox workspace with the same hardened
+ * environment as {@link ExecutionSandbox} and a 128 MB heap. A worker serves
+ * one run at a time and is replaced after {@code maxRunsPerWorker} runs, after
+ * any run it had to stop or that left threads or JVM-wide state behind, and
+ * whenever it dies. With {@code maxRunsPerWorker} at 1 no two submissions
+ * share a JVM; only the startup and warm-up are done ahead of time.
+ * If no worker is ready in time, {@link #execute} returns {@code null} and the
+ * caller falls back to the process-per-run path.
+ * </p>
+ */
+final class JavaWorkerPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JavaWorkerPool.class);
+
+    private static final int COMPILE_BUDGET_SECONDS = 10;
+    private static final long STARTUP_TIMEOUT_SECONDS = 30;
+    private static final long ACQUIRE_TIMEOUT_MS = 2_000;
+    private static final long GRACE_MS = 2_000;
+
+    private final int size;
+    private final int maxRunsPerWorker;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean unavailable;
+    private final ExecutorService starter = Executors.newSingleThreadExecutor(daemon("java-worker-starter"));
+    private final ScheduledExecutorService watchdog = Executors
+            .newSingleThreadScheduledExecutor(daemon("java-worker-watchdog"));
+    private final Path classPath;
+
+    JavaWorkerPool(int size, int maxRunsPerWorker) throws IOException {
+        this.size = Math.max(1, size);
+        this.maxRunsPerWorker = Math.max(1, maxRunsPerWorker);
+        this.classPath = extractWorkerClasses();
+        replenish();
+    }
+
+    /**
+     * Compiles and runs {@code source} on a warm worker, or runs
+     * {@code precompiled} classes directly when given.
+     *
+     * @return the worker's answer, or {@code null} if no worker was ready
+     */
+    Result execute(String fileName, String mainClass, String source, Map<String, byte[]> precompiled, String stdin,
+            int timeoutSeconds) throws InterruptedException {
+        if (unavailable || closed.get()) {
+            return null;
+        }
+        Worker worker = idle.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (worker == null) {
+            return null;
+        }
+
+        AtomicBoolean killed = new AtomicBoolean();
+        long budgetMs = (COMPILE_BUDGET_SECONDS + timeoutSeconds) * 1_000L + GRACE_MS;
+        ScheduledFuture<?> kill = watchdog.schedule(() -> {
+            killed.set(true);
+            ExecutionSandbox.killTree(worker.process);
+        }, budgetMs, TimeUnit.MILLISECONDS);
+
+        Result result;
+        boolean recycle;
+        try {
+            new JavaWorkerMain.Request(fileName, mainClass, source,
+                    stdin == null ? new byte[0] : stdin.getBytes(StandardCharsets.UTF_8),
+                    timeoutSeconds * 1_000L, precompiled == null ? Map.of() : precompiled).write(worker.out);
+            readMagic(worker.in);
+            long compileNanos = worker.in.readLong();
+            Map<String, byte[]> classes = JavaWorkerMain.readClasses(worker.in);
+            if (worker.runs > 0) {
+                // An earlier submission on this JVM could have queued these bytes itself.
+                classes = Map.of();
+            }
+            readMagic(worker.in);
+            int status = worker.in.readInt();
+            int exitCode = worker.in.readInt();
+            String output = new String(JavaWorkerMain.readBytes(worker.in), StandardCharsets.UTF_8).trim();
+            recycle = worker.in.readBoolean();
+            if (status == JavaWorkerMain.STATUS_PROCESS_EXIT) {
+                exitCode = exitValue(worker.process);
+            }
+            result = new Result(status, exitCode, output, compileNanos, classes);
+        } catch (IOException e) {
+            recycle = true;
+            if (killed.get()) {
+                result = new Result(JavaWorkerMain.STATUS_TIMEOUT, -1, "", 0, Map.of());
+            } else {
+                // Runtime.halt or a JVM crash: there is no frame, only an exit status.
+                result = new Result(JavaWorkerMain.STATUS_PROCESS_EXIT, exitValue(worker.process), "", 0,
+                        Map.of());
+            }
+        } finally {
+            kill.cancel(false);
+        }
+
+        if (recycle || ++worker.runs >= maxRunsPerWorker || closed.get()) {
+            retire(worker);
+            replenish();
+        } else {
+            idle.offer(worker);
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isAvailable() {
+        return !unavailable && !closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        starter.shutdownNow();
+        watchdog.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            retire(worker);
+        }
+        ExecutionSandbox.deleteWorkspace(classPath);
+    }
+
+    private void replenish() {
+        while (!closed.get() && !unavailable) {
+            int current = live.get();
+            if (current >= size) {
+                return;
+            }
+            if (live.compareAndSet(current, current + 1)) {
+                starter.execute(this::startWorker);
+            }
+        }
+    }
+
+    private void startWorker() {
+        Path workspace = null;
+        Process process = null;
+        try {
+            workspace = ExecutionSandbox.createWorkspace("java-worker");
+            ProcessBuilder builder = new ProcessBuilder(List.of(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx128m",
+                    "-XX:+UseSerialGC",
+                    "-XX:-UsePerfData",
+                    "-Djava.io.tmpdir=" + workspace,
+                    "-cp", classPath.toString(),
+                    JavaWorkerMain.class.getName()));
+            builder.directory(workspace.toFile());
+            builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+            ExecutionSandbox.hardenEnvironment(builder.environment(), workspace);
+            process = builder.start();
+
+            Process started = process;
+            ScheduledFuture<?> kill = watchdog.schedule(started::destroyForcibly, STARTUP_TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            boolean ready;
+            String detail;
+            try {
+                if (in.readInt() != JavaWorkerMain.FRAME_MAGIC) {
+                    throw new IOException("Corrupt worker handshake");
+                }
+                ready = in.readBoolean();
+                detail = new String(JavaWorkerMain.readBytes(in), StandardCharsets.UTF_8);
+            } finally {
+                kill.cancel(false);
+            }
+
+            if (!ready) {
+                logger.warn("Java worker pool disabled: {}", detail);
+                unavailable = true;
+                process.destroyForcibly();
+                ExecutionSandbox.deleteWorkspace(workspace);
+                live.decrementAndGet();
+                return;
+            }
+            Worker worker = new Worker(process, workspace, in,
+                    new DataOutputStream(new BufferedOutputStream(process.getOutputStream())));
+            if (closed.get()) {
+                retire(worker);
+                return;
+            }
+            idle.offer(worker);
+            logger.debug("Java worker {} ready (Java {})", process.pid(), detail);
+        } catch (Exception e) {
+            logger.warn("Could not start Java worker: {}", e.getMessage());
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            ExecutionSandbox.deleteWorkspace(workspace);
+            live.decrementAndGet();
+        }
+    }
+
+    private void retire(Worker worker) {
+        ExecutionSandbox.killTree(worker.process);
+        ExecutionSandbox.deleteWorkspace(worker.workspace);
+        live.decrementAndGet();
+    }
+
+    private static void readMagic(DataInputStream in) throws IOException {
+        if (in.readInt() != JavaWorkerMain.FRAME_MAGIC) {
+            throw new IOException("Corrupt worker frame");
+        }
+    }
+
+    private static int exitValue(Process process) {
+        try {
+            if (process.waitFor(GRACE_MS, TimeUnit.MILLISECONDS)) {
+                return process.exitValue();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return -1;
+    }
+
+    /** Copies the worker's classes out of the (possibly nested) application jar. */
+    private static Path extractWorkerClasses() throws IOException {
+        Path dir = Files.createTempDirectory("java-worker-cp-");
+        List<Class<?>> types = new ArrayList<>(List.of(JavaWorkerMain.class.getNestMembers()));
+        types.add(BoundedOutput.class);
+        for (Class<?> type : types) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            try (InputStream bytes = JavaWorkerMain.class.getClassLoader().getResourceAsStream(resource)) {
+                if (bytes == null) {
+                    throw new IOException("Missing worker class " + resource);
+                }
+                Path target = dir.resolve(resource);
+                Files.createDirectories(target.getParent());
+                Files.copy(bytes, target);
+            }
+        }
+        return dir;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * {@code classes} holds what the worker compiled for this run, read before
+     * the submission started; it is empty if the worker compiled nothing or
+     * had already run another submission.
+     */
+    record Result(int status, int exitCode, String output, long compileNanos, Map<String, byte[]> classes) {
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final Path workspace;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private int runs;
+
+        private Worker(Process process, Path workspace, DataInputStream in, DataOutputStream out) {
+            this.process = process;
+            this.workspace = workspace;
+            this.in = in;
+            this.out = out;
+        }
+    }
+}
@@ -5,7 +5,6 @@ import java.util.Collections;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.web.client.RestClient;
 
 import com.skilltracker.student_skill_tracker.dto.piston.PistonRequest;
 import com.skilltracker.student_skill_tracker.dto.piston.PistonResponse;
@@ -16,16 +15,16 @@ public class PistonCompilerProvider implements ProgrammingLanguageCompiler {
     private final String language;
     private final String version;
     private final String apiUrl;
-    private final RestClient restClient;
+    private final RemoteExecutionClient remoteClient;
 
     private static final java.util.regex.Pattern PUBLIC_CLASS_PATTERN = java.util.regex.Pattern
             .compile("\\bpublic\\s+class\\s+([A-Za-z_$][A-Za-z\\d_$]*)");
 
-    public PistonCompilerProvider(String language, String apiUrl) {
+    public PistonCompilerProvider(String language, String apiUrl, RemoteExecutionClient remoteClient) {
         this.language = language;
         this.apiUrl = apiUrl;
         this.version = "*"; // Piston picks latest if "*" is sent
-        this.restClient = RestClient.create();
+        this.remoteClient = remoteClient;
     }
 
     @Override
@@ -50,11 +49,8 @@ public class PistonCompilerProvider implements ProgrammingLanguageCompiler {
                 .build();
 
         try {
-            PistonResponse response = restClient.post()
-                    .uri(apiUrl)
-                    .body(request)
-                    .retrieve()
-                    .body(PistonResponse.class);
+            PistonResponse response = remoteClient.post("piston", apiUrl, request, PistonResponse.class,
+                    timeoutSeconds);
 
             if (response == null || response.getRun() == null) {
                 return CompilationResult.builder()
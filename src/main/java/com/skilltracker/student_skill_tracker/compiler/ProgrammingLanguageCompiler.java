@@ -1,5 +1,7 @@
 package com.skilltracker.student_skill_tracker.compiler;
 
+import java.util.List;
+
 /**
  * Interface for multi-language code compilation and execution
  */
@@ -15,6 +17,23 @@ public interface ProgrammingLanguageCompiler {
      */
     CompilationResult executeCode(String sourceCode, String input, int timeoutSeconds);
 
+    /**
+     * Run the code against every test case, feeding each input on stdin and
+     * comparing stdout with the expected output. Local compilers compile once
+     * and run the cases in parallel; this default simply calls
+     * {@link #executeCode} per case.
+     *
+     * @param timeoutSeconds Maximum execution time per test case
+     */
+    default BatchExecutionResult executeBatch(String sourceCode, List<TestCase> testCases, int timeoutSeconds) {
+        try {
+            return BatchExecution.run(testCases, 1, 0, input -> executeCode(sourceCode, input, timeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchExecution.compileFailed(testCases, "Interrupted", 0);
+        }
+    }
+
     /**
      * Get the programming language this compiler supports
      */
@@ -32,10 +32,47 @@ public class PythonCompiler implements ProgrammingLanguageCompiler {
 
         try {
             ExecutionSandbox.validateSourceSize(sourceCode);
-            workspace = ExecutionSandbox.createWorkspace("python");
+            workspace = ExecutionSandbox.acquireWorkspace();
             Path sourceFile = workspace.resolve("solution.py");
             Files.writeString(sourceFile, sourceCode, StandardCharsets.UTF_8);
+            return runScript(workspace, sourceFile, input, timeoutSeconds);
+        } catch (IllegalArgumentException e) {
+            result.setSuccess(false);
+            result.setError(e.getMessage());
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setError("Exception: " + e.getMessage());
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
+
+        return result;
+    }
+
+    @Override
+    public BatchExecutionResult executeBatch(String sourceCode, List<TestCase> testCases, int timeoutSeconds) {
+        Path workspace = null;
+        try {
+            ExecutionSandbox.validateSourceSize(sourceCode);
+            workspace = ExecutionSandbox.acquireWorkspace();
+            Path sourceFile = workspace.resolve("solution.py");
+            Files.writeString(sourceFile, sourceCode, StandardCharsets.UTF_8);
+            Path dir = workspace;
+            return BatchExecution.run(testCases, BatchExecution.DEFAULT_PARALLELISM, 0,
+                    input -> ExecutionSandbox.runInCopy(dir, caseDir -> runScript(caseDir,
+                            caseDir.resolve(sourceFile.getFileName()), input, timeoutSeconds)));
+        } catch (IllegalArgumentException e) {
+            return BatchExecution.compileFailed(testCases, e.getMessage(), 0);
+        } catch (Exception e) {
+            return BatchExecution.compileFailed(testCases, "Exception: " + e.getMessage(), 0);
+        } finally {
+            ExecutionSandbox.releaseWorkspace(workspace);
+        }
+    }
 
+    private static CompilationResult runScript(Path workspace, Path sourceFile, String input, int timeoutSeconds) {
+        CompilationResult result = new CompilationResult();
+        try {
             ExecutionSandbox.ProcessResult runResult = ExecutionSandbox.run(
                     workspace,
                     List.of(PYTHON_CMD, "-I", "-S", "-B", sourceFile.toString()),
@@ -44,9 +81,13 @@ public class PythonCompiler implements ProgrammingLanguageCompiler {
 
             if (runResult.timedOut()) {
                 result.setSuccess(false);
+                result.setTimedOut(true);
                 result.setError(runResult.output());
                 return result;
             }
+            if (runResult.outputTruncated()) {
+                return ExecutionSandbox.outputLimitExceeded(result, runResult.output());
+            }
 
             String output = runResult.output();
             int exitCode = runResult.exitCode();
@@ -66,17 +107,10 @@ public class PythonCompiler implements ProgrammingLanguageCompiler {
                 }
                 result.setError(runtimeDetails);
             }
-
-        } catch (IllegalArgumentException e) {
-            result.setSuccess(false);
-            result.setError(e.getMessage());
         } catch (Exception e) {
             result.setSuccess(false);
             result.setError("Exception: " + e.getMessage());
-        } finally {
-            ExecutionSandbox.deleteWorkspace(workspace);
         }
-
         return result;
     }
 
@@ -0,0 +1,170 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The one HTTP client used to reach remote code execution backends (Piston,
+ * JDoodle, Judge0).
+ *
+ * <p>
+ * All backends share a single JDK {@link HttpClient}, so connections are
+ * pooled and kept alive across calls and HTTP/2 is negotiated where the
+ * backend offers it. Each backend may have at most
+ * {@code maxConcurrentPerBackend} calls in flight, which also caps the
+ * connections it can hold open; a call that cannot get a slot within the
+ * connect timeout fails instead of piling up. The read timeout of a call is
+ * the run's own timeout plus a fixed allowance for queueing and compiling on
+ * the backend's side.
+ * </p>
+ */
+@Component
+public class RemoteExecutionClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteExecutionClient.class);
+    private static final int MAX_RUN_TIMEOUT_SECONDS = 60;
+
+    private final HttpClient httpClient;
+    private final Duration connectTimeout;
+    private final int responseAllowanceSeconds;
+    private final int maxConcurrentPerBackend;
+    private final MeterRegistry meterRegistry;
+    /** One client per read timeout; run timeouts are small integers, so this stays tiny. */
+    private final Map<Integer, RestClient> clientsByTimeout = new ConcurrentHashMap<>();
+    private final Map<String, Backend> backends = new ConcurrentHashMap<>();
+
+    public RemoteExecutionClient(
+            MeterRegistry meterRegistry,
+            @Value("${compiler.remote.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${compiler.remote.response-allowance-seconds:15}") int responseAllowanceSeconds,
+            @Value("${compiler.remote.max-concurrent-per-backend:16}") int maxConcurrentPerBackend) {
+        this.meterRegistry = meterRegistry;
+        this.connectTimeout = Duration.ofMillis(Math.max(1, connectTimeoutMs));
+        this.responseAllowanceSeconds = Math.max(0, responseAllowanceSeconds);
+        this.maxConcurrentPerBackend = Math.max(1, maxConcurrentPerBackend);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        logger.info("Remote execution client: {} calls per backend, connect timeout {} ms",
+                this.maxConcurrentPerBackend, connectTimeout.toMillis());
+    }
+
+    /**
+     * POSTs {@code body} as JSON to {@code backend} and returns the decoded
+     * response.
+     *
+     * @param timeoutSeconds the run's own time limit, used to size the read timeout
+     * @throws ResourceAccessException if the backend is saturated or unreachable
+     * @throws RestClientResponseException if the backend answers with an error status
+     */
+    public <T> T post(String backend, String uri, Object body, Consumer<HttpHeaders> headers,
+            Class<T> responseType, int timeoutSeconds) {
+        Backend target = backend(backend);
+        try {
+            if (!target.permits.tryAcquire(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                record(target, "saturated", 0);
+                throw new ResourceAccessException(backend + " has too many executions in flight");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for " + backend);
+        }
+
+        target.inFlight.incrementAndGet();
+        long started = System.nanoTime();
+        String outcome = "io_error";
+        try {
+            T response = client(timeoutSeconds).post()
+                    .uri(uri)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers)
+                    .body(body)
+                    .retrieve()
+                    .body(responseType);
+            outcome = "success";
+            return response;
+        } catch (RestClientResponseException e) {
+            outcome = "http_" + e.getStatusCode().value() / 100 + "xx";
+            throw e;
+        } catch (CancellationException e) {
+            // The JDK request factory cancels the exchange when the read timeout fires.
+            throw new ResourceAccessException(backend + " did not answer within " + readTimeout(timeoutSeconds));
+        } finally {
+            target.inFlight.decrementAndGet();
+            target.permits.release();
+            record(target, outcome, System.nanoTime() - started);
+        }
+    }
+
+    public <T> T post(String backend, String uri, Object body, Class<T> responseType, int timeoutSeconds) {
+        return post(backend, uri, body, h -> {
+        }, responseType, timeoutSeconds);
+    }
+
+    int inFlight(String backend) {
+        Backend target = backends.get(backend);
+        return target == null ? 0 : target.inFlight.get();
+    }
+
+    Duration readTimeout(int timeoutSeconds) {
+        int run = Math.min(MAX_RUN_TIMEOUT_SECONDS, Math.max(1, timeoutSeconds));
+        return Duration.ofSeconds(run + responseAllowanceSeconds);
+    }
+
+    private RestClient client(int timeoutSeconds) {
+        Duration readTimeout = readTimeout(timeoutSeconds);
+        return clientsByTimeout.computeIfAbsent((int) readTimeout.toSeconds(), seconds -> {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+            factory.setReadTimeout(readTimeout);
+            return RestClient.builder().requestFactory(factory).build();
+        });
+    }
+
+    private Backend backend(String name) {
+        return backends.computeIfAbsent(name, key -> {
+            Backend created = new Backend(key, new Semaphore(maxConcurrentPerBackend), new AtomicInteger());
+            Gauge.builder("rishi.compiler.remote.in-flight", created.inFlight, AtomicInteger::get)
+                    .tag("backend", key)
+                    .description("Remote execution calls currently waiting on the backend")
+                    .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private void record(Backend backend, String outcome, long nanos) {
+        Timer.builder("rishi.compiler.remote.requests")
+                .description("Calls to remote code execution backends")
+                .tag("backend", backend.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private record Backend(String name, Semaphore permits, AtomicInteger inFlight) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One stdin/expected-stdout pair for batch execution. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCase {
+    @Size(max = 100_000, message = "Test input exceeds the maximum allowed size of 100KB")
+    private String input;
+
+    @Size(max = 100_000, message = "Expected output exceeds the maximum allowed size of 100KB")
+    private String expectedOutput;
+}
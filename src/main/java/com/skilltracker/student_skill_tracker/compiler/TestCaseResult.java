@@ -0,0 +1,28 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseResult {
+
+    public enum Verdict {
+        PASSED,
+        WRONG_ANSWER,
+        RUNTIME_ERROR,
+        TIMEOUT,
+        OUTPUT_LIMIT_EXCEEDED,
+        COMPILE_ERROR
+    }
+
+    private int index;
+    private Verdict verdict;
+    private String output;
+    private String error;
+    private long elapsedMs;
+}
@@ -0,0 +1,165 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reusable per-run sandbox directories under a root private to this pool.
+ *
+ * <p>
+ * Released workspaces are emptied and kept for the next run instead of being
+ * deleted and recreated. A workspace that cannot be emptied completely (a
+ * submission that left read-only files behind, say), or whose run may have
+ * left a process behind, is deleted rather than reused, so no run ever sees
+ * another run's files. Each pool creates its own temp directory under the
+ * configured parent, so several instances can share a host. The parent prefers
+ * {@code /dev/shm} when it is tmpfs and allows executing files there, since
+ * compiled C++ binaries run from the workspace.
+ * </p>
+ */
+final class WorkspacePool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkspacePool.class);
+    private static final String PREFIX = "ws-";
+
+    private final Path root;
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<Path> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Path> retired = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+
+    /** Creates a fresh root for this pool under {@code parent}. */
+    WorkspacePool(Path parent, int maxIdle) throws IOException {
+        this.root = Files.createTempDirectory(Files.createDirectories(parent), "pool-");
+        this.maxIdle = Math.max(0, maxIdle);
+    }
+
+    /** An empty directory for one run; hand it back with {@link #release}. */
+    Path acquire() throws IOException {
+        Path workspace = idle.pollFirst();
+        if (workspace != null) {
+            idleCount.decrementAndGet();
+            reused.incrementAndGet();
+            return workspace;
+        }
+        return Files.createDirectory(root.resolve(PREFIX + sequence.incrementAndGet()));
+    }
+
+    void release(Path workspace) {
+        if (workspace == null) {
+            return;
+        }
+        if (retired.remove(workspace) || !workspace.startsWith(root) || idleCount.get() >= maxIdle
+                || !reset(workspace)) {
+            ExecutionSandbox.deleteWorkspace(workspace);
+            return;
+        }
+        idleCount.incrementAndGet();
+        idle.offerFirst(workspace);
+    }
+
+    /** Deletes {@code workspace} when it is released instead of handing it to another run. */
+    void retire(Path workspace) {
+        if (workspace != null) {
+            retired.add(workspace);
+        }
+    }
+
+    /** Removes the root with every idle workspace; runs still holding one delete it on release. */
+    void close() {
+        Path workspace;
+        while ((workspace = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            ExecutionSandbox.deleteWorkspace(workspace);
+        }
+        ExecutionSandbox.deleteWorkspace(root);
+    }
+
+    Path root() {
+        return root;
+    }
+
+    int idleCount() {
+        return idleCount.get();
+    }
+
+    long reusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * Parent for pool roots: {@code /dev/shm/rishi-sandbox} when it is usable
+     * for running binaries, otherwise a directory under {@code java.io.tmpdir}.
+     */
+    static Path defaultRoot() {
+        Path shm = Path.of("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            Path candidate = shm.resolve("rishi-sandbox");
+            if (allowsExecution(candidate)) {
+                return candidate;
+            }
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "rishi-sandbox");
+    }
+
+    /** Empties the workspace; {@code false} if anything was left behind. */
+    private static boolean reset(Path workspace) {
+        try (Stream<Path> paths = Files.walk(workspace)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                if (!path.equals(workspace)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+        try (DirectoryStream<Path> rest = Files.newDirectoryStream(workspace)) {
+            return !rest.iterator().hasNext() && Files.isWritable(workspace);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Tmpfs is commonly mounted {@code noexec}; try running a file there. */
+    private static boolean allowsExecution(Path dir) {
+        Path probe = null;
+        try {
+            Files.createDirectories(dir);
+            probe = Files.createTempFile(dir, "exec-probe-", ".sh");
+            Files.writeString(probe, "#!/bin/sh\nexit 0\n");
+            Files.setPosixFilePermissions(probe,
+                    Set.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_EXECUTE));
+            Process process = new ProcessBuilder(List.of(probe.toString()))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            return process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (Exception e) {
+            logger.debug("{} cannot host sandbox workspaces: {}", dir, e.getMessage());
+            return false;
+        } finally {
+            if (probe != null) {
+                try {
+                    Files.deleteIfExists(probe);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
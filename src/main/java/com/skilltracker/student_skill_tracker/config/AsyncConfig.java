@@ -1,6 +1,7 @@
 package com.skilltracker.student_skill_tracker.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,4 +25,52 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "compilationEventExecutor")
+    public Executor compilationEventExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Post-compile bookkeeping is short DB work; events for one student are
+        // chained by CompilationSideEffectPipeline, so two threads only overlap
+        // different students.
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        // Never drop a compilation: when saturated, run it on the submitting thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Queued events carry attempt records and planner updates; drain them on
+        // shutdown/redeploy instead of dropping them.
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setThreadNamePrefix("CompileEvents-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "analyticsSyncExecutor")
+    public Executor analyticsSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Background connector syncs are mostly waiting on remote APIs; keep them
+        // off the request and compile pools so a slow provider only delays syncs.
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        // RishiAnalyticsSyncScheduler never has more than max-per-tick syncs queued
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("AnalyticsSync-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "leetCodeRefreshExecutor")
+    public Executor leetCodeRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Stale-while-revalidate refreshes of LeetCode stats; callers are already
+        // served the stale value, so a small pool is enough and overflow is rejected
+        // (LeetCodeStatsCoalescer retries on the next lookup).
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("LeetCodeRefresh-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -5,19 +5,29 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import com.skilltracker.student_skill_tracker.security.StompJwtChannelInterceptor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final List<String> allowedOriginPatterns;
+    private final StompJwtChannelInterceptor stompJwtChannelInterceptor;
+    private final int messageSizeLimitBytes;
 
     public WebSocketConfig(
-            @Value("${app.security.allowed-origin-patterns:http://localhost:4200,http://127.0.0.1:4200}") String allowedOriginPatterns) {
+            @Value("${app.security.allowed-origin-patterns:http://localhost:4200,http://127.0.0.1:4200}") String allowedOriginPatterns,
+            StompJwtChannelInterceptor stompJwtChannelInterceptor,
+            @Value("${app.websocket.message-size-limit-bytes:524288}") int messageSizeLimitBytes) {
+        this.stompJwtChannelInterceptor = stompJwtChannelInterceptor;
+        this.messageSizeLimitBytes = messageSizeLimitBytes;
         List<String> parsedOrigins = Arrays.stream(allowedOriginPatterns.split(","))
                 .map(String::trim)
                 .filter(origin -> !origin.isEmpty())
@@ -30,8 +40,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry the messages back to the
-        // client on destinations prefixed with "/topic"
-        config.enableSimpleBroker("/topic");
+        // client on destinations prefixed with "/topic" (and "/queue" for per-user replies)
+        config.enableSimpleBroker("/topic", "/queue");
         // designates the "/app" prefix for messages that are bound for methods
         // annotated with @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
@@ -45,4 +55,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns(allowedOriginPatterns.toArray(String[]::new))
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Authenticates each connection once on CONNECT; see StompJwtChannelInterceptor
+        registration.interceptors(stompJwtChannelInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Telemetry batches can exceed the 64 KB STOMP default
+        registration.setMessageSizeLimit(messageSizeLimitBytes);
+    }
 }
@@ -1,26 +1,41 @@
 package com.skilltracker.student_skill_tracker.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.service.RishiCodeChangeArchiveService;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
     private final StudentRepository studentRepository;
+    private final RishiCodeChangeArchiveService changeArchiveService;
+    private final CompilerFactory compilerFactory;
 
-    public AdminController(StudentRepository studentRepository) {
+    public AdminController(StudentRepository studentRepository,
+            RishiCodeChangeArchiveService changeArchiveService,
+            CompilerFactory compilerFactory) {
         this.studentRepository = studentRepository;
+        this.changeArchiveService = changeArchiveService;
+        this.compilerFactory = compilerFactory;
     }
 
     @GetMapping("/export/research-data")
@@ -46,4 +61,22 @@ public class AdminController {
 
         return ResponseEntity.ok(exportData);
     }
+
+    @GetMapping("/telemetry/sessions/{sessionId}/archived-changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> archivedChanges(@PathVariable Long sessionId) {
+        try {
+            return ResponseEntity.ok(changeArchiveService.rehydrate(sessionId));
+        } catch (IOException e) {
+            log.warn("Could not read archived changes of session {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not read the change archive"));
+        }
+    }
+
+    @GetMapping("/compiler/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> compilationCacheStats() {
+        return ResponseEntity.ok(compilerFactory.getCompilationCacheStats());
+    }
 }
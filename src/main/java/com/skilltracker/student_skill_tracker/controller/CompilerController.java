@@ -4,12 +4,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,21 +23,27 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.skilltracker.student_skill_tracker.compiler.BatchExecutionResult;
 import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
 import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
 import com.skilltracker.student_skill_tracker.compiler.CompilerInfo;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionRejectedException;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionScheduler;
+import com.skilltracker.student_skill_tracker.dto.BatchExecutionRequest;
 import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
 import com.skilltracker.student_skill_tracker.dto.LeetCodeAuthConnectRequest;
 import com.skilltracker.student_skill_tracker.dto.LeetCodeSubmissionRequest;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.StudentRepository;
 import com.skilltracker.student_skill_tracker.service.CognitiveMetricService;
-import com.skilltracker.student_skill_tracker.service.ForgettingVelocityService;
-import com.skilltracker.student_skill_tracker.service.JDoodleCompilerService;
+import com.skilltracker.student_skill_tracker.service.CompilationCompletedEvent;
+import com.skilltracker.student_skill_tracker.service.CompilationSideEffectPipeline;
+import com.skilltracker.student_skill_tracker.service.ExecutionRouter;
 import com.skilltracker.student_skill_tracker.service.LeetCodeService;
-import com.skilltracker.student_skill_tracker.service.RishiToolRegistry;
 import com.skilltracker.student_skill_tracker.service.TokenCryptoService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/compiler")
 public class CompilerController {
@@ -47,31 +57,34 @@ public class CompilerController {
     private final StudentRepository studentRepository;
     private final TokenCryptoService tokenCryptoService;
     private final CognitiveMetricService cognitiveMetricService;
-    private final ForgettingVelocityService forgettingVelocityService;
     private final SimpMessagingTemplate messagingTemplate;
-    private final RishiToolRegistry rishiToolRegistry;
+    private final CompilationSideEffectPipeline compilationSideEffectPipeline;
+    private final ApplicationEventPublisher eventPublisher;
     private final CompilerFactory compilerFactory;
-    private final JDoodleCompilerService jdoodleCompilerService;
+    private final ExecutionRouter executionRouter;
+    private final ExecutionScheduler executionScheduler;
 
     public CompilerController(
             LeetCodeService leetCodeService,
             StudentRepository studentRepository,
             TokenCryptoService tokenCryptoService,
             CognitiveMetricService cognitiveMetricService,
-            ForgettingVelocityService forgettingVelocityService,
             SimpMessagingTemplate messagingTemplate,
-            RishiToolRegistry rishiToolRegistry,
+            CompilationSideEffectPipeline compilationSideEffectPipeline,
+            ApplicationEventPublisher eventPublisher,
             CompilerFactory compilerFactory,
-            JDoodleCompilerService jdoodleCompilerService) {
+            ExecutionRouter executionRouter,
+            ExecutionScheduler executionScheduler) {
         this.leetCodeService = leetCodeService;
         this.studentRepository = studentRepository;
         this.tokenCryptoService = tokenCryptoService;
         this.cognitiveMetricService = cognitiveMetricService;
-        this.forgettingVelocityService = forgettingVelocityService;
         this.messagingTemplate = messagingTemplate;
-        this.rishiToolRegistry = rishiToolRegistry;
+        this.compilationSideEffectPipeline = compilationSideEffectPipeline;
+        this.eventPublisher = eventPublisher;
         this.compilerFactory = compilerFactory;
-        this.jdoodleCompilerService = jdoodleCompilerService;
+        this.executionRouter = executionRouter;
+        this.executionScheduler = executionScheduler;
     }
 
     /**
@@ -80,29 +93,23 @@ public class CompilerController {
      */
     @PostMapping("/execute")
     public ResponseEntity<?> executeCode(@jakarta.validation.Valid @RequestBody CodeExecutionRequest request,
-            Authentication authentication) {
+            Authentication authentication, HttpServletRequest httpRequest) {
         logger.info("Code execution request: language={}, timeout={}s",
                 request.getLanguage(), request.getTimeoutSeconds());
 
-        Optional<Student> studentOpt = getCurrentStudent(authentication);
+        LocalDateTime requestedAt = LocalDateTime.now();
+        Optional<Student> loaded = getCurrentStudent(authentication);
+        // Side effects of the previous run may still be committing a lock; reload once they land
+        Optional<Student> studentOpt = loaded.isPresent()
+                && compilationSideEffectPipeline.awaitPending(loaded.get().getId())
+                        ? getCurrentStudent(authentication)
+                        : loaded;
 
         // --- AGENT AUTHORITY: Compiler Lock Check ---
         if (studentOpt.isPresent() && studentOpt.get().isCompilerLocked()) {
-            Student locked = studentOpt.get();
-            return ResponseEntity.status(423).body(Map.of(
-                    "error", "Compiler locked by Rishi",
-                    "reason",
-                    locked.getCompilerLockReason() != null ? locked.getCompilerLockReason() : "Agent intervention",
-                    "lockedUntil", locked.getCompilerLockedUntil().toString(),
-                    "remainingSeconds",
-                    java.time.Duration.between(LocalDateTime.now(), locked.getCompilerLockedUntil()).getSeconds()));
+            return compilerLocked(studentOpt.get());
         }
 
-        studentOpt.ifPresent(student -> {
-            cognitiveMetricService.trackPlanningTime(student, request.getProblemSlug());
-            cognitiveMetricService.trackRecoveryVelocity(student);
-        });
-
         // Validate language
         if (request.getLanguage() == null || request.getLanguage().isBlank()) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -135,78 +142,31 @@ public class CompilerController {
         }
 
         // Enforce timeout limits (min 1s, max 30s)
-        int timeout = Math.max(1, Math.min(30, request.getTimeoutSeconds()));
+        request.setTimeoutSeconds(Math.max(1, Math.min(30, request.getTimeoutSeconds())));
 
-        try {
-            long startTime = System.currentTimeMillis();
+        // Local runs are queued fairly per student and bounded globally
+        String owner = executionOwner(studentOpt, authentication, httpRequest);
 
-            CompilationResult result = jdoodleCompilerService.executeRemotely(request);
-            if (jdoodleCompilerService.isAuthorizationFailure(result)) {
-                logger.warn("JDoodle authorization failed for language {}", request.getLanguage());
-            }
+        try {
+            long started = System.nanoTime();
+            CompilationResult result = executionRouter.execute(owner, request);
+            long queuedMs = result.getQueueWaitMs() != null ? result.getQueueWaitMs() : 0;
+            long elapsed = Math.max(0, (System.nanoTime() - started) / 1_000_000 - queuedMs);
 
-            long elapsed = System.currentTimeMillis() - startTime;
             result.setExecutionTime(elapsed + "ms");
             result.setLanguage(request.getLanguage());
             result.setTimestamp(LocalDateTime.now());
 
-            logger.info("Execution complete: success={}, time={}ms", result.isSuccess(), elapsed);
-
-            studentOpt.ifPresent(student -> {
-                int consecutiveFailures = cognitiveMetricService.recordCompilation(student, result.isSuccess());
-
-                if (result.isSuccess()) {
-                    String topicSlug = request.getProblemSlug() != null ? request.getProblemSlug() : "general-coding";
-                    forgettingVelocityService.recordEventAndUpdateMastery(
-                            student,
-                            topicSlug,
-                            "COMPILER_RUN",
-                            elapsed,
-                            0, // Zero errors on success
-                            true,
-                            false,
-                            "{}");
-                    // Reset escalation on success
-                    if (student.getLockEscalationLevel() != null && student.getLockEscalationLevel() > 0) {
-                        student.setLockEscalationLevel(0);
-                        studentRepository.save(student);
-                    }
-                } else if (consecutiveFailures >= 5) {
-                    // Progressive Lock Escalation
-                    int level = student.getLockEscalationLevel() != null ? student.getLockEscalationLevel() : 0;
-                    rishiToolRegistry.bindStudent(student);
-                    try {
-                        if (consecutiveFailures >= 15 || level >= 2) {
-                            // Level 2: Nuclear — 30 min lock + practice task
-                            rishiToolRegistry.lockCompiler(30,
-                                    "Severe rage-compiling (" + consecutiveFailures
-                                            + " failures). 30-minute cooldown enforced.");
-                            rishiToolRegistry.createPracticeTask(
-                                    request.getProblemSlug() != null ? request.getProblemSlug() : "general",
-                                    "Review fundamentals — triggered by " + consecutiveFailures
-                                            + " consecutive failures",
-                                    45,
-                                    "AUTO_ESCALATION_L2");
-                        } else if (consecutiveFailures >= 10 || level >= 1) {
-                            // Level 1: Serious — 10 min lock
-                            rishiToolRegistry.lockCompiler(10,
-                                    "Repeated failures (" + consecutiveFailures
-                                            + "). 10-minute break. Write pseudocode before retrying.");
-                        } else {
-                            // Level 0: Warning — 3 min lock
-                            rishiToolRegistry.lockCompiler(3,
-                                    "5 consecutive failures detected. Take 3 minutes to re-read the problem.");
-                        }
-                    } finally {
-                        rishiToolRegistry.clearStudent();
-                    }
-                    student.setLockEscalationLevel(level + 1);
-                    studentRepository.save(student);
-                }
-            });
+            logger.info("Execution complete on {}: success={}, time={}ms, queued={}ms at position {}",
+                    result.getBackend(), result.isSuccess(), elapsed, queuedMs, result.getQueuePosition());
+
+            studentOpt.ifPresent(student -> eventPublisher.publishEvent(new CompilationCompletedEvent(
+                    student.getId(), request.getProblemSlug(), result.isSuccess(), elapsed, requestedAt)));
 
             return ResponseEntity.ok(result);
 
+        } catch (ExecutionRejectedException e) {
+            return executionRejected(owner, e);
         } catch (Exception e) {
             logger.error("Execution failed", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -214,6 +174,88 @@ public class CompilerController {
         }
     }
 
+    /**
+     * Run code against several stdin/expected-output test cases, compiling
+     * once. Uses the configured compilers (Piston or local), not the router.
+     */
+    @PostMapping("/execute-batch")
+    public ResponseEntity<?> executeBatch(@jakarta.validation.Valid @RequestBody BatchExecutionRequest request,
+            Authentication authentication, HttpServletRequest httpRequest) {
+        Optional<Student> studentOpt = getCurrentStudent(authentication);
+        if (studentOpt.isPresent() && studentOpt.get().isCompilerLocked()) {
+            return compilerLocked(studentOpt.get());
+        }
+        if (!compilerFactory.isLanguageSupported(request.getLanguage())) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Unsupported language: " + request.getLanguage()));
+        }
+
+        // Per test case; a local batch still runs as one scheduled execution
+        int timeout = Math.max(1, Math.min(10, request.getTimeoutSeconds()));
+        String owner = executionOwner(studentOpt, authentication, httpRequest);
+        try {
+            Callable<BatchExecutionResult> batch = () -> compilerFactory
+                    .getCompiler(request.getLanguage())
+                    .executeBatch(request.getSourceCode(), request.getTestCases(), timeout);
+            BatchExecutionResult result = "local".equals(compilerFactory.getBackendName())
+                    ? executionScheduler.execute(owner, batch).value()
+                    : batch.call();
+            result.setLanguage(request.getLanguage());
+            logger.info("Batch execution complete: {}/{} passed, compile={}ms, total={}ms",
+                    result.getPassed(), result.getTotal(), result.getCompileTimeMs(), result.getTotalTimeMs());
+            return ResponseEntity.ok(result);
+        } catch (ExecutionRejectedException e) {
+            return executionRejected(owner, e);
+        } catch (Exception e) {
+            logger.error("Batch execution failed", e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "error", "Execution failed: " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> compilerLocked(Student locked) {
+        return ResponseEntity.status(423).body(Map.of(
+                "error", "Compiler locked by Rishi",
+                "reason",
+                locked.getCompilerLockReason() != null ? locked.getCompilerLockReason() : "Agent intervention",
+                "lockedUntil", locked.getCompilerLockedUntil().toString(),
+                "remainingSeconds",
+                java.time.Duration.between(LocalDateTime.now(), locked.getCompilerLockedUntil()).getSeconds()));
+    }
+
+    /**
+     * The fairness key for queued runs: the student, else the signed-in user,
+     * else the caller's address so anonymous callers do not share one slot.
+     */
+    private static String executionOwner(Optional<Student> studentOpt, Authentication authentication,
+            HttpServletRequest httpRequest) {
+        if (studentOpt.isPresent()) {
+            return "student:" + studentOpt.get().getId();
+        }
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + clientIp(httpRequest);
+    }
+
+    private static String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static ResponseEntity<?> executionRejected(String owner, ExecutionRejectedException e) {
+        logger.info("Execution rejected for {}: {}", owner, e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "error", e.getMessage(),
+                        "retryAfterSeconds", e.getRetryAfterSeconds()));
+    }
+
     /**
      * Get list of available compilers/interpreters on this server.
      */
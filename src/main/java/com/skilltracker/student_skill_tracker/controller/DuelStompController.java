@@ -1,5 +1,6 @@
 package com.skilltracker.student_skill_tracker.controller;
 
+import java.security.Principal;
 import java.util.Map;
 
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -32,8 +33,19 @@ public class DuelStompController {
     }
 
     @MessageMapping("/duel/{sessionId}/submitAnswer")
-    public void handleSubmitAnswer(@DestinationVariable String sessionId, @Payload Map<String, Object> payload) {
-        String username = (String) payload.getOrDefault("username", "");
+    public void handleSubmitAnswer(@DestinationVariable String sessionId, @Payload Map<String, Object> payload,
+            Principal principal) {
+        // Answers are scored for the authenticated connection, never for a name in the payload
+        if (principal == null) {
+            return;
+        }
+        String username = principal.getName();
+        String sourceCode = (String) payload.get("sourceCode");
+        if (sourceCode != null && !sourceCode.isBlank()) {
+            // CODING rounds with code attached are scored on the server
+            duelService.submitCodingSolution(sessionId, username, (String) payload.get("language"), sourceCode);
+            return;
+        }
         String answer = (String) payload.getOrDefault("answer", "");
         duelService.submitRoundAnswer(sessionId, username, answer);
     }
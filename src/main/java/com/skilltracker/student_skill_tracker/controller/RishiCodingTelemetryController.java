@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeBatchRequest;
 import com.skilltracker.student_skill_tracker.dto.RishiActivityBreakdownResponse;
@@ -28,6 +29,7 @@ import com.skilltracker.student_skill_tracker.dto.RishiSessionStartRequest;
 import com.skilltracker.student_skill_tracker.dto.RishiSessionStartResponse;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.service.RishiCodeChangeBinaryCodec;
 import com.skilltracker.student_skill_tracker.service.RishiCodingTelemetryService;
 
 @RestController
@@ -57,6 +59,30 @@ public class RishiCodingTelemetryController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/sessions/{sessionId}/events", consumes = RishiCodeChangeBinaryCodec.MEDIA_TYPE)
+    public ResponseEntity<?> recordEncodedChanges(
+            Authentication authentication,
+            @PathVariable Long sessionId,
+            @RequestBody byte[] body) {
+        Optional<Student> studentOpt = getCurrentStudent(authentication);
+        if (studentOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            int accepted = rishiCodingTelemetryService.recordEncodedChanges(studentOpt.get(), sessionId, body);
+            return ResponseEntity.ok(Map.of("acceptedEvents", accepted));
+        } catch (RishiCodeChangeBinaryCodec.MalformedBatchException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", ex.getMessage(), "acceptedEvents", 0));
+        }
+    }
+
     @PostMapping("/sessions/{sessionId}/events")
     public ResponseEntity<?> recordChanges(
             Authentication authentication,
@@ -72,6 +98,10 @@ public class RishiCodingTelemetryController {
             return ResponseEntity.ok(Map.of("acceptedEvents", accepted));
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", ex.getMessage(), "acceptedEvents", 0));
         }
     }
 
@@ -148,12 +178,16 @@ public class RishiCodingTelemetryController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
         }
 
-        String csv = rishiCodingTelemetryService.exportAttemptHistoryCsv(studentOpt.get(), days);
-        String filename = "rishi_attempt_history_" + Math.max(7, Math.min(60, days)) + "d.csv";
+        Student student = studentOpt.get();
+        boolean admin = hasAdminRole(authentication);
+        int windowDays = RishiCodingTelemetryService.exportWindowDays(days, admin);
+        StreamingResponseBody body = out -> rishiCodingTelemetryService.exportAttemptHistoryCsv(
+                student, windowDays, admin, out);
+        String filename = "rishi_attempt_history_" + windowDays + "d.csv";
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType("text/csv"))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(csv);
+                .body(body);
     }
 
     @GetMapping("/activity-breakdown")
@@ -169,6 +203,15 @@ public class RishiCodingTelemetryController {
         return ResponseEntity.ok(response);
     }
 
+    private boolean hasAdminRole(Authentication authentication) {
+        Authentication auth = authentication;
+        if (auth == null) {
+            auth = SecurityContextHolder.getContext().getAuthentication();
+        }
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
     private Optional<Student> getCurrentStudent(Authentication authentication) {
         Authentication auth = authentication;
         if (auth == null) {
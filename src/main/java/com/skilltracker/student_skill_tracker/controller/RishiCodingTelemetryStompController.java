@@ -0,0 +1,54 @@
+package com.skilltracker.student_skill_tracker.controller;
+
+import java.util.Map;
+
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeBatchRequest;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.security.StompJwtChannelInterceptor;
+import com.skilltracker.student_skill_tracker.service.RishiCodingTelemetryService;
+
+/**
+ * STOMP twin of {@code POST /api/rishi/coding/sessions/{id}/events}. Clients
+ * send batches to {@code /app/rishi/coding/sessions/{id}/events} on a
+ * connection authenticated at CONNECT time and receive one reply per batch
+ * on {@code /user/queue/rishi/coding/events}.
+ */
+@Controller
+public class RishiCodingTelemetryStompController {
+
+    static final String REPLY_DESTINATION = "/queue/rishi/coding/events";
+
+    private final RishiCodingTelemetryService rishiCodingTelemetryService;
+
+    public RishiCodingTelemetryStompController(RishiCodingTelemetryService rishiCodingTelemetryService) {
+        this.rishiCodingTelemetryService = rishiCodingTelemetryService;
+    }
+
+    @MessageMapping("/rishi/coding/sessions/{sessionId}/events")
+    @SendToUser(destinations = REPLY_DESTINATION, broadcast = false)
+    public Map<String, Object> recordChanges(
+            @DestinationVariable Long sessionId,
+            @Payload(required = false) RishiCodeChangeBatchRequest request,
+            SimpMessageHeaderAccessor headerAccessor) {
+        Student student = StompJwtChannelInterceptor.authenticatedStudent(headerAccessor.getSessionAttributes());
+        if (student == null) {
+            return Map.of("sessionId", sessionId, "status", 401, "error", "Not authenticated");
+        }
+
+        try {
+            int accepted = rishiCodingTelemetryService.recordChanges(student, sessionId, request);
+            return Map.of("sessionId", sessionId, "status", 200, "acceptedEvents", accepted);
+        } catch (IllegalArgumentException ex) {
+            return Map.of("sessionId", sessionId, "status", 404, "error", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            return Map.of("sessionId", sessionId, "status", 429, "error", ex.getMessage(), "acceptedEvents", 0);
+        }
+    }
+}
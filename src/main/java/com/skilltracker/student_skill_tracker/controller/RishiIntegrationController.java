@@ -4,6 +4,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -34,6 +35,7 @@ import com.skilltracker.student_skill_tracker.dto.RishiTogglFocusSyncRequest;
 import com.skilltracker.student_skill_tracker.dto.RishiTogglTokenRequest;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.service.ConnectorGuard;
 import com.skilltracker.student_skill_tracker.service.RishiIntegrationService;
 
 @RestController
@@ -82,7 +84,7 @@ public class RishiIntegrationController {
             RishiOAuthUrlResponse response = rishiIntegrationService.createGoogleAuthUrl(studentOpt.get(), redirectUri);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -99,7 +101,7 @@ public class RishiIntegrationController {
             RishiIntegrationStatusResponse status = rishiIntegrationService.getStatus(studentOpt.get());
             return ResponseEntity.ok(Map.of("provider", provider, "status", status));
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -115,7 +117,7 @@ public class RishiIntegrationController {
             RishiScheduleResponse response = rishiIntegrationService.scheduleNextBlocks(studentOpt.get(), request);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -131,7 +133,7 @@ public class RishiIntegrationController {
             RishiScheduleResponse response = rishiIntegrationService.autoRescheduleMissedBlocks(studentOpt.get(), request);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -147,7 +149,7 @@ public class RishiIntegrationController {
             RishiCoachingSummaryResponse response = rishiIntegrationService.getCoachingSummary(studentOpt.get(), days);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -164,7 +166,7 @@ public class RishiIntegrationController {
             String savedHandle = rishiIntegrationService.setCodeforcesHandle(studentOpt.get(), handle);
             return ResponseEntity.ok(Map.of("codeforcesHandle", savedHandle));
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -181,7 +183,7 @@ public class RishiIntegrationController {
             rishiIntegrationService.setTogglToken(studentOpt.get(), token);
             return ResponseEntity.ok(Map.of("status", "connected"));
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -198,7 +200,7 @@ public class RishiIntegrationController {
             RishiGithubAnalyticsDto response = rishiIntegrationService.syncGithubAnalytics(studentOpt.get(), windowDays);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -236,7 +238,7 @@ public class RishiIntegrationController {
             RishiLeetCodeAnalyticsDto response = rishiIntegrationService.syncLeetCodeAnalytics(studentOpt.get(), windowDays);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -283,7 +285,7 @@ public class RishiIntegrationController {
             RishiCodeforcesAnalyticsDto response = rishiIntegrationService.syncCodeforcesAnalytics(studentOpt.get(), windowDays);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -328,7 +330,7 @@ public class RishiIntegrationController {
             RishiTogglFocusDto response = rishiIntegrationService.syncTogglFocus(studentOpt.get(), windowDays);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+            return integrationError(ex);
         }
     }
 
@@ -390,6 +392,18 @@ public class RishiIntegrationController {
         return ResponseEntity.ok(Map.of("status", "ok"));
     }
 
+    /** An open connector circuit is a 503 with a retry hint; anything else is the request's fault. */
+    private ResponseEntity<?> integrationError(RuntimeException ex) {
+        if (ex instanceof ConnectorGuard.ConnectorUnavailableException unavailable) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(unavailable.getRetryAfterSeconds()))
+                    .body(Map.of(
+                            "error", unavailable.getMessage(),
+                            "retryAfterSeconds", unavailable.getRetryAfterSeconds()));
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+    }
+
     private Optional<Student> getCurrentStudent(Authentication auth) {
         if (auth == null || auth.getName() == null || auth.getName().isBlank()) {
             return Optional.empty();
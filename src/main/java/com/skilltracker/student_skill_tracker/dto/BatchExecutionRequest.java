@@ -0,0 +1,32 @@
+package com.skilltracker.student_skill_tracker.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.skilltracker.student_skill_tracker.compiler.TestCase;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExecutionRequest {
+
+    @NotBlank(message = "Source code cannot be empty")
+    @Size(max = 200_000, message = "Source code exceeds the maximum allowed size of 200KB")
+    private String sourceCode;
+
+    @NotBlank(message = "Language is required")
+    private String language;
+
+    @NotEmpty(message = "At least one test case is required")
+    @Size(max = 50, message = "At most 50 test cases can be run at once")
+    private List<@Valid TestCase> testCases;
+
+    private int timeoutSeconds = 5; // per test case
+}
@@ -26,4 +26,6 @@ public class RishiCodeforcesAnalyticsDto {
     private String strongTags;
     private String weakTags;
     private String capturedAt;
+    /** True when the connector was unavailable and this is the last stored snapshot. */
+    private boolean stale;
 }
@@ -22,5 +22,7 @@ public class RishiGithubAnalyticsDto {
     private int totalStars;
     private String topLanguages;
     private String capturedAt;
+    /** True when the connector was unavailable and this is the last stored snapshot. */
+    private boolean stale;
 }
 
@@ -16,4 +16,6 @@ public class RishiTogglFocusDto {
     private long trackedMinutes;
     private int entryCount;
     private String capturedAt;
+    /** True when the connector was unavailable and this is the last stored snapshot. */
+    private boolean stale;
 }
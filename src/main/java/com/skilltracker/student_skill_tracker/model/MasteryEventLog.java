@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "mastery_event_log")
+@Table(name = "mastery_event_log",
+        indexes = @Index(name = "idx_mastery_event_log_student_topic_time",
+                columnList = "student_id, topic_slug, created_at"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -32,5 +34,7 @@ public class MasteryEventLog {
     private boolean highPressure; // true if in a Duel
     private String metadataJson; // Store specific errors or performance tags
 
+    // Partition key of mastery_event_log, so it must always be set.
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 }
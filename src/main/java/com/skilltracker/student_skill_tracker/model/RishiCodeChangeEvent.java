@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
@@ -21,7 +22,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "rishi_code_change_events")
+@Table(name = "rishi_code_change_events",
+        indexes = @Index(name = "idx_rishi_change_events_session_time", columnList = "session_id, occurred_at"))
 @Getter
 @Setter
 @NoArgsConstructor
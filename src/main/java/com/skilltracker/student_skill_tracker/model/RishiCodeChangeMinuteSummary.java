@@ -0,0 +1,71 @@
+package com.skilltracker.student_skill_tracker.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Compacted stand-in for archived {@link RishiCodeChangeEvent} rows: one row
+ * per session and minute. The raw events live in the change archive files.
+ */
+@Entity
+@Table(name = "rishi_code_change_minute_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rishi_change_minute",
+                columnNames = { "session_id", "bucket_start" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RishiCodeChangeMinuteSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "session_id", nullable = false)
+    private RishiCodingSession session;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "change_events", nullable = false)
+    @Builder.Default
+    private Integer changeEvents = 0;
+
+    @Column(name = "inserted_chars", nullable = false)
+    @Builder.Default
+    private Long insertedChars = 0L;
+
+    @Column(name = "deleted_chars", nullable = false)
+    @Builder.Default
+    private Long deletedChars = 0L;
+
+    // State and code length after the last change of the minute.
+    @Column(name = "activity_state", length = 40)
+    private String activityState;
+
+    @Column(name = "resulting_code_length")
+    private Integer resultingCodeLength;
+
+    @CreationTimestamp
+    @Column(name = "archived_at", updatable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,56 @@
+package com.skilltracker.student_skill_tracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One judged Codeforces submission, kept per (lower-cased) handle so a sync
+ * only downloads what is newer than {@link RishiCodeforcesSyncState}'s
+ * high-water mark. Only the fields the analytics use are stored.
+ */
+@Entity
+@Table(name = "rishi_codeforces_submissions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rishi_cf_submission",
+                columnNames = { "handle", "submission_id" }),
+        indexes = @Index(name = "idx_rishi_cf_submissions_handle_time", columnList = "handle, creation_time_seconds"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RishiCodeforcesSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "handle", nullable = false, length = 120)
+    private String handle;
+
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+
+    @Column(name = "creation_time_seconds", nullable = false)
+    private Long creationTimeSeconds;
+
+    @Column(name = "accepted", nullable = false)
+    private boolean accepted;
+
+    @Column(name = "problem_key", length = 255)
+    private String problemKey;
+
+    /** Problem tags, comma separated. */
+    @Column(name = "tags", length = 1024)
+    private String tags;
+}
@@ -0,0 +1,63 @@
+package com.skilltracker.student_skill_tracker.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Incremental Codeforces totals for one (lower-cased) handle: the newest
+ * submission stored so far and the all-time aggregates, which are bumped as
+ * new submissions arrive instead of being recomputed from the history.
+ */
+@Entity
+@Table(name = "rishi_codeforces_sync_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RishiCodeforcesSyncState {
+
+    @Id
+    @Column(name = "handle", length = 120)
+    private String handle;
+
+    @Column(name = "last_submission_id")
+    private Long lastSubmissionId;
+
+    @Column(name = "last_creation_time_seconds")
+    private Long lastCreationTimeSeconds;
+
+    /** Distinct problems with at least one accepted submission. */
+    @Column(name = "solved_total", nullable = false)
+    @Builder.Default
+    private Integer solvedTotal = 0;
+
+    /** Accepted submissions per problem tag. */
+    @ElementCollection
+    @CollectionTable(name = "rishi_codeforces_tag_counts", joinColumns = @JoinColumn(name = "handle"))
+    @MapKeyColumn(name = "tag", length = 120)
+    @Column(name = "accepted_count", nullable = false)
+    @Builder.Default
+    private Map<String, Integer> acceptedByTag = new HashMap<>();
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -3,6 +3,7 @@ package com.skilltracker.student_skill_tracker.model;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
@@ -11,6 +12,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +23,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "rishi_coding_sessions")
+@Table(name = "rishi_coding_sessions",
+        indexes = @Index(name = "idx_rishi_sessions_student_started", columnList = "student_id, started_at"))
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -76,6 +80,33 @@ public class RishiCodingSession {
     @Builder.Default
     private Long tabHiddenDurationMs = 0L;
 
+    @Column(name = "last_change_at")
+    private LocalDateTime lastChangeAt;
+
+    @Column(name = "last_change_state", length = 40)
+    private String lastChangeState;
+
+    // Running AFK-clamped totals derived from the change stream, excluding the gap after the last change.
+    @Column(name = "observed_active_ms")
+    @Builder.Default
+    private Long observedActiveMs = 0L;
+
+    @Column(name = "observed_typing_ms")
+    @Builder.Default
+    private Long observedTypingMs = 0L;
+
+    @Column(name = "observed_cursor_idle_ms")
+    @Builder.Default
+    private Long observedCursorIdleMs = 0L;
+
+    @Column(name = "observed_editor_unfocused_ms")
+    @Builder.Default
+    private Long observedEditorUnfocusedMs = 0L;
+
+    @Column(name = "observed_tab_hidden_ms")
+    @Builder.Default
+    private Long observedTabHiddenMs = 0L;
+
     @Column(name = "total_change_events")
     @Builder.Default
     private Integer totalChangeEvents = 0;
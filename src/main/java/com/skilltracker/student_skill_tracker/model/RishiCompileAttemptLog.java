@@ -10,6 +10,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
@@ -21,7 +22,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "rishi_compile_attempt_logs")
+@Table(name = "rishi_compile_attempt_logs",
+        indexes = {
+                @Index(name = "idx_rishi_attempt_logs_student_time", columnList = "student_id, attempted_at"),
+                @Index(name = "idx_rishi_attempt_logs_session_time", columnList = "session_id, attempted_at") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,6 +41,11 @@ public class RishiCompileAttemptLog {
     @JoinColumn(name = "session_id", nullable = false)
     private RishiCodingSession session;
 
+    // Copy of session.student so student/time-range reads skip the session join.
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
     @Column(name = "attempted_at", nullable = false)
     private LocalDateTime attemptedAt;
 
@@ -0,0 +1,46 @@
+package com.skilltracker.student_skill_tracker.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * When a student's connector (GitHub, LeetCode, Codeforces, Toggl) last
+ * produced a snapshot, so the background sync can rank pairs without
+ * aggregating the snapshot tables on every tick.
+ */
+@Entity
+@Table(name = "rishi_connector_sync_state",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rishi_connector_sync_state",
+                columnNames = { "connector", "student_id" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RishiConnectorSyncState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "connector", nullable = false, length = 32)
+    private String connector;
+
+    @Column(name = "last_synced_at", nullable = false)
+    private LocalDateTime lastSyncedAt;
+}
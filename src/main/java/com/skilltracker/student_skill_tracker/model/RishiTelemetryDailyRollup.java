@@ -0,0 +1,131 @@
+package com.skilltracker.student_skill_tracker.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-day telemetry totals for one student.
+ *
+ * Compile attempts are keyed by their attempt source and mistake category.
+ * Ended coding sessions are rolled up on the day they started under the
+ * reserved {@link #SESSION_CATEGORY}, which the attempt classifier never
+ * produces.
+ */
+@Entity
+@Table(name = "rishi_telemetry_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rishi_rollup_key",
+                columnNames = { "student_id", "rollup_day", "source", "category" }),
+        indexes = @Index(name = "idx_rishi_rollup_student_day", columnList = "student_id, rollup_day"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RishiTelemetryDailyRollup {
+
+    public static final String SESSION_SOURCE = "coding_session";
+    public static final String SESSION_CATEGORY = "SESSION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "source", nullable = false, length = 64)
+    private String source;
+
+    @Column(name = "category", nullable = false, length = 64)
+    private String category;
+
+    // --- Compile attempts ---
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Long attempts = 0L;
+
+    @Column(name = "successful_attempts", nullable = false)
+    @Builder.Default
+    private Long successfulAttempts = 0L;
+
+    // Unrounded sum of accuracy percentages; averages are rounded once when read.
+    @Column(name = "accuracy_sum", nullable = false)
+    @Builder.Default
+    private Double accuracySum = 0.0;
+
+    // --- Ended coding sessions ---
+    @Column(name = "sessions", nullable = false)
+    @Builder.Default
+    private Long sessions = 0L;
+
+    @Column(name = "coding_duration_ms", nullable = false)
+    @Builder.Default
+    private Long codingDurationMs = 0L;
+
+    @Column(name = "compile_attempts", nullable = false)
+    @Builder.Default
+    private Long compileAttempts = 0L;
+
+    @Column(name = "successful_compiles", nullable = false)
+    @Builder.Default
+    private Long successfulCompiles = 0L;
+
+    @Column(name = "change_events", nullable = false)
+    @Builder.Default
+    private Long changeEvents = 0L;
+
+    @Column(name = "first_success_count", nullable = false)
+    @Builder.Default
+    private Long firstSuccessCount = 0L;
+
+    @Column(name = "first_success_duration_ms", nullable = false)
+    @Builder.Default
+    private Long firstSuccessDurationMs = 0L;
+
+    @Column(name = "typing_ms", nullable = false)
+    @Builder.Default
+    private Long typingMs = 0L;
+
+    @Column(name = "cursor_idle_ms", nullable = false)
+    @Builder.Default
+    private Long cursorIdleMs = 0L;
+
+    @Column(name = "editor_unfocused_ms", nullable = false)
+    @Builder.Default
+    private Long editorUnfocusedMs = 0L;
+
+    @Column(name = "tab_hidden_ms", nullable = false)
+    @Builder.Default
+    private Long tabHiddenMs = 0L;
+
+    @Column(name = "active_ms", nullable = false)
+    @Builder.Default
+    private Long activeMs = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
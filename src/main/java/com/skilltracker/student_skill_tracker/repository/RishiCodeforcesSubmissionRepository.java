@@ -0,0 +1,13 @@
+package com.skilltracker.student_skill_tracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSubmission;
+
+public interface RishiCodeforcesSubmissionRepository extends JpaRepository<RishiCodeforcesSubmission, Long> {
+    List<RishiCodeforcesSubmission> findByHandleAndCreationTimeSecondsGreaterThanEqual(String handle, Long since);
+
+    boolean existsByHandleAndProblemKeyAndAcceptedTrue(String handle, String problemKey);
+}
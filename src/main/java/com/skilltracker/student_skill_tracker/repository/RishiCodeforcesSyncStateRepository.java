@@ -0,0 +1,20 @@
+package com.skilltracker.student_skill_tracker.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSyncState;
+
+import jakarta.persistence.LockModeType;
+
+public interface RishiCodeforcesSyncStateRepository extends JpaRepository<RishiCodeforcesSyncState, String> {
+
+    /** Locks the handle's row so two syncs of the same handle append one after the other. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RishiCodeforcesSyncState s WHERE s.handle = :handle")
+    Optional<RishiCodeforcesSyncState> findForUpdate(@Param("handle") String handle);
+}
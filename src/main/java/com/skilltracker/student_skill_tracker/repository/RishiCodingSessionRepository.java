@@ -13,6 +13,15 @@ public interface RishiCodingSessionRepository extends JpaRepository<RishiCodingS
 
     Optional<RishiCodingSession> findByIdAndStudent(Long id, Student student);
 
+    boolean existsByIdAndStudent(Long id, Student student);
+
     List<RishiCodingSession> findByStudentAndStartedAtBetween(Student student, LocalDateTime start, LocalDateTime end);
+
+    List<RishiCodingSession> findByStudentAndEndedAtIsNullAndStartedAtBetween(
+            Student student, LocalDateTime start, LocalDateTime end);
+
+    List<RishiCodingSession> findByStudentAndEndedAtIsNotNull(Student student);
+
+    long countByStudentAndEndedAtIsNotNull(Student student);
 }
 
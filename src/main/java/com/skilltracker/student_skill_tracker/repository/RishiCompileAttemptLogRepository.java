@@ -1,10 +1,19 @@
 package com.skilltracker.student_skill_tracker.repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.skilltracker.student_skill_tracker.model.RishiCodingSession;
 import com.skilltracker.student_skill_tracker.model.RishiCompileAttemptLog;
@@ -14,13 +23,130 @@ public interface RishiCompileAttemptLogRepository extends JpaRepository<RishiCom
 
     Optional<RishiCompileAttemptLog> findTopBySessionOrderByAttemptedAtDesc(RishiCodingSession session);
 
-    List<RishiCompileAttemptLog> findBySessionStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
+    List<RishiCompileAttemptLog> findByStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
             Student student,
             LocalDateTime start,
             LocalDateTime end);
 
-    List<RishiCompileAttemptLog> findTop5BySessionStudentOrderByAttemptedAtDesc(Student student);
+    List<RishiCompileAttemptLog> findByStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
+            Student student,
+            LocalDateTime start,
+            LocalDateTime end,
+            Pageable pageable);
+
+    /**
+     * Attempt counts per day, source, raw category and outcome. Accuracy is
+     * summed with the same success fallback the dashboards apply to rows
+     * without a score.
+     */
+    @Query(DAILY_ATTEMPT_AGGREGATE_SELECT
+            + "WHERE l.student = :student AND l.attemptedAt BETWEEN :start AND :end "
+            + DAILY_ATTEMPT_AGGREGATE_GROUP)
+    List<DailyAttemptAggregate> aggregateDailyAttempts(
+            @Param("student") Student student,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query(DAILY_ATTEMPT_AGGREGATE_SELECT
+            + "WHERE l.student = :student "
+            + DAILY_ATTEMPT_AGGREGATE_GROUP)
+    List<DailyAttemptAggregate> aggregateDailyAttempts(@Param("student") Student student);
+
+    /** Each student's latest compile attempt since {@code since}, as an activity signal. */
+    @Query("SELECT l.student.id AS studentId, MAX(l.attemptedAt) AS lastAt "
+            + "FROM RishiCompileAttemptLog l "
+            + "WHERE l.attemptedAt >= :since "
+            + "GROUP BY l.student.id")
+    List<StudentTimestamp> findLatestAttemptPerStudentSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT l.mistakeCategory AS category, COUNT(l) AS attempts "
+            + "FROM RishiCompileAttemptLog l "
+            + "WHERE l.student = :student AND l.attemptedAt > :since AND l.success = false "
+            + "AND l.mistakeCategory IS NOT NULL "
+            + "GROUP BY l.mistakeCategory "
+            + "ORDER BY COUNT(l) DESC")
+    List<CategoryCount> countFailedAttemptsByCategory(
+            @Param("student") Student student,
+            @Param("since") LocalDateTime since);
+
+    String DAILY_ATTEMPT_AGGREGATE_SELECT = "SELECT EXTRACT(DATE FROM l.attemptedAt) AS day, "
+            + "l.attemptSource AS source, l.mistakeCategory AS category, l.success AS success, "
+            + "COUNT(l) AS attempts, "
+            + "SUM(COALESCE(l.accuracyPct, CASE WHEN l.success = true THEN 100.0 ELSE 0.0 END)) AS accuracySum "
+            + "FROM RishiCompileAttemptLog l ";
+
+    String DAILY_ATTEMPT_AGGREGATE_GROUP = "GROUP BY EXTRACT(DATE FROM l.attemptedAt), l.attemptSource, "
+            + "l.mistakeCategory, l.success";
+
+    interface DailyAttemptAggregate {
+        LocalDate getDay();
+
+        String getSource();
+
+        String getCategory();
+
+        boolean isSuccess();
+
+        long getAttempts();
+
+        Double getAccuracySum();
+    }
+
+    interface CategoryCount {
+        String getCategory();
+
+        long getAttempts();
+    }
+
+    long countByStudent(Student student);
+
+    /**
+     * Streams the CSV export columns only, so the source snapshot and long
+     * snippets are never loaded. The caller must hold a transaction and close
+     * the stream.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.attemptedAt AS attemptedAt, l.attemptSource AS attemptSource, l.success AS success, "
+            + "l.failureBucket AS failureBucket, l.accuracyPct AS accuracyPct, "
+            + "l.mistakeCategory AS mistakeCategory, l.analysisSummary AS analysisSummary, "
+            + "l.nextStep1 AS nextStep1, l.nextStep2 AS nextStep2, l.nextStep3 AS nextStep3, "
+            + "l.errorSnippet AS errorSnippet, l.submissionStatus AS submissionStatus, "
+            + "l.judgeMessage AS judgeMessage "
+            + "FROM RishiCompileAttemptLog l "
+            + "WHERE l.student = :student AND l.attemptedAt BETWEEN :start AND :end "
+            + "ORDER BY l.attemptedAt DESC")
+    Stream<AttemptExportRow> streamExportRows(
+            @Param("student") Student student,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    interface AttemptExportRow {
+        LocalDateTime getAttemptedAt();
+
+        String getAttemptSource();
+
+        boolean isSuccess();
+
+        String getFailureBucket();
+
+        Double getAccuracyPct();
+
+        String getMistakeCategory();
+
+        String getAnalysisSummary();
+
+        String getNextStep1();
+
+        String getNextStep2();
+
+        String getNextStep3();
+
+        String getErrorSnippet();
+
+        String getSubmissionStatus();
+
+        String getJudgeMessage();
+    }
 
-    List<RishiCompileAttemptLog> findBySessionStudentAndAttemptedAtAfterAndSuccessFalse(
-            Student student, LocalDateTime since);
+    List<RishiCompileAttemptLog> findTop5ByStudentOrderByAttemptedAtDesc(Student student);
 }
@@ -0,0 +1,26 @@
+package com.skilltracker.student_skill_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.skilltracker.student_skill_tracker.model.RishiConnectorSyncState;
+
+public interface RishiConnectorSyncStateRepository extends JpaRepository<RishiConnectorSyncState, Long> {
+
+    @Query("SELECT s.studentId AS studentId, s.lastSyncedAt AS lastAt FROM RishiConnectorSyncState s "
+            + "WHERE s.connector = :connector")
+    List<StudentTimestamp> findLastSyncedPerStudent(@Param("connector") String connector);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RishiConnectorSyncState s SET s.lastSyncedAt = :syncedAt "
+            + "WHERE s.studentId = :studentId AND s.connector = :connector")
+    int markSynced(@Param("studentId") Long studentId, @Param("connector") String connector,
+            @Param("syncedAt") LocalDateTime syncedAt);
+}
@@ -1,13 +1,23 @@
 package com.skilltracker.student_skill_tracker.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.skilltracker.student_skill_tracker.model.RishiLeetCodeAnalyticsSnapshot;
 import com.skilltracker.student_skill_tracker.model.Student;
 
 public interface RishiLeetCodeAnalyticsSnapshotRepository extends JpaRepository<RishiLeetCodeAnalyticsSnapshot, Long> {
     Optional<RishiLeetCodeAnalyticsSnapshot> findTopByStudentOrderByCreatedAtDesc(Student student);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RishiLeetCodeAnalyticsSnapshot s WHERE s.student = :student AND s.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("student") Student student, @Param("cutoff") LocalDateTime cutoff);
 }
 
@@ -0,0 +1,84 @@
+package com.skilltracker.student_skill_tracker.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skilltracker.student_skill_tracker.model.RishiTelemetryDailyRollup;
+import com.skilltracker.student_skill_tracker.model.Student;
+
+public interface RishiTelemetryDailyRollupRepository extends JpaRepository<RishiTelemetryDailyRollup, Long> {
+
+    List<RishiTelemetryDailyRollup> findByStudentAndCategoryAndDayBetween(
+            Student student, String category, LocalDate startDay, LocalDate endDay);
+
+    List<RishiTelemetryDailyRollup> findByStudentAndCategoryNotAndDayBetween(
+            Student student, String category, LocalDate startDay, LocalDate endDay);
+
+    @Query("SELECT COALESCE(SUM(r.attempts), 0) FROM RishiTelemetryDailyRollup r WHERE r.student = :student")
+    long sumAttempts(@Param("student") Student student);
+
+    @Query("SELECT COALESCE(SUM(r.sessions), 0) FROM RishiTelemetryDailyRollup r WHERE r.student = :student")
+    long sumSessions(@Param("student") Student student);
+
+    @Modifying
+    @Query("DELETE FROM RishiTelemetryDailyRollup r WHERE r.student = :student")
+    int deleteAllForStudent(@Param("student") Student student);
+
+    @Modifying
+    @Query("UPDATE RishiTelemetryDailyRollup r SET "
+            + "r.attempts = r.attempts + :attempts, "
+            + "r.successfulAttempts = r.successfulAttempts + :successfulAttempts, "
+            + "r.accuracySum = r.accuracySum + :accuracySum, "
+            + "r.updatedAt = :now "
+            + "WHERE r.student = :student AND r.day = :day AND r.source = :source AND r.category = :category")
+    int incrementAttempts(
+            @Param("student") Student student,
+            @Param("day") LocalDate day,
+            @Param("source") String source,
+            @Param("category") String category,
+            @Param("attempts") long attempts,
+            @Param("successfulAttempts") long successfulAttempts,
+            @Param("accuracySum") double accuracySum,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RishiTelemetryDailyRollup r SET "
+            + "r.sessions = r.sessions + :sessions, "
+            + "r.codingDurationMs = r.codingDurationMs + :codingDurationMs, "
+            + "r.compileAttempts = r.compileAttempts + :compileAttempts, "
+            + "r.successfulCompiles = r.successfulCompiles + :successfulCompiles, "
+            + "r.changeEvents = r.changeEvents + :changeEvents, "
+            + "r.firstSuccessCount = r.firstSuccessCount + :firstSuccessCount, "
+            + "r.firstSuccessDurationMs = r.firstSuccessDurationMs + :firstSuccessDurationMs, "
+            + "r.typingMs = r.typingMs + :typingMs, "
+            + "r.cursorIdleMs = r.cursorIdleMs + :cursorIdleMs, "
+            + "r.editorUnfocusedMs = r.editorUnfocusedMs + :editorUnfocusedMs, "
+            + "r.tabHiddenMs = r.tabHiddenMs + :tabHiddenMs, "
+            + "r.activeMs = r.activeMs + :activeMs, "
+            + "r.updatedAt = :now "
+            + "WHERE r.student = :student AND r.day = :day AND r.source = :source AND r.category = :category")
+    int incrementSessions(
+            @Param("student") Student student,
+            @Param("day") LocalDate day,
+            @Param("source") String source,
+            @Param("category") String category,
+            @Param("sessions") long sessions,
+            @Param("codingDurationMs") long codingDurationMs,
+            @Param("compileAttempts") long compileAttempts,
+            @Param("successfulCompiles") long successfulCompiles,
+            @Param("changeEvents") long changeEvents,
+            @Param("firstSuccessCount") long firstSuccessCount,
+            @Param("firstSuccessDurationMs") long firstSuccessDurationMs,
+            @Param("typingMs") long typingMs,
+            @Param("cursorIdleMs") long cursorIdleMs,
+            @Param("editorUnfocusedMs") long editorUnfocusedMs,
+            @Param("tabHiddenMs") long tabHiddenMs,
+            @Param("activeMs") long activeMs,
+            @Param("now") LocalDateTime now);
+}
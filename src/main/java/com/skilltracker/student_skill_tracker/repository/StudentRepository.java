@@ -1,9 +1,12 @@
 package com.skilltracker.student_skill_tracker.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.skilltracker.student_skill_tracker.model.Student;
 
@@ -15,4 +18,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByLeetcodeUsername(String username);
 
     List<Student> findByNameContainingIgnoreCase(String name);
+
+    /** Students whose row changed or who compiled code since {@code since}. */
+    @Query("SELECT s FROM Student s WHERE s.updatedAt >= :since OR s.id IN ("
+            + "SELECT l.student.id FROM RishiCompileAttemptLog l WHERE l.attemptedAt >= :since)")
+    List<Student> findActiveSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,13 @@
+package com.skilltracker.student_skill_tracker.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a per-student {@code MAX(...)} query: the student's id and the
+ * latest matching timestamp.
+ */
+public interface StudentTimestamp {
+    Long getStudentId();
+
+    LocalDateTime getLastAt();
+}
@@ -0,0 +1,103 @@
+package com.skilltracker.student_skill_tracker.security;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+/**
+ * Authenticates a STOMP connection once, from the {@code Authorization}
+ * header of its CONNECT frame. The resolved student and token expiry are kept
+ * in the WebSocket session attributes so message handlers need no per-frame
+ * JWT parsing or user lookups. Connections without a valid token stay
+ * anonymous, as the duel channels do not require one.
+ */
+@Component
+public class StompJwtChannelInterceptor implements ChannelInterceptor {
+
+    public static final String STUDENT_ATTRIBUTE = "rishi.student";
+    public static final String TOKEN_EXPIRES_AT_ATTRIBUTE = "rishi.tokenExpiresAt";
+
+    private static final Logger logger = LoggerFactory.getLogger(StompJwtChannelInterceptor.class);
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsService userDetailsService;
+    private final StudentRepository studentRepository;
+
+    public StompJwtChannelInterceptor(JwtUtils jwtUtils, UserDetailsService userDetailsService,
+            StudentRepository studentRepository) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.studentRepository = studentRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.toLowerCase().startsWith("bearer ")) {
+            return message;
+        }
+
+        try {
+            String jwt = authHeader.substring(7).trim();
+            if (jwt.startsWith("\"") && jwt.endsWith("\"") && jwt.length() > 2) {
+                jwt = jwt.substring(1, jwt.length() - 1);
+            }
+
+            String userEmail = jwtUtils.extractUsername(jwt);
+            if (userEmail == null) {
+                return message;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            if (!jwtUtils.validateToken(jwt, userDetails)) {
+                return message;
+            }
+
+            accessor.setUser(new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities()));
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (attributes != null) {
+                Date expiresAt = jwtUtils.extractExpiration(jwt);
+                attributes.put(TOKEN_EXPIRES_AT_ATTRIBUTE, expiresAt.toInstant());
+                studentRepository.findByEmailIgnoreCase(userEmail)
+                        .ifPresent(student -> attributes.put(STUDENT_ATTRIBUTE, student));
+            }
+        } catch (Exception e) {
+            logger.debug("STOMP JWT validation failed: {}", e.getMessage());
+        }
+        return message;
+    }
+
+    /** The student authenticated on this connection, if its token has not expired since. */
+    public static Student authenticatedStudent(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null) {
+            return null;
+        }
+        Object expiresAt = sessionAttributes.get(TOKEN_EXPIRES_AT_ATTRIBUTE);
+        if (!(expiresAt instanceof Instant instant) || instant.isBefore(Instant.now())) {
+            return null;
+        }
+        Object student = sessionAttributes.get(STUDENT_ATTRIBUTE);
+        return student instanceof Student s ? s : null;
+    }
+}
@@ -28,7 +28,7 @@ public class CodeDiffService {
      */
     public String generateDiffSummary(Student student) {
         List<RishiCompileAttemptLog> recent = attemptLogRepository
-                .findTop5BySessionStudentOrderByAttemptedAtDesc(student);
+                .findTop5ByStudentOrderByAttemptedAtDesc(student);
 
         if (recent.size() < 2)
             return "";
@@ -0,0 +1,145 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams a Codeforces {@code user.status} response into {@link Submission}
+ * records. Only the fields the analytics aggregate are read; everything else
+ * in a submission (author and team members, language, test counters, ...)
+ * is skipped token by token, so a thousand-submission page is never held as
+ * nested maps of boxed values.
+ */
+final class CodeforcesStatusParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** The parts of one submission the analytics use. */
+    record Submission(long id, long creationTimeSeconds, String verdict, String problemKey, List<String> tags) {
+    }
+
+    private CodeforcesStatusParser() {
+    }
+
+    /**
+     * Submissions in response order (newest first).
+     *
+     * @throws IllegalStateException if Codeforces reports a non-OK status
+     */
+    static List<Submission> parse(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Codeforces user.status response is not a JSON object");
+            }
+            String status = "";
+            String comment = "";
+            List<Submission> submissions = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "status" -> status = parser.getValueAsString("");
+                    case "comment" -> comment = parser.getValueAsString("");
+                    case "result" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                submissions.add(readSubmission(parser));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!"OK".equalsIgnoreCase(status)) {
+                throw new IllegalStateException("Codeforces user.status error: "
+                        + (comment.isBlank() ? "Codeforces API request failed." : comment));
+            }
+            return submissions;
+        }
+    }
+
+    private static Submission readSubmission(JsonParser parser) throws IOException {
+        long id = 0L;
+        long creationTimeSeconds = 0L;
+        String verdict = "";
+        String problemKey = "";
+        List<String> tags = List.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsLong(0L);
+                case "creationTimeSeconds" -> creationTimeSeconds = parser.getValueAsLong(0L);
+                case "verdict" -> verdict = parser.getValueAsString("");
+                case "problem" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        ProblemFields problem = readProblem(parser);
+                        problemKey = problem.key();
+                        tags = problem.tags;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new Submission(id, creationTimeSeconds, verdict, problemKey, tags);
+    }
+
+    private static ProblemFields readProblem(JsonParser parser) throws IOException {
+        ProblemFields problem = new ProblemFields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "contestId" -> problem.contestId = parser.getValueAsString("");
+                case "index" -> problem.index = parser.getValueAsString("");
+                case "name" -> problem.name = parser.getValueAsString("");
+                case "problemsetName" -> problem.problemsetName = parser.getValueAsString("");
+                case "tags" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        List<String> tags = new ArrayList<>();
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            String tag = parser.getValueAsString("").trim();
+                            if (!tag.isEmpty()) {
+                                tags.add(tag);
+                            }
+                        }
+                        problem.tags = tags;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return problem;
+    }
+
+    private static final class ProblemFields {
+        private String contestId = "";
+        private String index = "";
+        private String name = "";
+        private String problemsetName = "";
+        private List<String> tags = List.of();
+
+        /** Contest and index, else problemset and name, else just the name. */
+        String key() {
+            if (!contestId.isBlank() && !index.isBlank()) {
+                return contestId + "-" + index;
+            }
+            if (!problemsetName.isBlank() && !name.isBlank()) {
+                return problemsetName + "-" + name;
+            }
+            return name;
+        }
+    }
+}
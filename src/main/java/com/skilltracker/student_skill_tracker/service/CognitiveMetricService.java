@@ -119,12 +119,18 @@ public class CognitiveMetricService {
 
     @Transactional
     public void trackPlanningTime(Student student, String slug) {
+        trackPlanningTime(student, slug, LocalDateTime.now());
+    }
+
+    /** Same as {@link #trackPlanningTime(Student, String)}, measured up to {@code runRequestedAt}. */
+    @Transactional
+    public void trackPlanningTime(Student student, String slug, LocalDateTime runRequestedAt) {
         if (slug == null || !slug.equals(student.getLastSelectedQuestionSlug())
                 || student.getQuestionSelectionTimestamp() == null) {
             return;
         }
 
-        long planningTime = Duration.between(student.getQuestionSelectionTimestamp(), LocalDateTime.now()).toMillis();
+        long planningTime = Duration.between(student.getQuestionSelectionTimestamp(), runRequestedAt).toMillis();
         long currentAvg = student.getAvgPlanningTimeMs();
         int totalEvents = student.getTotalCompilations() + student.getTotalSubmissions();
         long newAvg = (currentAvg * totalEvents + planningTime) / (totalEvents + 1);
@@ -137,11 +143,17 @@ public class CognitiveMetricService {
 
     @Transactional
     public void trackRecoveryVelocity(Student student) {
+        trackRecoveryVelocity(student, LocalDateTime.now());
+    }
+
+    /** Same as {@link #trackRecoveryVelocity(Student)}, measured up to {@code runRequestedAt}. */
+    @Transactional
+    public void trackRecoveryVelocity(Student student, LocalDateTime runRequestedAt) {
         if (student.getLastFailureTimestamp() == null) {
             return;
         }
 
-        long recoveryTime = Duration.between(student.getLastFailureTimestamp(), LocalDateTime.now()).toMillis();
+        long recoveryTime = Duration.between(student.getLastFailureTimestamp(), runRequestedAt).toMillis();
         long currentAvg = student.getAvgRecoveryVelocityMs();
         int totalSubmissions = student.getTotalSubmissions();
         long newAvg = (currentAvg * totalSubmissions + recoveryTime) / (totalSubmissions + 1);
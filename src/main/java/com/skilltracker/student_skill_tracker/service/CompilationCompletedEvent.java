@@ -0,0 +1,22 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code POST /api/compiler/execute} once a run has returned,
+ * and consumed by {@link CompilationSideEffectPipeline}.
+ *
+ * @param studentId      the student who ran the code
+ * @param problemSlug    the selected problem, or {@code null} for free-form runs
+ * @param success        whether the run compiled and exited cleanly
+ * @param elapsedMs      wall time of the remote execution
+ * @param runRequestedAt when the request reached the controller; planning and
+ *                       recovery times are measured up to this instant
+ */
+public record CompilationCompletedEvent(
+        Long studentId,
+        String problemSlug,
+        boolean success,
+        long elapsedMs,
+        LocalDateTime runRequestedAt) {
+}
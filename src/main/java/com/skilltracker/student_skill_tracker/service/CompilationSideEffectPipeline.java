@@ -0,0 +1,203 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+/**
+ * Runs the bookkeeping that follows a compiler run off the request thread:
+ * planning/recovery timing, compilation counters, mastery updates and
+ * progressive compiler locks.
+ *
+ * Events for the same student are applied strictly in publication order,
+ * each in its own transaction; different students proceed in parallel on
+ * the {@code compilationEventExecutor}. The controller calls
+ * {@link #awaitPending(Long)} before its lock check so a lock earned by the
+ * previous run is always seen by the next one.
+ */
+@Service
+public class CompilationSideEffectPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(CompilationSideEffectPipeline.class);
+
+    private static final long SHUTDOWN_DRAIN_SECONDS = 30;
+
+    private final StudentRepository studentRepository;
+    private final CognitiveMetricService cognitiveMetricService;
+    private final ForgettingVelocityService forgettingVelocityService;
+    private final RishiToolRegistry rishiToolRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final long awaitTimeoutMs;
+
+    /** Completion of the most recently queued event per student. */
+    private final ConcurrentMap<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public CompilationSideEffectPipeline(
+            StudentRepository studentRepository,
+            CognitiveMetricService cognitiveMetricService,
+            ForgettingVelocityService forgettingVelocityService,
+            RishiToolRegistry rishiToolRegistry,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("compilationEventExecutor") Executor executor,
+            @Value("${rishi.compiler.side-effects.await-timeout-ms:2000}") long awaitTimeoutMs) {
+        this.studentRepository = studentRepository;
+        this.cognitiveMetricService = cognitiveMetricService;
+        this.forgettingVelocityService = forgettingVelocityService;
+        this.rishiToolRegistry = rishiToolRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+    }
+
+    @EventListener
+    public void onCompilationCompleted(CompilationCompletedEvent event) {
+        Long studentId = event.studentId();
+        if (studentId == null) {
+            return;
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(studentId, done);
+        CompletableFuture<Void> start = previous != null ? previous : CompletableFuture.completedFuture(null);
+        start.whenCompleteAsync((ignored, ex) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(event));
+            } catch (Exception e) {
+                log.error("Post-compile side effects failed for student {}", studentId, e);
+            } finally {
+                tails.remove(studentId, done);
+                done.complete(null);
+            }
+        }, executor);
+    }
+
+    /**
+     * Blocks until every event already queued for the student has been
+     * committed, or the configured timeout elapses.
+     *
+     * @return {@code true} if anything was pending, meaning a previously
+     *         loaded {@link Student} may be stale
+     */
+    public boolean awaitPending(Long studentId) {
+        CompletableFuture<Void> tail = studentId != null ? tails.get(studentId) : null;
+        if (tail == null) {
+            return false;
+        }
+        try {
+            tail.get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Post-compile side effects for student {} still pending after {}ms", studentId, awaitTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Queued work never completes exceptionally; failures are logged where they happen.
+        }
+        return true;
+    }
+
+    /**
+     * Waits for every queued event to commit before the executor is shut down.
+     * Each student's events are chained stage by stage, and a stage submitted
+     * after the executor stops would be dropped, so the chains are drained here
+     * while the executor still accepts work.
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        List<CompletableFuture<Void>> pending = List.copyOf(tails.values());
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Waiting for post-compile side effects of {} student(s) before shutdown", pending.size());
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(SHUTDOWN_DRAIN_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.error("Post-compile side effects still pending after {}s; shutting down anyway",
+                    SHUTDOWN_DRAIN_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Queued work never completes exceptionally; failures are logged where they happen.
+        }
+    }
+
+    void apply(CompilationCompletedEvent event) {
+        Student student = studentRepository.findById(event.studentId()).orElse(null);
+        if (student == null) {
+            return;
+        }
+
+        cognitiveMetricService.trackPlanningTime(student, event.problemSlug(), event.runRequestedAt());
+        cognitiveMetricService.trackRecoveryVelocity(student, event.runRequestedAt());
+        int consecutiveFailures = cognitiveMetricService.recordCompilation(student, event.success());
+
+        if (event.success()) {
+            String topicSlug = event.problemSlug() != null ? event.problemSlug() : "general-coding";
+            forgettingVelocityService.recordEventAndUpdateMastery(
+                    student,
+                    topicSlug,
+                    "COMPILER_RUN",
+                    event.elapsedMs(),
+                    0, // Zero errors on success
+                    true,
+                    false,
+                    "{}");
+            // Reset escalation on success
+            if (student.getLockEscalationLevel() != null && student.getLockEscalationLevel() > 0) {
+                student.setLockEscalationLevel(0);
+                studentRepository.save(student);
+            }
+        } else if (consecutiveFailures >= 5) {
+            // Progressive Lock Escalation
+            int level = student.getLockEscalationLevel() != null ? student.getLockEscalationLevel() : 0;
+            rishiToolRegistry.bindStudent(student);
+            try {
+                if (consecutiveFailures >= 15 || level >= 2) {
+                    // Level 2: Nuclear — 30 min lock + practice task
+                    rishiToolRegistry.lockCompiler(30,
+                            "Severe rage-compiling (" + consecutiveFailures
+                                    + " failures). 30-minute cooldown enforced.");
+                    rishiToolRegistry.createPracticeTask(
+                            event.problemSlug() != null ? event.problemSlug() : "general",
+                            "Review fundamentals — triggered by " + consecutiveFailures
+                                    + " consecutive failures",
+                            45,
+                            "AUTO_ESCALATION_L2");
+                } else if (consecutiveFailures >= 10 || level >= 1) {
+                    // Level 1: Serious — 10 min lock
+                    rishiToolRegistry.lockCompiler(10,
+                            "Repeated failures (" + consecutiveFailures
+                                    + "). 10-minute break. Write pseudocode before retrying.");
+                } else {
+                    // Level 0: Warning — 3 min lock
+                    rishiToolRegistry.lockCompiler(3,
+                            "5 consecutive failures detected. Take 3 minutes to re-read the problem.");
+                }
+            } finally {
+                rishiToolRegistry.clearStudent();
+            }
+            student.setLockEscalationLevel(level + 1);
+            studentRepository.save(student);
+        }
+    }
+}
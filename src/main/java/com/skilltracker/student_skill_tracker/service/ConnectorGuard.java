@@ -0,0 +1,334 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Circuit breaker, bulkhead and retry policy for calls to external
+ * connectors (Google, GitHub, Toggl, Codeforces, LeetCode).
+ *
+ * <p>
+ * Each provider gets its own breaker and its own concurrency limit, so a
+ * provider that slows down or fails can only tie up its own share of request
+ * threads. After {@code failureThreshold} consecutive transient failures
+ * (timeouts, 408/429/5xx) the breaker opens and calls fail fast with
+ * {@link ConnectorUnavailableException} until the open period has passed;
+ * then a single trial call decides whether it closes again. Retries are
+ * scheduled on a timer rather than slept on the caller's thread, and the
+ * caller waits at most {@code callTimeout} for the whole sequence.
+ * </p>
+ */
+@Component
+public class ConnectorGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectorGuard.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int maxConcurrent;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final Duration callTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+
+    public ConnectorGuard(
+            MeterRegistry meterRegistry,
+            @Value("${rishi.integrations.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${rishi.integrations.circuit.open-seconds:30}") long openSeconds,
+            @Value("${rishi.integrations.bulkhead.max-concurrent:8}") int maxConcurrent,
+            @Value("${rishi.integrations.retry.max-attempts:3}") int maxAttempts,
+            @Value("${rishi.integrations.retry.base-delay-ms:300}") long retryBaseDelayMs,
+            @Value("${rishi.integrations.call-timeout-seconds:30}") long callTimeoutSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = Duration.ofSeconds(Math.max(1, openSeconds));
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseDelayMs = Math.max(0, retryBaseDelayMs);
+        this.callTimeout = Duration.ofSeconds(Math.max(1, callTimeoutSeconds));
+    }
+
+    /**
+     * Runs {@code request} against {@code provider} under its breaker and
+     * bulkhead. {@code request} signals provider-side faults worth retrying by
+     * throwing {@link ConnectorException} with {@code transientFailure} set;
+     * any other exception is passed through without a retry and without
+     * counting against the provider.
+     *
+     * @throws ConnectorUnavailableException if the breaker is open, the
+     *         bulkhead is full or the call ran out of time
+     */
+    public <T> T call(String provider, Supplier<T> request) {
+        // Inside a ConnectorScope the scope's deadline caps the wait, and its
+        // expiry is the caller's budget running out rather than a provider fault.
+        long waitNanos = callTimeout.toNanos();
+        boolean scopeBound = false;
+        Long scopeDeadline = ConnectorScope.currentDeadline();
+        if (scopeDeadline != null && scopeDeadline - System.nanoTime() < waitNanos) {
+            waitNanos = scopeDeadline - System.nanoTime();
+            scopeBound = true;
+            if (waitNanos <= 0) {
+                throw new ConnectorUnavailableException(provider, 1);
+            }
+        }
+
+        Provider target = provider(provider);
+        if (!target.admit()) {
+            target.count("rejected_open");
+            throw new ConnectorUnavailableException(provider, target.retryAfterSeconds());
+        }
+        if (!target.bulkhead.tryAcquire()) {
+            target.trialFinished();
+            target.count("rejected_bulkhead");
+            throw new ConnectorUnavailableException(provider, 1);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(target, request, 1, result, executor, System.nanoTime() + waitNanos);
+        try {
+            return result.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Stops further retries; an attempt already running still settles its permit and
+            // reports its own outcome to the breaker, so the timeout is not counted twice
+            result.cancel(false);
+            target.count(scopeBound ? "deadline" : "timeout");
+            throw new ConnectorUnavailableException(provider, target.retryAfterSeconds());
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + provider, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public State state(String provider) {
+        Provider target = providers.get(provider);
+        return target == null ? State.CLOSED : target.state();
+    }
+
+    /** Breaker state and load per provider seen so far, for the health endpoint. */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        providers.values().stream()
+                .sorted((a, b) -> a.name.compareTo(b.name))
+                .forEach(p -> snapshot.put(p.name, p.describe()));
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void attempt(Provider target, Supplier<T> request, int attempt, CompletableFuture<T> result,
+            Executor runOn, long deadlineNanos) {
+        runOn.execute(() -> {
+            try {
+                T value = request.get();
+                target.onSuccess();
+                target.count("success");
+                target.settle();
+                result.complete(value);
+            } catch (ConnectorException e) {
+                if (!e.isTransientFailure()) {
+                    target.count("client_error");
+                    target.settle();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                target.onFailure();
+                long delayMs = Math.min(2_000L, retryBaseDelayMs * (1L << (attempt - 1)));
+                boolean worthRetrying = !result.isDone()
+                        && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs) < deadlineNanos;
+                if (attempt < maxAttempts && target.state() == State.CLOSED && worthRetrying) {
+                    log.debug("{} call failed ({}), retry {} in {} ms", target.name, e.getMessage(), attempt, delayMs);
+                    attempt(target, request, attempt + 1, result,
+                            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor),
+                            deadlineNanos);
+                } else {
+                    target.count("failure");
+                    target.settle();
+                    result.completeExceptionally(e);
+                }
+            } catch (RuntimeException e) {
+                target.count("client_error");
+                target.settle();
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private Provider provider(String name) {
+        return providers.computeIfAbsent(name, key -> {
+            Provider created = new Provider(key);
+            Gauge.builder("rishi.integration.circuit.state", created, p -> p.state().ordinal())
+                    .tag("provider", key)
+                    .description("Connector breaker state: 0 closed, 1 half-open, 2 open")
+                    .register(meterRegistry);
+            Gauge.builder("rishi.integration.bulkhead.in-use", created,
+                    p -> maxConcurrent - p.bulkhead.availablePermits())
+                    .tag("provider", key)
+                    .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private final class Provider {
+        private final String name;
+        private final Semaphore bulkhead = new Semaphore(maxConcurrent);
+        private int consecutiveFailures;
+        private long openedAt;
+        private State state = State.CLOSED;
+        private boolean trialInFlight;
+
+        private Provider(String name) {
+            this.name = name;
+        }
+
+        synchronized boolean admit() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration.toNanos()) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void trialFinished() {
+            trialInFlight = false;
+        }
+
+        /**
+         * Frees the bulkhead slot once the last attempt is over, which may be
+         * after a timed-out caller has already given up.
+         */
+        void settle() {
+            bulkhead.release();
+            trialFinished();
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                log.info("{} connector recovered, closing its circuit", name);
+            }
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("{} connector failed {} times in a row, opening its circuit for {} s", name,
+                        consecutiveFailures, openDuration.toSeconds());
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized long retryAfterSeconds() {
+            if (state != State.OPEN) {
+                return 1;
+            }
+            long remaining = openDuration.toNanos() - (System.nanoTime() - openedAt);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining));
+        }
+
+        synchronized Map<String, Object> describe() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", state.name());
+            details.put("consecutiveFailures", consecutiveFailures);
+            details.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+            details.put("maxConcurrent", maxConcurrent);
+            if (state == State.OPEN) {
+                details.put("retryAfterSeconds", retryAfterSeconds());
+            }
+            return details;
+        }
+
+        void count(String outcome) {
+            Counter.builder("rishi.integration.calls")
+                    .tag("provider", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * A failed connector call. {@code transientFailure} marks provider-side
+     * faults (timeouts, 408, 429, 5xx) that are retried and count against the
+     * provider's breaker; anything else is the caller's problem.
+     */
+    public static class ConnectorException extends IllegalStateException {
+        private final boolean transientFailure;
+
+        public ConnectorException(String message, boolean transientFailure) {
+            super(message);
+            this.transientFailure = transientFailure;
+        }
+
+        public boolean isTransientFailure() {
+            return transientFailure;
+        }
+    }
+
+    /** The provider is not being called right now: open breaker, full bulkhead or timeout. */
+    public static class ConnectorUnavailableException extends IllegalStateException {
+        private final String provider;
+        private final long retryAfterSeconds;
+
+        public ConnectorUnavailableException(String provider, long retryAfterSeconds) {
+            super(provider + " is temporarily unavailable. Retry in " + retryAfterSeconds + "s.");
+            this.provider = provider;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
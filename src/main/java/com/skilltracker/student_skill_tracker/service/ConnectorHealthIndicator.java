@@ -0,0 +1,35 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows each external connector's circuit state under
+ * {@code /actuator/health} as the {@code connector} component. It stays UP
+ * with open circuits listed in the details: a third-party outage degrades
+ * analytics syncs but is no reason to take this instance out of rotation.
+ */
+@Component
+public class ConnectorHealthIndicator implements HealthIndicator {
+
+    private final ConnectorGuard connectorGuard;
+
+    public ConnectorHealthIndicator(ConnectorGuard connectorGuard) {
+        this.connectorGuard = connectorGuard;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Map<String, Object>> providers = connectorGuard.snapshot();
+        long open = providers.values().stream()
+                .filter(details -> !ConnectorGuard.State.CLOSED.name().equals(details.get("state")))
+                .count();
+        return Health.up()
+                .withDetail("openCircuits", open)
+                .withDetails(providers)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a sync's independent connector calls side by side on virtual threads,
+ * so the sync takes as long as its slowest call instead of the sum of all of
+ * them. Modelled on {@code StructuredTaskScope.ShutdownOnFailure}, which is
+ * still a preview API on Java 21:
+ *
+ * <pre>
+ * try (ConnectorScope scope = new ConnectorScope("codeforces", deadline)) {
+ *     Supplier&lt;Map&lt;String, Object&gt;&gt; info = scope.fork(() -&gt; fetchUserInfo(handle));
+ *     Supplier&lt;List&lt;Map&lt;String, Object&gt;&gt;&gt; history = scope.fork(() -&gt; fetchRatingHistory(handle));
+ *     scope.join();
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>
+ * The first fork to fail cancels the others and its exception is rethrown
+ * from {@link #join()}. The scope's deadline is shared: {@link ConnectorGuard}
+ * waits no longer than the time left for calls made from a fork, and when the
+ * deadline passes {@code join} cancels what is still running and throws
+ * {@link ConnectorGuard.ConnectorUnavailableException}.
+ * </p>
+ */
+public final class ConnectorScope implements AutoCloseable {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final String provider;
+    private final long deadlineNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> threads = new ArrayList<>();
+    private final List<CompletableFuture<?>> results = new ArrayList<>();
+
+    public ConnectorScope(String provider, Duration budget) {
+        this.provider = provider;
+        long deadline = System.nanoTime() + budget.toNanos();
+        // A scope opened inside another one never outlives its parent
+        Long enclosing = DEADLINE.get();
+        this.deadlineNanos = enclosing == null ? deadline : Math.min(enclosing, deadline);
+    }
+
+    /**
+     * Starts {@code task} on its own virtual thread. The returned supplier
+     * yields the task's result once {@link #join()} has returned normally.
+     */
+    public <T> Supplier<T> fork(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        results.add(result);
+        threads.add(executor.submit(() -> {
+            DEADLINE.set(deadlineNanos);
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result::resultNow;
+    }
+
+    /**
+     * Waits for every fork to finish, the first one to fail, or the deadline,
+     * whichever comes first.
+     */
+    public void join() {
+        CompletableFuture<Void> all = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        results.forEach(result -> result.whenComplete((value, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+        try {
+            CompletableFuture.anyOf(all, firstFailure).get(Math.max(0, deadlineNanos - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw new ConnectorGuard.ConnectorUnavailableException(provider, 1);
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + provider, e);
+        } catch (ExecutionException e) {
+            cancelAll();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    /** Deadline of the scope the current thread was forked from, as a {@link System#nanoTime()} value. */
+    static Long currentDeadline() {
+        return DEADLINE.get();
+    }
+
+    private void cancelAll() {
+        threads.forEach(thread -> thread.cancel(true));
+    }
+}
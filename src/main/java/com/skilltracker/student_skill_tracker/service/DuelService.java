@@ -1,22 +1,39 @@
 package com.skilltracker.student_skill_tracker.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skilltracker.student_skill_tracker.compiler.BatchExecutionResult;
+import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionRejectedException;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionScheduler;
+import com.skilltracker.student_skill_tracker.compiler.TestCase;
 import com.skilltracker.student_skill_tracker.model.DojoPuzzle;
 import com.skilltracker.student_skill_tracker.model.DuelSession;
 import com.skilltracker.student_skill_tracker.model.Student;
@@ -28,6 +45,9 @@ import com.skilltracker.student_skill_tracker.repository.StudentRepository;
 public class DuelService {
 
     private static final Logger log = LoggerFactory.getLogger(DuelService.class);
+    private static final int CODING_TEST_TIMEOUT_SECONDS = 5;
+    /** A duel still LIVE this long after it started was abandoned by its players. */
+    private static final Duration ABANDONED_DUEL_AGE = Duration.ofHours(2);
 
     private final DojoPuzzleRepository puzzleRepository;
     private final DuelSessionRepository duelRepository;
@@ -36,8 +56,14 @@ public class DuelService {
     private final ObjectMapper objectMapper;
     private final JdbcTemplate jdbcTemplate;
     private final ForgettingVelocityService forgettingVelocityService;
+    private final CompilerFactory compilerFactory;
+    private final ExecutionScheduler executionScheduler;
 
     private final Queue<String> waitingPlayers = new ConcurrentLinkedQueue<>();
+    /** Per live session, the "round:username" CODING submissions already taken, so each is scored once. */
+    private final Map<String, Set<String>> codingSubmissions = new ConcurrentHashMap<>();
+    /** Runs submissions on a remote backend, which has its own limits, off the caller's thread. */
+    private final ExecutorService remoteRunner = Executors.newVirtualThreadPerTaskExecutor();
 
     public DuelService(DojoPuzzleRepository puzzleRepository,
             DuelSessionRepository duelRepository,
@@ -45,7 +71,9 @@ public class DuelService {
             SimpMessagingTemplate messagingTemplate,
             ObjectMapper objectMapper,
             JdbcTemplate jdbcTemplate,
-            ForgettingVelocityService forgettingVelocityService) {
+            ForgettingVelocityService forgettingVelocityService,
+            CompilerFactory compilerFactory,
+            ExecutionScheduler executionScheduler) {
         this.puzzleRepository = puzzleRepository;
         this.duelRepository = duelRepository;
         this.studentRepository = studentRepository;
@@ -53,6 +81,8 @@ public class DuelService {
         this.objectMapper = objectMapper;
         this.jdbcTemplate = jdbcTemplate;
         this.forgettingVelocityService = forgettingVelocityService;
+        this.compilerFactory = compilerFactory;
+        this.executionScheduler = executionScheduler;
     }
 
     @PostConstruct
@@ -80,6 +110,11 @@ public class DuelService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        remoteRunner.shutdownNow();
+    }
+
     public synchronized void joinLobby(String username) {
         if (waitingPlayers.contains(username)) {
             log.info("User {} is already in the lobby", username);
@@ -170,8 +205,18 @@ public class DuelService {
     /**
      * Process a player's answer for the current round.
      * Validates correctness, updates scores, and broadcasts results.
+     * CODING rounds are only scored through {@link #submitCodingSolution}.
      */
-    public synchronized void submitRoundAnswer(String sessionId, String username, String answer) {
+    public void submitRoundAnswer(String sessionId, String username, String answer) {
+        recordAnswer(sessionId, username, 0, answer, null);
+    }
+
+    /**
+     * @param round       the round the answer belongs to, or 0 for the current one
+     * @param passedTests hidden tests passed in the server's run, for CODING rounds
+     */
+    private synchronized void recordAnswer(String sessionId, String username, int round, String answer,
+            Integer passedTests) {
         Optional<DuelSession> sessionOpt = duelRepository.findById(sessionId);
         if (sessionOpt.isEmpty()) {
             log.warn("Session {} not found for answer submission", sessionId);
@@ -190,7 +235,17 @@ public class DuelService {
             return;
         }
 
+        if (!username.equals(session.getPlayer1Username()) && !username.equals(session.getPlayer2Username())) {
+            log.warn("{} is not a player in session {}, ignoring answer", username, sessionId);
+            return;
+        }
+
         int currentRound = session.getCurrentRound();
+        if (round != 0 && round != currentRound) {
+            log.info("Answer from {} for round {} of session {} arrived after the round ended, ignoring",
+                    username, round, sessionId);
+            return;
+        }
         boolean isCorrect = false;
         int pointsAwarded = 0;
         String roundType = "";
@@ -240,14 +295,13 @@ public class DuelService {
                     pointsAwarded = isCorrect ? 1 : 0;
                 }
                 case "CODING" -> {
-                    // Coding round scoring is handled separately via compiler execution
-                    // Here we just accept the passed test case count
-                    try {
-                        pointsAwarded = Integer.parseInt(answer.trim());
-                        isCorrect = pointsAwarded > 0;
-                    } catch (NumberFormatException e) {
-                        pointsAwarded = 0;
+                    // Only the server's own run of the hidden tests counts
+                    if (passedTests == null) {
+                        log.warn("Ignoring client-reported CODING result from {} in session {}", username, sessionId);
+                        return;
                     }
+                    pointsAwarded = passedTests;
+                    isCorrect = pointsAwarded > 0;
                 }
             }
         } catch (Exception e) {
@@ -295,6 +349,135 @@ public class DuelService {
         });
     }
 
+    /**
+     * Score a CODING round on the server: run the player's code against the
+     * round's hidden test cases (compiled once, cases in parallel) and record
+     * the passed count as their answer. Runs asynchronously, so the caller's
+     * thread is not held while the code runs; local runs are queued on the
+     * execution scheduler under the student's key, like the compiler
+     * endpoints. Each player gets
+     * one scored submission per round, and a result that arrives after its
+     * round ended is dropped.
+     */
+    public void submitCodingSolution(String sessionId, String username, String language, String sourceCode) {
+        DuelSession session = duelRepository.findById(sessionId).orElse(null);
+        if (session == null || !"LIVE".equals(session.getStatus()) || session.getPuzzle() == null) {
+            log.warn("Session {} is not live, ignoring coding submission", sessionId);
+            return;
+        }
+        if (language == null || !compilerFactory.isLanguageSupported(language)) {
+            log.warn("Unsupported language {} for coding submission in session {}", language, sessionId);
+            return;
+        }
+
+        if (!username.equals(session.getPlayer1Username()) && !username.equals(session.getPlayer2Username())) {
+            log.warn("{} is not a player in session {}, ignoring coding submission", username, sessionId);
+            return;
+        }
+
+        int round = session.getCurrentRound();
+        List<TestCase> testCases;
+        try {
+            testCases = hiddenTestCases(session.getPuzzle(), round);
+        } catch (Exception e) {
+            log.error("Failed to read hidden test cases for session {}", sessionId, e);
+            return;
+        }
+        if (testCases.isEmpty()) {
+            log.warn("Round {} of session {} has no hidden test cases", round, sessionId);
+            return;
+        }
+
+        String claim = round + ":" + username;
+        Set<String> claimed = codingSubmissions.computeIfAbsent(sessionId, ignored -> ConcurrentHashMap.newKeySet());
+        if (!claimed.add(claim)) {
+            log.info("Ignoring repeat coding submission from {} for round {} of session {}", username, round,
+                    sessionId);
+            return;
+        }
+
+        Callable<BatchExecutionResult> batch = () -> compilerFactory.getCompiler(language)
+                .executeBatch(sourceCode, testCases, CODING_TEST_TIMEOUT_SECONDS);
+        try {
+            runBatch(username, batch)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            // Nothing was scored, so the player may submit again
+                            claimed.remove(claim);
+                            log.error("Coding submission from {} in session {} failed", username, sessionId, error);
+                            return;
+                        }
+                        log.info("Coding submission from {} in session {}: {}/{} hidden tests passed",
+                                username, sessionId, result.getPassed(), result.getTotal());
+                        recordAnswer(sessionId, username, round, "", result.getPassed());
+                    });
+        } catch (ExecutionRejectedException e) {
+            claimed.remove(claim);
+            messagingTemplate.convertAndSend("/topic/duel/" + sessionId + "/executeStatus", Map.of(
+                    "username", username,
+                    "status", "REJECTED",
+                    "error", e.getMessage(),
+                    "retryAfterSeconds", e.getRetryAfterSeconds()));
+        }
+    }
+
+    private CompletableFuture<BatchExecutionResult> runBatch(String username, Callable<BatchExecutionResult> batch) {
+        if ("local".equals(compilerFactory.getBackendName())) {
+            String owner = studentRepository.findByEmailIgnoreCase(username)
+                    .map(student -> "student:" + student.getId())
+                    .orElse("user:" + username);
+            return executionScheduler.submit(owner, batch).future().thenApply(ExecutionScheduler.Completed::value);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return batch.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, remoteRunner);
+    }
+
+    /**
+     * Forgets the CODING claims of duels that ended without finishing: deleted
+     * sessions, ones no longer LIVE, and ones left LIVE for longer than
+     * {@link #ABANDONED_DUEL_AGE}.
+     */
+    @Scheduled(fixedDelay = 300_000L)
+    public void pruneCodingSubmissions() {
+        LocalDateTime abandonedBefore = LocalDateTime.now().minus(ABANDONED_DUEL_AGE);
+        for (String sessionId : codingSubmissions.keySet()) {
+            try {
+                boolean over = duelRepository.findById(sessionId)
+                        .map(session -> !"LIVE".equals(session.getStatus())
+                                || session.getStartTime() == null
+                                || session.getStartTime().isBefore(abandonedBefore))
+                        .orElse(true);
+                if (over) {
+                    codingSubmissions.remove(sessionId);
+                }
+            } catch (Exception e) {
+                log.warn("Could not check duel {} for abandoned coding submissions", sessionId, e);
+            }
+        }
+    }
+
+    /** The CODING round's hidden test cases, or an empty list if that round is not CODING. */
+    private List<TestCase> hiddenTestCases(DojoPuzzle puzzle, int roundNumber) throws Exception {
+        JsonNode round = findRound(objectMapper.readTree(puzzle.getRoundsJson()), roundNumber);
+        if (round == null || !"CODING".equalsIgnoreCase(round.path("type").asText())) {
+            return List.of();
+        }
+        JsonNode cases = round.path("hiddenTestCases");
+        if (!cases.isArray() && puzzle.getHiddenTestCasesJson() != null) {
+            cases = objectMapper.readTree(puzzle.getHiddenTestCasesJson());
+        }
+        List<TestCase> testCases = new ArrayList<>();
+        for (JsonNode testCase : cases) {
+            testCases.add(new TestCase(testCase.path("input").asText(""), testCase.path("expectedOutput").asText("")));
+        }
+        return testCases;
+    }
+
     /**
      * Advance the duel to the next round. Called when both players have submitted.
      */
@@ -316,6 +499,7 @@ public class DuelService {
                             : "DRAW";
             session.setWinnerUsername(winner);
             duelRepository.save(session);
+            codingSubmissions.remove(sessionId);
             persistHighestBloomLevels(session);
             updateStudentDuelStats(session, winner);
 
@@ -0,0 +1,407 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
+import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionRejectedException;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionScheduler;
+import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Picks the execution backend for each interactive run.
+ *
+ * <p>
+ * Every backend (JDoodle, Judge0 and whatever {@link CompilerFactory} is
+ * configured with: Piston or the local compilers) keeps a rolling window of
+ * recent latencies and infrastructure failures. Runs go to the backend with
+ * the lowest expected cost: its mean latency plus a fixed penalty weighted by
+ * its failure rate, so a fast backend that keeps failing loses to a slower
+ * healthy one. Backends without samples yet rank by a prior and then by the
+ * configured preference order. A backend that answers with
+ * an authorization or quota error is benched for a while and the run fails
+ * over to the next one. Failures of the submitted code itself (compile
+ * errors, exceptions, timeouts) are answers, not backend failures.
+ * </p>
+ *
+ * <p>
+ * Optionally, a run that is still waiting after the primary backend's p95
+ * latency is hedged to the runner-up, and whichever usable answer arrives
+ * first wins. Hedging runs the submission twice, so it is off by default.
+ * </p>
+ *
+ * <p>
+ * Only runs on the local compilers go through the {@link ExecutionScheduler},
+ * whose runner count is sized to this host's CPUs and memory; remote
+ * backends are limited by their own quotas and are not queued behind it.
+ * </p>
+ */
+@Service
+public class ExecutionRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionRouter.class);
+
+    private static final Set<String> REMOTE_LANGUAGES = Set.of(
+            "java", "python", "python3", "py", "cpp", "c++", "javascript", "js", "node");
+    private static final int WINDOW_SIZE = 100;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final long PRIOR_LATENCY_MS = 2_000;
+    private static final long FAILURE_PENALTY_MS = 10_000;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private final List<Backend> backends = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private final long quarantineNanos;
+    private final boolean hedgeEnabled;
+    private final long minHedgeDelayMs;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutionScheduler executionScheduler;
+
+    public ExecutionRouter(
+            JDoodleCompilerService jdoodle,
+            Judge0CompilerService judge0,
+            CompilerFactory compilerFactory,
+            ExecutionScheduler executionScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${compiler.router.preference:jdoodle,piston,local,judge0}") String preference,
+            @Value("${compiler.router.quarantine-seconds:300}") long quarantineSeconds,
+            @Value("${compiler.router.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${compiler.router.hedge.min-delay-ms:500}") long minHedgeDelayMs) {
+        this.meterRegistry = meterRegistry;
+        this.executionScheduler = executionScheduler;
+        this.quarantineNanos = TimeUnit.SECONDS.toNanos(Math.max(0, quarantineSeconds));
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelayMs = Math.max(0, minHedgeDelayMs);
+
+        List<String> order = Arrays.stream(preference.split(",")).map(String::trim).toList();
+        register(new Backend("jdoodle", order,
+                language -> jdoodle.isConfigured() && REMOTE_LANGUAGES.contains(language),
+                (owner, request) -> jdoodle.executeRemotely(request),
+                result -> jdoodle.isAuthorizationFailure(result) || jdoodle.isQuotaFailure(result)));
+        register(new Backend("judge0", order,
+                language -> judge0.isConfigured() && REMOTE_LANGUAGES.contains(language),
+                (owner, request) -> judge0.executeRemotely(request),
+                result -> judge0.isAuthorizationFailure(result) || judge0.isQuotaFailure(result)));
+        register(new Backend(compilerFactory.getBackendName(), order,
+                compilerFactory::isLanguageSupported,
+                (owner, request) -> "local".equals(compilerFactory.getBackendName())
+                        ? runLocally(owner, request, compilerFactory)
+                        : compilerFactory.getCompiler(request.getLanguage())
+                                .executeCode(request.getSourceCode(), request.getInput(), request.getTimeoutSeconds()),
+                result -> false));
+        log.info("Execution router: backends {} in preference order, hedging {}",
+                backends.stream().sorted(Comparator.comparingInt(Backend::preference)).map(Backend::name).toList(),
+                hedgeEnabled ? "on" : "off");
+    }
+
+    /**
+     * Runs {@code request} on the healthiest backend that supports its
+     * language, failing over when a backend refuses the run. Local runs are
+     * queued for {@code owner}.
+     *
+     * @throws ExecutionRejectedException if a local run could not be queued
+     */
+    public CompilationResult execute(String owner, CodeExecutionRequest request) {
+        String language = request.getLanguage().toLowerCase();
+        List<Backend> candidates = rank(language);
+        if (candidates.isEmpty()) {
+            return CompilationResult.builder()
+                    .success(false)
+                    .error("No execution backend is available for " + request.getLanguage())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        }
+
+        Set<Backend> tried = new HashSet<>();
+        Attempt last = null;
+        String reason = "best";
+        for (int i = 0; i < candidates.size(); i++) {
+            Backend backend = candidates.get(i);
+            if (tried.contains(backend)) {
+                continue;
+            }
+            Backend runnerUp = next(candidates, i, tried);
+            Attempt attempt = hedgeEnabled && runnerUp != null && backend.hedgeable()
+                    ? runHedged(backend, runnerUp, owner, request, tried)
+                    : run(backend, owner, request, tried);
+            last = attempt;
+            if (!attempt.refused()) {
+                String route = attempt.backend() == backend ? reason : "hedge";
+                counter("rishi.compiler.router.routed", "backend", attempt.backend().name(), "reason", route)
+                        .increment();
+                attempt.result().setBackend(attempt.backend().name());
+                return attempt.result();
+            }
+            log.warn("Backend {} refused a {} run: {}; failing over", attempt.backend().name(), language,
+                    attempt.result().getError());
+            counter("rishi.compiler.router.failovers", "backend", attempt.backend().name()).increment();
+            reason = "failover";
+        }
+        last.result().setBackend(last.backend().name());
+        return last.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /** Usable backends for {@code language}, best first. */
+    List<Backend> rank(String language) {
+        long now = System.nanoTime();
+        return backends.stream()
+                .filter(backend -> backend.supports().test(language) && !backend.benched(now))
+                .sorted(Comparator.comparingDouble((Backend backend) -> backend.expectedMillis(now))
+                        .thenComparingInt(Backend::preference))
+                .toList();
+    }
+
+    /** Runs on this host's compilers through the scheduler, reporting how long the run was queued. */
+    private CompilationResult runLocally(String owner, CodeExecutionRequest request, CompilerFactory compilerFactory) {
+        ExecutionScheduler.Outcome<CompilationResult> outcome;
+        try {
+            outcome = executionScheduler.execute(owner, () -> compilerFactory.getCompiler(request.getLanguage())
+                    .executeCode(request.getSourceCode(), request.getInput(), request.getTimeoutSeconds()));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a code runner", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        CompilationResult result = outcome.value();
+        result.setQueuePosition(outcome.queuePosition());
+        result.setQueueWaitMs(outcome.queueWait().toMillis());
+        return result;
+    }
+
+    private Attempt run(Backend backend, String owner, CodeExecutionRequest request, Set<Backend> tried) {
+        tried.add(backend);
+        return backend.attempt(owner, request, quarantineNanos);
+    }
+
+    private Attempt runHedged(Backend primary, Backend secondary, String owner, CodeExecutionRequest request,
+            Set<Backend> tried) {
+        tried.add(primary);
+        CompletableFuture<Attempt> first = CompletableFuture.supplyAsync(
+                () -> primary.attempt(owner, request, quarantineNanos), hedgeExecutor);
+        long delayMs = Math.max(minHedgeDelayMs, primary.p95Millis());
+        try {
+            return first.get(delayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            tried.add(secondary);
+            CompletableFuture<Attempt> hedge = CompletableFuture.supplyAsync(
+                    () -> secondary.attempt(owner, request, quarantineNanos), hedgeExecutor);
+            Attempt winner = await(CompletableFuture.anyOf(first, hedge).thenApply(Attempt.class::cast));
+            if (winner.refused()) {
+                winner = await(winner.backend() == primary ? hedge : first);
+            }
+            // The slower run is left to finish so its latency still lands in the stats.
+            counter("rishi.compiler.router.hedges", "winner", winner.backend() == primary ? "primary" : "hedge")
+                    .increment();
+            return winner;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + primary.name(), e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Attempt await(CompletableFuture<Attempt> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a hedged run", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof ExecutionRejectedException rejected
+                ? rejected
+                : new IllegalStateException(e.getCause());
+    }
+
+    private static Backend next(List<Backend> candidates, int from, Set<Backend> tried) {
+        for (int i = from + 1; i < candidates.size(); i++) {
+            if (!tried.contains(candidates.get(i))) {
+                return candidates.get(i);
+            }
+        }
+        return null;
+    }
+
+    private void register(Backend backend) {
+        backends.add(backend);
+        Gauge.builder("rishi.compiler.router.error.rate", backend, b -> b.errorRate(System.nanoTime()))
+                .tag("backend", backend.name())
+                .description("Share of recent runs the backend failed to serve")
+                .register(meterRegistry);
+        Gauge.builder("rishi.compiler.router.latency.p95", backend, Backend::p95Millis)
+                .tag("backend", backend.name())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String... tags) {
+        return Counter.builder(name).tags(tags).register(meterRegistry);
+    }
+
+    /**
+     * Infrastructure failures that say nothing about the submitted code:
+     * the backend could not be reached, was saturated or sent nothing back.
+     */
+    private static boolean backendError(CompilationResult result) {
+        String error = result.getError();
+        return !result.isSuccess() && error != null
+                && (error.startsWith("Remote execution failed") || error.startsWith("Empty response from"));
+    }
+
+    private record Attempt(Backend backend, CompilationResult result, boolean refused) {
+    }
+
+    private record Sample(long at, long nanos, boolean failed) {
+    }
+
+    static final class Backend {
+        private final String name;
+        private final int preference;
+        private final Predicate<String> supports;
+        private final BiFunction<String, CodeExecutionRequest, CompilationResult> runner;
+        private final Predicate<CompilationResult> refuses;
+        private final Deque<Sample> window = new ArrayDeque<>();
+        private volatile long benchedUntil;
+        private volatile boolean benched;
+
+        private Backend(String name, List<String> order, Predicate<String> supports,
+                BiFunction<String, CodeExecutionRequest, CompilationResult> runner,
+                Predicate<CompilationResult> refuses) {
+            this.name = name;
+            int index = order.indexOf(name);
+            this.preference = index < 0 ? order.size() : index;
+            this.supports = supports;
+            this.runner = runner;
+            this.refuses = refuses;
+        }
+
+        String name() {
+            return name;
+        }
+
+        int preference() {
+            return preference;
+        }
+
+        Predicate<String> supports() {
+            return supports;
+        }
+
+        private Attempt attempt(String owner, CodeExecutionRequest request, long quarantineNanos) {
+            long started = System.nanoTime();
+            CompilationResult result;
+            try {
+                result = runner.apply(owner, request);
+            } catch (ExecutionRejectedException e) {
+                // The local queue is full; that says nothing about the backend
+                throw e;
+            } catch (RuntimeException e) {
+                result = null;
+                log.warn("Backend {} threw while executing: {}", name, e.getMessage());
+            }
+            if (result == null) {
+                result = CompilationResult.builder()
+                        .success(false)
+                        .error("Remote execution failed: no result from " + name)
+                        .timestamp(LocalDateTime.now())
+                        .build();
+            }
+            long finished = System.nanoTime();
+            boolean refused = refuses.test(result);
+            record(finished, finished - started, refused || backendError(result));
+            if (refused) {
+                benchedUntil = finished + quarantineNanos;
+                benched = true;
+            }
+            return new Attempt(this, result, refused);
+        }
+
+        boolean benched(long now) {
+            if (benched && now - benchedUntil >= 0) {
+                benched = false;
+            }
+            return benched;
+        }
+
+        synchronized double expectedMillis(long now) {
+            prune(now);
+            if (window.isEmpty()) {
+                return PRIOR_LATENCY_MS;
+            }
+            double meanMs = window.stream().mapToLong(Sample::nanos).average().orElse(0) / 1e6;
+            return meanMs + errorRate(now) * FAILURE_PENALTY_MS;
+        }
+
+        synchronized double errorRate(long now) {
+            prune(now);
+            if (window.isEmpty()) {
+                return 0;
+            }
+            return (double) window.stream().filter(Sample::failed).count() / window.size();
+        }
+
+        synchronized long p95Millis() {
+            if (window.isEmpty()) {
+                return 0;
+            }
+            long[] sorted = window.stream().mapToLong(Sample::nanos).sorted().toArray();
+            return TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(sorted.length * 0.95) - 1]);
+        }
+
+        synchronized boolean hedgeable() {
+            return window.size() >= MIN_HEDGE_SAMPLES;
+        }
+
+        private synchronized void record(long at, long nanos, boolean failed) {
+            window.addLast(new Sample(at, nanos, failed));
+            if (window.size() > WINDOW_SIZE) {
+                window.removeFirst();
+            }
+        }
+
+        private void prune(long now) {
+            while (!window.isEmpty() && now - window.peekFirst().at() > WINDOW_NANOS) {
+                window.removeFirst();
+            }
+        }
+    }
+}
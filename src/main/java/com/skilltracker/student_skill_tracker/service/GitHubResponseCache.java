@@ -0,0 +1,126 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Size-bounded HTTP cache for GitHub REST responses, keyed per token so one
+ * student's private repositories are never served to another.
+ *
+ * <p>
+ * Within the response's {@code Cache-Control: max-age} an entry is served
+ * without calling GitHub at all. After that the request is revalidated with
+ * {@code If-None-Match} / {@code If-Modified-Since}; GitHub answers an
+ * unchanged resource with 304, which does not count against the rate limit.
+ * The least recently used entries are dropped beyond {@code maxEntries}.
+ * </p>
+ */
+@Component
+public class GitHubResponseCache {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    /** A cached response body with the validators GitHub sent for it. */
+    record Entry(Object body, String etag, String lastModified, long freshUntilMillis) {
+
+        boolean isFresh(long nowMillis) {
+            return nowMillis < freshUntilMillis;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final MeterRegistry meterRegistry;
+
+    public GitHubResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${rishi.integrations.github.cache.max-entries:2000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > GitHubResponseCache.this.maxEntries;
+            }
+        };
+        Gauge.builder("rishi.github.cache.entries", this, GitHubResponseCache::size)
+                .register(meterRegistry);
+    }
+
+    /** Cache key for {@code url} as seen by the holder of {@code token}. */
+    String key(String token, String url) {
+        return tokenKey(token) + " " + url;
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a 200 response if GitHub sent a validator or a max-age for it;
+     * otherwise there is nothing to revalidate with and the entry is dropped.
+     */
+    synchronized void put(String key, Object body, HttpHeaders headers, long nowMillis) {
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        long maxAgeMillis = maxAgeSeconds(headers.getCacheControl()) * 1000L;
+        if (body == null || (etag == null && lastModified == null && maxAgeMillis == 0)) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry(body, etag, lastModified, nowMillis + maxAgeMillis));
+    }
+
+    /** A 304 confirmed the entry; it is fresh again for the new max-age. */
+    synchronized Entry refresh(String key, Entry entry, HttpHeaders headers, long nowMillis) {
+        long maxAgeMillis = maxAgeSeconds(headers.getCacheControl()) * 1000L;
+        Entry refreshed = new Entry(entry.body(), entry.etag(), entry.lastModified(), nowMillis + maxAgeMillis);
+        entries.put(key, refreshed);
+        return refreshed;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    void count(String outcome) {
+        Counter.builder("rishi.github.cache.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static long maxAgeSeconds(String cacheControl) {
+        if (cacheControl == null || cacheControl.contains("no-cache") || cacheControl.contains("no-store")) {
+            return 0;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static String tokenKey(String token) {
+        if (token == null || token.isEmpty()) {
+            return "anonymous";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
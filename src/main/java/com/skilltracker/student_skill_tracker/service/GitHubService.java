@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -21,9 +22,11 @@ public class GitHubService {
     private static final String GITHUB_API_BASE = "https://api.github.com";
 
     private final RestTemplate restTemplate;
+    private final GitHubResponseCache responseCache;
 
-    public GitHubService(RestTemplate restTemplate) {
+    public GitHubService(RestTemplate restTemplate, GitHubResponseCache responseCache) {
         this.restTemplate = restTemplate;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -37,20 +40,7 @@ public class GitHubService {
             if (safeUsername.isBlank()) return List.of();
             String url = GITHUB_API_BASE + "/users/" + safeUsername + "/repos?sort=updated&per_page=20&type=owner";
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Accept", "application/vnd.github.v3+json");
-            headers.set("User-Agent", "StudentSkillTracker/1.0");
-
-            if (token != null && !token.isEmpty()) {
-                headers.set("Authorization", "Bearer " + token);
-            }
-
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, List.class);
-
-            List<Map<String, Object>> rawRepos = response.getBody();
+            List<Map<String, Object>> rawRepos = getJson(url, token, List.class);
             if (rawRepos == null) {
                 return List.of();
             }
@@ -91,11 +81,7 @@ public class GitHubService {
             String safeRepo = sanitizeForUrl(repo);
             if (safeOwner.isBlank() || safeRepo.isBlank()) return Map.of();
             String url = GITHUB_API_BASE + "/repos/" + safeOwner + "/" + safeRepo + "/languages";
-            HttpHeaders headers = createHeaders(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            return (Map<String, Long>) response.getBody();
+            return (Map<String, Long>) getJson(url, token, Map.class);
         } catch (Exception e) {
             logger.error("Failed to fetch languages for {}/{}: {}", owner, repo, e.getMessage());
             return Map.of();
@@ -121,21 +107,14 @@ public class GitHubService {
             // /git/trees/{sha}?recursive=1
 
             String repoInfoUrl = GITHUB_API_BASE + "/repos/" + safeOwner + "/" + safeRepo;
-            HttpHeaders headers = createHeaders(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> repoInfoResponse = restTemplate.exchange(repoInfoUrl, HttpMethod.GET, entity,
-                    Map.class);
-            String defaultBranch = (String) repoInfoResponse.getBody().get("default_branch");
+            String defaultBranch = (String) getJson(repoInfoUrl, token, Map.class).get("default_branch");
 
             String safeBranch = sanitizeForUrl(defaultBranch);
             if (safeBranch.isBlank()) return List.of();
 
             String treeUrl = GITHUB_API_BASE + "/repos/" + safeOwner + "/" + safeRepo + "/git/trees/" + safeBranch
                     + "?recursive=1";
-            ResponseEntity<Map> treeResponse = restTemplate.exchange(treeUrl, HttpMethod.GET, entity, Map.class);
-
-            List<Map<String, Object>> tree = (List<Map<String, Object>>) treeResponse.getBody().get("tree");
+            List<Map<String, Object>> tree = (List<Map<String, Object>>) getJson(treeUrl, token, Map.class).get("tree");
 
             // Filter and shape the data for frontend (limit to 50 items to prevent massive
             // payloads)
@@ -159,6 +138,38 @@ public class GitHubService {
         }
     }
 
+    /**
+     * GET {@code url} through the response cache: served locally while still
+     * fresh, otherwise revalidated, so an unchanged resource costs a 304
+     * rather than rate limit.
+     */
+    private <T> T getJson(String url, String token, Class<T> type) {
+        String key = responseCache.key(token, url);
+        long now = System.currentTimeMillis();
+        GitHubResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            responseCache.count("fresh");
+            return type.cast(cached.body());
+        }
+
+        HttpHeaders headers = createHeaders(token);
+        if (cached != null && cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+            responseCache.refresh(key, cached, response.getHeaders(), now);
+            responseCache.count("not_modified");
+            return type.cast(cached.body());
+        }
+        responseCache.put(key, response.getBody(), response.getHeaders(), now);
+        responseCache.count("fetched");
+        return response.getBody();
+    }
+
     private HttpHeaders createHeaders(String token) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Accept", "application/vnd.github.v3+json");
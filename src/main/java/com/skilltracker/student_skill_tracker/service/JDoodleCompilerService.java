@@ -9,10 +9,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
 import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
+import com.skilltracker.student_skill_tracker.compiler.RemoteExecutionClient;
 import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
 import com.skilltracker.student_skill_tracker.dto.jdoodle.JDoodleRequest;
 import com.skilltracker.student_skill_tracker.dto.jdoodle.JDoodleResponse;
@@ -22,6 +22,7 @@ public class JDoodleCompilerService {
 
     private static final Logger logger = LoggerFactory.getLogger(JDoodleCompilerService.class);
     private static final String AUTH_FAILURE_PREFIX = "JDoodle authorization failed";
+    private static final String QUOTA_FAILURE_PREFIX = "JDoodle quota exhausted";
     private static final String JAVA_LANGUAGE_KEY = "java";
     private static final Pattern JAVA_MAIN_METHOD_PATTERN = Pattern
             .compile("\\b(?:public\\s+)?static\\s+void\\s+main\\s*\\(");
@@ -30,7 +31,7 @@ public class JDoodleCompilerService {
     private static final Pattern JAVA_NON_PUBLIC_CLASS_PATTERN = Pattern
             .compile("\\b(?:(abstract|final)\\s+)?class\\s+([A-Za-z_$][A-Za-z\\d_$]*)");
 
-    private final RestClient restClient;
+    private final RemoteExecutionClient remoteClient;
     private final String apiUrl;
     private final String clientId;
     private final String clientSecret;
@@ -38,11 +39,12 @@ public class JDoodleCompilerService {
     public JDoodleCompilerService(
             @Value("${jdoodle.api.url:https://api.jdoodle.com/v1/execute}") String apiUrl,
             @Value("${jdoodle.client.id:}") String clientId,
-            @Value("${jdoodle.client.secret:}") String clientSecret) {
+            @Value("${jdoodle.client.secret:}") String clientSecret,
+            RemoteExecutionClient remoteClient) {
         this.apiUrl = apiUrl;
         this.clientId = resolveCredential(clientId, "JDOODLE_CLIENT_ID", "jdoodle.client.id");
         this.clientSecret = resolveCredential(clientSecret, "JDOODLE_CLIENT_SECRET", "jdoodle.client.secret");
-        this.restClient = RestClient.create();
+        this.remoteClient = remoteClient;
         logger.info("JDoodle credential presence at startup: clientIdPresent={}, clientSecretPresent={}",
                 StringUtils.hasText(this.clientId), StringUtils.hasText(this.clientSecret));
     }
@@ -77,13 +79,9 @@ public class JDoodleCompilerService {
                 .build();
 
         try {
-            // 2. Call JDoodle API using RestClient
-            JDoodleResponse response = restClient.post()
-                    .uri(apiUrl)
-                    .header("Content-Type", "application/json")
-                    .body(jdoodleReq)
-                    .retrieve()
-                    .body(JDoodleResponse.class);
+            // 2. Call JDoodle API through the shared remote execution client
+            JDoodleResponse response = remoteClient.post("jdoodle", apiUrl, jdoodleReq, JDoodleResponse.class,
+                    request.getTimeoutSeconds());
 
             if (response == null) {
                 return CompilationResult.builder()
@@ -121,6 +119,15 @@ public class JDoodleCompilerService {
                         .build();
             }
 
+            if (status == 429) {
+                logger.warn("JDoodle rejected the run with HTTP 429; the daily credit quota is likely used up");
+                return CompilationResult.builder()
+                        .success(false)
+                        .error(QUOTA_FAILURE_PREFIX + " (HTTP 429). Try again later.")
+                        .timestamp(LocalDateTime.now())
+                        .build();
+            }
+
             logger.error("JDoodle remote execution failed with HTTP status {}", status, e);
             return CompilationResult.builder()
                     .success(false)
@@ -148,6 +155,13 @@ public class JDoodleCompilerService {
                 && result.getError().startsWith(AUTH_FAILURE_PREFIX);
     }
 
+    public boolean isQuotaFailure(CompilationResult result) {
+        return result != null
+                && !result.isSuccess()
+                && result.getError() != null
+                && result.getError().startsWith(QUOTA_FAILURE_PREFIX);
+    }
+
     private String resolveCredential(String configuredValue, String uppercaseEnvKey, String lowercaseEnvKey) {
         if (StringUtils.hasText(configuredValue)) {
             return configuredValue.trim();
@@ -6,9 +6,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientResponseException;
 
 import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
+import com.skilltracker.student_skill_tracker.compiler.RemoteExecutionClient;
 import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
 import com.skilltracker.student_skill_tracker.dto.judge0.Judge0Request;
 import com.skilltracker.student_skill_tracker.dto.judge0.Judge0Response;
@@ -17,8 +19,10 @@ import com.skilltracker.student_skill_tracker.dto.judge0.Judge0Response;
 public class Judge0CompilerService {
 
     private static final Logger logger = LoggerFactory.getLogger(Judge0CompilerService.class);
+    private static final String AUTH_FAILURE_PREFIX = "Judge0 authorization failed";
+    private static final String QUOTA_FAILURE_PREFIX = "Judge0 quota exhausted";
 
-    private final RestClient restClient;
+    private final RemoteExecutionClient remoteClient;
     private final String apiUrl;
     private final String rapidApiKey;
     private final String rapidApiHost;
@@ -26,11 +30,12 @@ public class Judge0CompilerService {
     public Judge0CompilerService(
             @Value("${judge0.api.url:https://judge0-ce.p.rapidapi.com/submissions?base64_encoded=false&wait=true}") String apiUrl,
             @Value("${judge0.api.key:}") String rapidApiKey,
-            @Value("${judge0.api.host:judge0-ce.p.rapidapi.com}") String rapidApiHost) {
+            @Value("${judge0.api.host:judge0-ce.p.rapidapi.com}") String rapidApiHost,
+            RemoteExecutionClient remoteClient) {
         this.apiUrl = apiUrl;
         this.rapidApiKey = rapidApiKey;
         this.rapidApiHost = rapidApiHost;
-        this.restClient = RestClient.create();
+        this.remoteClient = remoteClient;
     }
 
     public CompilationResult executeRemotely(CodeExecutionRequest request) {
@@ -44,15 +49,11 @@ public class Judge0CompilerService {
                 .build();
 
         try {
-            // 2. Call Judge0 API using RestClient
-            Judge0Response response = restClient.post()
-                    .uri(apiUrl)
-                    .header("x-rapidapi-key", rapidApiKey)
-                    .header("x-rapidapi-host", rapidApiHost)
-                    .header("Content-Type", "application/json")
-                    .body(judge0Req)
-                    .retrieve()
-                    .body(Judge0Response.class);
+            // 2. Call Judge0 API through the shared remote execution client
+            Judge0Response response = remoteClient.post("judge0", apiUrl, judge0Req, headers -> {
+                headers.set("x-rapidapi-key", rapidApiKey);
+                headers.set("x-rapidapi-host", rapidApiHost);
+            }, Judge0Response.class, request.getTimeoutSeconds());
 
             if (response == null || response.getStatus() == null) {
                 return CompilationResult.builder()
@@ -83,6 +84,22 @@ public class Judge0CompilerService {
                     .timestamp(LocalDateTime.now())
                     .build();
 
+        } catch (RestClientResponseException e) {
+            int status = e.getStatusCode().value();
+            String error;
+            if (status == 401 || status == 403) {
+                error = AUTH_FAILURE_PREFIX + " (HTTP " + status + "). Check judge0.api.key.";
+            } else if (status == 429) {
+                error = QUOTA_FAILURE_PREFIX + " (HTTP 429). Try again later.";
+            } else {
+                error = "Remote execution failed: Judge0 HTTP " + status;
+            }
+            logger.error("Judge0 remote execution failed with HTTP status {}", status);
+            return CompilationResult.builder()
+                    .success(false)
+                    .error(error)
+                    .timestamp(LocalDateTime.now())
+                    .build();
         } catch (Exception e) {
             logger.error("Judge0 remote execution failed", e);
             return CompilationResult.builder()
@@ -93,6 +110,25 @@ public class Judge0CompilerService {
         }
     }
 
+    public boolean isConfigured() {
+        return StringUtils.hasText(rapidApiKey);
+    }
+
+    public boolean isAuthorizationFailure(CompilationResult result) {
+        return failedWith(result, AUTH_FAILURE_PREFIX);
+    }
+
+    public boolean isQuotaFailure(CompilationResult result) {
+        return failedWith(result, QUOTA_FAILURE_PREFIX);
+    }
+
+    private static boolean failedWith(CompilationResult result, String prefix) {
+        return result != null
+                && !result.isSuccess()
+                && result.getError() != null
+                && result.getError().startsWith(prefix);
+    }
+
     private int mapLanguageToJudge0Id(String language) {
         if (language == null)
             return 71; // Default to Python or standard error
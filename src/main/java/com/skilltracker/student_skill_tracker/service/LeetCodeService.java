@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -36,14 +35,33 @@ public class LeetCodeService {
 
     private final RestTemplate restTemplate;
     private final CacheManager cacheManager;
+    private final LeetCodeStatsCoalescer statsCoalescer;
 
-    public LeetCodeService(RestTemplate restTemplate, CacheManager cacheManager) {
+    public LeetCodeService(RestTemplate restTemplate, CacheManager cacheManager,
+            LeetCodeStatsCoalescer statsCoalescer) {
         this.restTemplate = restTemplate;
         this.cacheManager = cacheManager;
+        this.statsCoalescer = statsCoalescer;
     }
 
-    @Cacheable(value = "leetcodeStats", key = "#username", unless = "#result.isEmpty()")
     public Map<String, Object> fetchStats(String username) {
+        return statsCoalescer.get("stats", username, () -> loadStats(username));
+    }
+
+    public Map<String, Object> fetchLanguageStats(String username) {
+        return statsCoalescer.get("languageStats", username, () -> loadLanguageStats(username));
+    }
+
+    public Map<String, Object> fetchFullStats(String username) {
+        return statsCoalescer.get("fullStats", username, () -> loadFullStats(username));
+    }
+
+    /** Full stats no older than the coalescer's freshness window, for callers that store them. */
+    public Map<String, Object> fetchFreshFullStats(String username) {
+        return statsCoalescer.getFresh("fullStats", username, () -> loadFullStats(username));
+    }
+
+    private Map<String, Object> loadStats(String username) {
         try {
             String safeUsername = sanitizeForUrl(username);
             if (safeUsername.isBlank())
@@ -62,8 +80,7 @@ public class LeetCodeService {
         return input.replaceAll("[^a-zA-Z0-9\\-_\\.]", "");
     }
 
-    @Cacheable(value = "leetcodeLanguageStats", key = "#username", unless = "#result.isEmpty()")
-    public Map<String, Object> fetchLanguageStats(String username) {
+    private Map<String, Object> loadLanguageStats(String username) {
         try {
             String query = """
                     query languageStats($username: String!) {
@@ -88,8 +105,7 @@ public class LeetCodeService {
         }
     }
 
-    @Cacheable(value = "leetcodeFullStats", key = "#username", unless = "#result.isEmpty()")
-    public Map<String, Object> fetchFullStats(String username) {
+    private Map<String, Object> loadFullStats(String username) {
         try {
             String query = """
                     query userProblemsSolved($username: String!, $recentLimit: Int) {
@@ -0,0 +1,171 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight, stale-while-revalidate cache for LeetCode stats lookups,
+ * keyed by query and username.
+ *
+ * <p>
+ * Concurrent callers for the same key share one in-flight load: on a cold
+ * key the first caller runs the load and the rest wait for its result. Once
+ * a value is older than {@code freshSeconds} it is still returned at once,
+ * and a single background refresh on the {@code leetCodeRefreshExecutor}
+ * replaces it. Empty results mean the lookup failed; they are handed to
+ * callers that had nothing better but never replace a stored value.
+ * {@link #getFresh} never returns a stale value: callers that persist what
+ * they get wait for the load instead, still sharing it with everyone else.
+ * </p>
+ */
+@Component
+public class LeetCodeStatsCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeetCodeStatsCoalescer.class);
+
+    private static final class Slot {
+        private Map<String, Object> value;
+        private long freshUntilMillis;
+        private CompletableFuture<Map<String, Object>> inFlight;
+    }
+
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long freshMillis;
+    private final int maxEntries;
+    private final Map<String, Slot> slots;
+
+    public LeetCodeStatsCoalescer(
+            MeterRegistry meterRegistry,
+            @Qualifier("leetCodeRefreshExecutor") Executor refreshExecutor,
+            @Value("${rishi.integrations.leetcode.stats.fresh-seconds:600}") long freshSeconds,
+            @Value("${rishi.integrations.leetcode.stats.max-entries:1000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor = refreshExecutor;
+        this.freshMillis = Math.max(0, freshSeconds) * 1000L;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.slots = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest) {
+                return size() > LeetCodeStatsCoalescer.this.maxEntries;
+            }
+        };
+        Gauge.builder("rishi.leetcode.stats.entries", this, LeetCodeStatsCoalescer::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The stored value for {@code query}/{@code username}, loading it with
+     * {@code loader} if there is none yet. Only waits on LeetCode when
+     * nothing has been stored for the key.
+     */
+    public Map<String, Object> get(String query, String username, Supplier<Map<String, Object>> loader) {
+        return lookup(query, username, loader, true);
+    }
+
+    /**
+     * Like {@link #get}, but a stale value is never returned: the caller
+     * waits for the in-flight load, or runs one, and gets an empty map if it
+     * fails.
+     */
+    public Map<String, Object> getFresh(String query, String username, Supplier<Map<String, Object>> loader) {
+        return lookup(query, username, loader, false);
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    private Map<String, Object> lookup(String query, String username, Supplier<Map<String, Object>> loader,
+            boolean staleAllowed) {
+        String key = query + ":" + username;
+        Slot slot;
+        CompletableFuture<Map<String, Object>> flight;
+        boolean leader = false;
+        synchronized (this) {
+            slot = slots.computeIfAbsent(key, ignored -> new Slot());
+            if (slot.value != null && System.currentTimeMillis() < slot.freshUntilMillis) {
+                count(query, "fresh");
+                return slot.value;
+            }
+            if (slot.inFlight == null) {
+                slot.inFlight = new CompletableFuture<>();
+                leader = true;
+            }
+            flight = slot.inFlight;
+            if (slot.value != null && staleAllowed) {
+                count(query, "stale");
+                if (leader) {
+                    refreshInBackground(query, slot, flight, loader);
+                }
+                return slot.value;
+            }
+            count(query, leader ? "loaded" : "coalesced");
+        }
+        if (leader) {
+            load(query, slot, flight, loader);
+        }
+        return flight.join();
+    }
+
+    private void refreshInBackground(String query, Slot slot, CompletableFuture<Map<String, Object>> flight,
+            Supplier<Map<String, Object>> loader) {
+        try {
+            refreshExecutor.execute(() -> load(query, slot, flight, loader));
+        } catch (RejectedExecutionException e) {
+            // Keep serving the stale value; the next caller tries again
+            slot.inFlight = null;
+            flight.complete(slot.value);
+            count(query, "refresh_rejected");
+        }
+    }
+
+    /**
+     * Runs {@code loader} and publishes its result, empty on failure. If the
+     * slot was evicted meanwhile the result is not kept, but waiters still
+     * get it.
+     */
+    private void load(String query, Slot slot, CompletableFuture<Map<String, Object>> flight,
+            Supplier<Map<String, Object>> loader) {
+        Map<String, Object> result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException e) {
+            logger.warn("LeetCode {} lookup failed: {}", query, e.getMessage());
+            result = null;
+        }
+        if (result == null) {
+            result = Map.of();
+        }
+        synchronized (this) {
+            slot.inFlight = null;
+            if (!result.isEmpty()) {
+                slot.value = result;
+                slot.freshUntilMillis = System.currentTimeMillis() + freshMillis;
+            }
+        }
+        flight.complete(result);
+    }
+
+    private void count(String query, String outcome) {
+        Counter.builder("rishi.leetcode.stats.requests")
+                .tag("query", query)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
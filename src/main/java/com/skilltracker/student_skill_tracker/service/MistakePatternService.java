@@ -9,7 +9,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
-import com.skilltracker.student_skill_tracker.model.RishiCompileAttemptLog;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
 
@@ -31,23 +30,18 @@ public class MistakePatternService {
      */
     public Map<String, Long> getTopWeaknesses(Student student, int days) {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<RishiCompileAttemptLog> failedAttempts = attemptLogRepository
-                .findBySessionStudentAndAttemptedAtAfterAndSuccessFalse(student, since);
+        List<RishiCompileAttemptLogRepository.CategoryCount> counts = attemptLogRepository
+                .countFailedAttemptsByCategory(student, since);
 
-        if (failedAttempts.isEmpty())
+        if (counts.isEmpty())
             return Collections.emptyMap();
 
-        return failedAttempts.stream()
-                .filter(a -> a.getMistakeCategory() != null && !a.getMistakeCategory().isBlank())
-                .collect(Collectors.groupingBy(
-                        RishiCompileAttemptLog::getMistakeCategory,
-                        Collectors.counting()))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+        return counts.stream()
+                .filter(c -> !c.getCategory().isBlank())
                 .limit(3)
                 .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
+                        RishiCompileAttemptLogRepository.CategoryCount::getCategory,
+                        RishiCompileAttemptLogRepository.CategoryCount::getAttempts,
                         (a, b) -> a,
                         LinkedHashMap::new));
     }
@@ -6,9 +6,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
+import com.skilltracker.student_skill_tracker.compiler.RemoteExecutionClient;
 import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
 import com.skilltracker.student_skill_tracker.dto.judge0.Judge0Request;
 import com.skilltracker.student_skill_tracker.dto.judge0.Judge0Response;
@@ -18,7 +18,7 @@ public class PistonCompilerService {
 
     private static final Logger logger = LoggerFactory.getLogger(PistonCompilerService.class);
 
-    private final RestClient restClient;
+    private final RemoteExecutionClient remoteClient;
     private final String apiUrl;
     private final String rapidApiKey;
     private final String rapidApiHost;
@@ -26,11 +26,12 @@ public class PistonCompilerService {
     public PistonCompilerService(
             @Value("${judge0.api.url:https://judge0-ce.p.rapidapi.com/submissions?base64_encoded=false&wait=true}") String apiUrl,
             @Value("${judge0.api.key:}") String rapidApiKey,
-            @Value("${judge0.api.host:judge0-ce.p.rapidapi.com}") String rapidApiHost) {
+            @Value("${judge0.api.host:judge0-ce.p.rapidapi.com}") String rapidApiHost,
+            RemoteExecutionClient remoteClient) {
         this.apiUrl = apiUrl;
         this.rapidApiKey = rapidApiKey;
         this.rapidApiHost = rapidApiHost;
-        this.restClient = RestClient.create();
+        this.remoteClient = remoteClient;
     }
 
     public CompilationResult executeRemotely(CodeExecutionRequest request) {
@@ -44,15 +45,11 @@ public class PistonCompilerService {
                 .build();
 
         try {
-            // 2. Call Judge0 API using RestClient
-            Judge0Response response = restClient.post()
-                    .uri(apiUrl)
-                    .header("x-rapidapi-key", rapidApiKey)
-                    .header("x-rapidapi-host", rapidApiHost)
-                    .header("Content-Type", "application/json")
-                    .body(judge0Req)
-                    .retrieve()
-                    .body(Judge0Response.class);
+            // 2. Call Judge0 API through the shared remote execution client
+            Judge0Response response = remoteClient.post("judge0", apiUrl, judge0Req, headers -> {
+                headers.set("x-rapidapi-key", rapidApiKey);
+                headers.set("x-rapidapi-host", rapidApiHost);
+            }, Judge0Response.class, request.getTimeoutSeconds());
 
             if (response == null || response.getStatus() == null) {
                 return CompilationResult.builder()
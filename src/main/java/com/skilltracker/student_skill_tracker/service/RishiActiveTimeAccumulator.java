@@ -0,0 +1,108 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * AFK-clamped active-time bookkeeping for editor change streams.
+ *
+ * Every gap between two consecutive changes counts as active time up to
+ * {@link #AFK_IDLE_TIMEOUT_MS}, and is attributed to the activity state the
+ * student was in at the start of the gap. The first change of a session is
+ * worth {@link #MIN_ACTIVE_MS_PER_EDIT_SESSION}. Feeding a stream in several
+ * chunks (carrying the returned cursor forward) gives the same totals as
+ * feeding it at once, which lets sessions keep a running total instead of
+ * replaying every event when they end.
+ */
+final class RishiActiveTimeAccumulator {
+
+    static final long AFK_IDLE_TIMEOUT_MS = 120_000L;
+    static final long MIN_ACTIVE_MS_PER_EDIT_SESSION = 1_000L;
+
+    private RishiActiveTimeAccumulator() {
+    }
+
+    record Totals(
+            long activeMs,
+            long typingMs,
+            long cursorIdleMs,
+            long editorUnfocusedMs,
+            long tabHiddenMs,
+            LocalDateTime lastChangeAt,
+            String lastChangeState) {
+    }
+
+    /**
+     * Adds {@code changes} on top of a stream that previously ended at
+     * {@code lastChangeAt} in {@code lastChangeState}. Returns only the delta
+     * durations plus the new cursor.
+     */
+    static <T> Totals accumulate(
+            LocalDateTime lastChangeAt,
+            String lastChangeState,
+            List<T> changes,
+            Function<T, LocalDateTime> occurredAt,
+            Function<T, String> activityState) {
+        long[] buckets = new long[4];
+        long activeMs = 0L;
+        LocalDateTime previousAt = lastChangeAt;
+        String previousState = lastChangeState;
+
+        List<T> ordered = changes.stream().sorted(Comparator.comparing(occurredAt)).toList();
+        for (T change : ordered) {
+            LocalDateTime currentAt = occurredAt.apply(change);
+            String currentState = activityState.apply(change);
+            if (previousAt == null) {
+                activeMs += MIN_ACTIVE_MS_PER_EDIT_SESSION;
+                buckets[bucketOf(currentState)] += MIN_ACTIVE_MS_PER_EDIT_SESSION;
+                previousAt = currentAt;
+                previousState = currentState;
+                continue;
+            }
+
+            long gapMs = ChronoUnit.MILLIS.between(previousAt, currentAt);
+            if (gapMs > 0) {
+                long clamped = Math.min(gapMs, AFK_IDLE_TIMEOUT_MS);
+                activeMs += clamped;
+                buckets[bucketOf(previousState)] += clamped;
+            }
+            if (currentAt.isAfter(previousAt)) {
+                previousAt = currentAt;
+                previousState = currentState;
+            }
+        }
+
+        return new Totals(activeMs, buckets[0], buckets[1], buckets[2], buckets[3], previousAt, previousState);
+    }
+
+    /**
+     * Active time between the last change and {@code boundary}, clamped like
+     * any other gap.
+     */
+    static long tailMs(LocalDateTime lastChangeAt, LocalDateTime boundary) {
+        if (lastChangeAt == null || boundary == null) {
+            return 0L;
+        }
+        long gapMs = ChronoUnit.MILLIS.between(lastChangeAt, boundary);
+        return gapMs > 0 ? Math.min(gapMs, AFK_IDLE_TIMEOUT_MS) : 0L;
+    }
+
+    /**
+     * 0 = typing, 1 = cursor idle, 2 = editor unfocused, 3 = tab hidden.
+     * Unknown states come from edits, so they count as typing.
+     */
+    static int bucketOf(String activityState) {
+        if (activityState == null) {
+            return 0;
+        }
+        return switch (activityState) {
+            case "CURSOR_IDLE" -> 1;
+            case "EDITOR_UNFOCUSED" -> 2;
+            case "TAB_HIDDEN" -> 3;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,349 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiConnectorSyncStateRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentTimestamp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps connector snapshots (GitHub, LeetCode, Codeforces, Toggl) fresh in the
+ * background, so the dashboard can read the latest snapshot instead of
+ * waiting on a manual sync.
+ *
+ * <p>
+ * Every tick ranks each (student, connector) pair by how overdue its last
+ * snapshot is, weighted by how recently the student was active; students who
+ * have not been around for {@code dormantDays} are left alone until they sync
+ * by hand. Snapshot ages come from the per-pair last-synced rows that every
+ * sync updates, not from the snapshot tables themselves. The most overdue pairs run on the {@code analyticsSyncExecutor},
+ * spaced per connector to stay inside each provider's rate limit. A connector
+ * whose circuit is open is skipped for the tick, and GitHub syncs are held
+ * back while the student's token is close to its GraphQL rate limit.
+ * </p>
+ */
+@Component
+public class RishiAnalyticsSyncScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiAnalyticsSyncScheduler.class);
+
+    static final List<String> CONNECTORS = List.of(
+            RishiIntegrationService.CONNECTOR_GITHUB,
+            RishiIntegrationService.CONNECTOR_LEETCODE,
+            RishiIntegrationService.CONNECTOR_CODEFORCES,
+            RishiIntegrationService.CONNECTOR_TOGGL);
+
+    private static final Duration RECENTLY_ACTIVE = Duration.ofHours(24);
+    private static final double MAX_OVERDUE_RATIO = 10.0;
+    private static final double RECENTLY_ACTIVE_WEIGHT = 2.0;
+
+    private final RishiIntegrationService integrationService;
+    private final ConnectorGuard connectorGuard;
+    private final StudentRepository studentRepository;
+    private final RishiCompileAttemptLogRepository compileAttemptLogRepository;
+    private final RishiConnectorSyncStateRepository syncStateRepository;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long tickMs;
+    private final int maxPerTick;
+    private final Duration activeRefresh;
+    private final Duration idleRefresh;
+    private final Duration dormantAfter;
+    private final int githubReserve;
+    private final Map<String, Long> spacingMs;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, LocalDateTime> backoffUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> nextSlotNanos = new HashMap<>();
+
+    public RishiAnalyticsSyncScheduler(
+            RishiIntegrationService integrationService,
+            ConnectorGuard connectorGuard,
+            StudentRepository studentRepository,
+            RishiCompileAttemptLogRepository compileAttemptLogRepository,
+            RishiConnectorSyncStateRepository syncStateRepository,
+            @Qualifier("analyticsSyncExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${rishi.analytics.sync.enabled:true}") boolean enabled,
+            @Value("${rishi.analytics.sync.tick-ms:60000}") long tickMs,
+            @Value("${rishi.analytics.sync.max-per-tick:20}") int maxPerTick,
+            @Value("${rishi.analytics.sync.active-refresh-minutes:60}") long activeRefreshMinutes,
+            @Value("${rishi.analytics.sync.idle-refresh-minutes:720}") long idleRefreshMinutes,
+            @Value("${rishi.analytics.sync.dormant-days:14}") long dormantDays,
+            @Value("${rishi.analytics.sync.github-reserve:500}") int githubReserve,
+            @Value("${rishi.analytics.sync.spacing-ms:github=1000,leetcode=3000,codeforces=6000,toggl=1000}")
+            String spacing) {
+        this.integrationService = integrationService;
+        this.connectorGuard = connectorGuard;
+        this.studentRepository = studentRepository;
+        this.compileAttemptLogRepository = compileAttemptLogRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.tickMs = Math.max(1_000, tickMs);
+        this.maxPerTick = Math.max(1, maxPerTick);
+        this.activeRefresh = Duration.ofMinutes(Math.max(1, activeRefreshMinutes));
+        this.idleRefresh = Duration.ofMinutes(Math.max(activeRefreshMinutes, idleRefreshMinutes));
+        this.dormantAfter = Duration.ofDays(Math.max(1, dormantDays));
+        this.githubReserve = Math.max(0, githubReserve);
+        // "github=1000,codeforces=6000": minimum gap between two background calls per connector
+        this.spacingMs = Arrays.stream(spacing.split(","))
+                .map(entry -> entry.split("=", 2))
+                .filter(pair -> pair.length == 2)
+                .collect(Collectors.toMap(pair -> pair[0].trim(), pair -> Math.max(0, Long.parseLong(pair[1].trim())),
+                        (a, b) -> b));
+
+        Gauge.builder("rishi.analytics.sync.in-flight", inFlight, Set::size)
+                .description("Background connector syncs queued or running")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${rishi.analytics.sync.tick-ms:60000}",
+            initialDelayString = "${rishi.analytics.sync.initial-delay-ms:120000}")
+    public void dispatchDueSyncs() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            dispatch(planDueSyncs(LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Background analytics sync tick failed", e);
+        }
+    }
+
+    /**
+     * Every (student, connector) pair whose snapshot is due, most urgent first.
+     * Urgency is the snapshot's age over its refresh interval, capped for
+     * never-synced pairs and doubled for students active in the last day.
+     */
+    List<SyncTask> planDueSyncs(LocalDateTime now) {
+        LocalDateTime dormantCutoff = now.minus(dormantAfter);
+        List<Student> students = studentRepository.findActiveSince(dormantCutoff);
+        if (students.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, LocalDateTime> lastCompile = byStudent(
+                compileAttemptLogRepository.findLatestAttemptPerStudentSince(dormantCutoff));
+        Map<String, Map<Long, LocalDateTime>> lastSnapshot = new HashMap<>();
+        for (String connector : CONNECTORS) {
+            lastSnapshot.put(connector, byStudent(syncStateRepository.findLastSyncedPerStudent(connector)));
+        }
+
+        PriorityQueue<SyncTask> queue = new PriorityQueue<>(Comparator.comparingDouble(SyncTask::priority).reversed()
+                .thenComparing(SyncTask::lastSyncedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (Student student : students) {
+            LocalDateTime lastActive = latest(student.getUpdatedAt(), lastCompile.get(student.getId()));
+            if (lastActive == null || lastActive.isBefore(dormantCutoff)) {
+                continue;
+            }
+            boolean recentlyActive = !lastActive.isBefore(now.minus(RECENTLY_ACTIVE));
+            Duration refresh = recentlyActive ? activeRefresh : idleRefresh;
+
+            for (String connector : CONNECTORS) {
+                if (!isConnected(connector, student) || isBackedOff(key(connector, student), now)) {
+                    continue;
+                }
+                LocalDateTime lastSynced = lastSnapshot.get(connector).get(student.getId());
+                double overdue = lastSynced == null ? MAX_OVERDUE_RATIO
+                        : Math.min(MAX_OVERDUE_RATIO,
+                                (double) Duration.between(lastSynced, now).toMillis() / refresh.toMillis());
+                if (overdue < 1.0) {
+                    continue;
+                }
+                double priority = overdue * (recentlyActive ? RECENTLY_ACTIVE_WEIGHT : 1.0);
+                queue.add(new SyncTask(student, connector, priority, lastSynced));
+            }
+        }
+
+        List<SyncTask> due = new ArrayList<>(queue.size());
+        while (!queue.isEmpty()) {
+            due.add(queue.poll());
+        }
+        return due;
+    }
+
+    void dispatch(List<SyncTask> due) {
+        int capacity = maxPerTick - inFlight.size();
+        long nowNanos = System.nanoTime();
+        for (SyncTask task : due) {
+            if (capacity <= 0) {
+                break;
+            }
+            if (connectorGuard.state(task.connector()) == ConnectorGuard.State.OPEN
+                    || githubRateLimitHeld(task)) {
+                continue;
+            }
+            String key = key(task.connector(), task.student());
+            if (!inFlight.add(key)) {
+                continue;
+            }
+            long delayMs = reserveSlot(task.connector(), nowNanos);
+            if (delayMs < 0) {
+                // This connector's budget for the tick is spent; the task stays due for the next one
+                inFlight.remove(key);
+                continue;
+            }
+            capacity--;
+            Executor target = delayMs > 0
+                    ? CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor)
+                    : executor;
+            try {
+                target.execute(() -> run(task, key));
+            } catch (RuntimeException e) {
+                inFlight.remove(key);
+                log.warn("Could not queue background {} sync: {}", task.connector(), e.getMessage());
+            }
+        }
+    }
+
+    private void run(SyncTask task, String key) {
+        Student student = task.student();
+        try {
+            switch (task.connector()) {
+                case RishiIntegrationService.CONNECTOR_GITHUB -> integrationService.syncGithubAnalytics(student,
+                        integrationService.getLatestGithubAnalytics(student).map(d -> d.getWindowDays()).orElse(null));
+                case RishiIntegrationService.CONNECTOR_LEETCODE -> integrationService.syncLeetCodeAnalytics(student,
+                        integrationService.getLatestLeetCodeAnalytics(student).map(d -> d.getWindowDays()).orElse(null));
+                case RishiIntegrationService.CONNECTOR_CODEFORCES -> integrationService.syncCodeforcesAnalytics(student,
+                        integrationService.getLatestCodeforcesAnalytics(student).map(d -> d.getWindowDays()).orElse(null));
+                case RishiIntegrationService.CONNECTOR_TOGGL -> integrationService.syncTogglFocus(student,
+                        integrationService.getLatestTogglFocus(student).map(d -> d.getWindowDays()).orElse(null));
+                default -> throw new IllegalArgumentException("Unknown connector " + task.connector());
+            }
+            count(task.connector(), "success");
+        } catch (ConnectorGuard.ConnectorUnavailableException e) {
+            // The breaker already tracks the provider; the pair stays due for a later tick
+            count(task.connector(), "unavailable");
+        } catch (ConnectorGuard.ConnectorException e) {
+            if (e.isTransientFailure()) {
+                // Retries ran out on a provider-side fault; the pair stays due for a later tick
+                count(task.connector(), "transient");
+            } else {
+                backOff(task, key, e);
+            }
+        } catch (RuntimeException e) {
+            backOff(task, key, e);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /** Revoked tokens, renamed handles and the like: do not retry every tick. */
+    private void backOff(SyncTask task, String key, RuntimeException e) {
+        backoffUntil.put(key, LocalDateTime.now().plus(idleRefresh));
+        count(task.connector(), "failure");
+        log.info("Background {} sync failed for student {}: {}", task.connector(), task.student().getId(),
+                e.getMessage());
+    }
+
+    private boolean githubRateLimitHeld(SyncTask task) {
+        if (!RishiIntegrationService.CONNECTOR_GITHUB.equals(task.connector())) {
+            return false;
+        }
+        return integrationService.getGithubRateLimit(task.student())
+                .filter(limit -> limit.remaining() < githubReserve)
+                .filter(limit -> limit.resetAt().isAfter(Instant.now()))
+                .isPresent();
+    }
+
+    /**
+     * Books the connector's next free call slot and returns how long to wait
+     * for it, or -1 when the slot falls beyond this tick.
+     */
+    private long reserveSlot(String connector, long nowNanos) {
+        synchronized (nextSlotNanos) {
+            long slot = Math.max(nowNanos, nextSlotNanos.getOrDefault(connector, nowNanos));
+            long delayMs = TimeUnit.NANOSECONDS.toMillis(slot - nowNanos);
+            if (delayMs >= tickMs) {
+                return -1;
+            }
+            nextSlotNanos.put(connector, slot + TimeUnit.MILLISECONDS.toNanos(spacingMs.getOrDefault(connector, 0L)));
+            return delayMs;
+        }
+    }
+
+    private boolean isBackedOff(String key, LocalDateTime now) {
+        LocalDateTime until = backoffUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until.isAfter(now)) {
+            return true;
+        }
+        backoffUntil.remove(key, until);
+        return false;
+    }
+
+    private boolean isConnected(String connector, Student student) {
+        return switch (connector) {
+            case RishiIntegrationService.CONNECTOR_GITHUB -> integrationService.isGithubConnected(student);
+            case RishiIntegrationService.CONNECTOR_LEETCODE -> integrationService.isLeetCodeConnected(student);
+            case RishiIntegrationService.CONNECTOR_CODEFORCES -> integrationService.isCodeforcesConnected(student);
+            case RishiIntegrationService.CONNECTOR_TOGGL -> integrationService.isTogglConnected(student);
+            default -> false;
+        };
+    }
+
+    private void count(String connector, String outcome) {
+        Counter.builder("rishi.analytics.sync.runs")
+                .tag("connector", connector)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Map<Long, LocalDateTime> byStudent(List<StudentTimestamp> rows) {
+        Map<Long, LocalDateTime> byStudent = new HashMap<>();
+        for (StudentTimestamp row : rows) {
+            if (row.getStudentId() != null && row.getLastAt() != null) {
+                byStudent.put(row.getStudentId(), row.getLastAt());
+            }
+        }
+        return byStudent;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static String key(String connector, Student student) {
+        return connector + ":" + student.getId();
+    }
+
+    record SyncTask(Student student, String connector, double priority, LocalDateTime lastSyncedAt) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Moves old {@code rishi_code_change_events} rows out of Postgres.
+ *
+ * Each run picks sessions whose events are older than the retention window
+ * and that are no longer being edited. Their raw rows are appended to
+ * gzip'd NDJSON files under {@code <dir>/yyyy/MM/dd/session-<id>.ndjson.gz}
+ * (one file per session and event day), folded into
+ * {@code rishi_code_change_minute_summaries}, and deleted. Files are written
+ * before the database transaction, so a failed run can leave duplicates in
+ * the archive but never loses rows; {@link #rehydrate(long)} drops them by id.
+ *
+ * Off by default. Enabling it requires {@code rishi.telemetry.archive.dir} to
+ * point at durable storage; a local directory on an ephemeral host would lose
+ * the archived rows on the next redeploy.
+ */
+@Service
+public class RishiCodeChangeArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiCodeChangeArchiveService.class);
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    /** Null when no archive directory is configured. */
+    private final Path archiveRoot;
+    private final int retentionDays;
+    private final int sessionsPerRun;
+    private final boolean enabled;
+
+    public RishiCodeChangeArchiveService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${rishi.telemetry.archive.dir:}") String archiveDir,
+            @Value("${rishi.telemetry.archive.retention-days:30}") int retentionDays,
+            @Value("${rishi.telemetry.archive.sessions-per-run:500}") int sessionsPerRun,
+            @Value("${rishi.telemetry.archive.enabled:false}") boolean enabled) {
+        boolean dirConfigured = archiveDir != null && !archiveDir.isBlank();
+        if (enabled && !dirConfigured) {
+            throw new IllegalStateException(
+                    "rishi.telemetry.archive.enabled requires rishi.telemetry.archive.dir to be set");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.archiveRoot = dirConfigured ? Paths.get(archiveDir) : null;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.sessionsPerRun = Math.max(1, sessionsPerRun);
+        this.enabled = enabled;
+    }
+
+    /** One archived editor change, as stored in the NDJSON files. */
+    public record ArchivedChange(
+            long id,
+            long sessionId,
+            LocalDateTime occurredAt,
+            Integer editorVersion,
+            Integer rangeOffset,
+            Integer rangeLength,
+            Integer insertedChars,
+            Integer deletedChars,
+            Integer resultingCodeLength,
+            String activityState,
+            Boolean editorFocused,
+            Boolean windowFocused,
+            Boolean documentVisible,
+            String metaJson) {
+    }
+
+    @Scheduled(cron = "${rishi.telemetry.archive.cron:0 30 3 * * *}")
+    public void archiveExpiredEvents() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        List<Long> sessionIds;
+        try {
+            sessionIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT e.session_id FROM rishi_code_change_events e "
+                            + "JOIN rishi_coding_sessions s ON s.id = e.session_id "
+                            + "WHERE e.occurred_at < ? AND (s.ended_at IS NOT NULL OR s.last_activity_at < ?) "
+                            + "LIMIT ?",
+                    Long.class, cutoff, cutoff, sessionsPerRun);
+        } catch (Exception e) {
+            log.warn("Could not select change events for archival", e);
+            return;
+        }
+
+        long archived = 0L;
+        for (Long sessionId : sessionIds) {
+            try {
+                archived += archiveSession(sessionId, cutoff);
+            } catch (Exception e) {
+                log.warn("Could not archive change events of session {}", sessionId, e);
+            }
+        }
+        if (archived > 0L) {
+            log.info("Archived {} change events from {} sessions", archived, sessionIds.size());
+        }
+    }
+
+    /** Archives the session's events older than {@code cutoff}. Returns how many were moved. */
+    int archiveSession(long sessionId, LocalDateTime cutoff) throws IOException {
+        List<ArchivedChange> changes = jdbcTemplate.query(
+                "SELECT id, session_id, occurred_at, editor_version, range_offset, range_length, inserted_chars, "
+                        + "deleted_chars, resulting_code_length, activity_state, editor_focused, window_focused, "
+                        + "document_visible, meta_json FROM rishi_code_change_events "
+                        + "WHERE session_id = ? AND occurred_at < ? ORDER BY occurred_at, id",
+                RishiCodeChangeArchiveService::mapChange, sessionId, cutoff);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, List<ArchivedChange>> byDay = new TreeMap<>();
+        for (ArchivedChange change : changes) {
+            byDay.computeIfAbsent(change.occurredAt().toLocalDate(), ignored -> new ArrayList<>()).add(change);
+        }
+        for (Map.Entry<LocalDate, List<ArchivedChange>> day : byDay.entrySet()) {
+            appendToPartition(sessionId, day.getKey(), day.getValue());
+        }
+
+        List<Object[]> summaryRows = summarize(changes);
+        // occurred_at lets Postgres prune the delete to the event's monthly partition.
+        List<Object[]> deleteRows = changes.stream()
+                .map(change -> new Object[] { change.id(), change.occurredAt() })
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Object[] row : summaryRows) {
+                int updated = jdbcTemplate.update(
+                        "UPDATE rishi_code_change_minute_summaries SET change_events = change_events + ?, "
+                                + "inserted_chars = inserted_chars + ?, deleted_chars = deleted_chars + ?, "
+                                + "activity_state = ?, resulting_code_length = ? "
+                                + "WHERE session_id = ? AND bucket_start = ?",
+                        row);
+                if (updated == 0) {
+                    jdbcTemplate.update(
+                            "INSERT INTO rishi_code_change_minute_summaries (change_events, inserted_chars, "
+                                    + "deleted_chars, activity_state, resulting_code_length, session_id, "
+                                    + "bucket_start, archived_at) VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                            row);
+                }
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM rishi_code_change_events WHERE id = ? AND occurred_at = ?", deleteRows);
+        });
+        return changes.size();
+    }
+
+    /**
+     * Reads a session's archived events back, oldest first. Only partitions
+     * that hold a minute summary for the session are opened; without an
+     * archive directory there is nothing to read.
+     */
+    public List<ArchivedChange> rehydrate(long sessionId) throws IOException {
+        if (archiveRoot == null) {
+            return List.of();
+        }
+        List<LocalDate> days = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(bucket_start AS DATE) FROM rishi_code_change_minute_summaries "
+                        + "WHERE session_id = ?",
+                LocalDate.class, sessionId);
+
+        Map<Long, ArchivedChange> byId = new LinkedHashMap<>();
+        for (LocalDate day : days) {
+            Path file = partitionFile(sessionId, day);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            // GZIPInputStream reads every member of a file appended to across runs.
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        ArchivedChange change = objectMapper.readValue(line, ArchivedChange.class);
+                        byId.putIfAbsent(change.id(), change);
+                    }
+                }
+            }
+        }
+        return byId.values().stream()
+                .sorted(Comparator.comparing(ArchivedChange::occurredAt).thenComparingLong(ArchivedChange::id))
+                .toList();
+    }
+
+    private void appendToPartition(long sessionId, LocalDate day, List<ArchivedChange> changes) throws IOException {
+        Path file = partitionFile(sessionId, day);
+        Files.createDirectories(file.getParent());
+        // Each run appends a new gzip member; the result is still one valid gzip stream.
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8))) {
+            for (ArchivedChange change : changes) {
+                writer.write(objectMapper.writeValueAsString(change));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private Path partitionFile(long sessionId, LocalDate day) {
+        return archiveRoot.resolve(day.format(PARTITION_FORMAT)).resolve("session-" + sessionId + ".ndjson.gz");
+    }
+
+    /**
+     * Minute buckets as {@code [events, inserted, deleted, state, length,
+     * sessionId, bucketStart]}; {@code changes} must be in time order.
+     */
+    private static List<Object[]> summarize(List<ArchivedChange> changes) {
+        Map<LocalDateTime, Object[]> buckets = new LinkedHashMap<>();
+        for (ArchivedChange change : changes) {
+            LocalDateTime bucket = change.occurredAt().truncatedTo(ChronoUnit.MINUTES);
+            Object[] row = buckets.computeIfAbsent(bucket,
+                    ignored -> new Object[] { 0, 0L, 0L, null, null, change.sessionId(), bucket });
+            row[0] = (Integer) row[0] + 1;
+            row[1] = (Long) row[1] + (change.insertedChars() == null ? 0 : change.insertedChars());
+            row[2] = (Long) row[2] + (change.deletedChars() == null ? 0 : change.deletedChars());
+            row[3] = change.activityState();
+            row[4] = change.resultingCodeLength();
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static ArchivedChange mapChange(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp occurredAt = rs.getTimestamp("occurred_at");
+        return new ArchivedChange(
+                rs.getLong("id"),
+                rs.getLong("session_id"),
+                occurredAt.toLocalDateTime(),
+                rs.getObject("editor_version", Integer.class),
+                rs.getObject("range_offset", Integer.class),
+                rs.getObject("range_length", Integer.class),
+                rs.getObject("inserted_chars", Integer.class),
+                rs.getObject("deleted_chars", Integer.class),
+                rs.getObject("resulting_code_length", Integer.class),
+                rs.getString("activity_state"),
+                rs.getObject("editor_focused", Boolean.class),
+                rs.getObject("window_focused", Boolean.class),
+                rs.getObject("document_visible", Boolean.class),
+                rs.getString("meta_json"));
+    }
+}
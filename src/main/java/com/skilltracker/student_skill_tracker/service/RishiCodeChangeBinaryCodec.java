@@ -0,0 +1,228 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeEventDto;
+
+/**
+ * Compact wire format for editor change batches
+ * ({@value #MEDIA_TYPE}), an alternative to the JSON batch body.
+ *
+ * <pre>
+ * u8      version (1)
+ * varint  dictionary size, then per entry: varint byte length + UTF-8 activity state
+ * varint  event count, then per event:
+ *   zigzag varlong  milliseconds since the previous event (the first is epoch millis, UTC)
+ *   u8              focus flags, two bits each for editorFocused, windowFocused,
+ *                   documentVisible (0 = absent, 1 = false, 2 = true)
+ *   varint          activity state dictionary index + 1 (0 = absent)
+ *   varint x 6      editorVersion, rangeOffset, rangeLength, insertedChars,
+ *                   deletedChars, resultingCodeLength
+ * </pre>
+ *
+ * Decoding reads straight into {@link RishiCodeChangeIngestionBuffer.PendingChange}
+ * with the same clamping and normalization as the JSON path; activity states
+ * are normalized once per dictionary entry rather than once per event.
+ */
+public final class RishiCodeChangeBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.rishi.change-batch";
+
+    private static final int VERSION = 1;
+    private static final int MAX_DICTIONARY_SIZE = 64;
+    private static final int MAX_STATE_BYTES = 256;
+    // Smallest possible encoded event: delta, flags, state and six integers.
+    private static final int MIN_EVENT_BYTES = 9;
+
+    private RishiCodeChangeBinaryCodec() {
+    }
+
+    /** Thrown for bodies that are not a valid version 1 batch. */
+    public static class MalformedBatchException extends RuntimeException {
+        public MalformedBatchException(String message) {
+            super(message);
+        }
+    }
+
+    static List<RishiCodeChangeIngestionBuffer.PendingChange> decode(byte[] body,
+            UnaryOperator<String> stateNormalizer, int maxChangeChars, int maxCodeLength) {
+        Reader reader = new Reader(body == null ? new byte[0] : body);
+        if (reader.remaining() == 0) {
+            return List.of();
+        }
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new MalformedBatchException("Unsupported change batch version " + version);
+        }
+
+        int dictionarySize = reader.readCount(MAX_DICTIONARY_SIZE);
+        String[] states = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            states[i] = stateNormalizer.apply(reader.readUtf8(MAX_STATE_BYTES));
+        }
+        String unknownState = stateNormalizer.apply(null);
+
+        int eventCount = reader.readCount(reader.remaining() / MIN_EVENT_BYTES);
+        List<RishiCodeChangeIngestionBuffer.PendingChange> changes = new ArrayList<>(eventCount);
+        long epochMillis = 0L;
+        for (int i = 0; i < eventCount; i++) {
+            epochMillis += zigzagDecode(reader.readVarLong());
+            int flags = reader.readByte();
+            int stateIndex = reader.readCount(dictionarySize);
+            changes.add(new RishiCodeChangeIngestionBuffer.PendingChange(
+                    LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                            (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC),
+                    reader.readClampedInt(Integer.MAX_VALUE),
+                    reader.readClampedInt(Integer.MAX_VALUE),
+                    reader.readClampedInt(Integer.MAX_VALUE),
+                    reader.readClampedInt(maxChangeChars),
+                    reader.readClampedInt(maxChangeChars),
+                    reader.readClampedInt(maxCodeLength),
+                    stateIndex == 0 ? unknownState : states[stateIndex - 1],
+                    flag(flags, 0),
+                    flag(flags, 2),
+                    flag(flags, 4)));
+        }
+        if (reader.remaining() != 0) {
+            throw new MalformedBatchException("Trailing bytes after change batch");
+        }
+        return changes;
+    }
+
+    /**
+     * Encodes JSON-shaped events. Used by tests and tooling; browsers ship
+     * their own encoder. Every event needs an ISO-8601 timestamp with an
+     * offset; sub-millisecond precision is dropped.
+     */
+    public static byte[] encode(List<RishiCodeChangeEventDto> events) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (RishiCodeChangeEventDto event : events) {
+            if (event.getActivityState() != null) {
+                dictionary.putIfAbsent(event.getActivityState(), dictionary.size());
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(VERSION);
+        writeVarLong(out, dictionary.size());
+        for (String state : dictionary.keySet()) {
+            byte[] bytes = state.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        writeVarLong(out, events.size());
+        long previous = 0L;
+        for (RishiCodeChangeEventDto event : events) {
+            // Mirrors the JSON path, which keeps the wall-clock time of the sender's offset.
+            long epochMillis = OffsetDateTime.parse(event.getTimestamp()).toLocalDateTime()
+                    .toInstant(ZoneOffset.UTC).toEpochMilli();
+            writeVarLong(out, zigzagEncode(epochMillis - previous));
+            previous = epochMillis;
+            out.write(flagBits(event.getEditorFocused(), 0)
+                    | flagBits(event.getWindowFocused(), 2)
+                    | flagBits(event.getDocumentVisible(), 4));
+            writeVarLong(out, event.getActivityState() == null ? 0 : dictionary.get(event.getActivityState()) + 1);
+            writeVarLong(out, nonNegative(event.getEditorVersion()));
+            writeVarLong(out, nonNegative(event.getRangeOffset()));
+            writeVarLong(out, nonNegative(event.getRangeLength()));
+            writeVarLong(out, nonNegative(event.getInsertedChars()));
+            writeVarLong(out, nonNegative(event.getDeletedChars()));
+            writeVarLong(out, nonNegative(event.getResultingCodeLength()));
+        }
+        return out.toByteArray();
+    }
+
+    private static Boolean flag(int flags, int shift) {
+        return switch ((flags >>> shift) & 0b11) {
+            case 0 -> null;
+            case 1 -> Boolean.FALSE;
+            case 2 -> Boolean.TRUE;
+            default -> throw new MalformedBatchException("Invalid focus flag");
+        };
+    }
+
+    private static int flagBits(Boolean value, int shift) {
+        return (value == null ? 0 : value ? 2 : 1) << shift;
+    }
+
+    private static long nonNegative(Integer value) {
+        return value == null ? 0L : Math.max(0, value);
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0L) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int remaining() {
+            return bytes.length - position;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new MalformedBatchException("Truncated change batch");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new MalformedBatchException("Varint is too long");
+        }
+
+        int readCount(int max) {
+            long value = readVarLong();
+            if (value < 0L || value > max) {
+                throw new MalformedBatchException("Count " + value + " exceeds " + max);
+            }
+            return (int) value;
+        }
+
+        int readClampedInt(int max) {
+            long value = readVarLong();
+            return value < 0L || value > max ? max : (int) value;
+        }
+
+        String readUtf8(int maxBytes) {
+            int length = readCount(Math.min(maxBytes, remaining()));
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind buffer for editor change batches.
+ *
+ * Each coding session gets a fixed-size ring of pending changes. The HTTP
+ * endpoint only appends to the ring and returns; a scheduled flusher drains
+ * every ring, writes the rows with one JDBC batch insert and applies a single
+ * aggregated counter update per session. When a ring (or the global pending
+ * budget) is full the whole batch is rejected so the client can retry it,
+ * instead of silently overwriting older changes.
+ *
+ * If the combined write fails, each session is retried in its own
+ * transaction so one bad session (say, a deleted session row) cannot hold
+ * back everyone else's changes. A session whose changes fail
+ * {@code max-flush-attempts} flushes in a row has them dropped.
+ */
+@Component
+public class RishiCodeChangeIngestionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiCodeChangeIngestionBuffer.class);
+
+    private static final long IDLE_RING_EVICTION_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String INSERT_EVENT_SQL = "INSERT INTO rishi_code_change_events "
+            + "(session_id, occurred_at, editor_version, range_offset, range_length, inserted_chars, "
+            + "deleted_chars, resulting_code_length, activity_state, editor_focused, window_focused, "
+            + "document_visible, meta_json, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, '{}', ?)";
+
+    private static final String UPDATE_SESSION_SQL = "UPDATE rishi_coding_sessions SET "
+            + "total_change_events = COALESCE(total_change_events, 0) + ?, "
+            + "total_inserted_chars = COALESCE(total_inserted_chars, 0) + ?, "
+            + "total_deleted_chars = COALESCE(total_deleted_chars, 0) + ?, "
+            + "latest_code_length = ?, "
+            + "last_activity_at = CASE WHEN last_activity_at IS NULL OR last_activity_at < ? "
+            + "THEN ? ELSE last_activity_at END, "
+            + "observed_active_ms = COALESCE(observed_active_ms, 0) + ?, "
+            + "observed_typing_ms = COALESCE(observed_typing_ms, 0) + ?, "
+            + "observed_cursor_idle_ms = COALESCE(observed_cursor_idle_ms, 0) + ?, "
+            + "observed_editor_unfocused_ms = COALESCE(observed_editor_unfocused_ms, 0) + ?, "
+            + "observed_tab_hidden_ms = COALESCE(observed_tab_hidden_ms, 0) + ?, "
+            + "last_change_at = ?, "
+            + "last_change_state = ?, "
+            + "updated_at = ? "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int sessionCapacity;
+    private final int maxPendingEvents;
+    private final int maxFlushAttempts;
+
+    private final Map<Long, SessionRing> rings = new ConcurrentHashMap<>();
+    /** Sessions closed by {@link #flushSession(Long)}, with the time they were closed. */
+    private final Map<Long, Long> endedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    /** Consecutive failed flushes per session; cleared when its changes are written or dropped. */
+    private final Map<Long, Integer> flushFailures = new ConcurrentHashMap<>();
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+    private final Counter droppedCounter;
+    private final Timer flushTimer;
+
+    public RishiCodeChangeIngestionBuffer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${rishi.telemetry.ingest.session-capacity:2048}") int sessionCapacity,
+            @Value("${rishi.telemetry.ingest.max-pending-events:50000}") int maxPendingEvents,
+            @Value("${rishi.telemetry.ingest.max-flush-attempts:5}") int maxFlushAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionCapacity = Math.max(1, sessionCapacity);
+        this.maxPendingEvents = Math.max(this.sessionCapacity, maxPendingEvents);
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+
+        Gauge.builder("rishi.telemetry.ingest.pending", pendingEvents, AtomicInteger::get)
+                .description("Change events buffered but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("rishi.telemetry.ingest.sessions", rings, Map::size)
+                .description("Coding sessions with an open ingestion ring")
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("rishi.telemetry.ingest.accepted");
+        this.rejectedCounter = meterRegistry.counter("rishi.telemetry.ingest.rejected");
+        this.flushedCounter = meterRegistry.counter("rishi.telemetry.ingest.flushed");
+        this.flushFailureCounter = meterRegistry.counter("rishi.telemetry.ingest.flush.failures");
+        this.droppedCounter = meterRegistry.counter("rishi.telemetry.ingest.dropped");
+        this.flushTimer = meterRegistry.timer("rishi.telemetry.ingest.flush");
+    }
+
+    @PostConstruct
+    void ensureChangeAccumulatorColumns() {
+        try {
+            // Backward compatibility for databases created before the running totals existed.
+            jdbcTemplate.execute("ALTER TABLE rishi_coding_sessions ADD COLUMN IF NOT EXISTS last_change_at TIMESTAMP");
+            jdbcTemplate.execute(
+                    "ALTER TABLE rishi_coding_sessions ADD COLUMN IF NOT EXISTS last_change_state VARCHAR(40)");
+            for (String column : List.of("observed_active_ms", "observed_typing_ms", "observed_cursor_idle_ms",
+                    "observed_editor_unfocused_ms", "observed_tab_hidden_ms")) {
+                jdbcTemplate.execute(
+                        "ALTER TABLE rishi_coding_sessions ADD COLUMN IF NOT EXISTS " + column + " BIGINT DEFAULT 0");
+            }
+        } catch (Exception e) {
+            log.warn("Could not auto-heal rishi_coding_sessions accumulator columns", e);
+        }
+    }
+
+    /**
+     * A normalized change ready to be written. Values are already clamped by
+     * the telemetry service.
+     */
+    public record PendingChange(
+            LocalDateTime occurredAt,
+            int editorVersion,
+            int rangeOffset,
+            int rangeLength,
+            int insertedChars,
+            int deletedChars,
+            int resultingCodeLength,
+            String activityState,
+            Boolean editorFocused,
+            Boolean windowFocused,
+            Boolean documentVisible) {
+    }
+
+    /**
+     * True when this buffer already validated that the session belongs to the
+     * student and it has not been ended, so the caller can skip the DB lookup.
+     */
+    public boolean ownsOpenSession(Long sessionId, Long studentId) {
+        if (sessionId == null || studentId == null) {
+            return false;
+        }
+        SessionRing ring = rings.get(sessionId);
+        return ring != null && !ring.closed && studentId.equals(ring.studentId);
+    }
+
+    /**
+     * True when the session was ended through {@link #flushSession(Long)}
+     * recently; such sessions accept no more changes.
+     */
+    public boolean isEnded(Long sessionId) {
+        return sessionId != null && endedSessions.containsKey(sessionId);
+    }
+
+    /**
+     * Appends the whole batch or nothing.
+     *
+     * @return false when the session ring or global budget has no room left,
+     *         or the session has ended (see {@link #isEnded(Long)})
+     */
+    public boolean offer(Long sessionId, Long studentId, List<PendingChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return true;
+        }
+        int size = changes.size();
+        if (size > sessionCapacity || !reservePending(size)) {
+            rejectedCounter.increment(size);
+            return false;
+        }
+
+        while (true) {
+            SessionRing ring = rings.computeIfAbsent(sessionId, id -> new SessionRing(studentId, sessionCapacity));
+            synchronized (ring) {
+                if (endedSessions.containsKey(sessionId)) {
+                    // Never let a late batch recreate the ring of an ended session
+                    ring.closed = true;
+                    rings.remove(sessionId, ring);
+                    pendingEvents.addAndGet(-size);
+                    return false;
+                }
+                if (ring.closed) {
+                    continue;
+                }
+                if (!ring.hasRoom(size)) {
+                    pendingEvents.addAndGet(-size);
+                    rejectedCounter.increment(size);
+                    return false;
+                }
+                for (PendingChange change : changes) {
+                    ring.push(change);
+                }
+                ring.lastOfferAtMs = System.currentTimeMillis();
+            }
+            acceptedCounter.increment(size);
+            return true;
+        }
+    }
+
+    /**
+     * Writes everything buffered for one session and stops tracking it. Used
+     * when a session ends so the event table is complete before it is read.
+     */
+    public void flushSession(Long sessionId) {
+        // Marked before the ring is looked up so an offer racing with this call either lands in
+        // the ring flushed below or sees the mark under the ring lock.
+        endedSessions.put(sessionId, System.currentTimeMillis());
+        SessionRing ring = rings.get(sessionId);
+        if (ring == null) {
+            return;
+        }
+        ring.flushLock.lock();
+        try {
+            synchronized (ring) {
+                ring.closed = true;
+                rings.remove(sessionId, ring);
+            }
+            List<PendingChange> drained = drain(ring);
+            if (!drained.isEmpty() && !write(Map.of(sessionId, drained))) {
+                // The session is not ended after all; restored changes are retried by flushAll
+                endedSessions.remove(sessionId);
+                throw new IllegalStateException("Could not persist buffered change events for session " + sessionId);
+            }
+        } finally {
+            ring.flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rishi.telemetry.ingest.flush-interval-ms:500}")
+    public void flushAll() {
+        Map<Long, List<PendingChange>> batch = new HashMap<>();
+        List<SessionRing> locked = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        endedSessions.values().removeIf(endedAtMs -> now - endedAtMs > IDLE_RING_EVICTION_MS);
+        try {
+            for (Map.Entry<Long, SessionRing> entry : rings.entrySet()) {
+                SessionRing ring = entry.getValue();
+                ring.flushLock.lock();
+                locked.add(ring);
+                List<PendingChange> drained = drain(ring);
+                if (!drained.isEmpty()) {
+                    batch.put(entry.getKey(), drained);
+                } else {
+                    evictIfIdle(entry.getKey(), ring, now);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            for (SessionRing ring : locked) {
+                ring.flushLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        int pending = pendingEvents.get();
+        if (pending > 0) {
+            log.info("Draining {} buffered change event(s) before shutdown", pending);
+        }
+        flushAll();
+        if (pendingEvents.get() > 0) {
+            log.error("{} change event(s) could not be written during shutdown", pendingEvents.get());
+        }
+    }
+
+    int pendingEventCount() {
+        return pendingEvents.get();
+    }
+
+    private boolean reservePending(int size) {
+        while (true) {
+            int current = pendingEvents.get();
+            if (current + size > maxPendingEvents) {
+                return false;
+            }
+            if (pendingEvents.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    private List<PendingChange> drain(SessionRing ring) {
+        synchronized (ring) {
+            return ring.drain();
+        }
+    }
+
+    private void evictIfIdle(Long sessionId, SessionRing ring, long now) {
+        synchronized (ring) {
+            if (ring.size == 0 && now - ring.lastOfferAtMs > IDLE_RING_EVICTION_MS) {
+                ring.closed = true;
+                rings.remove(sessionId, ring);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code batch}, falling back to one transaction per session when
+     * the combined write fails.
+     *
+     * @return false when any session's changes could not be written; those
+     *         are restored for the next flush, or dropped once they have failed
+     *         too often
+     */
+    private boolean write(Map<Long, List<PendingChange>> batch) {
+        long startNs = System.nanoTime();
+        try {
+            if (tryWrite(batch)) {
+                return true;
+            }
+            boolean allWritten = true;
+            for (Map.Entry<Long, List<PendingChange>> entry : batch.entrySet()) {
+                Map<Long, List<PendingChange>> single = Map.of(entry.getKey(), entry.getValue());
+                // A lone session already failed on its own above
+                if (batch.size() == 1 || !tryWrite(single)) {
+                    allWritten = false;
+                    failed(entry.getKey(), entry.getValue());
+                }
+            }
+            return allWritten;
+        } finally {
+            flushTimer.record(System.nanoTime() - startNs, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean tryWrite(Map<Long, List<PendingChange>> batch) {
+        int total = batch.values().stream().mapToInt(List::size).sum();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> eventRows = new ArrayList<>(total);
+            for (Map.Entry<Long, List<PendingChange>> entry : batch.entrySet()) {
+                for (PendingChange change : entry.getValue()) {
+                    eventRows.add(new Object[] {
+                            entry.getKey(),
+                            change.occurredAt(),
+                            change.editorVersion(),
+                            change.rangeOffset(),
+                            change.rangeLength(),
+                            change.insertedChars(),
+                            change.deletedChars(),
+                            change.resultingCodeLength(),
+                            change.activityState(),
+                            change.editorFocused(),
+                            change.windowFocused(),
+                            change.documentVisible(),
+                            now });
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, eventRows);
+                jdbcTemplate.batchUpdate(UPDATE_SESSION_SQL, buildSessionRows(batch, now));
+            });
+            pendingEvents.addAndGet(-total);
+            flushedCounter.increment(total);
+            batch.keySet().forEach(flushFailures::remove);
+            return true;
+        } catch (RuntimeException ex) {
+            flushFailureCounter.increment();
+            log.warn("Failed to flush {} change event(s) for {} session(s)", total, batch.size(), ex);
+            return false;
+        }
+    }
+
+    private void failed(Long sessionId, List<PendingChange> changes) {
+        int failures = flushFailures.merge(sessionId, 1, Integer::sum);
+        if (failures < maxFlushAttempts) {
+            restore(Map.of(sessionId, changes));
+            return;
+        }
+        flushFailures.remove(sessionId);
+        pendingEvents.addAndGet(-changes.size());
+        droppedCounter.increment(changes.size());
+        log.error("Dropped {} change event(s) for session {} after {} failed flushes", changes.size(), sessionId,
+                failures);
+    }
+
+    private List<Object[]> buildSessionRows(Map<Long, List<PendingChange>> batch, LocalDateTime now) {
+        Map<Long, ChangeCursor> cursors = loadCursors(batch.keySet());
+        List<Object[]> sessionRows = new ArrayList<>(batch.size());
+        for (Map.Entry<Long, List<PendingChange>> entry : batch.entrySet()) {
+            List<PendingChange> changes = entry.getValue();
+            int inserted = 0;
+            int deleted = 0;
+            for (PendingChange change : changes) {
+                inserted += change.insertedChars();
+                deleted += change.deletedChars();
+            }
+            int latestLength = changes.get(changes.size() - 1).resultingCodeLength();
+            LocalDateTime lastActivity = changes.stream()
+                    .map(PendingChange::occurredAt)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(now);
+
+            ChangeCursor cursor = cursors.getOrDefault(entry.getKey(), ChangeCursor.EMPTY);
+            RishiActiveTimeAccumulator.Totals delta = RishiActiveTimeAccumulator.accumulate(
+                    cursor.lastChangeAt(), cursor.lastChangeState(), changes,
+                    PendingChange::occurredAt, PendingChange::activityState);
+
+            sessionRows.add(new Object[] {
+                    changes.size(), inserted, deleted, latestLength,
+                    lastActivity, lastActivity,
+                    delta.activeMs(), delta.typingMs(), delta.cursorIdleMs(),
+                    delta.editorUnfocusedMs(), delta.tabHiddenMs(),
+                    delta.lastChangeAt(), delta.lastChangeState(),
+                    now, entry.getKey() });
+        }
+        return sessionRows;
+    }
+
+    private Map<Long, ChangeCursor> loadCursors(Set<Long> sessionIds) {
+        String placeholders = String.join(", ", Collections.nCopies(sessionIds.size(), "?"));
+        Map<Long, ChangeCursor> cursors = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, last_change_at, last_change_state FROM rishi_coding_sessions WHERE id IN ("
+                        + placeholders + ")",
+                rs -> {
+                    cursors.put(rs.getLong("id"), new ChangeCursor(
+                            rs.getObject("last_change_at", LocalDateTime.class),
+                            rs.getString("last_change_state")));
+                },
+                sessionIds.toArray());
+        return cursors;
+    }
+
+    // Put drained changes back at the front of their ring so the next flush retries them in order.
+    // Their pending budget was never released, so capacity checks are bypassed here.
+    private void restore(Map<Long, List<PendingChange>> batch) {
+        for (Map.Entry<Long, List<PendingChange>> entry : batch.entrySet()) {
+            SessionRing previous = rings.get(entry.getKey());
+            Long owner = previous != null ? previous.studentId : null;
+            SessionRing ring = rings.compute(entry.getKey(),
+                    (id, existing) -> existing == null || existing.closed
+                            ? new SessionRing(owner, sessionCapacity)
+                            : existing);
+            synchronized (ring) {
+                ring.prepend(entry.getValue());
+            }
+        }
+    }
+
+    private record ChangeCursor(LocalDateTime lastChangeAt, String lastChangeState) {
+        private static final ChangeCursor EMPTY = new ChangeCursor(null, null);
+    }
+
+    private static final class SessionRing {
+        private final Long studentId;
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private PendingChange[] slots;
+        private int head;
+        private int size;
+        private boolean closed;
+        private long lastOfferAtMs = System.currentTimeMillis();
+
+        private SessionRing(Long studentId, int capacity) {
+            this.studentId = studentId;
+            this.slots = new PendingChange[capacity];
+        }
+
+        private boolean hasRoom(int count) {
+            return size + count <= slots.length;
+        }
+
+        private void push(PendingChange change) {
+            slots[(head + size) % slots.length] = change;
+            size++;
+        }
+
+        private List<PendingChange> drain() {
+            List<PendingChange> drained = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % slots.length;
+                drained.add(slots[index]);
+                slots[index] = null;
+            }
+            head = 0;
+            size = 0;
+            return drained;
+        }
+
+        private void prepend(List<PendingChange> changes) {
+            List<PendingChange> merged = new ArrayList<>(changes.size() + size);
+            merged.addAll(changes);
+            merged.addAll(drain());
+            if (merged.size() > slots.length) {
+                slots = new PendingChange[merged.size()];
+            }
+            for (PendingChange change : merged) {
+                push(change);
+            }
+        }
+    }
+}
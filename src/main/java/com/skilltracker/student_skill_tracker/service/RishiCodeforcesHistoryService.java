@@ -0,0 +1,142 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSubmission;
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSyncState;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeforcesSubmissionRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeforcesSyncStateRepository;
+
+/**
+ * Local Codeforces submission history per handle. A sync asks for the
+ * high-water mark, downloads only newer submissions, and {@link #append}s
+ * them, which also bumps the all-time totals; windowed figures are computed
+ * from {@link #submittedSince} rather than from the provider.
+ *
+ * Appends for one handle are serialized on its sync-state row. On the first
+ * sync that row is created empty with {@code ON CONFLICT DO NOTHING} before
+ * it is locked, so two concurrent first syncs queue on it instead of both
+ * inserting.
+ */
+@Service
+public class RishiCodeforcesHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiCodeforcesHistoryService.class);
+
+    private static final String INSERT_EMPTY_STATE_SQL = "INSERT INTO rishi_codeforces_sync_state "
+            + "(handle, solved_total, updated_at) VALUES (?, 0, ?)";
+
+    /** All-time figures for a handle, detached from the persistence context. */
+    public record Totals(int solvedTotal, Map<String, Integer> acceptedByTag) {
+    }
+
+    private final RishiCodeforcesSubmissionRepository submissionRepository;
+    private final RishiCodeforcesSyncStateRepository syncStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public RishiCodeforcesHistoryService(
+            RishiCodeforcesSubmissionRepository submissionRepository,
+            RishiCodeforcesSyncStateRepository syncStateRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.submissionRepository = submissionRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Id of the newest stored submission, empty before the first sync. */
+    @Transactional(readOnly = true)
+    public Optional<Long> lastSubmissionId(String handle) {
+        return syncStateRepository.findById(handle).map(RishiCodeforcesSyncState::getLastSubmissionId);
+    }
+
+    /**
+     * Stores {@code submissions} (oldest first) and folds them into the
+     * handle's totals. Submissions at or below the high-water mark were
+     * already counted, e.g. by a sync that finished first, and are skipped.
+     */
+    @Transactional
+    public Totals append(String handle, List<RishiCodeforcesSubmission> submissions) {
+        ensureState(handle);
+        RishiCodeforcesSyncState state = syncStateRepository.findForUpdate(handle)
+                .orElseThrow(() -> new IllegalStateException("No Codeforces sync state for " + handle));
+        long mark = state.getLastSubmissionId() == null ? Long.MIN_VALUE : state.getLastSubmissionId();
+        Set<String> solvedInBatch = new HashSet<>();
+
+        for (RishiCodeforcesSubmission submission : submissions) {
+            if (submission.getSubmissionId() <= mark) {
+                continue;
+            }
+            submission.setHandle(handle);
+            if (submission.isAccepted()) {
+                String problemKey = submission.getProblemKey();
+                if (problemKey != null && !problemKey.isEmpty() && solvedInBatch.add(problemKey)
+                        && !submissionRepository.existsByHandleAndProblemKeyAndAcceptedTrue(handle, problemKey)) {
+                    state.setSolvedTotal(state.getSolvedTotal() + 1);
+                }
+                for (String tag : tagsOf(submission)) {
+                    state.getAcceptedByTag().merge(tag, 1, Integer::sum);
+                }
+            }
+            submissionRepository.save(submission);
+            mark = submission.getSubmissionId();
+            state.setLastSubmissionId(mark);
+            state.setLastCreationTimeSeconds(submission.getCreationTimeSeconds());
+        }
+
+        RishiCodeforcesSyncState saved = syncStateRepository.save(state);
+        return new Totals(saved.getSolvedTotal(), Map.copyOf(saved.getAcceptedByTag()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RishiCodeforcesSubmission> submittedSince(String handle, long epochSeconds) {
+        return submissionRepository.findByHandleAndCreationTimeSecondsGreaterThanEqual(handle, epochSeconds);
+    }
+
+    private void ensureState(String handle) {
+        if (isPostgres()) {
+            // A concurrent first sync may insert it first; the lock below then waits for that sync.
+            jdbcTemplate.update(INSERT_EMPTY_STATE_SQL + " ON CONFLICT (handle) DO NOTHING", handle,
+                    LocalDateTime.now());
+            return;
+        }
+        try {
+            // The embedded test database has no ON CONFLICT, but a failed statement does not
+            // abort its transaction either.
+            jdbcTemplate.update(INSERT_EMPTY_STATE_SQL, handle, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            log.debug("Codeforces sync state for {} already exists", handle);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean detected = postgres;
+        if (detected == null) {
+            detected = "PostgreSQL".equalsIgnoreCase(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            postgres = detected;
+        }
+        return detected;
+    }
+
+    static List<String> tagsOf(RishiCodeforcesSubmission submission) {
+        String tags = submission.getTags();
+        if (tags == null || tags.isBlank()) {
+            return List.of();
+        }
+        return List.of(tags.split(","));
+    }
+}
@@ -1,5 +1,11 @@
 package com.skilltracker.student_skill_tracker.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -9,14 +15,16 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.StringJoiner;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,13 +52,19 @@ import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.RishiCodeChangeEventRepository;
 import com.skilltracker.student_skill_tracker.repository.RishiCodingSessionRepository;
 import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository.AttemptExportRow;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository.DailyAttemptAggregate;
+import com.skilltracker.student_skill_tracker.service.RishiTelemetryRollupService.AttemptCell;
+import com.skilltracker.student_skill_tracker.service.RishiTelemetryRollupService.SessionCell;
 
 @Service
 public class RishiCodingTelemetryService {
 
-    private static final long AFK_IDLE_TIMEOUT_MS = 120_000L;
+    private static final int MAX_CHANGE_CHARS = 100_000;
+    private static final int MAX_CODE_LENGTH = 5_000_000;
+    private static final int MAX_EXPORT_DAYS = 60;
+    private static final int MAX_UNBOUNDED_EXPORT_DAYS = 3_650;
     private static final long ACTIVE_DURATION_DRIFT_TOLERANCE_MS = 300_000L;
-    private static final long MIN_ACTIVE_MS_PER_EDIT_SESSION = 1_000L;
     private static final String SOURCE_LOCAL_RUN = "local_run";
     private static final String SOURCE_DUEL_RUN = "duel_run";
     private static final String SOURCE_LEETCODE_SUBMIT = "leetcode_submit";
@@ -65,6 +79,8 @@ public class RishiCodingTelemetryService {
     private final RishiCodingSessionRepository sessionRepository;
     private final RishiCodeChangeEventRepository changeEventRepository;
     private final RishiCompileAttemptLogRepository compileAttemptLogRepository;
+    private final RishiCodeChangeIngestionBuffer ingestionBuffer;
+    private final RishiTelemetryRollupService rollupService;
     private final SmartQuestionRouter smartQuestionRouter;
     private final org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
 
@@ -72,11 +88,15 @@ public class RishiCodingTelemetryService {
             RishiCodingSessionRepository sessionRepository,
             RishiCodeChangeEventRepository changeEventRepository,
             RishiCompileAttemptLogRepository compileAttemptLogRepository,
+            RishiCodeChangeIngestionBuffer ingestionBuffer,
+            RishiTelemetryRollupService rollupService,
             SmartQuestionRouter smartQuestionRouter,
             org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate) {
         this.sessionRepository = sessionRepository;
         this.changeEventRepository = changeEventRepository;
         this.compileAttemptLogRepository = compileAttemptLogRepository;
+        this.ingestionBuffer = ingestionBuffer;
+        this.rollupService = rollupService;
         this.smartQuestionRouter = smartQuestionRouter;
         this.messagingTemplate = messagingTemplate;
     }
@@ -98,73 +118,70 @@ public class RishiCodingTelemetryService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Validates and normalizes a change batch, then hands it to the write-behind
+     * buffer. Rows and session counters are persisted by the buffer's flusher.
+     *
+     * @throws IllegalStateException when the ingestion buffer is saturated
+     */
     public int recordChanges(Student student, Long sessionId, RishiCodeChangeBatchRequest request) {
-        RishiCodingSession session = getOwnedSession(student, sessionId);
-        if (session.getEndedAt() != null) {
-            return 0;
-        }
-
         List<RishiCodeChangeEventDto> incoming = request == null || request.getEvents() == null
                 ? List.of()
                 : request.getEvents();
-        if (incoming.isEmpty()) {
+        if (!acceptsChanges(student, sessionId) || incoming.isEmpty()) {
             return 0;
         }
 
-        List<RishiCodeChangeEvent> events = new ArrayList<>(incoming.size());
-        int insertedTotal = 0;
-        int deletedTotal = 0;
-        LocalDateTime lastActivity = session.getLastActivityAt();
-        Integer latestLength = session.getLatestCodeLength();
-
+        List<RishiCodeChangeIngestionBuffer.PendingChange> changes = new ArrayList<>(incoming.size());
         for (RishiCodeChangeEventDto dto : incoming) {
-            int inserted = clampInt(dto.getInsertedChars(), 0, 100_000);
-            int deleted = clampInt(dto.getDeletedChars(), 0, 100_000);
-            int rangeOffset = clampInt(dto.getRangeOffset(), 0, Integer.MAX_VALUE);
-            int rangeLength = clampInt(dto.getRangeLength(), 0, Integer.MAX_VALUE);
-            int resultingLength = clampInt(dto.getResultingCodeLength(), 0, 5_000_000);
-            int editorVersion = clampInt(dto.getEditorVersion(), 0, Integer.MAX_VALUE);
-            LocalDateTime occurredAt = parseTimestampOrNow(dto.getTimestamp());
-            String activityState = normalizeActivityState(dto.getActivityState());
-            Boolean editorFocused = dto.getEditorFocused();
-            Boolean windowFocused = dto.getWindowFocused();
-            Boolean documentVisible = dto.getDocumentVisible();
-
-            insertedTotal += inserted;
-            deletedTotal += deleted;
-            latestLength = resultingLength;
-            if (occurredAt.isAfter(lastActivity)) {
-                lastActivity = occurredAt;
-            }
+            changes.add(new RishiCodeChangeIngestionBuffer.PendingChange(
+                    parseTimestampOrNow(dto.getTimestamp()),
+                    clampInt(dto.getEditorVersion(), 0, Integer.MAX_VALUE),
+                    clampInt(dto.getRangeOffset(), 0, Integer.MAX_VALUE),
+                    clampInt(dto.getRangeLength(), 0, Integer.MAX_VALUE),
+                    clampInt(dto.getInsertedChars(), 0, MAX_CHANGE_CHARS),
+                    clampInt(dto.getDeletedChars(), 0, MAX_CHANGE_CHARS),
+                    clampInt(dto.getResultingCodeLength(), 0, MAX_CODE_LENGTH),
+                    normalizeActivityState(dto.getActivityState()),
+                    dto.getEditorFocused(),
+                    dto.getWindowFocused(),
+                    dto.getDocumentVisible()));
+        }
+        return offerChanges(student, sessionId, changes);
+    }
 
-            events.add(RishiCodeChangeEvent.builder()
-                    .session(session)
-                    .occurredAt(occurredAt)
-                    .editorVersion(editorVersion)
-                    .rangeOffset(rangeOffset)
-                    .rangeLength(rangeLength)
-                    .insertedChars(inserted)
-                    .deletedChars(deleted)
-                    .resultingCodeLength(resultingLength)
-                    .activityState(activityState)
-                    .editorFocused(editorFocused)
-                    .windowFocused(windowFocused)
-                    .documentVisible(documentVisible)
-                    .metaJson("{}")
-                    .build());
+    /**
+     * Same as {@link #recordChanges} for a body in the
+     * {@link RishiCodeChangeBinaryCodec} format.
+     *
+     * @throws RishiCodeChangeBinaryCodec.MalformedBatchException if the body cannot be decoded
+     */
+    public int recordEncodedChanges(Student student, Long sessionId, byte[] body) {
+        List<RishiCodeChangeIngestionBuffer.PendingChange> changes = RishiCodeChangeBinaryCodec.decode(
+                body, RishiCodingTelemetryService::normalizeActivityState, MAX_CHANGE_CHARS, MAX_CODE_LENGTH);
+        if (!acceptsChanges(student, sessionId) || changes.isEmpty()) {
+            return 0;
         }
+        return offerChanges(student, sessionId, changes);
+    }
 
-        changeEventRepository.saveAll(events);
-
-        session.setTotalChangeEvents(session.getTotalChangeEvents() + events.size());
-        session.setTotalInsertedChars(session.getTotalInsertedChars() + insertedTotal);
-        session.setTotalDeletedChars(session.getTotalDeletedChars() + deletedTotal);
-        session.setLatestCodeLength(latestLength);
-        session.setLastActivityAt(lastActivity);
-        sessionRepository.save(session);
+    private boolean acceptsChanges(Student student, Long sessionId) {
+        if (ingestionBuffer.ownsOpenSession(sessionId, student.getId())) {
+            return true;
+        }
+        return getOwnedSession(student, sessionId).getEndedAt() == null;
+    }
 
-        return events.size();
+    private int offerChanges(Student student, Long sessionId,
+            List<RishiCodeChangeIngestionBuffer.PendingChange> changes) {
+        if (!ingestionBuffer.offer(sessionId, student.getId(), changes)) {
+            if (ingestionBuffer.isEnded(sessionId)) {
+                // The session ended while this batch was in flight
+                return 0;
+            }
+            throw new IllegalStateException("Telemetry buffer is full. Retry shortly.");
+        }
+        return changes.size();
     }
 
     @Transactional
@@ -231,6 +248,7 @@ public class RishiCodingTelemetryService {
 
         RishiCompileAttemptLog attemptLog = RishiCompileAttemptLog.builder()
                 .session(session)
+                .student(student)
                 .attemptedAt(now)
                 .attemptSource(source)
                 .success(success)
@@ -255,6 +273,7 @@ public class RishiCodingTelemetryService {
                 .sourceCodeSnapshot(safeText(request != null ? request.getSourceCode() : null, 10000))
                 .build();
         compileAttemptLogRepository.save(attemptLog);
+        rollupService.addAttempt(student, toAttemptCell(attemptLog));
 
         return RishiCompileAttemptAnalysisResponse.builder()
                 .status("recorded")
@@ -271,6 +290,12 @@ public class RishiCodingTelemetryService {
 
     @Transactional
     public void endSession(Student student, Long sessionId, RishiSessionEndRequest request) {
+        // Check ownership before touching the buffer, then persist buffered changes before the
+        // session row is loaded so its counters are current.
+        if (!sessionRepository.existsByIdAndStudent(sessionId, student)) {
+            throw new IllegalArgumentException("Session not found");
+        }
+        ingestionBuffer.flushSession(sessionId);
         RishiCodingSession session = getOwnedSession(student, sessionId);
         if (session.getEndedAt() != null) {
             return;
@@ -284,10 +309,12 @@ public class RishiCodingTelemetryService {
         long totalDurationMs = ChronoUnit.MILLIS.between(session.getStartedAt(), endedAt);
         session.setTotalDurationMs(Math.max(totalDurationMs, 0L));
 
-        long estimatedActiveMs = estimateActiveDurationFromChanges(session, endedAt);
+        StateDurations observed = observedStateDurations(session, endedAt);
         Long requestedActiveMs = request != null ? request.getActiveDurationMs() : null;
-        long resolvedActiveMs = resolveActiveDurationMs(session, requestedActiveMs, estimatedActiveMs);
-        StateDurations stateDurations = resolveStateDurations(session.getTotalDurationMs(), request, resolvedActiveMs);
+        long resolvedActiveMs = resolveActiveDurationMs(session, requestedActiveMs, observed.activeMs());
+        // A client-reported active time takes precedence over the observed split.
+        StateDurations stateDurations = resolveStateDurations(session.getTotalDurationMs(), request, resolvedActiveMs,
+                requestedActiveMs == null || requestedActiveMs <= 0L ? observed : null);
 
         session.setTypingDurationMs(stateDurations.typingMs());
         session.setCursorIdleDurationMs(stateDurations.cursorIdleMs());
@@ -296,6 +323,7 @@ public class RishiCodingTelemetryService {
         session.setActiveDurationMs(stateDurations.activeMs());
 
         sessionRepository.save(session);
+        rollupService.addSession(student, toSessionCell(session));
         sendSessionDebrief(student, session);
     }
 
@@ -304,7 +332,7 @@ public class RishiCodingTelemetryService {
         String topMistake = "None";
 
         List<RishiCompileAttemptLog> recentLogs = compileAttemptLogRepository
-                .findTop5BySessionStudentOrderByAttemptedAtDesc(student);
+                .findTop5ByStudentOrderByAttemptedAtDesc(student);
         if (!recentLogs.isEmpty()) {
             problemSlug = recentLogs.get(0).getProblemSlug();
             topMistake = recentLogs.stream()
@@ -336,23 +364,8 @@ public class RishiCodingTelemetryService {
         LocalDateTime currentStart = now.minusDays(safeDays);
         LocalDateTime previousStart = currentStart.minusDays(safeDays);
 
-        List<RishiCodingSession> sessions = sessionRepository.findByStudentAndStartedAtBetween(student, previousStart,
-                now);
-
-        List<RishiCodingSession> current = new ArrayList<>();
-        List<RishiCodingSession> previous = new ArrayList<>();
-
-        for (RishiCodingSession session : sessions) {
-            LocalDateTime marker = session.getStartedAt();
-            if (!marker.isBefore(currentStart)) {
-                current.add(session);
-            } else if (!marker.isBefore(previousStart) && marker.isBefore(currentStart)) {
-                previous.add(session);
-            }
-        }
-
-        RishiGrowthMetrics currentMetrics = toMetrics(current);
-        RishiGrowthMetrics previousMetrics = toMetrics(previous);
+        RishiGrowthMetrics currentMetrics = toMetrics(sessionCells(student, currentStart, now, true));
+        RishiGrowthMetrics previousMetrics = toMetrics(sessionCells(student, previousStart, currentStart, false));
 
         return RishiGrowthSummaryResponse.builder()
                 .days(safeDays)
@@ -377,19 +390,23 @@ public class RishiCodingTelemetryService {
         LocalDateTime currentStart = now.minusDays(safeDays);
         LocalDateTime previousStart = currentStart.minusDays(safeDays);
 
-        List<RishiCompileAttemptLog> currentLogs = compileAttemptLogRepository
-                .findBySessionStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(student, currentStart, now);
-        List<RishiCompileAttemptLog> previousLogs = compileAttemptLogRepository
-                .findBySessionStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(student, previousStart, currentStart);
-
-        long totalAttempts = currentLogs.size();
-        long successfulAttempts = currentLogs.stream().filter(RishiCompileAttemptLog::isSuccess).count();
-        double successRatePct = totalAttempts > 0 ? (successfulAttempts * 100.0) / totalAttempts : 0.0;
-        double averageAccuracyPct = averageAccuracy(currentLogs);
-        double previousAverageAccuracyPct = averageAccuracy(previousLogs);
-
-        Map<String, Long> currentCategoryCounts = aggregateCategoryCounts(currentLogs);
-        Map<String, Long> previousCategoryCounts = aggregateCategoryCounts(previousLogs);
+        // Only the rows shown in detail load the wide text columns.
+        List<RishiCompileAttemptLog> recentLogs = compileAttemptLogRepository
+                .findByStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
+                        student, currentStart, now, PageRequest.of(0, safeLimit));
+        List<AttemptCell> currentCells = attemptCells(student, currentStart, now);
+        List<AttemptCell> previousCells = attemptCells(student, previousStart, currentStart);
+
+        AttemptTotals current = AttemptTotals.of(currentCells);
+        AttemptTotals previous = AttemptTotals.of(previousCells);
+        long totalAttempts = current.attempts();
+        long successfulAttempts = current.successfulAttempts();
+        double successRatePct = current.successRatePct();
+        double averageAccuracyPct = current.averageAccuracyPct();
+        double previousAverageAccuracyPct = previous.averageAccuracyPct();
+
+        Map<String, Long> currentCategoryCounts = aggregateCategoryCounts(currentCells);
+        Map<String, Long> previousCategoryCounts = aggregateCategoryCounts(previousCells);
         Set<String> categories = new HashSet<>();
         categories.addAll(currentCategoryCounts.keySet());
         categories.addAll(previousCategoryCounts.keySet());
@@ -412,10 +429,8 @@ public class RishiCodingTelemetryService {
                         .thenComparing(RishiAttemptCategoryTrendDto::getCategory))
                 .toList();
 
-        int recentCount = Math.min(safeLimit, currentLogs.size());
-        List<RishiAttemptRecordDto> recentAttempts = new ArrayList<>(recentCount);
-        for (int i = 0; i < recentCount; i++) {
-            RishiCompileAttemptLog log = currentLogs.get(i);
+        List<RishiAttemptRecordDto> recentAttempts = new ArrayList<>(recentLogs.size());
+        for (RishiCompileAttemptLog log : recentLogs) {
             double accuracy = log.getAccuracyPct() != null ? round2(log.getAccuracyPct())
                     : (log.isSuccess() ? 100.0 : 0.0);
             String category = normalizeCategory(log.getMistakeCategory(), log.isSuccess());
@@ -436,9 +451,9 @@ public class RishiCodingTelemetryService {
                     .build());
         }
 
-        List<RishiAttemptDailyTrendDto> dailyTrends = buildDailyTrends(currentLogs, currentStart, now);
-        List<RishiAttemptSourceBreakdownDto> sourceBreakdown = buildSourceBreakdown(currentLogs);
-        List<RishiAttemptCategoryHeatmapDto> categoryHeatmap = buildCategoryHeatmap(currentLogs);
+        List<RishiAttemptDailyTrendDto> dailyTrends = buildDailyTrends(currentCells, currentStart, now);
+        List<RishiAttemptSourceBreakdownDto> sourceBreakdown = buildSourceBreakdown(currentCells);
+        List<RishiAttemptCategoryHeatmapDto> categoryHeatmap = buildCategoryHeatmap(currentCells);
 
         return RishiAttemptHistoryResponse.builder()
                 .days(safeDays)
@@ -447,7 +462,7 @@ public class RishiCodingTelemetryService {
                 .successfulAttempts(successfulAttempts)
                 .successRatePct(round2(successRatePct))
                 .averageAccuracyPct(round2(averageAccuracyPct))
-                .attemptsGrowthPct(growthPct(totalAttempts, previousLogs.size()))
+                .attemptsGrowthPct(growthPct(totalAttempts, previous.attempts()))
                 .accuracyGrowthPct(growthPct(averageAccuracyPct, previousAverageAccuracyPct))
                 .categoryTrends(categoryTrends)
                 .recentAttempts(recentAttempts)
@@ -462,7 +477,6 @@ public class RishiCodingTelemetryService {
         int safeDays = Math.max(7, Math.min(60, days));
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime start = now.minusDays(safeDays);
-        List<RishiCodingSession> sessions = sessionRepository.findByStudentAndStartedAtBetween(student, start, now);
 
         long typingMs = 0L;
         long cursorIdleMs = 0L;
@@ -470,27 +484,19 @@ public class RishiCodingTelemetryService {
         long tabHiddenMs = 0L;
         Map<LocalDate, StateDurations> daily = new LinkedHashMap<>();
 
-        for (RishiCodingSession session : sessions) {
-            long sessionTotalMs = safeDurationMs(session.getTotalDurationMs());
-            StateDurations sessionDurations = resolveStateDurationsFromSession(session, sessionTotalMs);
-
-            typingMs += sessionDurations.typingMs();
-            cursorIdleMs += sessionDurations.cursorIdleMs();
-            editorUnfocusedMs += sessionDurations.editorUnfocusedMs();
-            tabHiddenMs += sessionDurations.tabHiddenMs();
-
-            LocalDate day = session.getStartedAt() == null ? LocalDate.now() : session.getStartedAt().toLocalDate();
-            StateDurations existing = daily.get(day);
-            if (existing == null) {
-                daily.put(day, sessionDurations);
-            } else {
-                daily.put(day, new StateDurations(
-                        existing.typingMs() + sessionDurations.typingMs(),
-                        existing.cursorIdleMs() + sessionDurations.cursorIdleMs(),
-                        existing.editorUnfocusedMs() + sessionDurations.editorUnfocusedMs(),
-                        existing.tabHiddenMs() + sessionDurations.tabHiddenMs(),
-                        existing.activeMs() + sessionDurations.activeMs()));
-            }
+        for (SessionCell cell : sessionCells(student, start, now, true)) {
+            typingMs += cell.typingMs();
+            cursorIdleMs += cell.cursorIdleMs();
+            editorUnfocusedMs += cell.editorUnfocusedMs();
+            tabHiddenMs += cell.tabHiddenMs();
+
+            StateDurations existing = daily.getOrDefault(cell.day(), new StateDurations(0L, 0L, 0L, 0L, 0L));
+            daily.put(cell.day(), new StateDurations(
+                    existing.typingMs() + cell.typingMs(),
+                    existing.cursorIdleMs() + cell.cursorIdleMs(),
+                    existing.editorUnfocusedMs() + cell.editorUnfocusedMs(),
+                    existing.tabHiddenMs() + cell.tabHiddenMs(),
+                    existing.activeMs() + cell.activeMs()));
         }
 
         long activeMs = typingMs + cursorIdleMs;
@@ -527,67 +533,261 @@ public class RishiCodingTelemetryService {
                 .build();
     }
 
+    /**
+     * Writes the attempt history CSV straight from a database cursor, so heap
+     * use stays flat however wide the window is. {@code unbounded} raises the
+     * 60-day cap to ten years (admins only).
+     */
     @Transactional(readOnly = true)
-    public String exportAttemptHistoryCsv(Student student, int days) {
-        int safeDays = Math.max(7, Math.min(60, days));
+    public void exportAttemptHistoryCsv(Student student, int days, boolean unbounded, OutputStream out)
+            throws IOException {
+        int safeDays = exportWindowDays(days, unbounded);
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime start = now.minusDays(safeDays);
-        List<RishiCompileAttemptLog> logs = compileAttemptLogRepository
-                .findBySessionStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(student, start, now);
 
-        StringJoiner csv = new StringJoiner("\n");
-        csv.add("attemptedAt,source,success,failureBucket,accuracyPct,mistakeCategory,summary,nextStep1,nextStep2,nextStep3,errorSnippet,submissionStatus,judgeMessage");
-        for (RishiCompileAttemptLog log : logs) {
-            String category = normalizeCategory(log.getMistakeCategory(), log.isSuccess());
-            String bucket = normalizeFailureBucket(log.getFailureBucket(), log.isSuccess(), category);
-            csv.add(String.join(",",
-                    csvValue(log.getAttemptedAt() == null ? "" : log.getAttemptedAt().toString()),
-                    csvValue(safeSource(log.getAttemptSource())),
-                    csvValue(Boolean.toString(log.isSuccess())),
-                    csvValue(bucket),
-                    csvValue(Double.toString(round2(
-                            log.getAccuracyPct() == null ? (log.isSuccess() ? 100.0 : 0.0) : log.getAccuracyPct()))),
-                    csvValue(category),
-                    csvValue(log.getAnalysisSummary()),
-                    csvValue(log.getNextStep1()),
-                    csvValue(log.getNextStep2()),
-                    csvValue(log.getNextStep3()),
-                    csvValue(log.getErrorSnippet()),
-                    csvValue(log.getSubmissionStatus()),
-                    csvValue(log.getJudgeMessage())));
-        }
-        return csv.toString();
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("attemptedAt,source,success,failureBucket,accuracyPct,mistakeCategory,summary,nextStep1,nextStep2,nextStep3,errorSnippet,submissionStatus,judgeMessage");
+        try (Stream<AttemptExportRow> rows = compileAttemptLogRepository.streamExportRows(student, start, now)) {
+            Iterator<AttemptExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttemptExportRow row = iterator.next();
+                String category = normalizeCategory(row.getMistakeCategory(), row.isSuccess());
+                String bucket = normalizeFailureBucket(row.getFailureBucket(), row.isSuccess(), category);
+                csv.write('\n');
+                csv.write(String.join(",",
+                        csvValue(row.getAttemptedAt() == null ? "" : row.getAttemptedAt().toString()),
+                        csvValue(safeSource(row.getAttemptSource())),
+                        csvValue(Boolean.toString(row.isSuccess())),
+                        csvValue(bucket),
+                        csvValue(Double.toString(round2(
+                                row.getAccuracyPct() == null ? (row.isSuccess() ? 100.0 : 0.0) : row.getAccuracyPct()))),
+                        csvValue(category),
+                        csvValue(row.getAnalysisSummary()),
+                        csvValue(row.getNextStep1()),
+                        csvValue(row.getNextStep2()),
+                        csvValue(row.getNextStep3()),
+                        csvValue(row.getErrorSnippet()),
+                        csvValue(row.getSubmissionStatus()),
+                        csvValue(row.getJudgeMessage())));
+            }
+        }
+        csv.flush();
     }
 
-    private RishiGrowthMetrics toMetrics(List<RishiCodingSession> sessions) {
-        if (sessions.isEmpty()) {
-            return RishiGrowthMetrics.builder()
-                    .sessions(0)
-                    .totalCodingMinutes(0L)
-                    .compileAttempts(0)
-                    .compileSuccessRate(0.0)
-                    .averageFirstSuccessSeconds(0.0)
-                    .averageEditsPerSession(0.0)
-                    .build();
+    public static int exportWindowDays(int days, boolean unbounded) {
+        return Math.max(7, Math.min(unbounded ? MAX_UNBOUNDED_EXPORT_DAYS : MAX_EXPORT_DAYS, days));
+    }
+
+    /**
+     * Recomputes the student's rollup rows from raw sessions and attempts when
+     * they no longer account for all of them. Returns whether a rebuild ran.
+     */
+    @Transactional
+    public boolean rebuildRollupsIfStale(Student student) {
+        if (!rollupStale(student)) {
+            return false;
         }
 
+        record AttemptKey(LocalDate day, String source, String category) {
+        }
+        Map<AttemptKey, AttemptCell> attemptCells = new HashMap<>();
+        for (DailyAttemptAggregate aggregate : compileAttemptLogRepository.aggregateDailyAttempts(student)) {
+            AttemptCell cell = toAttemptCell(aggregate);
+            attemptCells.merge(new AttemptKey(cell.day(), cell.source(), cell.category()), cell,
+                    RishiCodingTelemetryService::plus);
+        }
+        Map<LocalDate, SessionCell> sessionCells = new HashMap<>();
+        for (RishiCodingSession session : sessionRepository.findByStudentAndEndedAtIsNotNull(student)) {
+            SessionCell cell = toSessionCell(session);
+            sessionCells.merge(cell.day(), cell, RishiCodingTelemetryService::plus);
+        }
+        rollupService.replace(student, attemptCells.values(), sessionCells.values());
+        return true;
+    }
+
+    private boolean rollupStale(Student student) {
+        long endedSessions = sessionRepository.countByStudentAndEndedAtIsNotNull(student);
+        long attempts = compileAttemptLogRepository.countByStudent(student);
+        return rollupService.isStale(student, endedSessions, attempts);
+    }
+
+    /**
+     * Whether {@code [from, to]} spans at least one whole calendar day that can
+     * be answered from the rollup. The student's rollup is checked against raw
+     * history the first time; until a stale one is rebuilt, reads stay raw.
+     */
+    private boolean usesRollup(Student student, LocalDateTime from, LocalDateTime to) {
+        if (!rollupService.readsEnabled()
+                || from.toLocalDate().plusDays(1).isAfter(to.toLocalDate().minusDays(1))) {
+            return false;
+        }
+        if (rollupService.isVerified(student)) {
+            return true;
+        }
+        if (rollupStale(student)) {
+            rollupService.requestRebuild(student);
+            return false;
+        }
+        rollupService.markVerified(student);
+        return true;
+    }
+
+    /**
+     * Session cells for sessions started in {@code [from, to]} ({@code to}
+     * exclusive unless {@code includeEnd}). Whole days in between come from the
+     * rollup; the partial first and last day, and sessions still open, are read
+     * raw.
+     */
+    private List<SessionCell> sessionCells(Student student, LocalDateTime from, LocalDateTime to,
+            boolean includeEnd) {
+        List<SessionCell> cells = new ArrayList<>();
+        List<RishiCodingSession> raw = new ArrayList<>();
+        if (usesRollup(student, from, to)) {
+            LocalDate firstFullDay = from.toLocalDate().plusDays(1);
+            LocalDate lastFullDay = to.toLocalDate().minusDays(1);
+            LocalDateTime fullStart = firstFullDay.atStartOfDay();
+            LocalDateTime fullEnd = lastFullDay.plusDays(1).atStartOfDay();
+            cells.addAll(rollupService.sessionCells(student, firstFullDay, lastFullDay));
+            raw.addAll(sessionRepository.findByStudentAndStartedAtBetween(student, from, justBefore(fullStart)));
+            raw.addAll(sessionRepository.findByStudentAndEndedAtIsNullAndStartedAtBetween(student, fullStart,
+                    justBefore(fullEnd)));
+            raw.addAll(sessionRepository.findByStudentAndStartedAtBetween(student, fullEnd, to));
+        } else {
+            raw.addAll(sessionRepository.findByStudentAndStartedAtBetween(student, from, to));
+        }
+        for (RishiCodingSession session : raw) {
+            if (includeEnd || session.getStartedAt() == null || session.getStartedAt().isBefore(to)) {
+                cells.add(toSessionCell(session));
+            }
+        }
+        return cells;
+    }
+
+    /** Attempt cells for attempts made in {@code [from, to]}, split like {@link #sessionCells}. */
+    private List<AttemptCell> attemptCells(Student student, LocalDateTime from, LocalDateTime to) {
+        List<AttemptCell> cells = new ArrayList<>();
+        List<DailyAttemptAggregate> raw = new ArrayList<>();
+        if (usesRollup(student, from, to)) {
+            LocalDate firstFullDay = from.toLocalDate().plusDays(1);
+            LocalDate lastFullDay = to.toLocalDate().minusDays(1);
+            cells.addAll(rollupService.attemptCells(student, firstFullDay, lastFullDay));
+            raw.addAll(compileAttemptLogRepository.aggregateDailyAttempts(
+                    student, from, justBefore(firstFullDay.atStartOfDay())));
+            raw.addAll(compileAttemptLogRepository.aggregateDailyAttempts(
+                    student, lastFullDay.plusDays(1).atStartOfDay(), to));
+        } else {
+            raw.addAll(compileAttemptLogRepository.aggregateDailyAttempts(student, from, to));
+        }
+        for (DailyAttemptAggregate aggregate : raw) {
+            cells.add(toAttemptCell(aggregate));
+        }
+        return cells;
+    }
+
+    // Timestamps are stored with microsecond precision, so this is the last instant before the boundary.
+    private static LocalDateTime justBefore(LocalDateTime boundary) {
+        return boundary.minus(1, ChronoUnit.MICROS);
+    }
+
+    private static AttemptCell toAttemptCell(RishiCompileAttemptLog log) {
+        LocalDate day = log.getAttemptedAt() == null ? LocalDate.now() : log.getAttemptedAt().toLocalDate();
+        return new AttemptCell(
+                day,
+                safeSource(log.getAttemptSource()),
+                normalizeCategory(log.getMistakeCategory(), log.isSuccess()),
+                1L,
+                log.isSuccess() ? 1L : 0L,
+                accuracyPct(log.getAccuracyPct(), log.isSuccess()));
+    }
+
+    private static AttemptCell toAttemptCell(DailyAttemptAggregate aggregate) {
+        return new AttemptCell(
+                aggregate.getDay(),
+                safeSource(aggregate.getSource()),
+                normalizeCategory(aggregate.getCategory(), aggregate.isSuccess()),
+                aggregate.getAttempts(),
+                aggregate.isSuccess() ? aggregate.getAttempts() : 0L,
+                aggregate.getAccuracySum() == null ? 0.0 : aggregate.getAccuracySum());
+    }
+
+    private SessionCell toSessionCell(RishiCodingSession session) {
+        long totalDurationMs = safeDurationMs(session.getTotalDurationMs());
+        StateDurations durations = resolveStateDurationsFromSession(session, totalDurationMs);
+        long firstSuccessMs = session.getFirstSuccessDurationMs() != null && session.getFirstSuccessDurationMs() > 0
+                ? session.getFirstSuccessDurationMs()
+                : 0L;
+        LocalDate day = session.getStartedAt() == null ? LocalDate.now() : session.getStartedAt().toLocalDate();
+        return new SessionCell(
+                day,
+                1L,
+                resolveDurationForMetrics(session),
+                session.getCompileAttempts() != null ? session.getCompileAttempts() : 0,
+                session.getSuccessfulCompiles() != null ? session.getSuccessfulCompiles() : 0,
+                session.getTotalChangeEvents() != null ? session.getTotalChangeEvents() : 0,
+                firstSuccessMs > 0L ? 1L : 0L,
+                firstSuccessMs,
+                durations.typingMs(),
+                durations.cursorIdleMs(),
+                durations.editorUnfocusedMs(),
+                durations.tabHiddenMs(),
+                durations.activeMs());
+    }
+
+    private static double accuracyPct(Double accuracyPct, boolean success) {
+        return accuracyPct != null ? accuracyPct : (success ? 100.0 : 0.0);
+    }
+
+    private static AttemptCell plus(AttemptCell a, AttemptCell b) {
+        return new AttemptCell(a.day(), a.source(), a.category(),
+                a.attempts() + b.attempts(),
+                a.successfulAttempts() + b.successfulAttempts(),
+                a.accuracySum() + b.accuracySum());
+    }
+
+    private static SessionCell plus(SessionCell a, SessionCell b) {
+        return new SessionCell(a.day(),
+                a.sessions() + b.sessions(),
+                a.codingDurationMs() + b.codingDurationMs(),
+                a.compileAttempts() + b.compileAttempts(),
+                a.successfulCompiles() + b.successfulCompiles(),
+                a.changeEvents() + b.changeEvents(),
+                a.firstSuccessCount() + b.firstSuccessCount(),
+                a.firstSuccessDurationMs() + b.firstSuccessDurationMs(),
+                a.typingMs() + b.typingMs(),
+                a.cursorIdleMs() + b.cursorIdleMs(),
+                a.editorUnfocusedMs() + b.editorUnfocusedMs(),
+                a.tabHiddenMs() + b.tabHiddenMs(),
+                a.activeMs() + b.activeMs());
+    }
+
+    private RishiGrowthMetrics toMetrics(List<SessionCell> cells) {
+        long sessions = 0L;
         long totalDurationMs = 0L;
-        int compileAttempts = 0;
-        int successfulCompiles = 0;
+        long compileAttempts = 0L;
+        long successfulCompiles = 0L;
         long totalEdits = 0L;
         long firstSuccessCount = 0L;
         long firstSuccessDurationMs = 0L;
 
-        for (RishiCodingSession session : sessions) {
-            totalDurationMs += resolveDurationForMetrics(session);
-            compileAttempts += session.getCompileAttempts() != null ? session.getCompileAttempts() : 0;
-            successfulCompiles += session.getSuccessfulCompiles() != null ? session.getSuccessfulCompiles() : 0;
-            totalEdits += session.getTotalChangeEvents() != null ? session.getTotalChangeEvents() : 0;
+        for (SessionCell cell : cells) {
+            sessions += cell.sessions();
+            totalDurationMs += cell.codingDurationMs();
+            compileAttempts += cell.compileAttempts();
+            successfulCompiles += cell.successfulCompiles();
+            totalEdits += cell.changeEvents();
+            firstSuccessCount += cell.firstSuccessCount();
+            firstSuccessDurationMs += cell.firstSuccessDurationMs();
+        }
 
-            if (session.getFirstSuccessDurationMs() != null && session.getFirstSuccessDurationMs() > 0) {
-                firstSuccessCount++;
-                firstSuccessDurationMs += session.getFirstSuccessDurationMs();
-            }
+        if (sessions == 0L) {
+            return RishiGrowthMetrics.builder()
+                    .sessions(0)
+                    .totalCodingMinutes(0L)
+                    .compileAttempts(0)
+                    .compileSuccessRate(0.0)
+                    .averageFirstSuccessSeconds(0.0)
+                    .averageEditsPerSession(0.0)
+                    .build();
         }
 
         double successRate = compileAttempts > 0
@@ -596,43 +796,22 @@ public class RishiCodingTelemetryService {
         double avgFirstSuccessSec = firstSuccessCount > 0
                 ? (firstSuccessDurationMs / (double) firstSuccessCount) / 1000.0
                 : 0.0;
-        double avgEditsPerSession = totalEdits / (double) sessions.size();
+        double avgEditsPerSession = totalEdits / (double) sessions;
 
         return RishiGrowthMetrics.builder()
-                .sessions(sessions.size())
+                .sessions((int) sessions)
                 .totalCodingMinutes(Math.round(totalDurationMs / 60000.0))
-                .compileAttempts(compileAttempts)
+                .compileAttempts((int) compileAttempts)
                 .compileSuccessRate(round2(successRate))
                 .averageFirstSuccessSeconds(round2(avgFirstSuccessSec))
                 .averageEditsPerSession(round2(avgEditsPerSession))
                 .build();
     }
 
-    private static double averageAccuracy(List<RishiCompileAttemptLog> logs) {
-        if (logs == null || logs.isEmpty()) {
-            return 0.0;
-        }
-
-        double total = 0.0;
-        for (RishiCompileAttemptLog log : logs) {
-            if (log.getAccuracyPct() != null) {
-                total += log.getAccuracyPct();
-            } else {
-                total += log.isSuccess() ? 100.0 : 0.0;
-            }
-        }
-        return total / logs.size();
-    }
-
-    private static Map<String, Long> aggregateCategoryCounts(List<RishiCompileAttemptLog> logs) {
+    private static Map<String, Long> aggregateCategoryCounts(List<AttemptCell> cells) {
         Map<String, Long> counts = new HashMap<>();
-        if (logs == null) {
-            return counts;
-        }
-
-        for (RishiCompileAttemptLog log : logs) {
-            String category = normalizeCategory(log.getMistakeCategory(), log.isSuccess());
-            counts.put(category, counts.getOrDefault(category, 0L) + 1L);
+        for (AttemptCell cell : cells) {
+            counts.merge(cell.category(), cell.attempts(), Long::sum);
         }
         return counts;
     }
@@ -865,37 +1044,45 @@ public class RishiCodingTelemetryService {
         return status.trim().toLowerCase(Locale.ROOT);
     }
 
-    private long estimateActiveDurationFromChanges(RishiCodingSession session, LocalDateTime endedAt) {
-        List<RishiCodeChangeEvent> events = changeEventRepository.findBySessionOrderByOccurredAtAsc(session);
-        if (events.isEmpty()) {
-            return 0L;
+    /**
+     * Active time and per-state split derived from the change stream. Uses the
+     * running totals kept on the session; only sessions recorded before those
+     * totals existed fall back to replaying their events.
+     */
+    private StateDurations observedStateDurations(RishiCodingSession session, LocalDateTime endedAt) {
+        RishiActiveTimeAccumulator.Totals totals;
+        if (session.getLastChangeAt() != null) {
+            totals = new RishiActiveTimeAccumulator.Totals(
+                    safeDurationMs(session.getObservedActiveMs()),
+                    safeDurationMs(session.getObservedTypingMs()),
+                    safeDurationMs(session.getObservedCursorIdleMs()),
+                    safeDurationMs(session.getObservedEditorUnfocusedMs()),
+                    safeDurationMs(session.getObservedTabHiddenMs()),
+                    session.getLastChangeAt(),
+                    session.getLastChangeState());
+        } else if (session.getTotalChangeEvents() != null && session.getTotalChangeEvents() > 0) {
+            List<RishiCodeChangeEvent> events = changeEventRepository.findBySessionOrderByOccurredAtAsc(session);
+            totals = RishiActiveTimeAccumulator.accumulate(null, null, events,
+                    RishiCodeChangeEvent::getOccurredAt, RishiCodeChangeEvent::getActivityState);
+        } else {
+            return new StateDurations(0L, 0L, 0L, 0L, 0L);
         }
-
-        long estimatedActiveMs = MIN_ACTIVE_MS_PER_EDIT_SESSION;
-        LocalDateTime previous = events.get(0).getOccurredAt();
-
-        for (int i = 1; i < events.size(); i++) {
-            LocalDateTime current = events.get(i).getOccurredAt();
-            long gapMs = ChronoUnit.MILLIS.between(previous, current);
-            if (gapMs > 0) {
-                estimatedActiveMs += Math.min(gapMs, AFK_IDLE_TIMEOUT_MS);
-            }
-            if (current.isAfter(previous)) {
-                previous = current;
-            }
+        if (totals.lastChangeAt() == null) {
+            return new StateDurations(0L, 0L, 0L, 0L, 0L);
         }
 
         LocalDateTime boundary = endedAt != null ? endedAt : LocalDateTime.now();
-        long tailGapMs = ChronoUnit.MILLIS.between(previous, boundary);
-        if (tailGapMs > 0) {
-            estimatedActiveMs += Math.min(tailGapMs, AFK_IDLE_TIMEOUT_MS);
-        }
+        long tailMs = RishiActiveTimeAccumulator.tailMs(totals.lastChangeAt(), boundary);
+        long[] buckets = {
+                totals.typingMs(), totals.cursorIdleMs(), totals.editorUnfocusedMs(), totals.tabHiddenMs() };
+        buckets[RishiActiveTimeAccumulator.bucketOf(totals.lastChangeState())] += tailMs;
 
+        long estimatedActiveMs = totals.activeMs() + tailMs;
         long totalDurationMs = safeDurationMs(session.getTotalDurationMs());
-        if (totalDurationMs == 0L) {
-            return Math.max(0L, estimatedActiveMs);
+        if (totalDurationMs > 0L) {
+            estimatedActiveMs = Math.min(estimatedActiveMs, totalDurationMs);
         }
-        return Math.max(0L, Math.min(estimatedActiveMs, totalDurationMs));
+        return new StateDurations(buckets[0], buckets[1], buckets[2], buckets[3], Math.max(0L, estimatedActiveMs));
     }
 
     private long resolveActiveDurationMs(RishiCodingSession session, Long requestedActiveMs, long estimatedActiveMs) {
@@ -937,54 +1124,45 @@ public class RishiCodingTelemetryService {
     }
 
     private List<RishiAttemptDailyTrendDto> buildDailyTrends(
-            List<RishiCompileAttemptLog> logs,
+            List<AttemptCell> cells,
             LocalDateTime start,
             LocalDateTime end) {
-        Map<LocalDate, List<RishiCompileAttemptLog>> byDay = new LinkedHashMap<>();
-        for (RishiCompileAttemptLog log : logs) {
-            LocalDate day = log.getAttemptedAt() == null ? LocalDate.now() : log.getAttemptedAt().toLocalDate();
-            byDay.computeIfAbsent(day, ignored -> new ArrayList<>()).add(log);
+        Map<LocalDate, List<AttemptCell>> byDay = new HashMap<>();
+        for (AttemptCell cell : cells) {
+            byDay.computeIfAbsent(cell.day(), ignored -> new ArrayList<>()).add(cell);
         }
 
         List<RishiAttemptDailyTrendDto> trends = new ArrayList<>();
         LocalDate cursor = start.toLocalDate();
         LocalDate finalDay = end.toLocalDate();
         while (!cursor.isAfter(finalDay)) {
-            List<RishiCompileAttemptLog> dayLogs = byDay.getOrDefault(cursor, List.of());
-            long attempts = dayLogs.size();
-            long successful = dayLogs.stream().filter(RishiCompileAttemptLog::isSuccess).count();
-            double successRatePct = attempts > 0 ? (successful * 100.0) / attempts : 0.0;
-            double averageAccuracyPct = averageAccuracy(dayLogs);
+            AttemptTotals day = AttemptTotals.of(byDay.getOrDefault(cursor, List.of()));
             trends.add(RishiAttemptDailyTrendDto.builder()
                     .date(cursor.toString())
-                    .attempts(attempts)
-                    .successRatePct(round2(successRatePct))
-                    .averageAccuracyPct(round2(averageAccuracyPct))
+                    .attempts(day.attempts())
+                    .successRatePct(round2(day.successRatePct()))
+                    .averageAccuracyPct(round2(day.averageAccuracyPct()))
                     .build());
             cursor = cursor.plusDays(1);
         }
         return trends;
     }
 
-    private List<RishiAttemptSourceBreakdownDto> buildSourceBreakdown(List<RishiCompileAttemptLog> logs) {
-        Map<String, List<RishiCompileAttemptLog>> bySource = new HashMap<>();
-        for (RishiCompileAttemptLog log : logs) {
-            String source = safeSource(log.getAttemptSource());
-            bySource.computeIfAbsent(source, ignored -> new ArrayList<>()).add(log);
+    private List<RishiAttemptSourceBreakdownDto> buildSourceBreakdown(List<AttemptCell> cells) {
+        Map<String, List<AttemptCell>> bySource = new HashMap<>();
+        for (AttemptCell cell : cells) {
+            bySource.computeIfAbsent(cell.source(), ignored -> new ArrayList<>()).add(cell);
         }
 
         return bySource.entrySet().stream()
                 .map(entry -> {
-                    List<RishiCompileAttemptLog> sourceLogs = entry.getValue();
-                    long attempts = sourceLogs.size();
-                    long successful = sourceLogs.stream().filter(RishiCompileAttemptLog::isSuccess).count();
-                    double successRatePct = attempts > 0 ? (successful * 100.0) / attempts : 0.0;
+                    AttemptTotals totals = AttemptTotals.of(entry.getValue());
                     return RishiAttemptSourceBreakdownDto.builder()
                             .source(entry.getKey())
-                            .attempts(attempts)
-                            .successfulAttempts(successful)
-                            .successRatePct(round2(successRatePct))
-                            .averageAccuracyPct(round2(averageAccuracy(sourceLogs)))
+                            .attempts(totals.attempts())
+                            .successfulAttempts(totals.successfulAttempts())
+                            .successRatePct(round2(totals.successRatePct()))
+                            .averageAccuracyPct(round2(totals.averageAccuracyPct()))
                             .build();
                 })
                 .sorted(Comparator.comparingLong(RishiAttemptSourceBreakdownDto::getAttempts).reversed()
@@ -992,19 +1170,15 @@ public class RishiCodingTelemetryService {
                 .toList();
     }
 
-    private List<RishiAttemptCategoryHeatmapDto> buildCategoryHeatmap(List<RishiCompileAttemptLog> logs) {
+    private List<RishiAttemptCategoryHeatmapDto> buildCategoryHeatmap(List<AttemptCell> cells) {
         record CellKey(String category, String source) {
         }
         Map<CellKey, long[]> aggregate = new HashMap<>();
-        for (RishiCompileAttemptLog log : logs) {
-            String category = normalizeCategory(log.getMistakeCategory(), log.isSuccess());
-            String source = safeSource(log.getAttemptSource());
-            CellKey key = new CellKey(category, source);
-            long[] counters = aggregate.computeIfAbsent(key, ignored -> new long[2]);
-            counters[0] += 1L;
-            if (!log.isSuccess()) {
-                counters[1] += 1L;
-            }
+        for (AttemptCell cell : cells) {
+            long[] counters = aggregate.computeIfAbsent(new CellKey(cell.category(), cell.source()),
+                    ignored -> new long[2]);
+            counters[0] += cell.attempts();
+            counters[1] += cell.attempts() - cell.successfulAttempts();
         }
 
         return aggregate.entrySet().stream()
@@ -1021,7 +1195,7 @@ public class RishiCodingTelemetryService {
     }
 
     private static StateDurations resolveStateDurations(Long totalDurationMsRaw, RishiSessionEndRequest request,
-            long activeDurationMs) {
+            long activeDurationMs, StateDurations observed) {
         long totalDurationMs = safeDurationMs(totalDurationMsRaw);
         long typingMs = safeDurationMs(request != null ? request.getTypingDurationMs() : null);
         long cursorIdleMs = safeDurationMs(request != null ? request.getCursorIdleDurationMs() : null);
@@ -1029,6 +1203,16 @@ public class RishiCodingTelemetryService {
         long tabHiddenMs = safeDurationMs(request != null ? request.getTabHiddenDurationMs() : null);
 
         long providedTotal = typingMs + cursorIdleMs + editorUnfocusedMs + tabHiddenMs;
+        if (providedTotal <= 0L && observed != null) {
+            // Client sent no breakdown: fall back to the split observed from the change stream.
+            typingMs = observed.typingMs();
+            cursorIdleMs = observed.cursorIdleMs();
+            tabHiddenMs = observed.tabHiddenMs();
+            long observedTotal = typingMs + cursorIdleMs + observed.editorUnfocusedMs() + tabHiddenMs;
+            // Time outside any clamped gap was spent away from the editor.
+            editorUnfocusedMs = observed.editorUnfocusedMs() + Math.max(0L, totalDurationMs - observedTotal);
+            providedTotal = observedTotal > 0L ? typingMs + cursorIdleMs + editorUnfocusedMs + tabHiddenMs : 0L;
+        }
         if (providedTotal <= 0L) {
             long fallbackActiveMs = Math.min(Math.max(activeDurationMs, 0L), totalDurationMs);
             long fallbackInactiveMs = Math.max(0L, totalDurationMs - fallbackActiveMs);
@@ -1145,6 +1329,31 @@ public class RishiCodingTelemetryService {
             long activeMs) {
     }
 
+    private record AttemptTotals(long attempts, long successfulAttempts, double accuracySum) {
+
+        static AttemptTotals of(List<AttemptCell> cells) {
+            long attempts = 0L;
+            long successful = 0L;
+            double accuracySum = 0.0;
+            for (AttemptCell cell : cells) {
+                attempts += cell.attempts();
+                successful += cell.successfulAttempts();
+                accuracySum += cell.accuracySum();
+            }
+            // Float sums differ in their last bits with summation order (SQL SUM vs rollup
+            // increments); snap them so both paths round the average identically.
+            return new AttemptTotals(attempts, successful, Math.round(accuracySum * 1_000_000.0) / 1_000_000.0);
+        }
+
+        double successRatePct() {
+            return attempts > 0 ? (successfulAttempts * 100.0) / attempts : 0.0;
+        }
+
+        double averageAccuracyPct() {
+            return attempts > 0 ? accuracySum / attempts : 0.0;
+        }
+    }
+
     private static long safeDurationMs(Long value) {
         return value == null ? 0L : Math.max(0L, value);
     }
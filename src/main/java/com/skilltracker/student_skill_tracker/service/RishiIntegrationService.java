@@ -1,6 +1,7 @@
 package com.skilltracker.student_skill_tracker.service;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -19,6 +20,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,6 +31,7 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -55,13 +61,16 @@ import com.skilltracker.student_skill_tracker.dto.RishiScheduleResponse;
 import com.skilltracker.student_skill_tracker.dto.RishiTaskDto;
 import com.skilltracker.student_skill_tracker.dto.RishiTogglFocusDto;
 import com.skilltracker.student_skill_tracker.model.RishiCodeforcesAnalyticsSnapshot;
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSubmission;
 import com.skilltracker.student_skill_tracker.model.RishiCodingSession;
+import com.skilltracker.student_skill_tracker.model.RishiConnectorSyncState;
 import com.skilltracker.student_skill_tracker.model.RishiGithubAnalyticsSnapshot;
 import com.skilltracker.student_skill_tracker.model.RishiLeetCodeAnalyticsSnapshot;
 import com.skilltracker.student_skill_tracker.model.RishiPracticeTask;
 import com.skilltracker.student_skill_tracker.model.RishiTogglFocusSnapshot;
 import com.skilltracker.student_skill_tracker.model.Student;
 import com.skilltracker.student_skill_tracker.repository.RishiCodeforcesAnalyticsSnapshotRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiConnectorSyncStateRepository;
 import com.skilltracker.student_skill_tracker.repository.RishiCodingSessionRepository;
 import com.skilltracker.student_skill_tracker.repository.RishiGithubAnalyticsSnapshotRepository;
 import com.skilltracker.student_skill_tracker.repository.RishiLeetCodeAnalyticsSnapshotRepository;
@@ -82,8 +91,11 @@ public class RishiIntegrationService {
     private static final String STATUS_SCHEDULED = "SCHEDULED";
     private static final String STATUS_MISSED = "MISSED";
     private static final String SOURCE_TYPE_AUTO = "SYSTEM_AUTO";
-    private static final int INTEGRATION_RETRY_MAX_ATTEMPTS = 3;
-    private static final long INTEGRATION_RETRY_BASE_DELAY_MS = 300L;
+    private static final String CONNECTOR_GOOGLE = "google";
+    static final String CONNECTOR_GITHUB = "github";
+    static final String CONNECTOR_TOGGL = "toggl";
+    static final String CONNECTOR_CODEFORCES = "codeforces";
+    static final String CONNECTOR_LEETCODE = "leetcode";
     private static final int DEFAULT_GITHUB_WINDOW_DAYS = 30;
     private static final int MIN_GITHUB_WINDOW_DAYS = 7;
     private static final int MAX_GITHUB_WINDOW_DAYS = 180;
@@ -94,11 +106,16 @@ public class RishiIntegrationService {
     private static final int MIN_CODEFORCES_WINDOW_DAYS = 14;
     private static final int MAX_CODEFORCES_WINDOW_DAYS = 180;
     private static final int MAX_CODEFORCES_SUBMISSIONS_FETCH = 1000;
+    private static final int CODEFORCES_SUBMISSIONS_PAGE = 100;
     private static final int DEFAULT_TOGGL_WINDOW_DAYS = 7;
     private static final int MIN_TOGGL_WINDOW_DAYS = 3;
     private static final int MAX_TOGGL_WINDOW_DAYS = 30;
     private static final int DEFAULT_FOCUS_WINDOW_DAYS = 7;
 
+    /** GitHub GraphQL points left for a token, as of its last sync. */
+    public record GithubRateLimit(int remaining, Instant resetAt) {
+    }
+
     private final RestTemplate restTemplate;
     private final TokenCryptoService tokenCryptoService;
     private final LeetCodeService leetCodeService;
@@ -109,6 +126,10 @@ public class RishiIntegrationService {
     private final RishiGithubAnalyticsSnapshotRepository githubAnalyticsSnapshotRepository;
     private final RishiLeetCodeAnalyticsSnapshotRepository leetCodeAnalyticsSnapshotRepository;
     private final RishiTogglFocusSnapshotRepository togglFocusSnapshotRepository;
+    private final RishiConnectorSyncStateRepository connectorSyncStateRepository;
+    private final ConnectorGuard connectorGuard;
+    private final RishiCodeforcesHistoryService codeforcesHistoryService;
+    private final Map<String, GithubRateLimit> githubRateLimits = new ConcurrentHashMap<>();
 
     @Value("${rishi.integrations.google.client-id:}")
     private String googleClientId;
@@ -119,6 +140,13 @@ public class RishiIntegrationService {
     @Value("${rishi.integrations.google.calendar-id:primary}")
     private String defaultGoogleCalendarId;
 
+    @Value("${rishi.integrations.sync-deadline-seconds:30}")
+    private long syncDeadlineSeconds;
+
+    /** Days of connector snapshots to keep; zero or less keeps them all. */
+    @Value("${rishi.integrations.snapshot-retention-days:0}")
+    private long snapshotRetentionDays;
+
     public RishiIntegrationService(
             RestTemplate restTemplate,
             TokenCryptoService tokenCryptoService,
@@ -129,7 +157,10 @@ public class RishiIntegrationService {
             RishiCodeforcesAnalyticsSnapshotRepository codeforcesAnalyticsSnapshotRepository,
             RishiGithubAnalyticsSnapshotRepository githubAnalyticsSnapshotRepository,
             RishiLeetCodeAnalyticsSnapshotRepository leetCodeAnalyticsSnapshotRepository,
-            RishiTogglFocusSnapshotRepository togglFocusSnapshotRepository) {
+            RishiTogglFocusSnapshotRepository togglFocusSnapshotRepository,
+            RishiConnectorSyncStateRepository connectorSyncStateRepository,
+            ConnectorGuard connectorGuard,
+            RishiCodeforcesHistoryService codeforcesHistoryService) {
         this.restTemplate = restTemplate;
         this.tokenCryptoService = tokenCryptoService;
         this.leetCodeService = leetCodeService;
@@ -140,6 +171,9 @@ public class RishiIntegrationService {
         this.githubAnalyticsSnapshotRepository = githubAnalyticsSnapshotRepository;
         this.leetCodeAnalyticsSnapshotRepository = leetCodeAnalyticsSnapshotRepository;
         this.togglFocusSnapshotRepository = togglFocusSnapshotRepository;
+        this.connectorSyncStateRepository = connectorSyncStateRepository;
+        this.connectorGuard = connectorGuard;
+        this.codeforcesHistoryService = codeforcesHistoryService;
     }
 
     public RishiIntegrationStatusResponse getStatus(Student student) {
@@ -405,6 +439,16 @@ public class RishiIntegrationService {
         return !isBlank(student.getRishiTogglApiTokenEncrypted());
     }
 
+    /**
+     * The GitHub rate limit reported by this student's last sync, if any. The
+     * GraphQL budget belongs to the token, so background syncs check it before
+     * spending points the student may want for a manual sync.
+     */
+    public Optional<GithubRateLimit> getGithubRateLimit(Student student) {
+        String githubUsername = nullToEmpty(student.getGithubUsername()).trim().toLowerCase(Locale.ROOT);
+        return Optional.ofNullable(githubRateLimits.get(githubUsername));
+    }
+
     public Optional<RishiCodeforcesAnalyticsDto> getLatestCodeforcesAnalytics(Student student) {
         return codeforcesAnalyticsSnapshotRepository.findTopByStudentOrderByCreatedAtDesc(student).map(this::toCodeforcesAnalyticsDto);
     }
@@ -495,7 +539,12 @@ public class RishiIntegrationService {
         studentRepository.save(student);
     }
 
-    @Transactional
+    /**
+     * Connector syncs run outside any transaction: the remote calls come
+     * first and only the snapshot insert commits, on its own, so a slow
+     * provider never holds a database connection. The same holds for the
+     * GitHub, LeetCode and Codeforces syncs below.
+     */
     public RishiTogglFocusDto syncTogglFocus(Student student, Integer requestedWindowDays) {
         if (!isTogglConnected(student)) {
             throw new IllegalStateException("Toggl is not connected.");
@@ -507,7 +556,12 @@ public class RishiIntegrationService {
         LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
         LocalDateTime startUtc = nowUtc.minusDays(windowDays);
 
-        List<Map<String, Object>> entries = fetchTogglTimeEntries(apiToken, startUtc, nowUtc);
+        List<Map<String, Object>> entries;
+        try {
+            entries = fetchTogglTimeEntries(apiToken, startUtc, nowUtc);
+        } catch (ConnectorGuard.ConnectorUnavailableException ex) {
+            return lastSnapshotOr(getLatestTogglFocus(student), RishiTogglFocusDto::setStale, ex);
+        }
         long trackedSeconds = 0L;
         int entryCount = 0;
         for (Map<String, Object> entry : entries) {
@@ -535,10 +589,10 @@ public class RishiIntegrationService {
                 .entryCount(entryCount)
                 .build();
         RishiTogglFocusSnapshot saved = togglFocusSnapshotRepository.save(snapshot);
+        recordSnapshot(student, CONNECTOR_TOGGL, togglFocusSnapshotRepository::deleteCreatedBefore);
         return toTogglFocusDto(saved);
     }
 
-    @Transactional
     public RishiGithubAnalyticsDto syncGithubAnalytics(Student student, Integer requestedWindowDays) {
         String githubUsername = nullToEmpty(student.getGithubUsername()).trim();
         String githubToken = nullToEmpty(student.getGithubAccessToken()).trim();
@@ -551,7 +605,12 @@ public class RishiIntegrationService {
 
         int windowDays = requestedWindowDays == null ? DEFAULT_GITHUB_WINDOW_DAYS
                 : Math.max(MIN_GITHUB_WINDOW_DAYS, Math.min(MAX_GITHUB_WINDOW_DAYS, requestedWindowDays));
-        Map<String, Object> analytics = fetchGithubAnalytics(githubUsername, githubToken, windowDays);
+        Map<String, Object> analytics;
+        try {
+            analytics = fetchGithubAnalytics(githubUsername, githubToken, windowDays);
+        } catch (ConnectorGuard.ConnectorUnavailableException ex) {
+            return lastSnapshotOr(getLatestGithubAnalytics(student), RishiGithubAnalyticsDto::setStale, ex);
+        }
 
         RishiGithubAnalyticsSnapshot snapshot = RishiGithubAnalyticsSnapshot.builder()
                 .student(student)
@@ -567,10 +626,10 @@ public class RishiIntegrationService {
                 .build();
 
         RishiGithubAnalyticsSnapshot saved = githubAnalyticsSnapshotRepository.save(snapshot);
+        recordSnapshot(student, CONNECTOR_GITHUB, githubAnalyticsSnapshotRepository::deleteCreatedBefore);
         return toGithubAnalyticsDto(saved);
     }
 
-    @Transactional
     public RishiLeetCodeAnalyticsDto syncLeetCodeAnalytics(Student student, Integer requestedWindowDays) {
         String leetcodeUsername = nullToEmpty(student.getLeetcodeUsername()).trim();
         if (isBlank(leetcodeUsername)) {
@@ -579,12 +638,21 @@ public class RishiIntegrationService {
 
         int windowDays = requestedWindowDays == null ? DEFAULT_LEETCODE_WINDOW_DAYS
                 : Math.max(MIN_LEETCODE_WINDOW_DAYS, Math.min(MAX_LEETCODE_WINDOW_DAYS, requestedWindowDays));
-        Map<String, Object> stats = leetCodeService.fetchFullStats(leetcodeUsername);
+        Map<String, Object> stats;
+        Map<String, Object> contestStats;
+        try (ConnectorScope scope = new ConnectorScope(CONNECTOR_LEETCODE, syncDeadline())) {
+            Supplier<Map<String, Object>> statsFork = scope.fork(
+                    () -> leetCodeService.fetchFreshFullStats(leetcodeUsername));
+            Supplier<Map<String, Object>> contestStatsFork = scope.fork(
+                    () -> fetchLeetCodeContestStats(leetcodeUsername));
+            scope.join();
+            stats = statsFork.get();
+            contestStats = contestStatsFork.get();
+        }
         if (stats.isEmpty()) {
             throw new IllegalStateException("Unable to fetch LeetCode analytics. Confirm username and retry.");
         }
 
-        Map<String, Object> contestStats = fetchLeetCodeContestStats(leetcodeUsername);
         List<Map<String, Object>> recentAccepted = safeMapList(stats.get("recentAcSubmissions"));
         List<Map<String, Object>> algorithmMastery = safeMapList(stats.get("algorithmMastery"));
 
@@ -612,6 +680,7 @@ public class RishiIntegrationService {
                 .build();
 
         RishiLeetCodeAnalyticsSnapshot saved = leetCodeAnalyticsSnapshotRepository.save(snapshot);
+        recordSnapshot(student, CONNECTOR_LEETCODE, leetCodeAnalyticsSnapshotRepository::deleteCreatedBefore);
         return toLeetCodeAnalyticsDto(saved);
     }
 
@@ -635,7 +704,6 @@ public class RishiIntegrationService {
         return handle;
     }
 
-    @Transactional
     public RishiCodeforcesAnalyticsDto syncCodeforcesAnalytics(Student student, Integer requestedWindowDays) {
         String handle = nullToEmpty(student.getCodeforcesHandle()).trim();
         if (isBlank(handle)) {
@@ -645,14 +713,33 @@ public class RishiIntegrationService {
         int windowDays = requestedWindowDays == null ? DEFAULT_CODEFORCES_WINDOW_DAYS
                 : Math.max(MIN_CODEFORCES_WINDOW_DAYS, Math.min(MAX_CODEFORCES_WINDOW_DAYS, requestedWindowDays));
 
-        Map<String, Object> userInfo = fetchCodeforcesUserInfo(handle);
-        List<Map<String, Object>> ratingHistory = fetchCodeforcesRatingHistory(handle);
-        List<Map<String, Object>> submissions = fetchCodeforcesSubmissions(handle, MAX_CODEFORCES_SUBMISSIONS_FETCH);
+        // Submissions are kept locally per handle; only those newer than the
+        // last stored one are downloaded, and all-time totals grow incrementally.
+        String historyHandle = handle.toLowerCase(Locale.ROOT);
+        Long lastSeenSubmissionId = codeforcesHistoryService.lastSubmissionId(historyHandle).orElse(null);
+
+        Map<String, Object> userInfo;
+        List<Map<String, Object>> ratingHistory;
+        List<CodeforcesStatusParser.Submission> newSubmissions;
+        try (ConnectorScope scope = new ConnectorScope(CONNECTOR_CODEFORCES, syncDeadline())) {
+            Supplier<Map<String, Object>> userInfoFork = scope.fork(() -> fetchCodeforcesUserInfo(handle));
+            Supplier<List<Map<String, Object>>> ratingHistoryFork = scope.fork(
+                    () -> fetchCodeforcesRatingHistory(handle));
+            Supplier<List<CodeforcesStatusParser.Submission>> submissionsFork = scope.fork(
+                    () -> fetchCodeforcesSubmissionsSince(handle, lastSeenSubmissionId));
+            scope.join();
+            userInfo = userInfoFork.get();
+            ratingHistory = ratingHistoryFork.get();
+            newSubmissions = submissionsFork.get();
+        } catch (ConnectorGuard.ConnectorUnavailableException ex) {
+            return lastSnapshotOr(getLatestCodeforcesAnalytics(student), RishiCodeforcesAnalyticsDto::setStale, ex);
+        }
+
+        RishiCodeforcesHistoryService.Totals totals = codeforcesHistoryService.append(historyHandle,
+                toCodeforcesSubmissions(newSubmissions));
 
-        Map<String, Integer> acceptedByTag = new HashMap<>();
         Map<String, Integer> attemptsByTag = new HashMap<>();
         Map<String, Integer> acceptedWindowByTag = new HashMap<>();
-        Set<String> acceptedProblemKeys = new HashSet<>();
         Set<String> acceptedCurrentWindowKeys = new HashSet<>();
         Set<String> acceptedPreviousWindowKeys = new HashSet<>();
 
@@ -660,12 +747,11 @@ public class RishiIntegrationService {
         long currentStart = nowEpochSeconds - (long) windowDays * 24L * 60L * 60L;
         long previousStart = nowEpochSeconds - (long) (windowDays * 2) * 24L * 60L * 60L;
 
-        for (Map<String, Object> submission : submissions) {
-            String verdict = asString(submission.get("verdict"));
-            long creationTime = parseLong(submission.get("creationTimeSeconds"), 0L);
-            Map<String, Object> problem = safeMap(submission.get("problem"));
-            String problemKey = buildCodeforcesProblemKey(problem);
-            List<String> tags = extractCodeforcesTags(problem.get("tags"));
+        for (RishiCodeforcesSubmission submission : codeforcesHistoryService.submittedSince(historyHandle,
+                previousStart)) {
+            long creationTime = submission.getCreationTimeSeconds();
+            String problemKey = nullToEmpty(submission.getProblemKey());
+            List<String> tags = RishiCodeforcesHistoryService.tagsOf(submission);
 
             boolean inCurrentWindow = creationTime >= currentStart;
             if (inCurrentWindow) {
@@ -674,22 +760,20 @@ public class RishiIntegrationService {
                 }
             }
 
-            if (!"OK".equalsIgnoreCase(verdict)) {
+            if (!submission.isAccepted()) {
                 continue;
             }
 
             if (!problemKey.isEmpty()) {
-                acceptedProblemKeys.add(problemKey);
                 if (inCurrentWindow) {
                     acceptedCurrentWindowKeys.add(problemKey);
-                } else if (creationTime >= previousStart) {
+                } else {
                     acceptedPreviousWindowKeys.add(problemKey);
                 }
             }
 
-            for (String tag : tags) {
-                acceptedByTag.merge(tag, 1, Integer::sum);
-                if (inCurrentWindow) {
+            if (inCurrentWindow) {
+                for (String tag : tags) {
                     acceptedWindowByTag.merge(tag, 1, Integer::sum);
                     attemptsByTag.merge(tag, 1, Integer::sum);
                 }
@@ -708,18 +792,60 @@ public class RishiIntegrationService {
                 .rank(asString(userInfo.get("rank")))
                 .maxRank(asString(userInfo.get("maxRank")))
                 .contestCount(ratingHistory.size())
-                .solvedTotal(acceptedProblemKeys.size())
+                .solvedTotal(totals.solvedTotal())
                 .solvedCurrentWindow(solvedCurrentWindow)
                 .solvedPreviousWindow(solvedPreviousWindow)
                 .solveTrendPct(computeSolveTrendPct(solvedCurrentWindow, solvedPreviousWindow))
-                .strongTags(summarizeTopCodeforcesTags(acceptedByTag, 4))
+                .strongTags(summarizeTopCodeforcesTags(totals.acceptedByTag(), 4))
                 .weakTags(summarizeWeakCodeforcesTags(attemptsByTag, acceptedWindowByTag, 4))
                 .build();
 
         RishiCodeforcesAnalyticsSnapshot saved = codeforcesAnalyticsSnapshotRepository.save(snapshot);
+        recordSnapshot(student, CONNECTOR_CODEFORCES, codeforcesAnalyticsSnapshotRepository::deleteCreatedBefore);
         return toCodeforcesAnalyticsDto(saved);
     }
 
+    /**
+     * Marks the pair synced for the background scheduler and, when a
+     * retention window is configured, drops its snapshots older than that.
+     */
+    private void recordSnapshot(Student student, String connector,
+            BiFunction<Student, LocalDateTime, Integer> deleteCreatedBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        if (connectorSyncStateRepository.markSynced(student.getId(), connector, now) == 0) {
+            try {
+                connectorSyncStateRepository.save(RishiConnectorSyncState.builder()
+                        .studentId(student.getId())
+                        .connector(connector)
+                        .lastSyncedAt(now)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent sync of the same pair inserted the row first
+                connectorSyncStateRepository.markSynced(student.getId(), connector, now);
+            }
+        }
+        if (snapshotRetentionDays > 0) {
+            deleteCreatedBefore.apply(student, now.minusDays(snapshotRetentionDays));
+        }
+    }
+
+    /** Time budget shared by all the remote calls of one connector sync. */
+    private Duration syncDeadline() {
+        return Duration.ofSeconds(Math.max(1, syncDeadlineSeconds));
+    }
+
+    /**
+     * While a connector's circuit is open, a sync answers with the last stored
+     * snapshot, marked stale, instead of failing; without one it fails fast.
+     */
+    private <T> T lastSnapshotOr(Optional<T> latest, BiConsumer<T, Boolean> markStale,
+            ConnectorGuard.ConnectorUnavailableException unavailable) {
+        T snapshot = latest.orElseThrow(() -> unavailable);
+        markStale.accept(snapshot, true);
+        logger.info("Serving last snapshot while {} is unavailable", unavailable.getProvider());
+        return snapshot;
+    }
+
     private Map<String, Object> fetchGithubAnalytics(String githubUsername, String githubToken, int windowDays) {
         OffsetDateTime to = OffsetDateTime.now(ZoneOffset.UTC).withNano(0);
         OffsetDateTime from = to.minusDays(windowDays);
@@ -770,6 +896,7 @@ public class RishiIntegrationService {
         validateGithubGraphQlResponse(response);
 
         Map<String, Object> data = safeMap(response.get("data"));
+        recordGithubRateLimit(githubUsername, safeMap(data.get("rateLimit")));
         Map<String, Object> user = safeMap(data.get("user"));
         if (user.isEmpty()) {
             throw new IllegalStateException("GitHub user not found or token lacks access.");
@@ -810,6 +937,20 @@ public class RishiIntegrationService {
                 "topLanguages", topLanguages);
     }
 
+    private void recordGithubRateLimit(String githubUsername, Map<String, Object> rateLimit) {
+        int remaining = parseInt(rateLimit.get("remaining"), -1);
+        String resetAt = asString(rateLimit.get("resetAt")).trim();
+        if (remaining < 0 || resetAt.isEmpty()) {
+            return;
+        }
+        try {
+            githubRateLimits.put(githubUsername.toLowerCase(Locale.ROOT),
+                    new GithubRateLimit(remaining, OffsetDateTime.parse(resetAt).toInstant()));
+        } catch (RuntimeException ex) {
+            logger.debug("Ignoring unparseable GitHub rateLimit.resetAt '{}'", resetAt);
+        }
+    }
+
     private Map<String, Object> fetchLeetCodeContestStats(String leetcodeUsername) {
         String query = """
                 query userContestMetrics($username: String!) {
@@ -879,13 +1020,78 @@ public class RishiIntegrationService {
         return fetchCodeforcesApiResultList(url, "user.rating");
     }
 
-    private List<Map<String, Object>> fetchCodeforcesSubmissions(String handle, int count) {
+    /**
+     * Submissions newer than {@code lastSeenSubmissionId}, newest first. The
+     * first sync of a handle backfills up to
+     * {@code MAX_CODEFORCES_SUBMISSIONS_FETCH}; later ones page through
+     * {@code user.status} only until they reach a submission already stored.
+     */
+    private List<CodeforcesStatusParser.Submission> fetchCodeforcesSubmissionsSince(String handle,
+            Long lastSeenSubmissionId) {
+        if (lastSeenSubmissionId == null) {
+            return fetchCodeforcesSubmissions(handle, 1, MAX_CODEFORCES_SUBMISSIONS_FETCH);
+        }
+        List<CodeforcesStatusParser.Submission> newer = new ArrayList<>();
+        for (int from = 1; from <= MAX_CODEFORCES_SUBMISSIONS_FETCH; from += CODEFORCES_SUBMISSIONS_PAGE) {
+            List<CodeforcesStatusParser.Submission> page = fetchCodeforcesSubmissions(handle, from,
+                    CODEFORCES_SUBMISSIONS_PAGE);
+            for (CodeforcesStatusParser.Submission submission : page) {
+                if (submission.id() <= lastSeenSubmissionId) {
+                    return newer;
+                }
+                newer.add(submission);
+            }
+            if (page.size() < CODEFORCES_SUBMISSIONS_PAGE) {
+                break;
+            }
+        }
+        return newer;
+    }
+
+    /**
+     * {@code user.status} pages are the largest connector payloads, so they
+     * are streamed into typed records instead of being bound to nested maps.
+     */
+    private List<CodeforcesStatusParser.Submission> fetchCodeforcesSubmissions(String handle, int from, int count) {
         String url = UriComponentsBuilder.fromHttpUrl("https://codeforces.com/api/user.status")
                 .queryParam("handle", handle)
-                .queryParam("from", 1)
-                .queryParam("count", Math.max(50, count))
+                .queryParam("from", from)
+                .queryParam("count", count)
                 .toUriString();
-        return fetchCodeforcesApiResultList(url, "user.status");
+        return connectorGuard.call(CONNECTOR_CODEFORCES, () -> {
+            try {
+                return restTemplate.execute(url, HttpMethod.GET, null,
+                        response -> CodeforcesStatusParser.parse(response.getBody()));
+            } catch (RestClientException ex) {
+                throw connectorFailure(HttpMethod.GET, url, ex);
+            }
+        });
+    }
+
+    /**
+     * Converts {@code user.status} entries (newest first) into history rows,
+     * oldest first. Stops at the oldest submission still being judged so the
+     * high-water mark never moves past it; it is picked up once it has a
+     * verdict.
+     */
+    private List<RishiCodeforcesSubmission> toCodeforcesSubmissions(
+            List<CodeforcesStatusParser.Submission> newestFirst) {
+        List<RishiCodeforcesSubmission> oldestFirst = new ArrayList<>(newestFirst.size());
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            CodeforcesStatusParser.Submission submission = newestFirst.get(i);
+            String verdict = submission.verdict();
+            if (isBlank(verdict) || "TESTING".equalsIgnoreCase(verdict) || submission.id() <= 0) {
+                break;
+            }
+            oldestFirst.add(RishiCodeforcesSubmission.builder()
+                    .submissionId(submission.id())
+                    .creationTimeSeconds(submission.creationTimeSeconds())
+                    .accepted("OK".equalsIgnoreCase(verdict))
+                    .problemKey(submission.problemKey())
+                    .tags(String.join(",", submission.tags()))
+                    .build());
+        }
+        return oldestFirst;
     }
 
     private List<Map<String, Object>> fetchCodeforcesApiResultList(String url, String endpointName) {
@@ -923,8 +1129,12 @@ public class RishiIntegrationService {
         return safeMapList(wrapper.get("result"));
     }
 
-    @SuppressWarnings("unchecked")
     private List<Map<String, Object>> exchangeForList(String url, HttpHeaders headers) {
+        return connectorGuard.call(connectorFor(url), () -> exchangeListOnce(url, headers));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> exchangeListOnce(String url, HttpHeaders headers) {
         try {
             ResponseEntity<List> response = restTemplate.exchange(
                     url,
@@ -945,9 +1155,10 @@ public class RishiIntegrationService {
         } catch (HttpStatusCodeException ex) {
             String detail = extractConnectorErrorDetail(ex.getResponseBodyAsString());
             String message = isBlank(detail) ? ("HTTP " + ex.getStatusCode().value()) : detail;
-            throw new IllegalStateException("Toggl request failed: " + message);
+            throw new ConnectorGuard.ConnectorException("Toggl request failed: " + message,
+                    isRetryableHttpStatus(ex.getStatusCode().value()));
         } catch (RestClientException ex) {
-            throw new IllegalStateException("Toggl request failed. Check token and retry.");
+            throw new ConnectorGuard.ConnectorException("Toggl request failed. Check token and retry.", true);
         }
     }
 
@@ -965,37 +1176,6 @@ public class RishiIntegrationService {
         return handle.matches("^[A-Za-z0-9_.-]{3,40}$");
     }
 
-    private String buildCodeforcesProblemKey(Map<String, Object> problem) {
-        if (problem == null || problem.isEmpty()) {
-            return "";
-        }
-        String contestId = asString(problem.get("contestId"));
-        String index = asString(problem.get("index"));
-        if (!isBlank(contestId) && !isBlank(index)) {
-            return contestId + "-" + index;
-        }
-        String problemsetName = asString(problem.get("problemsetName"));
-        String name = asString(problem.get("name"));
-        if (!isBlank(problemsetName) && !isBlank(name)) {
-            return problemsetName + "-" + name;
-        }
-        return name;
-    }
-
-    private List<String> extractCodeforcesTags(Object tagsObj) {
-        if (!(tagsObj instanceof List<?> tags)) {
-            return List.of();
-        }
-        List<String> values = new ArrayList<>();
-        for (Object tagObj : tags) {
-            String tag = asString(tagObj).trim();
-            if (!tag.isEmpty()) {
-                values.add(tag);
-            }
-        }
-        return values;
-    }
-
     private String summarizeTopCodeforcesTags(Map<String, Integer> tagCounts, int limit) {
         if (tagCounts == null || tagCounts.isEmpty()) {
             return "";
@@ -1182,51 +1362,61 @@ public class RishiIntegrationService {
         return exchangeForMap(url, HttpMethod.POST, new HttpEntity<>(form, headers));
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Object> exchangeForMap(String url, HttpMethod method, HttpEntity<?> entity) {
-        for (int attempt = 1; attempt <= INTEGRATION_RETRY_MAX_ATTEMPTS; attempt++) {
-            try {
-                ResponseEntity<Map> response = restTemplate.exchange(url, method, entity, Map.class);
-                Map<String, Object> body = response.getBody();
-                return body == null ? Map.of() : (Map<String, Object>) body;
-            } catch (HttpStatusCodeException ex) {
-                int statusCode = ex.getStatusCode().value();
-                String responseBody = nullToEmpty(ex.getResponseBodyAsString());
-                String detail = extractConnectorErrorDetail(responseBody);
-                String safeDetail = isBlank(detail) ? ("HTTP " + statusCode) : detail;
-                boolean retryable = isRetryableHttpStatus(statusCode) && attempt < INTEGRATION_RETRY_MAX_ATTEMPTS;
-                logger.error("Integration request failed: {} {} -> status={} detail={} attempt={}/{}",
-                        method, url, statusCode, safeDetail, attempt, INTEGRATION_RETRY_MAX_ATTEMPTS);
-                if (retryable) {
-                    sleepBeforeRetry(attempt);
-                    continue;
-                }
-                throw new IllegalStateException("Integration request failed: " + safeDetail);
-            } catch (RestClientException ex) {
-                boolean retryable = attempt < INTEGRATION_RETRY_MAX_ATTEMPTS;
-                logger.error("Integration request failed: {} {} -> {} attempt={}/{}",
-                        method, url, ex.getMessage(), attempt, INTEGRATION_RETRY_MAX_ATTEMPTS);
-                if (retryable) {
-                    sleepBeforeRetry(attempt);
-                    continue;
-                }
-                throw new IllegalStateException("Integration request failed. Check connector configuration and retry.");
-            }
+        return connectorGuard.call(connectorFor(url), () -> exchangeOnce(url, method, entity));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> exchangeOnce(String url, HttpMethod method, HttpEntity<?> entity) {
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(url, method, entity, Map.class);
+            Map<String, Object> body = response.getBody();
+            return body == null ? Map.of() : (Map<String, Object>) body;
+        } catch (RestClientException ex) {
+            throw connectorFailure(method, url, ex);
+        }
+    }
+
+    private ConnectorGuard.ConnectorException connectorFailure(HttpMethod method, String url,
+            RestClientException ex) {
+        if (ex instanceof HttpStatusCodeException statusEx) {
+            int statusCode = statusEx.getStatusCode().value();
+            String responseBody = nullToEmpty(statusEx.getResponseBodyAsString());
+            String detail = extractConnectorErrorDetail(responseBody);
+            String safeDetail = isBlank(detail) ? ("HTTP " + statusCode) : detail;
+            logger.error("Integration request failed: {} {} -> status={} detail={}",
+                    method, url, statusCode, safeDetail);
+            return new ConnectorGuard.ConnectorException("Integration request failed: " + safeDetail,
+                    isRetryableHttpStatus(statusCode));
         }
-        throw new IllegalStateException("Integration request failed. Retry limit reached.");
+        logger.error("Integration request failed: {} {} -> {}", method, url, ex.getMessage());
+        return new ConnectorGuard.ConnectorException(
+                "Integration request failed. Check connector configuration and retry.", true);
     }
 
     private boolean isRetryableHttpStatus(int statusCode) {
         return statusCode == 408 || statusCode == 429 || statusCode >= 500;
     }
 
-    private void sleepBeforeRetry(int attempt) {
-        long delayMs = Math.min(2000L, INTEGRATION_RETRY_BASE_DELAY_MS * (1L << Math.max(0, attempt - 1)));
-        try {
-            Thread.sleep(delayMs);
-        } catch (InterruptedException interrupted) {
-            Thread.currentThread().interrupt();
+    /** Breaker and bulkhead key for the provider behind {@code url}. */
+    private String connectorFor(String url) {
+        String host = nullToEmpty(URI.create(url).getHost()).toLowerCase(Locale.ROOT);
+        if (host.endsWith("googleapis.com")) {
+            return CONNECTOR_GOOGLE;
+        }
+        if (host.endsWith("github.com")) {
+            return CONNECTOR_GITHUB;
+        }
+        if (host.endsWith("toggl.com")) {
+            return CONNECTOR_TOGGL;
+        }
+        if (host.endsWith("codeforces.com")) {
+            return CONNECTOR_CODEFORCES;
+        }
+        if (host.endsWith("leetcode.com")) {
+            return CONNECTOR_LEETCODE;
         }
+        return host;
     }
 
     private String extractConnectorErrorDetail(String responseBody) {
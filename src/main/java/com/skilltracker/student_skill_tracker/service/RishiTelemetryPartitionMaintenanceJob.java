@@ -0,0 +1,63 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly partitions of the telemetry tables created ahead of time, so
+ * new rows never land in the default partition. Only does work on Postgres
+ * once the V2 migration has installed {@code rishi_ensure_monthly_partitions}.
+ */
+@Component
+public class RishiTelemetryPartitionMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiTelemetryPartitionMaintenanceJob.class);
+
+    static final List<String> PARTITIONED_TABLES = List.of(
+            "rishi_compile_attempt_logs", "rishi_code_change_events", "mastery_event_log");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    public RishiTelemetryPartitionMaintenanceJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${rishi.telemetry.partitions.months-ahead:2}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    @Scheduled(cron = "${rishi.telemetry.partitions.cron:0 15 3 * * *}")
+    public void ensureUpcomingPartitions() {
+        try {
+            Boolean installed = jdbcTemplate.queryForObject(
+                    "SELECT to_regproc('rishi_ensure_monthly_partitions') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(installed)) {
+                return;
+            }
+        } catch (Exception e) {
+            // Not Postgres (e.g. the H2 dev database); nothing is partitioned there.
+            log.debug("Skipping telemetry partition maintenance", e);
+            return;
+        }
+
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT rishi_ensure_monthly_partitions(?, CURRENT_DATE, "
+                                + "CAST(CURRENT_DATE + make_interval(months => ?) AS DATE))",
+                        Integer.class, table, monthsAhead);
+                if (created != null && created > 0) {
+                    log.info("Created {} monthly partitions for {}", created, table);
+                }
+            } catch (Exception e) {
+                log.warn("Could not create upcoming partitions for {}", table, e);
+            }
+        }
+    }
+}
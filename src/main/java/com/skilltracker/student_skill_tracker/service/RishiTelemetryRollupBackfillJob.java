@@ -0,0 +1,82 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+/**
+ * Brings the daily telemetry rollup in line with raw history after startup,
+ * covering data recorded before the rollup existed or while it was disabled.
+ *
+ * Students whose rollup a dashboard read found stale are rebuilt on a short
+ * interval, so history shows up without a full backfill. Walking every
+ * student is a one-off: enable it with
+ * {@code rishi.telemetry.rollup.backfill-on-startup=true} for a single boot
+ * after upgrading (or after running with reads disabled), then turn it off.
+ */
+@Component
+public class RishiTelemetryRollupBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiTelemetryRollupBackfillJob.class);
+
+    private final StudentRepository studentRepository;
+    private final RishiCodingTelemetryService telemetryService;
+    private final RishiTelemetryRollupService rollupService;
+    private final boolean enabled;
+
+    public RishiTelemetryRollupBackfillJob(
+            StudentRepository studentRepository,
+            RishiCodingTelemetryService telemetryService,
+            RishiTelemetryRollupService rollupService,
+            @Value("${rishi.telemetry.rollup.backfill-on-startup:false}") boolean enabled) {
+        this.studentRepository = studentRepository;
+        this.telemetryService = telemetryService;
+        this.rollupService = rollupService;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${rishi.telemetry.rollup.rebuild-interval-ms:15000}")
+    public void rebuildRequested() {
+        for (Long studentId : rollupService.takeRebuildRequests()) {
+            try {
+                studentRepository.findById(studentId).ifPresent(telemetryService::rebuildRollupsIfStale);
+            } catch (Exception e) {
+                log.warn("Could not rebuild telemetry rollup for student {}", studentId, e);
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        int rebuilt = 0;
+        try {
+            for (Student student : studentRepository.findAll()) {
+                try {
+                    if (telemetryService.rebuildRollupsIfStale(student)) {
+                        rebuilt++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Could not rebuild telemetry rollup for student {}", student.getId(), e);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Telemetry rollup backfill aborted", e);
+            return;
+        }
+        if (rebuilt > 0) {
+            log.info("Rebuilt telemetry rollups for {} students", rebuilt);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.skilltracker.student_skill_tracker.model.RishiTelemetryDailyRollup;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiTelemetryDailyRollupRepository;
+
+/**
+ * Reads and maintains {@link RishiTelemetryDailyRollup} rows.
+ *
+ * Increments are relative UPDATEs so concurrent attempts never lose counts.
+ * A missing row is first inserted empty with {@code ON CONFLICT DO NOTHING} in
+ * the caller's transaction, so a duplicate-key race neither aborts it nor
+ * needs a second pooled connection.
+ *
+ * History recorded before the rollup existed is not in it, so reads only use
+ * a student's rows once they have been checked against raw history; a stale
+ * student is read raw and queued for {@link RishiTelemetryRollupBackfillJob}.
+ */
+@Service
+public class RishiTelemetryRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RishiTelemetryRollupService.class);
+
+    private static final String INSERT_EMPTY_ROW_SQL = "INSERT INTO rishi_telemetry_daily_rollups "
+            + "(student_id, rollup_day, source, category, attempts, successful_attempts, accuracy_sum, sessions, "
+            + "coding_duration_ms, compile_attempts, successful_compiles, change_events, first_success_count, "
+            + "first_success_duration_ms, typing_ms, cursor_idle_ms, editor_unfocused_ms, tab_hidden_ms, "
+            + "active_ms, updated_at) VALUES (?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, ?)";
+
+    private final RishiTelemetryDailyRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean readsEnabled;
+    private final Set<Long> verifiedStudents = ConcurrentHashMap.newKeySet();
+    private final Set<Long> rebuildRequests = ConcurrentHashMap.newKeySet();
+    private volatile Boolean postgres;
+
+    public RishiTelemetryRollupService(
+            RishiTelemetryDailyRollupRepository rollupRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${rishi.telemetry.rollup.read-enabled:true}") boolean readsEnabled) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readsEnabled = readsEnabled;
+    }
+
+    /** Compile attempts of one (day, source, category) cell. */
+    public record AttemptCell(
+            LocalDate day,
+            String source,
+            String category,
+            long attempts,
+            long successfulAttempts,
+            double accuracySum) {
+    }
+
+    /** Ended coding sessions that started on one day. */
+    public record SessionCell(
+            LocalDate day,
+            long sessions,
+            long codingDurationMs,
+            long compileAttempts,
+            long successfulCompiles,
+            long changeEvents,
+            long firstSuccessCount,
+            long firstSuccessDurationMs,
+            long typingMs,
+            long cursorIdleMs,
+            long editorUnfocusedMs,
+            long tabHiddenMs,
+            long activeMs) {
+    }
+
+    /**
+     * Whether dashboards may answer full days from the rollup. Turning this off
+     * falls back to aggregating raw rows.
+     */
+    public boolean readsEnabled() {
+        return readsEnabled;
+    }
+
+    /** Whether this instance has already found the student's rollup in line with raw history. */
+    public boolean isVerified(Student student) {
+        return verifiedStudents.contains(student.getId());
+    }
+
+    public void markVerified(Student student) {
+        verifiedStudents.add(student.getId());
+    }
+
+    /** Queues the student for a rebuild by the backfill job. */
+    public void requestRebuild(Student student) {
+        rebuildRequests.add(student.getId());
+    }
+
+    /** Returns and clears the ids of students queued by {@link #requestRebuild}. */
+    public List<Long> takeRebuildRequests() {
+        List<Long> taken = new ArrayList<>();
+        for (Iterator<Long> it = rebuildRequests.iterator(); it.hasNext();) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    public void addAttempt(Student student, AttemptCell cell) {
+        if (incrementAttempts(student, cell) > 0) {
+            return;
+        }
+        ensureRow(student, cell.day(), cell.source(), cell.category());
+        incrementAttempts(student, cell);
+    }
+
+    public void addSession(Student student, SessionCell cell) {
+        if (incrementSessions(student, cell) > 0) {
+            return;
+        }
+        ensureRow(student, cell.day(), RishiTelemetryDailyRollup.SESSION_SOURCE,
+                RishiTelemetryDailyRollup.SESSION_CATEGORY);
+        incrementSessions(student, cell);
+    }
+
+    public List<AttemptCell> attemptCells(Student student, LocalDate firstDay, LocalDate lastDay) {
+        return rollupRepository.findByStudentAndCategoryNotAndDayBetween(
+                student, RishiTelemetryDailyRollup.SESSION_CATEGORY, firstDay, lastDay).stream()
+                .filter(row -> row.getAttempts() > 0L)
+                .map(row -> new AttemptCell(row.getDay(), row.getSource(), row.getCategory(),
+                        row.getAttempts(), row.getSuccessfulAttempts(), row.getAccuracySum()))
+                .toList();
+    }
+
+    public List<SessionCell> sessionCells(Student student, LocalDate firstDay, LocalDate lastDay) {
+        return rollupRepository.findByStudentAndCategoryAndDayBetween(
+                student, RishiTelemetryDailyRollup.SESSION_CATEGORY, firstDay, lastDay).stream()
+                .filter(row -> row.getSessions() > 0L)
+                .map(row -> new SessionCell(row.getDay(), row.getSessions(), row.getCodingDurationMs(),
+                        row.getCompileAttempts(), row.getSuccessfulCompiles(), row.getChangeEvents(),
+                        row.getFirstSuccessCount(), row.getFirstSuccessDurationMs(), row.getTypingMs(),
+                        row.getCursorIdleMs(), row.getEditorUnfocusedMs(), row.getTabHiddenMs(),
+                        row.getActiveMs()))
+                .toList();
+    }
+
+    /**
+     * True when the rollup no longer accounts for every ended session and
+     * compile attempt of the student, e.g. for history recorded before the
+     * rollup existed.
+     */
+    public boolean isStale(Student student, long endedSessions, long compileAttempts) {
+        return rollupRepository.sumSessions(student) != endedSessions
+                || rollupRepository.sumAttempts(student) != compileAttempts;
+    }
+
+    /** Replaces every rollup row of the student. Must run inside a transaction. */
+    public void replace(Student student, Collection<AttemptCell> attempts, Collection<SessionCell> sessions) {
+        // Checked again on the next read, once the rebuild has committed
+        verifiedStudents.remove(student.getId());
+        rollupRepository.deleteAllForStudent(student);
+        rollupRepository.flush();
+        for (AttemptCell cell : attempts) {
+            rollupRepository.save(RishiTelemetryDailyRollup.builder()
+                    .student(student)
+                    .day(cell.day())
+                    .source(cell.source())
+                    .category(cell.category())
+                    .attempts(cell.attempts())
+                    .successfulAttempts(cell.successfulAttempts())
+                    .accuracySum(cell.accuracySum())
+                    .build());
+        }
+        for (SessionCell cell : sessions) {
+            rollupRepository.save(RishiTelemetryDailyRollup.builder()
+                    .student(student)
+                    .day(cell.day())
+                    .source(RishiTelemetryDailyRollup.SESSION_SOURCE)
+                    .category(RishiTelemetryDailyRollup.SESSION_CATEGORY)
+                    .sessions(cell.sessions())
+                    .codingDurationMs(cell.codingDurationMs())
+                    .compileAttempts(cell.compileAttempts())
+                    .successfulCompiles(cell.successfulCompiles())
+                    .changeEvents(cell.changeEvents())
+                    .firstSuccessCount(cell.firstSuccessCount())
+                    .firstSuccessDurationMs(cell.firstSuccessDurationMs())
+                    .typingMs(cell.typingMs())
+                    .cursorIdleMs(cell.cursorIdleMs())
+                    .editorUnfocusedMs(cell.editorUnfocusedMs())
+                    .tabHiddenMs(cell.tabHiddenMs())
+                    .activeMs(cell.activeMs())
+                    .build());
+        }
+    }
+
+    private int incrementAttempts(Student student, AttemptCell cell) {
+        return rollupRepository.incrementAttempts(student, cell.day(), cell.source(), cell.category(),
+                cell.attempts(), cell.successfulAttempts(), cell.accuracySum(), LocalDateTime.now());
+    }
+
+    private int incrementSessions(Student student, SessionCell cell) {
+        return rollupRepository.incrementSessions(student, cell.day(),
+                RishiTelemetryDailyRollup.SESSION_SOURCE, RishiTelemetryDailyRollup.SESSION_CATEGORY,
+                cell.sessions(), cell.codingDurationMs(), cell.compileAttempts(), cell.successfulCompiles(),
+                cell.changeEvents(), cell.firstSuccessCount(), cell.firstSuccessDurationMs(), cell.typingMs(),
+                cell.cursorIdleMs(), cell.editorUnfocusedMs(), cell.tabHiddenMs(), cell.activeMs(),
+                LocalDateTime.now());
+    }
+
+    private void ensureRow(Student student, LocalDate day, String source, String category) {
+        if (isPostgres()) {
+            // Another request may create the row first; the caller's increment hits it either way.
+            jdbcTemplate.update(INSERT_EMPTY_ROW_SQL + " ON CONFLICT (student_id, rollup_day, source, category) "
+                    + "DO NOTHING", student.getId(), day, source, category, LocalDateTime.now());
+            return;
+        }
+        try {
+            // The embedded test database has no ON CONFLICT, but a failed statement does not
+            // abort its transaction either.
+            jdbcTemplate.update(INSERT_EMPTY_ROW_SQL, student.getId(), day, source, category, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            log.debug("Rollup row for student {} on {} already exists", student.getId(), day);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean detected = postgres;
+        if (detected == null) {
+            detected = "PostgreSQL".equalsIgnoreCase(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            postgres = detected;
+        }
+        return detected;
+    }
+}
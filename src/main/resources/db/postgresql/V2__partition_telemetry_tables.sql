@@ -0,0 +1,112 @@
+-- Monthly range partitioning and (student, time) indexes for the telemetry tables.
+--
+-- rishi_compile_attempt_logs, rishi_code_change_events and mastery_event_log are
+-- rebuilt as tables partitioned by their event time. rishi_coding_sessions stays
+-- a plain table: other tables reference sessions(id), and a partitioned table can
+-- only expose unique keys that contain its partition column.
+--
+-- Attempt logs get a denormalized student_id so student/time-range reads no
+-- longer join through rishi_coding_sessions.
+
+-- Creates one partition per month in [first_month, last_month] that does not exist yet.
+CREATE OR REPLACE FUNCTION rishi_ensure_monthly_partitions(parent TEXT, first_month DATE, last_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_month)::DATE;
+    created INTEGER := 0;
+    partition_name TEXT;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := parent || '_y' || to_char(month_start, 'YYYY') || 'm' || to_char(month_start, 'MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, parent, month_start, (month_start + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rebuilds a plain table as a monthly range-partitioned table with the same
+-- columns and rows. Constraints and indexes are re-added by the caller.
+CREATE OR REPLACE FUNCTION rishi_partition_by_month(parent TEXT, key_column TEXT)
+RETURNS VOID AS $$
+DECLARE
+    legacy TEXT := parent || '_legacy';
+    id_sequence TEXT := parent || '_part_id_seq';
+    oldest DATE;
+BEGIN
+    IF to_regclass(parent) IS NULL
+            OR EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(parent)) THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', parent, legacy);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (%I)',
+            parent, legacy, key_column);
+
+    -- Identity columns are not allowed on partitioned tables before Postgres 17.
+    EXECUTE format('CREATE SEQUENCE %I OWNED BY %I.id', id_sequence, parent);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', parent, id_sequence);
+    EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)', id_sequence, legacy);
+
+    EXECUTE format('SELECT MIN(%I)::DATE FROM %I', key_column, legacy) INTO oldest;
+    PERFORM rishi_ensure_monthly_partitions(parent, COALESCE(oldest, CURRENT_DATE),
+            (CURRENT_DATE + INTERVAL '2 months')::DATE);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent || '_default', parent);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', parent, legacy);
+    EXECUTE format('DROP TABLE %I', legacy);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Compile attempt logs ------------------------------------------------------
+
+ALTER TABLE rishi_compile_attempt_logs ADD COLUMN IF NOT EXISTS student_id BIGINT;
+
+UPDATE rishi_compile_attempt_logs l
+SET student_id = s.student_id
+FROM rishi_coding_sessions s
+WHERE s.id = l.session_id AND l.student_id IS NULL;
+
+SELECT rishi_partition_by_month('rishi_compile_attempt_logs', 'attempted_at');
+
+ALTER TABLE rishi_compile_attempt_logs ALTER COLUMN student_id SET NOT NULL;
+ALTER TABLE rishi_compile_attempt_logs ADD CONSTRAINT rishi_compile_attempt_logs_pkey PRIMARY KEY (id, attempted_at);
+ALTER TABLE rishi_compile_attempt_logs ADD CONSTRAINT fk_rishi_attempt_logs_session
+    FOREIGN KEY (session_id) REFERENCES rishi_coding_sessions (id);
+ALTER TABLE rishi_compile_attempt_logs ADD CONSTRAINT fk_rishi_attempt_logs_student
+    FOREIGN KEY (student_id) REFERENCES students (id);
+
+CREATE INDEX idx_rishi_attempt_logs_student_time ON rishi_compile_attempt_logs (student_id, attempted_at);
+CREATE INDEX idx_rishi_attempt_logs_session_time ON rishi_compile_attempt_logs (session_id, attempted_at);
+
+-- Code change events --------------------------------------------------------
+
+SELECT rishi_partition_by_month('rishi_code_change_events', 'occurred_at');
+
+ALTER TABLE rishi_code_change_events ADD CONSTRAINT rishi_code_change_events_pkey PRIMARY KEY (id, occurred_at);
+ALTER TABLE rishi_code_change_events ADD CONSTRAINT fk_rishi_change_events_session
+    FOREIGN KEY (session_id) REFERENCES rishi_coding_sessions (id);
+
+CREATE INDEX idx_rishi_change_events_session_time ON rishi_code_change_events (session_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_rishi_change_events_occurred_at ON rishi_code_change_events (occurred_at);
+
+-- Mastery event log ---------------------------------------------------------
+
+UPDATE mastery_event_log SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+SELECT rishi_partition_by_month('mastery_event_log', 'created_at');
+
+ALTER TABLE mastery_event_log ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE mastery_event_log ADD CONSTRAINT mastery_event_log_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE mastery_event_log ADD CONSTRAINT fk_mastery_event_log_student
+    FOREIGN KEY (student_id) REFERENCES students (id);
+
+CREATE INDEX idx_mastery_event_log_student_topic_time ON mastery_event_log (student_id, topic_slug, created_at);
+
+-- Coding sessions -----------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_rishi_sessions_student_started ON rishi_coding_sessions (student_id, started_at);
@@ -0,0 +1,32 @@
+-- Local Codeforces submission history, so a sync downloads only submissions
+-- newer than the handle's high-water mark and bumps all-time totals instead
+-- of recomputing them from the provider's full history.
+
+CREATE TABLE IF NOT EXISTS rishi_codeforces_submissions (
+    id BIGSERIAL PRIMARY KEY,
+    handle VARCHAR(120) NOT NULL,
+    submission_id BIGINT NOT NULL,
+    creation_time_seconds BIGINT NOT NULL,
+    accepted BOOLEAN NOT NULL,
+    problem_key VARCHAR(255),
+    tags VARCHAR(1024),
+    CONSTRAINT uk_rishi_cf_submission UNIQUE (handle, submission_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rishi_cf_submissions_handle_time
+    ON rishi_codeforces_submissions (handle, creation_time_seconds);
+
+CREATE TABLE IF NOT EXISTS rishi_codeforces_sync_state (
+    handle VARCHAR(120) PRIMARY KEY,
+    last_submission_id BIGINT,
+    last_creation_time_seconds BIGINT,
+    solved_total INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS rishi_codeforces_tag_counts (
+    handle VARCHAR(120) NOT NULL REFERENCES rishi_codeforces_sync_state (handle) ON DELETE CASCADE,
+    tag VARCHAR(120) NOT NULL,
+    accepted_count INTEGER NOT NULL,
+    PRIMARY KEY (handle, tag)
+);
@@ -0,0 +1,41 @@
+-- The background analytics sync reads when each (student, connector) pair last
+-- synced from one small table instead of running MAX(created_at) GROUP BY over
+-- every snapshot table each tick. Snapshots past the retention window are
+-- pruned on each sync, so a per-student index keeps that delete cheap.
+
+CREATE TABLE IF NOT EXISTS rishi_connector_sync_state (
+    id BIGSERIAL PRIMARY KEY,
+    student_id BIGINT NOT NULL REFERENCES students (id) ON DELETE CASCADE,
+    connector VARCHAR(32) NOT NULL,
+    last_synced_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_rishi_connector_sync_state UNIQUE (connector, student_id)
+);
+
+INSERT INTO rishi_connector_sync_state (student_id, connector, last_synced_at)
+SELECT student_id, 'github', MAX(created_at) FROM rishi_github_analytics_snapshots
+WHERE created_at IS NOT NULL GROUP BY student_id
+ON CONFLICT (connector, student_id) DO NOTHING;
+
+INSERT INTO rishi_connector_sync_state (student_id, connector, last_synced_at)
+SELECT student_id, 'leetcode', MAX(created_at) FROM rishi_leetcode_analytics_snapshots
+WHERE created_at IS NOT NULL GROUP BY student_id
+ON CONFLICT (connector, student_id) DO NOTHING;
+
+INSERT INTO rishi_connector_sync_state (student_id, connector, last_synced_at)
+SELECT student_id, 'codeforces', MAX(created_at) FROM rishi_codeforces_analytics_snapshots
+WHERE created_at IS NOT NULL GROUP BY student_id
+ON CONFLICT (connector, student_id) DO NOTHING;
+
+INSERT INTO rishi_connector_sync_state (student_id, connector, last_synced_at)
+SELECT student_id, 'toggl', MAX(created_at) FROM rishi_toggl_focus_snapshots
+WHERE created_at IS NOT NULL GROUP BY student_id
+ON CONFLICT (connector, student_id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_rishi_github_snapshots_student_time
+    ON rishi_github_analytics_snapshots (student_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_rishi_leetcode_snapshots_student_time
+    ON rishi_leetcode_analytics_snapshots (student_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_rishi_codeforces_snapshots_student_time
+    ON rishi_codeforces_analytics_snapshots (student_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_rishi_toggl_snapshots_student_time
+    ON rishi_toggl_focus_snapshots (student_id, created_at);
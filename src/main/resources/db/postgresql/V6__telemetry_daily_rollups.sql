@@ -0,0 +1,32 @@
+-- Per-student daily telemetry rollups, so dashboards read whole days from one
+-- row per (day, source, category) instead of aggregating raw sessions and
+-- compile attempts. accuracy_sum keeps the unrounded sum of accuracy
+-- percentages so averages are rounded once when read, like the raw path.
+
+CREATE TABLE IF NOT EXISTS rishi_telemetry_daily_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    student_id BIGINT NOT NULL REFERENCES students (id),
+    rollup_day DATE NOT NULL,
+    source VARCHAR(64) NOT NULL,
+    category VARCHAR(64) NOT NULL,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    successful_attempts BIGINT NOT NULL DEFAULT 0,
+    accuracy_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sessions BIGINT NOT NULL DEFAULT 0,
+    coding_duration_ms BIGINT NOT NULL DEFAULT 0,
+    compile_attempts BIGINT NOT NULL DEFAULT 0,
+    successful_compiles BIGINT NOT NULL DEFAULT 0,
+    change_events BIGINT NOT NULL DEFAULT 0,
+    first_success_count BIGINT NOT NULL DEFAULT 0,
+    first_success_duration_ms BIGINT NOT NULL DEFAULT 0,
+    typing_ms BIGINT NOT NULL DEFAULT 0,
+    cursor_idle_ms BIGINT NOT NULL DEFAULT 0,
+    editor_unfocused_ms BIGINT NOT NULL DEFAULT 0,
+    tab_hidden_ms BIGINT NOT NULL DEFAULT 0,
+    active_ms BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_rishi_rollup_key UNIQUE (student_id, rollup_day, source, category)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rishi_rollup_student_day
+    ON rishi_telemetry_daily_rollups (student_id, rollup_day);
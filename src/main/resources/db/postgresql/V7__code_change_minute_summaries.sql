@@ -0,0 +1,19 @@
+-- Per-minute summaries of editor change events that the archive job moved out
+-- of rishi_code_change_events into gzip'd NDJSON files. The job selects expired
+-- events by occurred_at alone, so that column gets its own index.
+
+CREATE TABLE IF NOT EXISTS rishi_code_change_minute_summaries (
+    id BIGSERIAL PRIMARY KEY,
+    session_id BIGINT NOT NULL REFERENCES rishi_coding_sessions (id),
+    bucket_start TIMESTAMP NOT NULL,
+    change_events INTEGER NOT NULL DEFAULT 0,
+    inserted_chars BIGINT NOT NULL DEFAULT 0,
+    deleted_chars BIGINT NOT NULL DEFAULT 0,
+    activity_state VARCHAR(40),
+    resulting_code_length INTEGER,
+    archived_at TIMESTAMP,
+    CONSTRAINT uk_rishi_change_minute UNIQUE (session_id, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rishi_change_events_occurred_at
+    ON rishi_code_change_events (occurred_at);
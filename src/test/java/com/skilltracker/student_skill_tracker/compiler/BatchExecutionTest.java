@@ -0,0 +1,109 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BatchExecutionTest {
+
+    private static final List<TestCase> SUM_CASES = List.of(
+            new TestCase("1 2 3", "6"),
+            new TestCase("5", "5\n"),
+            new TestCase("-1 1 0", "0"),
+            new TestCase("2 2", "5"));
+
+    @Test
+    void outputComparisonIgnoresTrailingWhitespaceOnly() {
+        assertTrue(BatchExecution.outputMatches("6", "6\n"));
+        assertTrue(BatchExecution.outputMatches("1 2\n3", "1 2  \r\n3\n\n"));
+        assertFalse(BatchExecution.outputMatches("1 2", " 1 2"));
+        assertFalse(BatchExecution.outputMatches("6", "7"));
+    }
+
+    @Test
+    void javaCompilesOnceAndGradesEveryCase() {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("javac", "-version"), 5),
+                "Skipping Java batch test because javac is not available in this environment.");
+        String source = """
+                import java.util.Scanner;
+
+                public class Main {
+                    public static void main(String[] args) {
+                        Scanner in = new Scanner(System.in);
+                        long sum = 0;
+                        while (in.hasNextInt()) {
+                            sum += in.nextInt();
+                        }
+                        System.out.println(sum);
+                    }
+                }
+                """;
+
+        BatchExecutionResult result = new JavaCompiler().executeBatch(source, SUM_CASES, 5);
+
+        assertTrue(result.isCompiled());
+        assertEquals(3, result.getPassed());
+        assertEquals(4, result.getTotal());
+        assertEquals(TestCaseResult.Verdict.WRONG_ANSWER, result.getResults().get(3).getVerdict());
+        assertEquals("4", result.getResults().get(3).getOutput());
+    }
+
+    @Test
+    void casesDoNotShareAWorkingDirectory() {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("python3", "--version"), 5),
+                "Skipping Python batch test because python3 is not available in this environment.");
+        String source = """
+                import os, time
+                fresh = not os.path.exists("marker")
+                open("marker", "w").close()
+                time.sleep(0.2)
+                print("fresh" if fresh else "shared")
+                """;
+        List<TestCase> cases = List.of(new TestCase("", "fresh"), new TestCase("", "fresh"),
+                new TestCase("", "fresh"));
+
+        BatchExecutionResult result = new PythonCompiler().executeBatch(source, cases, 5);
+
+        assertEquals(3, result.getPassed());
+    }
+
+    @Test
+    void cppReportsTimeoutsPerCase() {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("g++", "--version"), 5),
+                "Skipping C++ batch test because g++ is not available in this environment.");
+        String source = """
+                #include <iostream>
+                int main() {
+                    long long sum = 0, x;
+                    while (std::cin >> x) sum += x;
+                    if (sum == 4) { while (true) {} }
+                    std::cout << sum << std::endl;
+                }
+                """;
+
+        BatchExecutionResult result = new CppCompiler().executeBatch(source, SUM_CASES, 1);
+
+        assertEquals(3, result.getPassed());
+        assertEquals(TestCaseResult.Verdict.TIMEOUT, result.getResults().get(3).getVerdict());
+    }
+
+    @Test
+    void compileErrorFailsEveryCaseWithoutRunning() {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("javac", "-version"), 5),
+                "Skipping Java batch test because javac is not available in this environment.");
+
+        BatchExecutionResult result = new JavaCompiler().executeBatch(
+                "public class Main { public static void main(String[] a) { int x = ; } }", SUM_CASES, 5);
+
+        assertFalse(result.isCompiled());
+        assertEquals(0, result.getPassed());
+        assertTrue(result.getCompileError().startsWith("Compilation error"));
+        assertTrue(result.getResults().stream()
+                .allMatch(r -> r.getVerdict() == TestCaseResult.Verdict.COMPILE_ERROR));
+    }
+}
@@ -0,0 +1,36 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedOutputTest {
+
+    @Test
+    void outputWithinTheLimitIsKeptWhole() {
+        BoundedOutput output = new BoundedOutput(13, 4);
+        write(output, "héllo wörld");
+
+        assertFalse(output.overflowed());
+        assertEquals("héllo wörld", output.text());
+    }
+
+    @Test
+    void truncatedOutputIsCutAtCharacterBoundaries() {
+        // "ab" then "é" straddles the 3-byte head; "ü" straddles the start of the 3-byte tail
+        BoundedOutput output = new BoundedOutput(6, 3);
+        write(output, "abé-----üxy");
+
+        assertTrue(output.overflowed());
+        assertEquals("ab\n\n... [9 bytes of output omitted] ...\n\nxy", output.text());
+    }
+
+    private static void write(BoundedOutput output, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.write(bytes, 0, bytes.length);
+    }
+}
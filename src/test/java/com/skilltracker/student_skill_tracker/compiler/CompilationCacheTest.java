@@ -0,0 +1,112 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CompilationCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void keyIgnoresCrlfLineEndingsButNotWhitespaceOrToolchain() {
+        String key = CompilationCache.key("java", "21", "class A {\n  int x;\n}\n");
+
+        assertEquals(key, CompilationCache.key("java", "21", "class A {\r\n  int x;\r\n}\r\n"));
+        assertNotEquals(key, CompilationCache.key("java", "21", "class A {  \n  int x;\n}\n"));
+        assertNotEquals(key, CompilationCache.key("java", "21", "class A {\n  int x;\n}"));
+        assertNotEquals(CompilationCache.key("cpp", "13", "auto s = R\"(a \n)\";"),
+                CompilationCache.key("cpp", "13", "auto s = R\"(a\n)\";"));
+        assertNotEquals(key, CompilationCache.key("java", "17", "class A {\n  int x;\n}\n"));
+        assertNotEquals(key, CompilationCache.key("cpp", "21", "class A {\n  int x;\n}\n"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesAndSurvivesRestart() throws Exception {
+        CompilationCache cache = new CompilationCache(cacheDir, 250);
+        cache.put("a", "A", Map.of("A.class", new byte[100]), 1_000_000);
+        cache.put("b", "B", Map.of("B.class", new byte[100]), 1_000_000);
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", "C", Map.of("C.class", new byte[100]), 1_000_000);
+
+        assertNull(cache.get("b"), "b was the least recently used entry");
+        assertEquals(200, cache.sizeBytes());
+
+        CompilationCache reopened = new CompilationCache(cacheDir, 250);
+        CompilationCache.Hit hit = reopened.get("a");
+        assertNotNull(hit);
+        assertEquals("A", hit.mainClass());
+        assertArrayEquals(new byte[100], hit.files().get("A.class"));
+        assertEquals(2, reopened.entryCount());
+    }
+
+    @Test
+    void rootIsCreatedPrivateAndASharedOneIsRefused() throws Exception {
+        assumeTrue(cacheDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path created = cacheDir.resolve("fresh");
+        new CompilationCache(created, 1_000);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(created)));
+
+        Path planted = Files.createDirectory(cacheDir.resolve("planted"));
+        Files.setPosixFilePermissions(planted, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThrows(IOException.class, () -> new CompilationCache(planted, 1_000));
+    }
+
+    @Test
+    void javaRerunWithNewInputSkipsCompilation() throws Exception {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("javac", "-version"), 5),
+                "Skipping because javac is not available in this environment.");
+        CompilationCache cache = new CompilationCache(cacheDir, 10_000_000);
+        JavaCompiler compiler = new JavaCompiler(null, cache);
+        String source = """
+                public class Main {
+                    public static void main(String[] args) {
+                        System.out.print(new java.util.Scanner(System.in).nextLine().toUpperCase());
+                    }
+                }
+                """;
+
+        assertEquals("FIRST", compiler.executeCode(source, "first", 5).getOutput());
+        assertEquals("SECOND", compiler.executeCode(source, "second", 5).getOutput());
+
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertTrue(cache.savedCompileMillis() > 0);
+    }
+
+    @Test
+    void cppRerunReusesLinkedBinary() throws Exception {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("g++", "--version"), 5),
+                "Skipping because g++ is not available in this environment.");
+        CompilationCache cache = new CompilationCache(cacheDir, 50_000_000);
+        CppCompiler compiler = new CppCompiler(cache);
+        String source = """
+                #include <iostream>
+                int main() { int a, b; std::cin >> a >> b; std::cout << a * b; }
+                """;
+
+        assertEquals("6", compiler.executeCode(source, "2 3", 5).getOutput());
+        CompilationResult rerun = compiler.executeCode(source, "4 5", 5);
+
+        assertTrue(rerun.isSuccess(), rerun.getError());
+        assertEquals("20", rerun.getOutput());
+        assertEquals(1, cache.hits());
+    }
+}
@@ -0,0 +1,77 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ExecutionSandboxTest {
+
+    @Test
+    void endlessOutputIsKilledAtTheCapKeepingHeadAndTail() throws Exception {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("sh", "-c", "true"), 5),
+                "Skipping sandbox output test because no POSIX shell is available.");
+        Path workspace = ExecutionSandbox.createWorkspace("test");
+        try {
+            long start = System.nanoTime();
+            ExecutionSandbox.ProcessResult result = ExecutionSandbox.run(workspace,
+                    List.of("sh", "-c", "echo first; while :; do echo more output; done"), "", 20);
+
+            assertFalse(result.timedOut());
+            assertTrue(result.outputTruncated());
+            assertTrue(result.output().startsWith("first"));
+            assertTrue(result.output().contains("bytes of output omitted"));
+            String tail = result.output().substring(result.output().indexOf("bytes of output omitted"));
+            assertTrue(tail.contains("more output"), "The tail should hold the last lines before the kill.");
+            assertTrue(result.output().length() <= ExecutionSandbox.MAX_OUTPUT_BYTES + 100);
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 15_000, "The run should not wait for its timeout.");
+        } finally {
+            ExecutionSandbox.deleteWorkspace(workspace);
+        }
+    }
+
+    @Test
+    void boundedOutputIsReturnedWhole() throws Exception {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("sh", "-c", "true"), 5),
+                "Skipping sandbox output test because no POSIX shell is available.");
+        Path workspace = ExecutionSandbox.createWorkspace("test");
+        try {
+            ExecutionSandbox.ProcessResult result = ExecutionSandbox.run(workspace,
+                    List.of("sh", "-c", "cat; echo done"), "hello\n", 5);
+
+            assertEquals(0, result.exitCode());
+            assertFalse(result.outputTruncated());
+            assertEquals("hello\ndone", result.output());
+        } finally {
+            ExecutionSandbox.deleteWorkspace(workspace);
+        }
+    }
+
+    @Test
+    void timeoutKillsTheWholeProcessTree() throws Exception {
+        assumeTrue(ExecutionSandbox.isCommandAvailable(List.of("sh", "-c", "true"), 5),
+                "Skipping sandbox process test because no POSIX shell is available.");
+        Path workspace = ExecutionSandbox.createWorkspace("test");
+        try {
+            ExecutionSandbox.ProcessResult result = ExecutionSandbox.run(workspace,
+                    List.of("sh", "-c", "sleep 30 & echo $! > child.pid; wait"), "", 1);
+            assertTrue(result.timedOut());
+
+            long pid = Long.parseLong(Files.readString(workspace.resolve("child.pid")).trim());
+            Optional<ProcessHandle> child = ProcessHandle.of(pid);
+            if (child.isPresent()) {
+                child.get().onExit().get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            ExecutionSandbox.deleteWorkspace(workspace);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ExecutionScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void servesOwnersRoundRobinAndReportsPositions() throws Exception {
+        scheduler = new ExecutionScheduler(registry, 1, 256, 10, 3, 30);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        ExecutionScheduler.Ticket<String> blocker = scheduler.submit("blocker", () -> {
+            started.countDown();
+            release.await();
+            return "blocker";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // "a" floods the queue before "b" arrives; b must not wait behind all of a's runs
+        ExecutionScheduler.Ticket<?> a1 = scheduler.submit("a", () -> order.add("a1"));
+        ExecutionScheduler.Ticket<?> a2 = scheduler.submit("a", () -> order.add("a2"));
+        ExecutionScheduler.Ticket<?> a3 = scheduler.submit("a", () -> order.add("a3"));
+        ExecutionScheduler.Ticket<?> b1 = scheduler.submit("b", () -> order.add("b1"));
+
+        assertEquals(1, a1.position());
+        assertEquals(2, a2.position());
+        assertEquals(3, a3.position());
+        assertEquals(2, b1.position());
+
+        release.countDown();
+        a3.future().get(5, TimeUnit.SECONDS);
+        b1.future().get(5, TimeUnit.SECONDS);
+        assertEquals("blocker", blocker.future().get().value());
+        assertEquals(List.of("a1", "b1", "a2", "a3"), order);
+    }
+
+    @Test
+    void rejectsWithRetryHintWhenOwnerOrQueueIsFull() throws Exception {
+        scheduler = new ExecutionScheduler(registry, 1, 256, 2, 1, 30);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("blocker", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scheduler.submit("a", () -> null);
+        ExecutionRejectedException ownerFull = assertThrows(ExecutionRejectedException.class,
+                () -> scheduler.submit("a", () -> null));
+        assertTrue(ownerFull.getRetryAfterSeconds() >= 1);
+
+        scheduler.submit("b", () -> null);
+        ExecutionRejectedException queueFull = assertThrows(ExecutionRejectedException.class,
+                () -> scheduler.submit("c", () -> null));
+        assertTrue(queueFull.getRetryAfterSeconds() >= 1);
+
+        release.countDown();
+    }
+
+    @Test
+    void executeReturnsValueTimingsAndRecordsHistograms() throws Exception {
+        scheduler = new ExecutionScheduler(registry, 2, 256, 10, 2, 30);
+
+        ExecutionScheduler.Outcome<Integer> outcome = scheduler.execute("a", () -> 42);
+
+        assertEquals(42, outcome.value());
+        assertEquals(1, outcome.queuePosition());
+        assertEquals(1, registry.get("rishi.compiler.queue.wait").timer().count());
+        assertEquals(1, registry.get("rishi.compiler.run").timer().count());
+        assertThrows(IllegalStateException.class, () -> scheduler.execute("a", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(2, scheduler.getConcurrency());
+    }
+
+    @Test
+    void callerThatStopsWaitingGivesUpItsPlace() throws Exception {
+        scheduler = new ExecutionScheduler(registry, 1, 256, 10, 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        scheduler.submit("blocker", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Still queued when the bound passes: taken out of the queue
+        assertThrows(ExecutionRejectedException.class, () -> scheduler.execute("a", () -> ran.add("a")));
+        assertEquals(0, scheduler.queuedCount());
+        release.countDown();
+
+        // Already running when the bound passes: interrupted, and the runner is free again
+        CountDownLatch interrupted = new CountDownLatch(1);
+        assertThrows(ExecutionRejectedException.class, () -> scheduler.execute("b", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals("c", scheduler.execute("c", () -> "c").value());
+        assertEquals(List.of(), ran);
+    }
+}
@@ -0,0 +1,96 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares local Java run latency with and without the warm worker pool.
+ * Opt-in:
+ *
+ * <pre>
+ * mvn test -Dtest=JavaCompilerLatencyBenchmarkTest -Drishi.loadtest=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "rishi.loadtest", matches = "true")
+class JavaCompilerLatencyBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+
+    private static final String HELLO_WORLD = """
+            public class Main {
+                public static void main(String[] args) {
+                    System.out.println("Hello, World!");
+                }
+            }
+            """;
+
+    private static final String TWO_SUM = """
+            import java.util.*;
+
+            class Solution {
+                public int[] twoSum(int[] nums, int target) {
+                    Map<Integer, Integer> seen = new HashMap<>();
+                    for (int i = 0; i < nums.length; i++) {
+                        Integer j = seen.get(target - nums[i]);
+                        if (j != null) {
+                            return new int[] { j, i };
+                        }
+                        seen.put(nums[i], i);
+                    }
+                    return new int[0];
+                }
+
+                public static void main(String[] args) {
+                    Scanner in = new Scanner(System.in);
+                    int n = in.nextInt();
+                    int[] nums = new int[n];
+                    for (int i = 0; i < n; i++) {
+                        nums[i] = i * 3;
+                    }
+                    int[] answer = new Solution().twoSum(nums, nums[n - 2] + nums[n - 1]);
+                    System.out.println(Arrays.toString(answer));
+                }
+            }
+            """;
+
+    @Test
+    void warmWorkersShouldBeFasterThanFreshJvms() throws Exception {
+        JavaCompiler fresh = new JavaCompiler();
+        try (JavaWorkerPool pool = new JavaWorkerPool(2, 25)) {
+            JavaCompiler pooled = new JavaCompiler(pool, null);
+            // Let the first workers finish starting so they are not timed.
+            Thread.sleep(3_000);
+
+            for (String[] program : List.of(new String[] { "hello-world", HELLO_WORLD, "" },
+                    new String[] { "two-sum (n=200000)", TWO_SUM, "200000" })) {
+                long freshMedian = medianMillis(fresh, program[1], program[2]);
+                long pooledMedian = medianMillis(pooled, program[1], program[2]);
+                System.out.printf("%-20s fresh JVM: %5d ms   warm worker: %5d ms%n",
+                        program[0], freshMedian, pooledMedian);
+                assertTrue(pooledMedian < freshMedian, program[0] + " should run faster on a warm worker");
+            }
+        }
+    }
+
+    private static long medianMillis(JavaCompiler compiler, String source, String input) {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            CompilationResult result = compiler.executeCode(source, input, 10);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(result.isSuccess(), result.getError());
+            if (i >= WARMUP_RUNS) {
+                samples.add(elapsed);
+            }
+        }
+        Collections.sort(samples);
+        return samples.get(samples.size() / 2);
+    }
+}
@@ -0,0 +1,228 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class JavaWorkerPoolTest {
+
+    private static JavaWorkerPool pool;
+    private static JavaCompiler compiler;
+
+    @BeforeAll
+    static void startPool() throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null,
+                "Skipping worker pool tests because this JVM has no system Java compiler.");
+        pool = new JavaWorkerPool(1, 25);
+        compiler = new JavaCompiler(pool, null);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void mainReadsStdinAndPrintsOnWarmWorker() throws Exception {
+        String source = """
+                import java.util.Scanner;
+
+                public class Main {
+                    public static void main(String[] args) {
+                        Scanner in = new Scanner(System.in);
+                        int a = in.nextInt();
+                        int b = in.nextInt();
+                        System.out.println(a + b);
+                    }
+                }
+                """;
+
+        JavaWorkerPool.Result direct = pool.execute("Main.java", "Main", source, Map.of(), "2 40", 5);
+        assertEquals(JavaWorkerMain.STATUS_EXITED, direct.status(), "The run should be served by a worker.");
+
+        CompilationResult result = compiler.executeCode(source, "2 40", 5);
+        assertTrue(result.isSuccess());
+        assertEquals("42", result.getOutput());
+    }
+
+    @Test
+    void cachedClassesRunOnWorkerWithoutRecompiling(@TempDir Path cacheDir) throws Exception {
+        CompilationCache cache = new CompilationCache(cacheDir, 10_000_000);
+        JavaCompiler cached = new JavaCompiler(pool, cache);
+        String source = """
+                class Solution {
+                    public static void main(String[] args) {
+                        System.out.print(new java.util.Scanner(System.in).nextInt() * 2);
+                    }
+                }
+                """;
+
+        assertEquals("42", cached.executeCode(source, "21", 5).getOutput());
+        assertEquals("10", cached.executeCode(source, "5", 5).getOutput());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void floodingOutputIsStoppedAtTheCap() {
+        String source = """
+                public class Main {
+                    public static void main(String[] args) {
+                        while (true) {
+                            System.out.println("spam spam spam spam spam spam spam spam");
+                        }
+                    }
+                }
+                """;
+
+        long start = System.nanoTime();
+        CompilationResult result = compiler.executeCode(source, "", 10);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.isOutputTruncated());
+        assertEquals(ExecutionSandbox.MAX_OUTPUT_BYTES, result.getOutputLimitBytes());
+        assertTrue(result.getOutput().startsWith("spam"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 8_000, "The run should stop well before its timeout.");
+    }
+
+    @Test
+    void batchRunsEveryCaseOnWorkersFromOneCompile() {
+        String source = """
+                public class Main {
+                    public static void main(String[] args) {
+                        String line = new java.util.Scanner(System.in).nextLine();
+                        System.out.println(new StringBuilder(line).reverse());
+                    }
+                }
+                """;
+        List<TestCase> cases = List.of(new TestCase("abc", "cba"), new TestCase("racecar", "racecar"),
+                new TestCase("ab", "ab"));
+
+        BatchExecutionResult result = compiler.executeBatch(source, cases, 5);
+
+        assertTrue(result.isCompiled());
+        assertEquals(2, result.getPassed());
+        assertEquals(TestCaseResult.Verdict.WRONG_ANSWER, result.getResults().get(2).getVerdict());
+    }
+
+    @Test
+    void compileErrorIsReported() {
+        CompilationResult result = compiler.executeCode("class Broken { void f() { return 1; } }", "", 5);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError().startsWith("Compilation error: "));
+        assertTrue(result.getError().contains("Broken") || result.getError().contains("error"));
+    }
+
+    @Test
+    void classOnlySolutionWithoutMain_returnsGuidance() {
+        CompilationResult result = compiler.executeCode("class Solution { int one() { return 1; } }", "", 5);
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.getOutput().contains("No main() method detected"));
+    }
+
+    @Test
+    void uncaughtExceptionAndSystemExitMatchLauncherExitCodes() {
+        CompilationResult thrown = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        throw new IllegalStateException("boom");
+                    }
+                }
+                """, "", 5);
+        assertFalse(thrown.isSuccess());
+        assertTrue(thrown.getError().startsWith("Runtime error (exit code: 1)"));
+        assertTrue(thrown.getError().contains("IllegalStateException: boom"));
+
+        CompilationResult exited = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        System.out.print("partial");
+                        System.exit(3);
+                    }
+                }
+                """, "", 5);
+        assertFalse(exited.isSuccess());
+        assertEquals("Runtime error (exit code: 3):\npartial", exited.getError());
+    }
+
+    @Test
+    void contextClassLoaderDoesNotReachTheWorkerClasses() {
+        CompilationResult result = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        try {
+                            Thread.currentThread().getContextClassLoader()
+                                    .loadClass("com.skilltracker.student_skill_tracker.compiler.JavaWorkerMain");
+                            System.out.print("reachable");
+                        } catch (ClassNotFoundException e) {
+                            System.out.print("hidden");
+                        }
+                    }
+                }
+                """, "", 5);
+
+        assertEquals("hidden", result.getOutput());
+    }
+
+    @Test
+    void changedGlobalStateIsNotSeenByTheNextRun() {
+        CompilationResult changed = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        System.setProperty("left.behind", "yes");
+                        java.util.TimeZone.setDefault(java.util.TimeZone.getTimeZone("Pacific/Kiritimati"));
+                        System.out.print("changed");
+                    }
+                }
+                """, "", 5);
+        assertEquals("changed", changed.getOutput());
+
+        CompilationResult next = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        System.out.print(System.getProperty("left.behind") + " "
+                                + java.util.TimeZone.getDefault().getID().equals("Pacific/Kiritimati"));
+                    }
+                }
+                """, "", 5);
+        assertEquals("null false", next.getOutput());
+    }
+
+    @Test
+    void runawayLoopTimesOutAndWorkerIsReplaced() {
+        CompilationResult looping = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        while (true) { }
+                    }
+                }
+                """, "", 1);
+        assertFalse(looping.isSuccess());
+        assertEquals("Execution timeout (1 seconds)", looping.getError());
+
+        CompilationResult next = compiler.executeCode("""
+                class Solution {
+                    public static void main(String[] args) {
+                        System.out.print("fresh");
+                    }
+                }
+                """, "", 5);
+        assertTrue(next.isSuccess());
+        assertEquals("fresh", next.getOutput());
+    }
+}
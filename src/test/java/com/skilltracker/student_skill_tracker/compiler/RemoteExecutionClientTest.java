@@ -0,0 +1,141 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Drives {@link RemoteExecutionClient} against a local stub backend. */
+class RemoteExecutionClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private volatile long responseDelayMs;
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        // Without this the stub's own Nagle delays dominate the test's run time.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/execute", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/execute";
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentCallsShareAFewPooledConnections() throws Exception {
+        RemoteExecutionClient client = new RemoteExecutionClient(registry, 2_000, 5, 8);
+        int calls = 400;
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Map<?, ?>>> results = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                results.add(callers.submit(() -> client.post("stub", url, Map.of("code", "x"), Map.class, 5)));
+            }
+            for (Future<Map<?, ?>> result : results) {
+                assertEquals("ok", result.get(30, TimeUnit.SECONDS).get("status"));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(connections.size() <= 8, "connections opened: " + connections.size());
+        assertEquals(calls, registry.get("rishi.compiler.remote.requests")
+                .tags("backend", "stub", "outcome", "success").timer().count());
+        assertEquals(0, client.inFlight("stub"));
+    }
+
+    @Test
+    void readTimeoutFollowsTheRunTimeout() {
+        RemoteExecutionClient client = new RemoteExecutionClient(registry, 2_000, 0, 8);
+        responseDelayMs = 5_000;
+
+        long started = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> client.post("stub", url, Map.of(), Map.class, 1));
+
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(4));
+        assertEquals(1, registry.get("rishi.compiler.remote.requests")
+                .tags("backend", "stub", "outcome", "io_error").timer().count());
+    }
+
+    @Test
+    void saturatedBackendFailsFastInsteadOfQueueing() throws Exception {
+        RemoteExecutionClient client = new RemoteExecutionClient(registry, 200, 5, 1);
+        responseDelayMs = 1_500;
+        CountDownLatch inFlight = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = caller.submit(() -> {
+                inFlight.countDown();
+                return client.post("stub", url, Map.of(), Map.class, 5);
+            });
+            assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+            while (client.inFlight("stub") == 0) {
+                Thread.sleep(5);
+            }
+
+            ResourceAccessException busy = assertThrows(ResourceAccessException.class,
+                    () -> client.post("stub", url, Map.of(), Map.class, 5));
+            assertTrue(busy.getMessage().contains("in flight"));
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+        assertEquals(1, registry.get("rishi.compiler.remote.requests")
+                .tags("backend", "stub", "outcome", "saturated").timer().count());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        exchange.getRequestBody().readAllBytes();
+        try {
+            if (responseDelayMs > 0) {
+                Thread.sleep(responseDelayMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // The client gave up on a delayed response.
+        }
+    }
+}
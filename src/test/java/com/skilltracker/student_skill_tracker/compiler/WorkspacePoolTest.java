@@ -0,0 +1,91 @@
+package com.skilltracker.student_skill_tracker.compiler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkspacePoolTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void releasedWorkspaceIsEmptiedAndReused() throws Exception {
+        WorkspacePool pool = new WorkspacePool(root, 4);
+        Path first = pool.acquire();
+        Files.writeString(first.resolve("Main.java"), "class Main {}");
+        Files.createDirectories(first.resolve("pkg/nested"));
+        Files.write(first.resolve("pkg/nested/A.class"), new byte[16]);
+
+        pool.release(first);
+        Path second = pool.acquire();
+
+        assertEquals(first, second);
+        assertEquals(1, pool.reusedCount());
+        try (var entries = Files.list(second)) {
+            assertEquals(0, entries.count(), "A reused workspace must start empty.");
+        }
+    }
+
+    @Test
+    void concurrentRunsGetDistinctWorkspacesAndIdleSetIsBounded() throws Exception {
+        WorkspacePool pool = new WorkspacePool(root, 1);
+        Path a = pool.acquire();
+        Path b = pool.acquire();
+        assertNotEquals(a, b);
+
+        pool.release(a);
+        pool.release(b);
+
+        assertEquals(1, pool.idleCount());
+        assertFalse(Files.exists(b), "Workspaces beyond the idle limit are deleted.");
+    }
+
+    @Test
+    void poolsSharingAParentKeepSeparateRoots() throws Exception {
+        WorkspacePool first = new WorkspacePool(root, 4);
+        Path live = first.acquire();
+        Files.writeString(live.resolve("Main.java"), "class Main {}");
+
+        WorkspacePool second = new WorkspacePool(root, 4);
+        Path other = second.acquire();
+
+        assertNotEquals(first.root(), second.root());
+        assertNotEquals(live, other);
+        assertTrue(Files.exists(live.resolve("Main.java")), "Another pool must not touch live workspaces.");
+
+        second.close();
+        assertFalse(Files.exists(second.root()));
+        assertTrue(Files.exists(live));
+    }
+
+    @Test
+    void retiredWorkspaceIsDeletedOnRelease() throws Exception {
+        WorkspacePool pool = new WorkspacePool(root, 4);
+        Path workspace = pool.acquire();
+
+        pool.retire(workspace);
+        pool.release(workspace);
+
+        assertFalse(Files.exists(workspace));
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    void foreignDirectoriesAreDeletedNotPooled(@TempDir Path elsewhere) throws Exception {
+        WorkspacePool pool = new WorkspacePool(root, 4);
+        Path foreign = Files.createDirectories(elsewhere.resolve("run"));
+
+        pool.release(foreign);
+
+        assertFalse(Files.exists(foreign));
+        assertEquals(0, pool.idleCount());
+    }
+}
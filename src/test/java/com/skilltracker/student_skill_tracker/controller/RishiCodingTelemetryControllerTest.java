@@ -2,9 +2,14 @@ package com.skilltracker.student_skill_tracker.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +19,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.skilltracker.student_skill_tracker.dto.RishiActivityBreakdownResponse;
 import com.skilltracker.student_skill_tracker.dto.RishiAttemptHistoryResponse;
@@ -55,16 +62,30 @@ class RishiCodingTelemetryControllerTest {
     }
 
     @Test
-    void exportAttemptHistoryShouldReturnCsvAttachment() {
+    void exportAttemptHistoryShouldStreamCsvAttachment() throws Exception {
         Authentication auth = new UsernamePasswordAuthenticationToken("rishi@example.com", "x");
         when(studentRepository.findByEmailIgnoreCase(eq("rishi@example.com"))).thenReturn(Optional.of(student));
-        when(telemetryService.exportAttemptHistoryCsv(eq(student), eq(14))).thenReturn("col1,col2\nx,y");
 
-        var response = controller.exportAttemptHistoryCsv(auth, 14);
+        var response = controller.exportAttemptHistoryCsv(auth, 120);
+        ((StreamingResponseBody) response.getBody()).writeTo(new ByteArrayOutputStream());
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals("text/csv", response.getHeaders().getContentType().toString());
-        assertNotNull(response.getHeaders().getFirst("Content-Disposition"));
+        assertTrue(response.getHeaders().getFirst("Content-Disposition").contains("_60d.csv"));
+        verify(telemetryService).exportAttemptHistoryCsv(eq(student), eq(60), eq(false), any());
+    }
+
+    @Test
+    void exportAttemptHistoryShouldLiftWindowCapForAdmins() throws Exception {
+        Authentication auth = new UsernamePasswordAuthenticationToken("rishi@example.com", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(studentRepository.findByEmailIgnoreCase(eq("rishi@example.com"))).thenReturn(Optional.of(student));
+
+        var response = controller.exportAttemptHistoryCsv(auth, 365);
+        ((StreamingResponseBody) response.getBody()).writeTo(new ByteArrayOutputStream());
+
+        assertTrue(response.getHeaders().getFirst("Content-Disposition").contains("_365d.csv"));
+        verify(telemetryService).exportAttemptHistoryCsv(eq(student), eq(365), eq(true), any());
     }
 
     @Test
@@ -0,0 +1,81 @@
+package com.skilltracker.student_skill_tracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeBatchRequest;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.security.StompJwtChannelInterceptor;
+import com.skilltracker.student_skill_tracker.service.RishiCodingTelemetryService;
+
+@ExtendWith(MockitoExtension.class)
+class RishiCodingTelemetryStompControllerTest {
+
+    @Mock
+    private RishiCodingTelemetryService telemetryService;
+
+    private RishiCodingTelemetryStompController controller;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        controller = new RishiCodingTelemetryStompController(telemetryService);
+        student = Student.builder().id(1L).email("rishi@example.com").build();
+    }
+
+    @Test
+    void recordChangesShouldUseStudentAuthenticatedOnConnect() {
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        when(telemetryService.recordChanges(same(student), eq(10L), same(request))).thenReturn(3);
+
+        Map<String, Object> reply = controller.recordChanges(10L, request,
+                accessor(Instant.now().plusSeconds(60)));
+
+        assertEquals(200, reply.get("status"));
+        assertEquals(3, reply.get("acceptedEvents"));
+    }
+
+    @Test
+    void recordChangesShouldRejectConnectionsWithExpiredTokens() {
+        Map<String, Object> reply = controller.recordChanges(10L, new RishiCodeChangeBatchRequest(),
+                accessor(Instant.now().minusSeconds(1)));
+
+        assertEquals(401, reply.get("status"));
+        verifyNoInteractions(telemetryService);
+    }
+
+    @Test
+    void recordChangesShouldReportBackpressure() {
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        when(telemetryService.recordChanges(same(student), eq(10L), same(request)))
+                .thenThrow(new IllegalStateException("Telemetry buffer is full. Retry shortly."));
+
+        Map<String, Object> reply = controller.recordChanges(10L, request, accessor(Instant.now().plusSeconds(60)));
+
+        assertEquals(429, reply.get("status"));
+        assertEquals(0, reply.get("acceptedEvents"));
+    }
+
+    private SimpMessageHeaderAccessor accessor(Instant tokenExpiresAt) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(StompJwtChannelInterceptor.STUDENT_ATTRIBUTE, student);
+        attributes.put(StompJwtChannelInterceptor.TOKEN_EXPIRES_AT_ATTRIBUTE, tokenExpiresAt);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionAttributes(attributes);
+        return accessor;
+    }
+}
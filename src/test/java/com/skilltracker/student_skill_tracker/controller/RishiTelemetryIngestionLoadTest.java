@@ -0,0 +1,216 @@
+package com.skilltracker.student_skill_tracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeBatchRequest;
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeEventDto;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.security.JwtUtils;
+
+/**
+ * Compares the server cost of editor telemetry sent as authenticated REST
+ * POSTs against the same batches sent over one STOMP connection. Opt-in:
+ *
+ * <pre>
+ * mvn test -Dtest=RishiTelemetryIngestionLoadTest -Drishi.loadtest=true
+ * </pre>
+ *
+ * The client runs in the same JVM, so the CPU figures include client work;
+ * both paths send identical JSON, so the difference is the server-side cost.
+ */
+@EnabledIfSystemProperty(named = "rishi.loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "rishi.telemetry.rollup.backfill-on-startup=false",
+        "rishi.telemetry.ingest.session-capacity=200000",
+        "rishi.telemetry.ingest.max-pending-events=400000" })
+class RishiTelemetryIngestionLoadTest {
+
+    private static final int WARMUP_BATCHES = 200;
+    private static final int MEASURED_BATCHES = 2_000;
+    private static final int EVENTS_PER_BATCH = 10;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String email = "load-" + System.nanoTime() + "@example.com";
+        studentRepository.save(Student.builder()
+                .name("Load User")
+                .email(email)
+                .password("encoded")
+                .leetcodeUsername("load-lc-" + System.nanoTime())
+                .build());
+        token = jwtUtils.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+
+    @Test
+    void stompIngestionShouldCostLessPerEventThanRest() throws Exception {
+        long restSession = startSession();
+        long stompSession = startSession();
+        RishiCodeChangeBatchRequest batch = batch();
+
+        sendRest(restSession, batch, WARMUP_BATCHES);
+        Measurement rest = measure(() -> sendRest(restSession, batch, MEASURED_BATCHES));
+
+        StompSession stomp = connectStomp();
+        try {
+            AtomicInteger accepted = new AtomicInteger();
+            sendStomp(stomp, stompSession, batch, WARMUP_BATCHES, accepted);
+            Measurement stompRun = measure(() -> sendStomp(stomp, stompSession, batch, MEASURED_BATCHES, accepted));
+            assertEquals((WARMUP_BATCHES + MEASURED_BATCHES) * EVENTS_PER_BATCH, accepted.get());
+
+            int events = MEASURED_BATCHES * EVENTS_PER_BATCH;
+            System.out.printf("REST : %.1f us wall, %.1f us cpu per event%n",
+                    rest.wallNanos() / 1_000.0 / events, rest.cpuNanos() / 1_000.0 / events);
+            System.out.printf("STOMP: %.1f us wall, %.1f us cpu per event%n",
+                    stompRun.wallNanos() / 1_000.0 / events, stompRun.cpuNanos() / 1_000.0 / events);
+            assertTrue(stompRun.cpuNanos() < rest.cpuNanos(), "STOMP should use less CPU than REST");
+        } finally {
+            stomp.disconnect();
+        }
+    }
+
+    private long startSession() {
+        ResponseEntity<Map> response = restTemplate.exchange("/api/rishi/coding/sessions/start", HttpMethod.POST,
+                new HttpEntity<>(Map.of("language", "java"), authHeaders()), Map.class);
+        assertEquals(200, response.getStatusCode().value());
+        return ((Number) response.getBody().get("sessionId")).longValue();
+    }
+
+    private void sendRest(long sessionId, RishiCodeChangeBatchRequest batch, int batches) {
+        HttpEntity<RishiCodeChangeBatchRequest> entity = new HttpEntity<>(batch, authHeaders());
+        for (int i = 0; i < batches; i++) {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    "/api/rishi/coding/sessions/" + sessionId + "/events", HttpMethod.POST, entity, Map.class);
+            assertEquals(200, response.getStatusCode().value());
+        }
+    }
+
+    private void sendStomp(StompSession stomp, long sessionId, RishiCodeChangeBatchRequest batch, int batches,
+            AtomicInteger accepted) throws InterruptedException {
+        CountDownLatch replies = new CountDownLatch(batches);
+        StompSession.Subscription subscription = stomp.subscribe("/user/queue/rishi/coding/events",
+                new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return Map.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        Object count = ((Map<?, ?>) payload).get("acceptedEvents");
+                        accepted.addAndGet(count instanceof Number n ? n.intValue() : 0);
+                        replies.countDown();
+                    }
+                });
+        try {
+            for (int i = 0; i < batches; i++) {
+                stomp.send("/app/rishi/coding/sessions/" + sessionId + "/events", batch);
+            }
+            assertTrue(replies.await(60, TimeUnit.SECONDS), "Timed out waiting for STOMP replies");
+        } finally {
+            subscription.unsubscribe();
+        }
+    }
+
+    private StompSession connectStomp() throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync("ws://localhost:" + port + "/ws/websocket", new WebSocketHttpHeaders(),
+                connectHeaders, new StompSessionHandlerAdapter() {
+                }).get(10, TimeUnit.SECONDS);
+    }
+
+    private HttpHeaders authHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static RishiCodeChangeBatchRequest batch() {
+        List<RishiCodeChangeEventDto> events = new ArrayList<>();
+        Instant start = Instant.now();
+        for (int i = 0; i < EVENTS_PER_BATCH; i++) {
+            RishiCodeChangeEventDto event = new RishiCodeChangeEventDto();
+            event.setTimestamp(start.plusMillis(i * 120L).toString());
+            event.setEditorVersion(i);
+            event.setRangeOffset(i * 3);
+            event.setInsertedChars(3);
+            event.setResultingCodeLength(400 + i * 3);
+            event.setActivityState("typing");
+            event.setEditorFocused(true);
+            event.setWindowFocused(true);
+            event.setDocumentVisible(true);
+            events.add(event);
+        }
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        request.setEvents(events);
+        return request;
+    }
+
+    private static Measurement measure(ThrowingRunnable work) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuBefore = os.getProcessCpuTime();
+        long wallBefore = System.nanoTime();
+        work.run();
+        return new Measurement(System.nanoTime() - wallBefore, os.getProcessCpuTime() - cpuBefore);
+    }
+
+    private record Measurement(long wallNanos, long cpuNanos) {
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,113 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CodeforcesStatusParserTest {
+
+    @Test
+    void readsOnlyTheAggregatedFieldsFromARecordedPage() throws IOException {
+        List<CodeforcesStatusParser.Submission> submissions;
+        try (InputStream body = getClass().getResourceAsStream("/connectors/codeforces-user-status.json")) {
+            submissions = CodeforcesStatusParser.parse(body);
+        }
+
+        assertEquals(List.of(
+                new CodeforcesStatusParser.Submission(290011234L, 1733900000L, "TESTING", "2050-D",
+                        List.of("brute force", "greedy", "math", "strings")),
+                new CodeforcesStatusParser.Submission(290009876L, 1733899000L, "OK", "2050-B",
+                        List.of("brute force", "greedy", "math")),
+                // Problems outside a contest are keyed by problemset and name
+                new CodeforcesStatusParser.Submission(288000111L, 1733000000L, "WRONG_ANSWER", "acmsguru-A+B",
+                        List.of())),
+                submissions);
+    }
+
+    @Test
+    void failedStatusCarriesTheCodeforcesComment() {
+        String body = "{\"status\":\"FAILED\",\"comment\":\"handle: User with handle nobody not found\"}";
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> CodeforcesStatusParser.parse(stream(body)));
+
+        assertEquals("Codeforces user.status error: handle: User with handle nobody not found", failure.getMessage());
+    }
+
+    @Test
+    void streamingAllocatesLessThanBindingThePageToMaps() throws IOException {
+        byte[] page = syntheticPage(1000);
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Warm both paths up so class loading is not measured
+        for (int i = 0; i < 5; i++) {
+            CodeforcesStatusParser.parse(new ByteArrayInputStream(page));
+            objectMapper.readValue(page, Map.class);
+        }
+
+        long streamingBytes = allocatedBy(() -> assertEquals(1000,
+                CodeforcesStatusParser.parse(new ByteArrayInputStream(page)).size()));
+        long mapBytes = allocatedBy(() -> assertEquals(1000,
+                ((List<?>) objectMapper.readValue(page, Map.class).get("result")).size()));
+
+        assertTrue(streamingBytes * 2 < mapBytes,
+                "streaming allocated " + streamingBytes + " bytes, map binding " + mapBytes);
+    }
+
+    private interface IoRunnable {
+        void run() throws IOException;
+    }
+
+    private static long allocatedBy(IoRunnable task) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        task.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /** A user.status page shaped like the recorded one, with {@code size} submissions. */
+    private static byte[] syntheticPage(int size) {
+        StringBuilder json = new StringBuilder("{\"status\":\"OK\",\"result\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int contest = 1500 + i % 500;
+            json.append("{\"id\":").append(290000000L - i)
+                    .append(",\"contestId\":").append(contest)
+                    .append(",\"creationTimeSeconds\":").append(1733900000L - i * 3600L)
+                    .append(",\"relativeTimeSeconds\":2147483647")
+                    .append(",\"problem\":{\"contestId\":").append(contest)
+                    .append(",\"index\":\"").append((char) ('A' + i % 6))
+                    .append("\",\"name\":\"Problem ").append(i)
+                    .append("\",\"type\":\"PROGRAMMING\",\"rating\":").append(800 + (i % 20) * 100)
+                    .append(",\"tags\":[\"greedy\",\"math\",\"implementation\"]}")
+                    .append(",\"author\":{\"contestId\":").append(contest)
+                    .append(",\"members\":[{\"handle\":\"student\"}],\"participantType\":\"PRACTICE\",")
+                    .append("\"ghost\":false,\"startTimeSeconds\":1733000000}")
+                    .append(",\"programmingLanguage\":\"C++17 (GCC 7-32)\"")
+                    .append(",\"verdict\":\"").append(i % 3 == 0 ? "WRONG_ANSWER" : "OK")
+                    .append("\",\"testset\":\"TESTS\",\"passedTestCount\":").append(i % 40)
+                    .append(",\"timeConsumedMillis\":").append(15 + i % 300)
+                    .append(",\"memoryConsumedBytes\":").append(1024L * (i % 4096))
+                    .append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
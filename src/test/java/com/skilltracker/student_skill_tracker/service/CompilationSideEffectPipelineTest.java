@@ -0,0 +1,131 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CompilationSideEffectPipelineTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private CognitiveMetricService cognitiveMetricService;
+    @Mock
+    private ForgettingVelocityService forgettingVelocityService;
+    @Mock
+    private RishiToolRegistry rishiToolRegistry;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private CompilationSideEffectPipeline pipeline;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        pipeline = new CompilationSideEffectPipeline(studentRepository, cognitiveMetricService,
+                forgettingVelocityService, rishiToolRegistry, transactionManager, executor, 5_000);
+        student = Student.builder().id(7L).email("rishi@example.com").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void eventsForOneStudentShouldBeAppliedInPublicationOrder() {
+        List<Boolean> applied = Collections.synchronizedList(new ArrayList<>());
+        when(studentRepository.findById(7L)).thenReturn(Optional.of(student));
+        when(cognitiveMetricService.recordCompilation(same(student), anyBoolean())).thenAnswer(invocation -> {
+            boolean success = invocation.getArgument(1);
+            if (!success) {
+                // The first event is slow; the second must still wait for it
+                Thread.sleep(100);
+            }
+            applied.add(success);
+            return success ? 0 : 1;
+        });
+
+        pipeline.onCompilationCompleted(event(false));
+        pipeline.onCompilationCompleted(event(true));
+
+        assertTrue(pipeline.awaitPending(7L));
+        assertEquals(List.of(false, true), applied);
+        assertFalse(pipeline.awaitPending(7L));
+    }
+
+    @Test
+    void fifthConsecutiveFailureShouldLockCompilerBeforeAwaitReturns() {
+        when(studentRepository.findById(7L)).thenReturn(Optional.of(student));
+        when(cognitiveMetricService.recordCompilation(student, false)).thenReturn(5);
+
+        pipeline.onCompilationCompleted(event(false));
+        pipeline.awaitPending(7L);
+
+        verify(rishiToolRegistry).bindStudent(student);
+        verify(rishiToolRegistry).lockCompiler(eq(3), anyString());
+        verify(rishiToolRegistry).clearStudent();
+        verify(studentRepository).save(student);
+        assertEquals(1, student.getLockEscalationLevel());
+        verify(forgettingVelocityService, never()).recordEventAndUpdateMastery(
+                same(student), anyString(), anyString(), eq(40L), eq(0), eq(true), eq(false), anyString());
+    }
+
+    @Test
+    void drainOnShutdownShouldApplyEveryQueuedEvent() {
+        List<Boolean> applied = Collections.synchronizedList(new ArrayList<>());
+        when(studentRepository.findById(7L)).thenReturn(Optional.of(student));
+        when(cognitiveMetricService.recordCompilation(same(student), anyBoolean())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            applied.add(invocation.getArgument(1));
+            return 0;
+        });
+
+        pipeline.onCompilationCompleted(event(true));
+        pipeline.onCompilationCompleted(event(true));
+        pipeline.onCompilationCompleted(event(true));
+        pipeline.drainOnShutdown();
+
+        assertEquals(3, applied.size());
+        assertFalse(pipeline.awaitPending(7L));
+    }
+
+    @Test
+    void awaitPendingShouldReturnFalseWhenNothingIsQueued() {
+        assertFalse(pipeline.awaitPending(7L));
+        assertFalse(pipeline.awaitPending(null));
+    }
+
+    private static CompilationCompletedEvent event(boolean success) {
+        return new CompilationCompletedEvent(7L, "two-sum", success, 40L, LocalDateTime.now());
+    }
+}
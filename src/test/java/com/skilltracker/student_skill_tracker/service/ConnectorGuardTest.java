@@ -0,0 +1,146 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConnectorGuardTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ConnectorGuard guard;
+
+    @AfterEach
+    void tearDown() {
+        if (guard != null) {
+            guard.shutdown();
+        }
+    }
+
+    @Test
+    void retriesTransientFailuresOnATimerAndThenSucceeds() {
+        guard = new ConnectorGuard(registry, 5, 30, 4, 3, 10, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = guard.call("github", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ConnectorGuard.ConnectorException("HTTP 503", true);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(ConnectorGuard.State.CLOSED, guard.state("github"));
+    }
+
+    @Test
+    void clientErrorsAreNotRetriedAndDoNotTripTheBreaker() {
+        guard = new ConnectorGuard(registry, 1, 30, 4, 3, 10, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ConnectorGuard.ConnectorException.class, () -> guard.call("toggl", () -> {
+            calls.incrementAndGet();
+            throw new ConnectorGuard.ConnectorException("Bad token", false);
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(ConnectorGuard.State.CLOSED, guard.state("toggl"));
+    }
+
+    @Test
+    void openCircuitFailsFastThenRecoversThroughASingleTrial() throws Exception {
+        guard = new ConnectorGuard(registry, 2, 1, 4, 1, 0, 5);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ConnectorGuard.ConnectorException.class, () -> guard.call("codeforces", () -> {
+                calls.incrementAndGet();
+                throw new ConnectorGuard.ConnectorException("HTTP 502", true);
+            }));
+        }
+        assertEquals(ConnectorGuard.State.OPEN, guard.state("codeforces"));
+
+        ConnectorGuard.ConnectorUnavailableException open = assertThrows(
+                ConnectorGuard.ConnectorUnavailableException.class,
+                () -> guard.call("codeforces", () -> calls.incrementAndGet()));
+        assertEquals(2, calls.get());
+        assertTrue(open.getRetryAfterSeconds() >= 1);
+        // Other providers are unaffected
+        assertEquals("ok", guard.call("github", () -> "ok"));
+
+        Thread.sleep(1_100);
+        assertEquals(3, guard.call("codeforces", () -> calls.incrementAndGet()));
+        assertEquals(ConnectorGuard.State.CLOSED, guard.state("codeforces"));
+        assertEquals(1, registry.get("rishi.integration.calls")
+                .tags("provider", "codeforces", "outcome", "rejected_open").counter().count());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheProviderLimit() throws Exception {
+        guard = new ConnectorGuard(registry, 5, 30, 1, 1, 0, 5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = caller.submit(() -> guard.call("google", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConnectorGuard.ConnectorUnavailableException.class, () -> guard.call("google", () -> "x"));
+            assertEquals("ok", guard.call("github", () -> "ok"));
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            caller.shutdownNow();
+        }
+        assertEquals("again", guard.call("google", () -> "again"));
+    }
+
+    @Test
+    void timedOutCallLeavesTheBreakerOutcomeToTheAttempt() throws Exception {
+        guard = new ConnectorGuard(registry, 2, 30, 4, 1, 0, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch settled = new CountDownLatch(1);
+
+        assertThrows(ConnectorGuard.ConnectorUnavailableException.class, () -> guard.call("leetcode", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            settled.countDown();
+            throw new ConnectorGuard.ConnectorException("HTTP 504", true);
+        }));
+        assertEquals(0, guard.snapshot().get("leetcode").get("consecutiveFailures"));
+        assertEquals(1, registry.get("rishi.integration.calls")
+                .tags("provider", "leetcode", "outcome", "timeout").counter().count());
+
+        release.countDown();
+        assertTrue(settled.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.snapshot().get("leetcode").get("inFlight").equals(1) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, guard.snapshot().get("leetcode").get("consecutiveFailures"));
+        assertEquals(ConnectorGuard.State.CLOSED, guard.state("leetcode"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Drives {@link ConnectorScope} fan-out against a local stub provider. */
+class ConnectorScopeTest {
+
+    private static final long RESPONSE_DELAY_MS = 300;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private ConnectorGuard guard;
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/";
+        guard = new ConnectorGuard(registry, 5, 30, 8, 1, 0, 30);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        guard.shutdown();
+    }
+
+    @Test
+    void independentCallsTakeAsLongAsTheSlowestOne() {
+        // Warm up the connection so neither measurement pays for it
+        fetch("warmup");
+
+        long sequentialStart = System.nanoTime();
+        fetch("user.info");
+        fetch("user.rating");
+        fetch("user.status");
+        long sequentialMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sequentialStart);
+
+        long parallelStart = System.nanoTime();
+        try (ConnectorScope scope = new ConnectorScope("codeforces", Duration.ofSeconds(10))) {
+            Supplier<String> info = scope.fork(() -> fetch("user.info"));
+            Supplier<String> rating = scope.fork(() -> fetch("user.rating"));
+            Supplier<String> status = scope.fork(() -> fetch("user.status"));
+            scope.join();
+            assertEquals("user.info", info.get());
+            assertEquals("user.rating", rating.get());
+            assertEquals("user.status", status.get());
+        }
+        long parallelMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - parallelStart);
+
+        assertTrue(sequentialMs >= 3 * RESPONSE_DELAY_MS, "sequential took " + sequentialMs + " ms");
+        assertTrue(parallelMs < 2 * RESPONSE_DELAY_MS, "fan-out took " + parallelMs + " ms");
+    }
+
+    @Test
+    void firstFailureCancelsTheOtherForks() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long started = System.nanoTime();
+        try (ConnectorScope scope = new ConnectorScope("leetcode", Duration.ofSeconds(10))) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "slow";
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("LeetCode user not found");
+            });
+
+            IllegalStateException failure = assertThrows(IllegalStateException.class, scope::join);
+            assertEquals("LeetCode user not found", failure.getMessage());
+        }
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void scopeDeadlineBoundsGuardedCallsWithoutTrippingTheBreaker() {
+        long started = System.nanoTime();
+        try (ConnectorScope scope = new ConnectorScope("codeforces", Duration.ofMillis(200))) {
+            scope.fork(() -> guard.call("codeforces", () -> {
+                try {
+                    Thread.sleep(3_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            }));
+            assertThrows(ConnectorGuard.ConnectorUnavailableException.class, scope::join);
+        }
+
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(ConnectorGuard.State.CLOSED, guard.state("codeforces"));
+        assertEquals(0, guard.snapshot().get("codeforces").get("consecutiveFailures"));
+    }
+
+    private String fetch(String method) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = guard.call("codeforces", () -> restTemplate.getForObject(url + method, Map.class));
+        return String.valueOf(body.get("result"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(RESPONSE_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String method = exchange.getRequestURI().getPath().substring("/api/".length());
+        byte[] body = ("{\"status\":\"OK\",\"result\":\"" + method + "\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -1,18 +1,66 @@
 package com.skilltracker.student_skill_tracker.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skilltracker.student_skill_tracker.compiler.BatchExecutionResult;
+import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionScheduler;
+import com.skilltracker.student_skill_tracker.model.DojoPuzzle;
+import com.skilltracker.student_skill_tracker.model.DuelSession;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.DojoPuzzleRepository;
+import com.skilltracker.student_skill_tracker.repository.DuelSessionRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
 
 class DuelServiceTest {
 
+    private static final String CODING_ROUNDS = """
+            [{"round":1,"type":"CODING","hiddenTestCases":[{"input":"1","expectedOutput":"1"},
+              {"input":"2","expectedOutput":"2"}]},
+             {"round":2,"type":"PUZZLE","answer":"x"}]
+            """;
+
+    private final DuelSessionRepository duelRepository = mock(DuelSessionRepository.class);
+    private final CompilerFactory compilerFactory = mock(CompilerFactory.class);
+    private final ExecutionScheduler executionScheduler = mock(ExecutionScheduler.class);
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final DuelService duelService = new DuelService(mock(DojoPuzzleRepository.class), duelRepository,
+            studentRepository, mock(SimpMessagingTemplate.class), new ObjectMapper(),
+            mock(JdbcTemplate.class), mock(ForgettingVelocityService.class), compilerFactory, executionScheduler);
+    private final DuelSession session = DuelSession.builder()
+            .id("duel-1")
+            .player1Username("alice@example.com")
+            .player2Username("bob@example.com")
+            .puzzle(DojoPuzzle.builder().roundsJson(CODING_ROUNDS).build())
+            .status("LIVE")
+            .startTime(LocalDateTime.now())
+            .build();
+
     @Test
     void bloomLevelForRound_returnsCorrectValues() throws Exception {
         java.lang.reflect.Method method = DuelService.class.getDeclaredMethod("bloomLevelForRound", int.class,
                 String.class);
         method.setAccessible(true);
-        // Corrected constructor call with 7 null arguments
-        DuelService service = new DuelService(null, null, null, null, null, null, null);
+        // Corrected constructor call with 9 null arguments
+        DuelService service = new DuelService(null, null, null, null, null, null, null, null, null);
 
         assertEquals(6, method.invoke(service, 5, "CODING"));
         assertEquals(1, method.invoke(service, 1, "MCQ"));
@@ -21,4 +69,88 @@ class DuelServiceTest {
         assertEquals(4, method.invoke(service, 4, "PROBLEM_SOLVING"));
         assertEquals(5, method.invoke(service, 5, "UNKNOWN"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void clientReportedCodingCountIsNotScored() {
+        when(duelRepository.findById("duel-1")).thenReturn(Optional.of(session));
+
+        duelService.submitRoundAnswer("duel-1", "alice@example.com", "1000000");
+
+        verify(duelRepository, never()).save(any());
+        assertEquals(0, session.getPlayer1Score());
+    }
+
+    @Test
+    void codingResultIsScoredOnceAndOnlyForItsRound() {
+        when(duelRepository.findById("duel-1")).thenReturn(Optional.of(session));
+        when(compilerFactory.isLanguageSupported("java")).thenReturn(true);
+        when(compilerFactory.getBackendName()).thenReturn("local");
+        CompletableFuture<ExecutionScheduler.Completed<BatchExecutionResult>> run = new CompletableFuture<>();
+        when(executionScheduler.<BatchExecutionResult>submit(anyString(), any()))
+                .thenReturn(new ExecutionScheduler.Ticket<>(0, run));
+
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+        verify(executionScheduler, times(1)).submit(anyString(), any());
+
+        // The players moved on before the hidden tests finished
+        session.setCurrentRound(2);
+        run.complete(new ExecutionScheduler.Completed<>(BatchExecutionResult.builder().passed(2).total(2).build(),
+                Duration.ZERO, Duration.ZERO));
+
+        verify(duelRepository, never()).save(any());
+        assertEquals(0, session.getPlayer1Score());
+    }
+
+    @Test
+    void codingResultFromTheServerRunIsScored() {
+        when(duelRepository.findById("duel-1")).thenReturn(Optional.of(session));
+        when(compilerFactory.isLanguageSupported("java")).thenReturn(true);
+        when(compilerFactory.getBackendName()).thenReturn("local");
+        CompletableFuture<ExecutionScheduler.Completed<BatchExecutionResult>> run = new CompletableFuture<>();
+        when(executionScheduler.<BatchExecutionResult>submit(anyString(), any()))
+                .thenReturn(new ExecutionScheduler.Ticket<>(0, run));
+
+        when(studentRepository.findByEmailIgnoreCase("bob@example.com"))
+                .thenReturn(Optional.of(Student.builder().id(7L).build()));
+
+        duelService.submitCodingSolution("duel-1", "bob@example.com", "java", "class Main {}");
+        verify(executionScheduler).submit(eq("student:7"), any());
+        run.complete(new ExecutionScheduler.Completed<>(BatchExecutionResult.builder().passed(1).total(2).build(),
+                Duration.ZERO, Duration.ZERO));
+
+        verify(duelRepository).save(session);
+        assertEquals(1, session.getPlayer2Score());
+    }
+
+    @Test
+    void remoteBackendRunsAreNotQueuedOnTheLocalScheduler() throws Exception {
+        when(duelRepository.findById("duel-1")).thenReturn(Optional.of(session));
+        when(compilerFactory.isLanguageSupported("java")).thenReturn(true);
+        when(compilerFactory.getBackendName()).thenReturn("piston");
+        when(compilerFactory.getCompiler("java")).thenThrow(new IllegalStateException("backend down"));
+
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+
+        verify(executionScheduler, never()).submit(anyString(), any());
+    }
+
+    @Test
+    void codingClaimsOfAbandonedDuelsArePruned() {
+        when(duelRepository.findById("duel-1")).thenReturn(Optional.of(session));
+        when(compilerFactory.isLanguageSupported("java")).thenReturn(true);
+        when(compilerFactory.getBackendName()).thenReturn("local");
+        when(executionScheduler.<BatchExecutionResult>submit(anyString(), any()))
+                .thenReturn(new ExecutionScheduler.Ticket<>(0, new CompletableFuture<>()));
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+
+        duelService.pruneCodingSubmissions();
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+        verify(executionScheduler, times(1)).submit(anyString(), any());
+
+        session.setStartTime(LocalDateTime.now().minusHours(3));
+        duelService.pruneCodingSubmissions();
+        duelService.submitCodingSolution("duel-1", "alice@example.com", "java", "class Main {}");
+        verify(executionScheduler, times(2)).submit(anyString(), any());
+    }
+}
@@ -0,0 +1,187 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.skilltracker.student_skill_tracker.compiler.CompilationResult;
+import com.skilltracker.student_skill_tracker.compiler.CompilerFactory;
+import com.skilltracker.student_skill_tracker.compiler.ExecutionScheduler;
+import com.skilltracker.student_skill_tracker.compiler.ProgrammingLanguageCompiler;
+import com.skilltracker.student_skill_tracker.dto.CodeExecutionRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionRouterTest {
+
+    @Mock
+    private JDoodleCompilerService jdoodle;
+    @Mock
+    private Judge0CompilerService judge0;
+    @Mock
+    private CompilerFactory compilerFactory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutionScheduler scheduler = new ExecutionScheduler(registry, 1, 256, 10, 2, 30);
+    private ExecutionRouter router;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdoodle.isConfigured()).thenReturn(true);
+        lenient().when(judge0.isConfigured()).thenReturn(true);
+        lenient().when(compilerFactory.getBackendName()).thenReturn("local");
+        lenient().when(compilerFactory.isLanguageSupported(anyString())).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.shutdown();
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    void quotaFailureFailsOverAndBenchesTheBackend() {
+        router = router(false);
+        CompilationResult quota = failed("JDoodle quota exhausted (HTTP 429). Try again later.");
+        when(jdoodle.executeRemotely(any())).thenReturn(quota);
+        when(jdoodle.isQuotaFailure(quota)).thenReturn(true);
+        when(judge0.executeRemotely(any())).thenAnswer(invocation -> ok("42"));
+
+        CompilationResult first = router.execute("student:1", request());
+        CompilationResult second = router.execute("student:1", request());
+
+        assertTrue(first.isSuccess());
+        assertEquals("judge0", first.getBackend());
+        assertEquals("judge0", second.getBackend());
+        verify(jdoodle, times(1)).executeRemotely(any());
+        assertEquals(1, registry.get("rishi.compiler.router.failovers").tag("backend", "jdoodle").counter().count());
+        assertEquals(1, registry.get("rishi.compiler.router.routed")
+                .tags("backend", "judge0", "reason", "failover").counter().count());
+    }
+
+    @Test
+    void backendErrorsDemoteABackendWithoutRerunningTheCode() {
+        router = router(false);
+        when(jdoodle.executeRemotely(any())).thenAnswer(invocation -> failed("Remote execution failed: JDoodle HTTP 500"));
+        when(judge0.executeRemotely(any())).thenAnswer(invocation -> ok("42"));
+
+        CompilationResult first = router.execute("student:1", request());
+        CompilationResult second = router.execute("student:1", request());
+
+        // The first answer is returned as is; only the next run avoids the failing backend
+        assertFalse(first.isSuccess());
+        assertEquals("jdoodle", first.getBackend());
+        assertEquals("judge0", second.getBackend());
+        assertEquals(1.0, registry.get("rishi.compiler.router.error.rate").tag("backend", "jdoodle").gauge().value());
+    }
+
+    @Test
+    void unconfiguredBackendsAreSkipped() {
+        when(jdoodle.isConfigured()).thenReturn(false);
+        router = router(false);
+        when(judge0.executeRemotely(any())).thenAnswer(invocation -> ok("42"));
+
+        assertEquals("judge0", router.execute("student:1", request()).getBackend());
+        verify(jdoodle, never()).executeRemotely(any());
+    }
+
+    @Test
+    void slowRunIsHedgedToTheRunnerUpAfterItsP95() {
+        router = router(true);
+        AtomicLong jdoodleDelayMs = new AtomicLong();
+        when(jdoodle.executeRemotely(any())).thenAnswer(invocation -> {
+            Thread.sleep(jdoodleDelayMs.get());
+            return ok("slow");
+        });
+        when(judge0.executeRemotely(any())).thenAnswer(invocation -> ok("fast"));
+        for (int i = 0; i < 20; i++) {
+            assertEquals("jdoodle", router.execute("student:1", request()).getBackend());
+        }
+
+        jdoodleDelayMs.set(2_000);
+        long started = System.nanoTime();
+        CompilationResult hedged = router.execute("student:1", request());
+
+        assertEquals("judge0", hedged.getBackend());
+        assertEquals("fast", hedged.getOutput());
+        assertTrue(System.nanoTime() - started < 1_500_000_000L);
+        assertEquals(1, registry.get("rishi.compiler.router.hedges").tag("winner", "hedge").counter().count());
+    }
+
+    @Test
+    void onlyLocalRunsWaitForTheScheduler() throws Exception {
+        when(compilerFactory.isLanguageSupported(anyString())).thenReturn(true);
+        router = new ExecutionRouter(jdoodle, judge0, compilerFactory, scheduler, registry, "local,jdoodle", 300,
+                false, 50);
+        ProgrammingLanguageCompiler compiler = mock(ProgrammingLanguageCompiler.class);
+        when(compilerFactory.getCompiler("python")).thenReturn(compiler);
+        when(compiler.executeCode(anyString(), any(), anyInt())).thenAnswer(invocation -> ok("local"));
+        when(jdoodle.executeRemotely(any())).thenAnswer(invocation -> ok("remote"));
+
+        CompilationResult local = router.execute("student:1", request());
+        assertEquals("local", local.getBackend());
+        assertEquals(1, local.getQueuePosition());
+
+        // With the only local runner busy, a remote run still goes straight through
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("blocker", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        when(compilerFactory.isLanguageSupported(anyString())).thenReturn(false);
+        CompilationResult remote = router.execute("student:1", request());
+        release.countDown();
+
+        assertEquals("jdoodle", remote.getBackend());
+        assertNull(remote.getQueuePosition());
+    }
+
+    private ExecutionRouter router(boolean hedge) {
+        return new ExecutionRouter(jdoodle, judge0, compilerFactory, scheduler, registry, "jdoodle,piston,local,judge0", 300,
+                hedge, 50);
+    }
+
+    private static CodeExecutionRequest request() {
+        CodeExecutionRequest request = new CodeExecutionRequest();
+        request.setLanguage("python");
+        request.setSourceCode("print(42)");
+        request.setTimeoutSeconds(5);
+        return request;
+    }
+
+    private static CompilationResult ok(String output) {
+        return CompilationResult.builder().success(true).output(output).timestamp(LocalDateTime.now()).build();
+    }
+
+    private static CompilationResult failed(String error) {
+        return CompilationResult.builder().success(false).error(error).timestamp(LocalDateTime.now()).build();
+    }
+}
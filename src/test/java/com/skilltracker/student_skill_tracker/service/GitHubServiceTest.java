@@ -0,0 +1,100 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GitHubServiceTest {
+
+    private static final String LANGUAGES_URL = "https://api.github.com/repos/octocat/hello/languages";
+    private static final String LANGUAGES_JSON = "{\"Java\":1200,\"Shell\":40}";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private MockRestServiceServer github;
+    private GitHubResponseCache cache;
+    private GitHubService gitHubService;
+
+    @BeforeEach
+    void setUp() {
+        github = MockRestServiceServer.bindTo(restTemplate).build();
+        cache = new GitHubResponseCache(registry, 100);
+        gitHubService = new GitHubService(restTemplate, cache);
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithItsEtagAndServedOnNotModified() {
+        github.expect(requestTo(LANGUAGES_URL))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(LANGUAGES_JSON, MediaType.APPLICATION_JSON)
+                        .headers(validators("\"v1\"", "private, max-age=0")));
+        github.expect(requestTo(LANGUAGES_URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(validators("\"v1\"", "private, max-age=0")));
+
+        Map<String, Long> first = gitHubService.fetchRepoLanguages("octocat", "hello", "token-a");
+        Map<String, Long> second = gitHubService.fetchRepoLanguages("octocat", "hello", "token-a");
+
+        github.verify();
+        assertEquals(first, second);
+        assertEquals(1200, ((Number) second.get("Java")).intValue());
+        assertEquals(1, registry.get("rishi.github.cache.requests").tag("outcome", "not_modified").counter().count());
+    }
+
+    @Test
+    void freshEntryIsServedWithoutCallingGithub() {
+        github.expect(ExpectedCount.once(), requestTo(LANGUAGES_URL))
+                .andRespond(withSuccess(LANGUAGES_JSON, MediaType.APPLICATION_JSON)
+                        .headers(validators("\"v1\"", "private, max-age=60")));
+
+        gitHubService.fetchRepoLanguages("octocat", "hello", "token-a");
+        Map<String, Long> cached = gitHubService.fetchRepoLanguages("octocat", "hello", "token-a");
+
+        github.verify();
+        assertEquals(2, cached.size());
+        assertEquals(1, registry.get("rishi.github.cache.requests").tag("outcome", "fresh").counter().count());
+    }
+
+    @Test
+    void entriesAreKeptPerTokenAndBoundedInNumber() {
+        cache = new GitHubResponseCache(registry, 1);
+        gitHubService = new GitHubService(restTemplate, cache);
+        github.expect(requestTo(LANGUAGES_URL))
+                .andRespond(withSuccess(LANGUAGES_JSON, MediaType.APPLICATION_JSON)
+                        .headers(validators("\"v1\"", "private, max-age=60")));
+        // Another student's token never sees the first one's cached response
+        github.expect(requestTo(LANGUAGES_URL))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(LANGUAGES_JSON, MediaType.APPLICATION_JSON)
+                        .headers(validators("\"v1\"", "private, max-age=60")));
+
+        gitHubService.fetchRepoLanguages("octocat", "hello", "token-a");
+        gitHubService.fetchRepoLanguages("octocat", "hello", "token-b");
+
+        github.verify();
+        assertEquals(1, cache.size());
+    }
+
+    private static HttpHeaders validators(String etag, String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
+}
@@ -0,0 +1,125 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LeetCodeStatsCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Runnable> queuedRefreshes = new ArrayList<>();
+
+    @Test
+    void concurrentColdLookupsShareOneLoad() throws Exception {
+        LeetCodeStatsCoalescer coalescer = new LeetCodeStatsCoalescer(registry, queuedRefreshes::add, 600, 100);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Object> stats = Map.of("totalSolved", 42);
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> coalescer.get("fullStats", "alice", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return stats;
+                })));
+            }
+            // Hold the load open until every other caller has joined it
+            while (requests("coalesced") < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Map<String, Object>> result : results) {
+                assertSame(stats, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("loaded"));
+    }
+
+    @Test
+    void staleValueIsServedWhileOneRefreshRunsInTheBackground() {
+        LeetCodeStatsCoalescer coalescer = new LeetCodeStatsCoalescer(registry, queuedRefreshes::add, 0, 100);
+        coalescer.get("stats", "alice", () -> Map.of("totalSolved", 1));
+
+        Map<String, Object> whileRefreshing = coalescer.get("stats", "alice", () -> Map.of("totalSolved", 2));
+        coalescer.get("stats", "alice", () -> Map.of("totalSolved", 3));
+
+        assertEquals(Map.of("totalSolved", 1), whileRefreshing);
+        assertEquals(1, queuedRefreshes.size());
+        queuedRefreshes.remove(0).run();
+        assertEquals(Map.of("totalSolved", 2), coalescer.get("stats", "alice", Map::of));
+        assertEquals(3, requests("stale"));
+    }
+
+    @Test
+    void failedRefreshKeepsTheStoredValue() {
+        LeetCodeStatsCoalescer coalescer = new LeetCodeStatsCoalescer(registry, queuedRefreshes::add, 0, 100);
+        coalescer.get("languageStats", "alice", () -> Map.of("Java", 10));
+
+        coalescer.get("languageStats", "alice", () -> {
+            throw new IllegalStateException("LeetCode is down");
+        });
+        queuedRefreshes.remove(0).run();
+
+        assertEquals(Map.of("Java", 10), coalescer.get("languageStats", "alice", Map::of));
+    }
+
+    @Test
+    void freshLookupWaitsForTheRefreshInsteadOfTakingTheStaleValue() throws Exception {
+        LeetCodeStatsCoalescer coalescer = new LeetCodeStatsCoalescer(registry, queuedRefreshes::add, 0, 100);
+        AtomicInteger loads = new AtomicInteger();
+        coalescer.get("fullStats", "alice", () -> Map.of("totalSolved", 1));
+        // A dashboard read starts a background refresh and gets the stale value
+        coalescer.get("fullStats", "alice", () -> Map.of("totalSolved", loads.incrementAndGet() + 1));
+
+        ExecutorService syncer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Object>> fresh = syncer.submit(
+                    () -> coalescer.getFresh("fullStats", "alice", () -> Map.of("totalSolved", 99)));
+            while (requests("coalesced") < 1) {
+                Thread.sleep(5);
+            }
+            queuedRefreshes.remove(0).run();
+
+            assertEquals(Map.of("totalSolved", 2), fresh.get(5, TimeUnit.SECONDS));
+        } finally {
+            syncer.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        // With nothing in flight it loads itself, and a failure is not papered over with the old value
+        assertEquals(Map.of(), coalescer.getFresh("fullStats", "alice", Map::of));
+    }
+
+    private double requests(String outcome) {
+        return registry.find("rishi.leetcode.stats.requests").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MistakePatternServiceTest {
+
+    @Mock
+    private RishiCompileAttemptLogRepository attemptLogRepository;
+
+    @InjectMocks
+    private MistakePatternService service;
+
+    private final Student student = Student.builder().id(1L).email("rishi@example.com").build();
+
+    @Test
+    void getTopWeaknessesShouldKeepTopThreeNonBlankCategoriesInCountOrder() {
+        when(attemptLogRepository.countFailedAttemptsByCategory(eq(student), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        count("RUNTIME_ERROR", 9),
+                        count(" ", 7),
+                        count("WRONG_ANSWER", 5),
+                        count("COMPILATION_ERROR", 3),
+                        count("TIME_LIMIT_EXCEEDED", 1)));
+
+        Map<String, Long> top = service.getTopWeaknesses(student, 7);
+
+        assertEquals(List.of("RUNTIME_ERROR", "WRONG_ANSWER", "COMPILATION_ERROR"), List.copyOf(top.keySet()));
+        assertEquals(9L, top.get("RUNTIME_ERROR"));
+        assertEquals("Weaknesses(7d): RUNTIME_ERROR=9, WRONG_ANSWER=5, COMPILATION_ERROR=3",
+                service.getWeaknessSummary(student, 7));
+    }
+
+    @Test
+    void getTopWeaknessShouldBeNullWithoutFailures() {
+        when(attemptLogRepository.countFailedAttemptsByCategory(eq(student), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        assertNull(service.getTopWeakness(student, 7));
+        assertTrue(service.getWeaknessSummary(student, 7).isEmpty());
+    }
+
+    private static RishiCompileAttemptLogRepository.CategoryCount count(String category, long attempts) {
+        return new RishiCompileAttemptLogRepository.CategoryCount() {
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public long getAttempts() {
+                return attempts;
+            }
+        };
+    }
+}
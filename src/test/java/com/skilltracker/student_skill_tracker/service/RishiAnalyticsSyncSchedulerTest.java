@@ -0,0 +1,176 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiConnectorSyncStateRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentTimestamp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RishiAnalyticsSyncSchedulerTest {
+
+    @Mock
+    private RishiIntegrationService integrationService;
+    @Mock
+    private ConnectorGuard connectorGuard;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private RishiCompileAttemptLogRepository compileAttemptLogRepository;
+    @Mock
+    private RishiConnectorSyncStateRepository syncStateRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.now();
+    private RishiAnalyticsSyncScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(connectorGuard.state(any())).thenReturn(ConnectorGuard.State.CLOSED);
+        scheduler = new RishiAnalyticsSyncScheduler(integrationService, connectorGuard, studentRepository,
+                compileAttemptLogRepository, syncStateRepository, Runnable::run, registry,
+                true, 60_000, 20, 60, 720, 14, 500, "github=0,toggl=0,leetcode=60000,codeforces=0");
+    }
+
+    @Test
+    void plansOverdueSnapshotsByStalenessAndActivity() {
+        Student activeNeverSynced = student(1L, now.minusHours(1));
+        Student idleStale = student(2L, now.minusDays(3));
+        Student activeFresh = student(3L, now.minusHours(2));
+        Student dormant = student(4L, now.minusDays(30));
+        for (Student s : List.of(idleStale, activeFresh, dormant, activeNeverSynced)) {
+            lenient().when(integrationService.isGithubConnected(s)).thenReturn(true);
+        }
+        lenient().when(syncStateRepository.findLastSyncedPerStudent(RishiIntegrationService.CONNECTOR_GITHUB))
+                .thenReturn(List.of(timestamp(2L, now.minusHours(24)), timestamp(3L, now.minusMinutes(10))));
+        // A compile attempt counts as activity even when the student row is old
+        Student compiledToday = student(5L, now.minusDays(5));
+        lenient().when(integrationService.isCodeforcesConnected(compiledToday)).thenReturn(true);
+        when(studentRepository.findActiveSince(any())).thenReturn(
+                List.of(idleStale, activeFresh, dormant, activeNeverSynced, compiledToday));
+        when(compileAttemptLogRepository.findLatestAttemptPerStudentSince(any()))
+                .thenReturn(List.of(timestamp(5L, now.minusMinutes(5))));
+        lenient().when(syncStateRepository.findLastSyncedPerStudent(RishiIntegrationService.CONNECTOR_CODEFORCES))
+                .thenReturn(List.of(timestamp(5L, now.minusHours(3))));
+
+        List<RishiAnalyticsSyncScheduler.SyncTask> due = scheduler.planDueSyncs(now);
+
+        assertEquals(List.of("1:github", "5:codeforces", "2:github"),
+                due.stream().map(t -> t.student().getId() + ":" + t.connector()).toList());
+    }
+
+    @Test
+    void dispatchSkipsOpenCircuitsAndLowGithubBudgetsAndSpacesProviderCalls() {
+        Student first = student(1L, now);
+        Student second = student(2L, now);
+        when(connectorGuard.state(RishiIntegrationService.CONNECTOR_CODEFORCES)).thenReturn(ConnectorGuard.State.OPEN);
+        when(integrationService.getGithubRateLimit(first)).thenReturn(Optional.of(
+                new RishiIntegrationService.GithubRateLimit(12, Instant.now().plusSeconds(600))));
+        when(integrationService.getGithubRateLimit(second)).thenReturn(Optional.of(
+                new RishiIntegrationService.GithubRateLimit(4_000, Instant.now().plusSeconds(600))));
+
+        scheduler.dispatch(List.of(
+                task(first, RishiIntegrationService.CONNECTOR_GITHUB),
+                task(second, RishiIntegrationService.CONNECTOR_GITHUB),
+                task(first, RishiIntegrationService.CONNECTOR_CODEFORCES),
+                task(first, RishiIntegrationService.CONNECTOR_LEETCODE),
+                task(second, RishiIntegrationService.CONNECTOR_LEETCODE),
+                task(first, RishiIntegrationService.CONNECTOR_TOGGL)));
+
+        verify(integrationService, never()).syncGithubAnalytics(eq(first), any());
+        verify(integrationService).syncGithubAnalytics(eq(second), isNull());
+        verify(integrationService, never()).syncCodeforcesAnalytics(any(), any());
+        // LeetCode allows one background call per minute here, so the second waits for a later tick
+        verify(integrationService, times(1)).syncLeetCodeAnalytics(any(), any());
+        verify(integrationService).syncLeetCodeAnalytics(eq(first), isNull());
+        verify(integrationService).syncTogglFocus(eq(first), isNull());
+        assertEquals(0.0, registry.get("rishi.analytics.sync.in-flight").gauge().value());
+    }
+
+    @Test
+    void failingPairIsBackedOffInsteadOfRetriedEveryTick() {
+        Student student = student(1L, now);
+        when(studentRepository.findActiveSince(any())).thenReturn(List.of(student));
+        when(integrationService.isTogglConnected(student)).thenReturn(true);
+        when(integrationService.syncTogglFocus(any(), any()))
+                .thenThrow(new IllegalStateException("Toggl token is invalid."));
+
+        List<RishiAnalyticsSyncScheduler.SyncTask> due = scheduler.planDueSyncs(now);
+        assertEquals(1, due.size());
+        scheduler.dispatch(due);
+
+        assertTrue(scheduler.planDueSyncs(LocalDateTime.now()).isEmpty());
+        assertEquals(1, registry.get("rishi.analytics.sync.runs")
+                .tags("connector", "toggl", "outcome", "failure").counter().count());
+    }
+
+    @Test
+    void transientFailureStaysDueWhileAPermanentOneBacksOff() {
+        Student student = student(1L, now);
+        when(studentRepository.findActiveSince(any())).thenReturn(List.of(student));
+        when(integrationService.isTogglConnected(student)).thenReturn(true);
+        when(integrationService.isGithubConnected(student)).thenReturn(true);
+        when(integrationService.syncTogglFocus(any(), any()))
+                .thenThrow(new ConnectorGuard.ConnectorException("Toggl returned HTTP 503", true));
+        when(integrationService.syncGithubAnalytics(any(), any()))
+                .thenThrow(new ConnectorGuard.ConnectorException("GitHub returned HTTP 401", false));
+
+        scheduler.dispatch(scheduler.planDueSyncs(now));
+
+        assertEquals(List.of("toggl"), scheduler.planDueSyncs(LocalDateTime.now()).stream()
+                .map(RishiAnalyticsSyncScheduler.SyncTask::connector).toList());
+        assertEquals(1, registry.get("rishi.analytics.sync.runs")
+                .tags("connector", "toggl", "outcome", "transient").counter().count());
+        assertEquals(1, registry.get("rishi.analytics.sync.runs")
+                .tags("connector", "github", "outcome", "failure").counter().count());
+    }
+
+    private static Student student(Long id, LocalDateTime updatedAt) {
+        Student student = new Student();
+        student.setId(id);
+        student.setUpdatedAt(updatedAt);
+        return student;
+    }
+
+    private static RishiAnalyticsSyncScheduler.SyncTask task(Student student, String connector) {
+        return new RishiAnalyticsSyncScheduler.SyncTask(student, connector, 1.0, null);
+    }
+
+    private static StudentTimestamp timestamp(Long studentId, LocalDateTime lastAt) {
+        return new StudentTimestamp() {
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+
+            @Override
+            public LocalDateTime getLastAt() {
+                return lastAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skilltracker.student_skill_tracker.model.RishiCodeChangeEvent;
+import com.skilltracker.student_skill_tracker.model.RishiCodingSession;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeChangeEventRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCodingSessionRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "rishi.telemetry.rollup.backfill-on-startup=false",
+        "rishi.telemetry.archive.enabled=false" })
+@Transactional
+class RishiCodeChangeArchiveServiceTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private RishiCodingSessionRepository sessionRepository;
+    @Autowired
+    private RishiCodeChangeEventRepository changeEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path archiveDir;
+
+    private RishiCodeChangeArchiveService archiveService;
+    private RishiCodingSession session;
+    private LocalDateTime startedAt;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new RishiCodeChangeArchiveService(jdbcTemplate, transactionManager, objectMapper,
+                archiveDir.toString(), 30, 100, true);
+        Student student = studentRepository.save(Student.builder()
+                .name("Archive User")
+                .email("archive@example.com")
+                .password("encoded")
+                .leetcodeUsername("archive-lc")
+                .build());
+        startedAt = LocalDateTime.now().minusDays(40).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        session = sessionRepository.save(RishiCodingSession.builder()
+                .student(student)
+                .language("java")
+                .startedAt(startedAt)
+                .lastActivityAt(startedAt.plusMinutes(5))
+                .endedAt(startedAt.plusMinutes(5))
+                .build());
+    }
+
+    @Test
+    void archiveSessionShouldCompactDeleteAndRehydrateOldEvents() throws Exception {
+        saveEvent(startedAt.plusSeconds(5), 10, 0, "TYPING");
+        saveEvent(startedAt.plusSeconds(40), 3, 2, "CURSOR_IDLE");
+        saveEvent(startedAt.plusMinutes(2), 7, 1, "TYPING");
+        RishiCodeChangeEvent recent = saveEvent(LocalDateTime.now().minusDays(1), 1, 0, "TYPING");
+        changeEventRepository.flush();
+
+        int archived = archiveService.archiveSession(session.getId(), LocalDateTime.now().minusDays(30));
+
+        assertEquals(3, archived);
+        assertEquals(List.of(recent.getId()), jdbcTemplate.queryForList(
+                "SELECT id FROM rishi_code_change_events WHERE session_id = ?", Long.class, session.getId()));
+        List<Object[]> buckets = jdbcTemplate.query(
+                "SELECT change_events, inserted_chars, deleted_chars, activity_state "
+                        + "FROM rishi_code_change_minute_summaries WHERE session_id = ? ORDER BY bucket_start",
+                (rs, rowNum) -> new Object[] { rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getString(4) },
+                session.getId());
+        assertEquals(2, buckets.size());
+        assertEquals(List.of(2, 13L, 2L, "CURSOR_IDLE"), List.of(buckets.get(0)));
+        assertEquals(List.of(1, 7L, 1L, "TYPING"), List.of(buckets.get(1)));
+
+        try (var files = Files.walk(archiveDir)) {
+            assertTrue(files.anyMatch(path -> path.toString().endsWith(
+                    startedAt.toLocalDate().toString().replace('-', '/') + "/session-" + session.getId()
+                            + ".ndjson.gz")));
+        }
+
+        List<RishiCodeChangeArchiveService.ArchivedChange> restored = archiveService.rehydrate(session.getId());
+        assertEquals(3, restored.size());
+        assertEquals(startedAt.plusSeconds(5), restored.get(0).occurredAt());
+        assertEquals("{\"key\":\"value\"}", restored.get(0).metaJson());
+        assertEquals(7, restored.get(2).insertedChars());
+    }
+
+    @Test
+    void archivingTwiceShouldAppendWithoutDuplicatingRehydratedEvents() throws Exception {
+        saveEvent(startedAt.plusSeconds(5), 4, 0, "TYPING");
+        changeEventRepository.flush();
+        archiveService.archiveSession(session.getId(), LocalDateTime.now().minusDays(30));
+
+        saveEvent(startedAt.plusSeconds(50), 6, 1, "TYPING");
+        changeEventRepository.flush();
+        archiveService.archiveSession(session.getId(), LocalDateTime.now().minusDays(30));
+
+        assertEquals(2, archiveService.rehydrate(session.getId()).size());
+        assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject(
+                "SELECT change_events FROM rishi_code_change_minute_summaries WHERE session_id = ?",
+                Integer.class, session.getId()));
+    }
+
+    @Test
+    void enablingWithoutAnArchiveDirShouldFail() {
+        assertThrows(IllegalStateException.class, () -> new RishiCodeChangeArchiveService(jdbcTemplate,
+                transactionManager, objectMapper, "", 30, 100, true));
+    }
+
+    private RishiCodeChangeEvent saveEvent(LocalDateTime at, int inserted, int deleted, String state) {
+        return changeEventRepository.save(RishiCodeChangeEvent.builder()
+                .session(session)
+                .occurredAt(at)
+                .insertedChars(inserted)
+                .deletedChars(deleted)
+                .resultingCodeLength(100 + inserted)
+                .activityState(state)
+                .metaJson("{\"key\":\"value\"}")
+                .build());
+    }
+}
@@ -0,0 +1,176 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RishiCodeChangeIngestionBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RishiCodeChangeIngestionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new RishiCodeChangeIngestionBuffer(jdbcTemplate, transactionManager, meterRegistry, 4, 6, 2);
+    }
+
+    @Test
+    void flushShouldBatchInsertEventsAndAggregateSessionCounters() {
+        LocalDateTime t0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+        assertTrue(buffer.offer(10L, 1L, List.of(change(t0, 5, 1, 40), change(t0.plusSeconds(3), 2, 0, 42))));
+        assertTrue(buffer.ownsOpenSession(10L, 1L));
+        assertFalse(buffer.ownsOpenSession(10L, 2L));
+
+        buffer.flushAll();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> events = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> sessions = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO rishi_code_change_events"), events.capture());
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE rishi_coding_sessions"), sessions.capture());
+
+        assertEquals(2, events.getValue().size());
+        Object[] sessionRow = sessions.getValue().get(0);
+        assertEquals(2, sessionRow[0]);
+        assertEquals(7, sessionRow[1]);
+        assertEquals(1, sessionRow[2]);
+        assertEquals(42, sessionRow[3]);
+        assertEquals(t0.plusSeconds(3), sessionRow[4]);
+        assertEquals(4_000L, sessionRow[6]);
+        assertEquals(4_000L, sessionRow[7]);
+        assertEquals(t0.plusSeconds(3), sessionRow[11]);
+        assertEquals("TYPING", sessionRow[12]);
+        assertEquals(10L, sessionRow[14]);
+        assertEquals(0, buffer.pendingEventCount());
+        assertEquals(2.0, meterRegistry.counter("rishi.telemetry.ingest.flushed").count());
+    }
+
+    @Test
+    void offerShouldRejectWholeBatchWhenRingIsFull() {
+        LocalDateTime t0 = LocalDateTime.now();
+        assertTrue(buffer.offer(10L, 1L, List.of(change(t0, 1, 0, 1), change(t0, 1, 0, 2), change(t0, 1, 0, 3))));
+
+        assertFalse(buffer.offer(10L, 1L, List.of(change(t0, 1, 0, 4), change(t0, 1, 0, 5))));
+        assertEquals(3, buffer.pendingEventCount());
+        assertEquals(2.0, meterRegistry.counter("rishi.telemetry.ingest.rejected").count());
+    }
+
+    @Test
+    void offerShouldRejectWhenGlobalBudgetIsExhausted() {
+        LocalDateTime t0 = LocalDateTime.now();
+        assertTrue(buffer.offer(10L, 1L, List.of(change(t0, 1, 0, 1), change(t0, 1, 0, 2), change(t0, 1, 0, 3))));
+        assertTrue(buffer.offer(11L, 1L, List.of(change(t0, 1, 0, 1), change(t0, 1, 0, 2), change(t0, 1, 0, 3))));
+
+        assertFalse(buffer.offer(12L, 1L, List.of(change(t0, 1, 0, 1))));
+    }
+
+    @Test
+    void failedFlushShouldKeepEventsForTheNextAttempt() {
+        LocalDateTime t0 = LocalDateTime.now();
+        buffer.offer(10L, 1L, List.of(change(t0, 3, 0, 3)));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO rishi_code_change_events"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[] { 1 });
+
+        buffer.flushAll();
+        assertEquals(1, buffer.pendingEventCount());
+
+        buffer.flushAll();
+        assertEquals(0, buffer.pendingEventCount());
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("INSERT INTO rishi_code_change_events"), anyList());
+    }
+
+    @Test
+    void failingSessionShouldNotBlockOthersAndShouldBeDroppedAfterMaxAttempts() {
+        LocalDateTime t0 = LocalDateTime.now();
+        buffer.offer(10L, 1L, List.of(change(t0, 3, 0, 3)));
+        buffer.offer(20L, 2L, List.of(change(t0, 4, 0, 4), change(t0.plusSeconds(1), 1, 0, 5)));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO rishi_code_change_events"), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> Long.valueOf(10L).equals(row[0]))) {
+                        throw new DataAccessResourceFailureException("session row missing");
+                    }
+                    return new int[rows.size()];
+                });
+
+        buffer.flushAll();
+        assertEquals(1, buffer.pendingEventCount());
+        assertEquals(2.0, meterRegistry.counter("rishi.telemetry.ingest.flushed").count());
+
+        buffer.flushAll();
+        assertEquals(0, buffer.pendingEventCount());
+        assertEquals(1.0, meterRegistry.counter("rishi.telemetry.ingest.dropped").count());
+
+        buffer.flushAll();
+        verify(jdbcTemplate, times(4)).batchUpdate(contains("INSERT INTO rishi_code_change_events"), anyList());
+    }
+
+    @Test
+    void flushSessionShouldStopTrackingAndPropagateWriteFailures() {
+        LocalDateTime t0 = LocalDateTime.now();
+        buffer.offer(10L, 1L, List.of(change(t0, 3, 0, 3)));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO rishi_code_change_events"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> buffer.flushSession(10L));
+        assertEquals(1, buffer.pendingEventCount());
+        assertFalse(buffer.ownsOpenSession(10L, 1L));
+        assertFalse(buffer.isEnded(10L));
+    }
+
+    @Test
+    void offerAfterFlushSessionShouldNotRecreateTheRing() {
+        LocalDateTime t0 = LocalDateTime.now();
+        buffer.flushSession(10L);
+
+        assertFalse(buffer.offer(10L, 1L, List.of(change(t0, 3, 0, 3))));
+        assertTrue(buffer.isEnded(10L));
+        assertFalse(buffer.ownsOpenSession(10L, 1L));
+        assertEquals(0, buffer.pendingEventCount());
+    }
+
+    @Test
+    void flushSessionWithoutBufferedEventsShouldNotWrite() {
+        buffer.flushSession(99L);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(0, buffer.pendingEventCount());
+    }
+
+    private static RishiCodeChangeIngestionBuffer.PendingChange change(LocalDateTime at, int inserted, int deleted,
+            int length) {
+        return new RishiCodeChangeIngestionBuffer.PendingChange(at, 1, 0, 0, inserted, deleted, length, "TYPING",
+                true, true, true);
+    }
+}
@@ -0,0 +1,105 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSubmission;
+import com.skilltracker.student_skill_tracker.model.RishiCodeforcesSyncState;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeforcesSubmissionRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeforcesSyncStateRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RishiCodeforcesHistoryServiceTest {
+
+    @Mock
+    private RishiCodeforcesSubmissionRepository submissionRepository;
+    @Mock
+    private RishiCodeforcesSyncStateRepository syncStateRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RishiCodeforcesHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new RishiCodeforcesHistoryService(submissionRepository, syncStateRepository,
+                jdbcTemplate);
+        when(syncStateRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void firstSyncBuildsTotalsAndHighWaterMark() {
+        // The empty row inserted ahead of the lock is what the lock returns
+        when(syncStateRepository.findForUpdate("tourist"))
+                .thenReturn(Optional.of(RishiCodeforcesSyncState.builder().handle("tourist").build()));
+
+        RishiCodeforcesHistoryService.Totals totals = historyService.append("tourist", List.of(
+                submission(10, false, "1-A", "math"),
+                submission(11, true, "1-A", "math"),
+                submission(12, true, "1-A", "math"),
+                submission(13, true, "2-B", "dp,graphs")));
+
+        assertEquals(2, totals.solvedTotal());
+        assertEquals(Map.of("math", 2, "dp", 1, "graphs", 1), totals.acceptedByTag());
+        ArgumentCaptor<RishiCodeforcesSyncState> state = ArgumentCaptor.forClass(RishiCodeforcesSyncState.class);
+        verify(syncStateRepository).save(state.capture());
+        assertEquals(13L, state.getValue().getLastSubmissionId());
+        verify(submissionRepository, times(4)).save(any());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO rishi_codeforces_sync_state"), eq("tourist"), any());
+    }
+
+    @Test
+    void laterSyncOnlyAddsSubmissionsAboveTheMark() {
+        RishiCodeforcesSyncState existing = RishiCodeforcesSyncState.builder()
+                .handle("tourist")
+                .lastSubmissionId(13L)
+                .solvedTotal(2)
+                .acceptedByTag(new HashMap<>(Map.of("math", 2, "dp", 1)))
+                .build();
+        when(syncStateRepository.findForUpdate("tourist")).thenReturn(Optional.of(existing));
+        when(submissionRepository.existsByHandleAndProblemKeyAndAcceptedTrue("tourist", "1-A")).thenReturn(true);
+        when(submissionRepository.existsByHandleAndProblemKeyAndAcceptedTrue("tourist", "3-C")).thenReturn(false);
+        RishiCodeforcesSubmission alreadyStored = submission(13, true, "2-B", "dp");
+
+        RishiCodeforcesHistoryService.Totals totals = historyService.append("tourist", List.of(
+                alreadyStored,
+                submission(14, true, "1-A", "math"),
+                submission(15, true, "3-C", "dp")));
+
+        // 1-A was solved before, so only 3-C is a new solve; tag counts still grow per accepted submission
+        assertEquals(3, totals.solvedTotal());
+        assertEquals(Map.of("math", 3, "dp", 2), totals.acceptedByTag());
+        assertEquals(15L, existing.getLastSubmissionId());
+        verify(submissionRepository, never()).save(alreadyStored);
+        verify(submissionRepository, times(2)).save(any());
+    }
+
+    private static RishiCodeforcesSubmission submission(long id, boolean accepted, String problemKey, String tags) {
+        return RishiCodeforcesSubmission.builder()
+                .submissionId(id)
+                .creationTimeSeconds(1_700_000_000L + id)
+                .accepted(accepted)
+                .problemKey(problemKey)
+                .tags(tags)
+                .build();
+    }
+}
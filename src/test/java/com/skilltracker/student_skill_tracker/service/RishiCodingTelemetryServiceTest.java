@@ -3,15 +3,25 @@ package com.skilltracker.student_skill_tracker.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,8 +30,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import com.skilltracker.student_skill_tracker.dto.RishiAttemptHistoryResponse;
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeBatchRequest;
+import com.skilltracker.student_skill_tracker.dto.RishiCodeChangeEventDto;
 import com.skilltracker.student_skill_tracker.dto.RishiCompileAttemptAnalysisResponse;
 import com.skilltracker.student_skill_tracker.dto.RishiCompileAttemptRequest;
 import com.skilltracker.student_skill_tracker.dto.RishiSessionEndRequest;
@@ -42,6 +56,14 @@ class RishiCodingTelemetryServiceTest {
     private RishiCodeChangeEventRepository changeEventRepository;
     @Mock
     private RishiCompileAttemptLogRepository compileAttemptLogRepository;
+    @Mock
+    private RishiCodeChangeIngestionBuffer ingestionBuffer;
+    @Mock
+    private RishiTelemetryRollupService rollupService;
+    @Mock
+    private SmartQuestionRouter smartQuestionRouter;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
 
     @InjectMocks
     private RishiCodingTelemetryService service;
@@ -92,10 +114,19 @@ class RishiCodingTelemetryServiceTest {
         verify(compileAttemptLogRepository).save(logCaptor.capture());
         assertEquals("COMPILE_FAILURE", logCaptor.getValue().getFailureBucket());
         assertNotNull(logCaptor.getValue().getErrorSnippet());
+
+        ArgumentCaptor<RishiTelemetryRollupService.AttemptCell> cellCaptor =
+                ArgumentCaptor.forClass(RishiTelemetryRollupService.AttemptCell.class);
+        verify(rollupService).addAttempt(eq(student), cellCaptor.capture());
+        assertEquals("battle_run_local", cellCaptor.getValue().source());
+        assertEquals("COMPILATION_ERROR", cellCaptor.getValue().category());
+        assertEquals(1L, cellCaptor.getValue().attempts());
+        assertEquals(0L, cellCaptor.getValue().successfulAttempts());
     }
 
     @Test
     void endSessionShouldPersistDetailedActivityDurations() {
+        when(sessionRepository.existsByIdAndStudent(eq(10L), eq(student))).thenReturn(true);
         when(sessionRepository.findByIdAndStudent(eq(10L), eq(student))).thenReturn(Optional.of(session));
         when(changeEventRepository.findBySessionOrderByOccurredAtAsc(eq(session))).thenReturn(List.<RishiCodeChangeEvent>of());
         when(sessionRepository.save(any(RishiCodingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -118,6 +149,134 @@ class RishiCodingTelemetryServiceTest {
         assertEquals(10_000L, saved.getEditorUnfocusedDurationMs());
         assertEquals(5_000L, saved.getTabHiddenDurationMs());
         assertEquals(50_000L, saved.getActiveDurationMs());
+
+        ArgumentCaptor<RishiTelemetryRollupService.SessionCell> cellCaptor =
+                ArgumentCaptor.forClass(RishiTelemetryRollupService.SessionCell.class);
+        verify(rollupService).addSession(eq(student), cellCaptor.capture());
+        assertEquals(session.getStartedAt().toLocalDate(), cellCaptor.getValue().day());
+        assertEquals(1L, cellCaptor.getValue().sessions());
+        assertEquals(30_000L, cellCaptor.getValue().typingMs());
+        assertEquals(50_000L, cellCaptor.getValue().activeMs());
+    }
+
+    @Test
+    void endSessionShouldUseRunningTotalsInsteadOfReplayingEvents() {
+        LocalDateTime lastChange = LocalDateTime.now().minusMinutes(5);
+        session.setTotalChangeEvents(40);
+        session.setLastChangeAt(lastChange);
+        session.setLastChangeState("TYPING");
+        session.setObservedActiveMs(240_000L);
+        session.setObservedTypingMs(180_000L);
+        session.setObservedCursorIdleMs(60_000L);
+        when(sessionRepository.existsByIdAndStudent(eq(10L), eq(student))).thenReturn(true);
+        when(sessionRepository.findByIdAndStudent(eq(10L), eq(student))).thenReturn(Optional.of(session));
+        when(sessionRepository.save(any(RishiCodingSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.endSession(student, 10L, new RishiSessionEndRequest());
+
+        verify(ingestionBuffer).flushSession(10L);
+        verifyNoInteractions(changeEventRepository);
+        // 240s running total + 120s AFK-clamped tail after the last change.
+        assertEquals(360_000L, session.getActiveDurationMs());
+        assertEquals(300_000L, session.getTypingDurationMs());
+        assertEquals(60_000L, session.getCursorIdleDurationMs());
+    }
+
+    @Test
+    void endSessionShouldNotFlushAnotherStudentsSession() {
+        when(sessionRepository.existsByIdAndStudent(eq(10L), eq(student))).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.endSession(student, 10L, new RishiSessionEndRequest()));
+
+        verifyNoInteractions(ingestionBuffer);
+    }
+
+    @Test
+    void recordChangesShouldBufferNormalizedChangesWithoutTouchingRepositories() {
+        when(ingestionBuffer.ownsOpenSession(eq(10L), eq(1L))).thenReturn(true);
+        when(ingestionBuffer.offer(eq(10L), eq(1L), any())).thenReturn(true);
+
+        RishiCodeChangeEventDto dto = new RishiCodeChangeEventDto();
+        dto.setTimestamp("2026-01-05T10:15:30Z");
+        dto.setInsertedChars(7);
+        dto.setDeletedChars(-3);
+        dto.setResultingCodeLength(120);
+        dto.setActivityState("typing-fast");
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        request.setEvents(List.of(dto));
+
+        int accepted = service.recordChanges(student, 10L, request);
+
+        assertEquals(1, accepted);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RishiCodeChangeIngestionBuffer.PendingChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ingestionBuffer).offer(eq(10L), eq(1L), captor.capture());
+        RishiCodeChangeIngestionBuffer.PendingChange change = captor.getValue().get(0);
+        assertEquals(7, change.insertedChars());
+        assertEquals(0, change.deletedChars());
+        assertEquals("TYPING_FAST", change.activityState());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 10, 15, 30), change.occurredAt());
+        verifyNoInteractions(sessionRepository, changeEventRepository);
+    }
+
+    @Test
+    void recordChangesShouldSignalBackpressureWhenBufferIsFull() {
+        when(sessionRepository.findByIdAndStudent(eq(10L), eq(student))).thenReturn(Optional.of(session));
+        when(ingestionBuffer.offer(eq(10L), eq(1L), any())).thenReturn(false);
+
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        request.setEvents(List.of(new RishiCodeChangeEventDto()));
+
+        assertThrows(IllegalStateException.class, () -> service.recordChanges(student, 10L, request));
+    }
+
+    @Test
+    void recordEncodedChangesShouldBufferSameChangesAsJson() {
+        when(ingestionBuffer.ownsOpenSession(eq(10L), eq(1L))).thenReturn(true);
+        when(ingestionBuffer.offer(eq(10L), eq(1L), any())).thenReturn(true);
+
+        RishiCodeChangeEventDto typing = new RishiCodeChangeEventDto();
+        typing.setTimestamp("2026-01-05T10:15:30.125Z");
+        typing.setEditorVersion(42);
+        typing.setRangeOffset(300);
+        typing.setRangeLength(2);
+        typing.setInsertedChars(250_000);
+        typing.setDeletedChars(-3);
+        typing.setResultingCodeLength(1_200);
+        typing.setActivityState("typing-fast");
+        typing.setEditorFocused(true);
+        typing.setWindowFocused(false);
+        RishiCodeChangeEventDto earlier = new RishiCodeChangeEventDto();
+        earlier.setTimestamp("2026-01-05T10:15:29.900Z");
+        earlier.setDocumentVisible(true);
+        RishiCodeChangeEventDto repeated = new RishiCodeChangeEventDto();
+        repeated.setTimestamp("2026-01-05T10:15:31Z");
+        repeated.setActivityState("typing-fast");
+        List<RishiCodeChangeEventDto> events = List.of(typing, earlier, repeated);
+        RishiCodeChangeBatchRequest request = new RishiCodeChangeBatchRequest();
+        request.setEvents(events);
+
+        service.recordChanges(student, 10L, request);
+        int accepted = service.recordEncodedChanges(student, 10L, RishiCodeChangeBinaryCodec.encode(events));
+
+        assertEquals(3, accepted);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RishiCodeChangeIngestionBuffer.PendingChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ingestionBuffer, times(2)).offer(eq(10L), eq(1L), captor.capture());
+        assertEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+
+    @Test
+    void recordEncodedChangesShouldRejectTruncatedBodies() {
+        RishiCodeChangeEventDto dto = new RishiCodeChangeEventDto();
+        dto.setTimestamp("2026-01-05T10:15:30Z");
+        byte[] encoded = RishiCodeChangeBinaryCodec.encode(List.of(dto));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(RishiCodeChangeBinaryCodec.MalformedBatchException.class,
+                () -> service.recordEncodedChanges(student, 10L, truncated));
+        verifyNoInteractions(ingestionBuffer);
     }
 
     @Test
@@ -149,19 +308,17 @@ class RishiCodingTelemetryServiceTest {
                         .analysisSummary("Runtime crash.")
                         .build());
 
-        List<RishiCompileAttemptLog> previousLogs = List.of(
-                RishiCompileAttemptLog.builder()
-                        .attemptedAt(now.minusDays(20))
-                        .attemptSource("leetcode_submit")
-                        .success(true)
-                        .accuracyPct(100.0)
-                        .mistakeCategory("NONE")
-                        .analysisSummary("Accepted.")
-                        .build());
-
-        when(compileAttemptLogRepository.findBySessionStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
+        when(compileAttemptLogRepository.findByStudentAndAttemptedAtBetweenOrderByAttemptedAtDesc(
+                eq(student), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(currentLogs);
+        when(compileAttemptLogRepository.aggregateDailyAttempts(
                 eq(student), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(currentLogs, previousLogs);
+                .thenReturn(
+                        List.of(
+                                aggregate(now.minusDays(1), "leetcode_submit", "WRONG_ANSWER", false, 1, 50.0),
+                                aggregate(now.minusDays(2), "duel_run", "NONE", true, 1, 100.0),
+                                aggregate(now.minusDays(2), "battle_run_local", "RUNTIME_ERROR", false, 1, 0.0)),
+                        List.of(aggregate(now.minusDays(20), "leetcode_submit", "NONE", true, 1, 100.0)));
 
         RishiAttemptHistoryResponse response = service.getAttemptHistory(student, 14, 20);
 
@@ -170,6 +327,71 @@ class RishiCodingTelemetryServiceTest {
         assertFalse(response.getSourceBreakdown().isEmpty());
         assertFalse(response.getCategoryHeatmap().isEmpty());
         assertTrue(response.getRecentAttempts().stream().anyMatch(a -> "TEST_FAILURE".equals(a.getFailureBucket())));
+        assertEquals(50.0, response.getAverageAccuracyPct());
+        assertEquals(2, response.getCategoryHeatmap().stream().filter(c -> c.getFailedAttempts() > 0).count());
+    }
+
+    private static RishiCompileAttemptLogRepository.DailyAttemptAggregate aggregate(LocalDateTime at, String source,
+            String category, boolean success, long attempts, Double accuracySum) {
+        return new RishiCompileAttemptLogRepository.DailyAttemptAggregate() {
+            @Override
+            public LocalDate getDay() {
+                return at.toLocalDate();
+            }
+
+            @Override
+            public String getSource() {
+                return source;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public boolean isSuccess() {
+                return success;
+            }
+
+            @Override
+            public long getAttempts() {
+                return attempts;
+            }
+
+            @Override
+            public Double getAccuracySum() {
+                return accuracySum;
+            }
+        };
     }
-}
 
+    @Test
+    void exportAttemptHistoryCsvShouldStreamProjectedRowsAndCloseCursor() throws Exception {
+        RishiCompileAttemptLogRepository.AttemptExportRow row = mock(RishiCompileAttemptLogRepository.AttemptExportRow.class);
+        when(row.getAttemptedAt()).thenReturn(LocalDateTime.of(2026, 3, 1, 9, 30));
+        when(row.getAttemptSource()).thenReturn("leetcode_submit");
+        when(row.getMistakeCategory()).thenReturn("wrong_answer");
+        when(row.getAnalysisSummary()).thenReturn("Off by \"one\"");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(compileAttemptLogRepository.streamExportRows(eq(student), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportAttemptHistoryCsv(student, 365, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("attemptedAt,source,success"));
+        assertTrue(lines[1].startsWith("\"2026-03-01T09:30\",\"leetcode_submit\",\"false\",\"TEST_FAILURE\",\"0.0\",\"WRONG_ANSWER\",\"Off by \"\"one\"\"\""));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportWindowDaysShouldCapAdminExportsAtTenYears() {
+        assertEquals(60, RishiCodingTelemetryService.exportWindowDays(365, false));
+        assertEquals(365, RishiCodingTelemetryService.exportWindowDays(365, true));
+        assertEquals(3_650, RishiCodingTelemetryService.exportWindowDays(Integer.MAX_VALUE, true));
+        assertEquals(7, RishiCodingTelemetryService.exportWindowDays(-5, true));
+    }
+}
@@ -0,0 +1,187 @@
+package com.skilltracker.student_skill_tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skilltracker.student_skill_tracker.model.RishiCodingSession;
+import com.skilltracker.student_skill_tracker.model.RishiCompileAttemptLog;
+import com.skilltracker.student_skill_tracker.model.Student;
+import com.skilltracker.student_skill_tracker.repository.RishiCodeChangeEventRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCodingSessionRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiCompileAttemptLogRepository;
+import com.skilltracker.student_skill_tracker.repository.RishiTelemetryDailyRollupRepository;
+import com.skilltracker.student_skill_tracker.repository.StudentRepository;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "rishi.telemetry.rollup.backfill-on-startup=false" })
+@Transactional
+class RishiTelemetryRollupParityTest {
+
+    private static final List<String> SOURCES = List.of("local_run", "duel_run", "leetcode_submit");
+    private static final List<String> CATEGORIES = List.of(
+            "COMPILATION_ERROR", "RUNTIME_ERROR", "WRONG_ANSWER", "TIME_LIMIT_EXCEEDED");
+
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private RishiCodingSessionRepository sessionRepository;
+    @Autowired
+    private RishiCodeChangeEventRepository changeEventRepository;
+    @Autowired
+    private RishiCompileAttemptLogRepository compileAttemptLogRepository;
+    @Autowired
+    private RishiTelemetryDailyRollupRepository rollupRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        student = studentRepository.save(Student.builder()
+                .name("Parity User")
+                .email("parity@example.com")
+                .password("encoded")
+                .leetcodeUsername("parity-lc")
+                .build());
+        seedHistory(LocalDateTime.now());
+    }
+
+    @Test
+    void rollupReadsShouldMatchRawAggregation() throws Exception {
+        RishiCodingTelemetryService raw = telemetryService(false);
+        RishiCodingTelemetryService rollup = telemetryService(true);
+
+        assertTrue(rollup.rebuildRollupsIfStale(student));
+        assertFalse(rollup.rebuildRollupsIfStale(student));
+
+        for (int days : new int[] { 7, 30, 60 }) {
+            assertEquals(json(raw.getGrowthSummary(student, days)), json(rollup.getGrowthSummary(student, days)));
+            assertEquals(json(raw.getAttemptHistory(student, days, 20)),
+                    json(rollup.getAttemptHistory(student, days, 20)));
+            assertEquals(json(raw.getActivityBreakdown(student, days)),
+                    json(rollup.getActivityBreakdown(student, days)));
+        }
+    }
+
+    @Test
+    void staleRollupShouldBeReadRawAndQueuedForRebuild() throws Exception {
+        RishiTelemetryRollupService rollupService = new RishiTelemetryRollupService(
+                rollupRepository, jdbcTemplate, true);
+        RishiCodingTelemetryService rollup = new RishiCodingTelemetryService(sessionRepository,
+                changeEventRepository, compileAttemptLogRepository, null, rollupService, null, null);
+        RishiCodingTelemetryService raw = telemetryService(false);
+
+        assertEquals(json(raw.getGrowthSummary(student, 30)), json(rollup.getGrowthSummary(student, 30)));
+        assertFalse(rollupService.isVerified(student));
+        assertEquals(List.of(student.getId()), rollupService.takeRebuildRequests());
+
+        assertTrue(rollup.rebuildRollupsIfStale(student));
+        assertEquals(json(raw.getGrowthSummary(student, 30)), json(rollup.getGrowthSummary(student, 30)));
+        assertTrue(rollupService.isVerified(student));
+        assertTrue(rollupService.takeRebuildRequests().isEmpty());
+    }
+
+    @Test
+    void incrementsShouldCreateMissingRowsInTheCallersTransactionAndKeepRawAccuracy() {
+        RishiTelemetryRollupService rollupService = new RishiTelemetryRollupService(
+                rollupRepository, jdbcTemplate, true);
+        LocalDate day = LocalDate.now().minusDays(400);
+
+        rollupService.addAttempt(student,
+                new RishiTelemetryRollupService.AttemptCell(day, "local_run", "WRONG_ANSWER", 1L, 0L, 33.333));
+        rollupService.addAttempt(student,
+                new RishiTelemetryRollupService.AttemptCell(day, "local_run", "WRONG_ANSWER", 1L, 0L, 33.333));
+
+        List<RishiTelemetryRollupService.AttemptCell> cells = rollupService.attemptCells(student, day, day);
+        assertEquals(1, cells.size());
+        assertEquals(2L, cells.get(0).attempts());
+        assertEquals(66.666, cells.get(0).accuracySum(), 1e-9);
+    }
+
+    private void seedHistory(LocalDateTime now) {
+        Random random = new Random(42);
+        for (int dayOffset = 0; dayOffset <= 125; dayOffset++) {
+            int sessionsThatDay = random.nextInt(3);
+            for (int i = 0; i < sessionsThatDay; i++) {
+                LocalDateTime startedAt = now.minusDays(dayOffset).minusMinutes(random.nextInt(24 * 60));
+                boolean open = random.nextInt(10) == 0;
+                RishiCodingSession session = sessionRepository.save(session(startedAt, open, random));
+                int attempts = random.nextInt(4);
+                for (int a = 0; a < attempts; a++) {
+                    compileAttemptLogRepository.save(attempt(session, startedAt.plusMinutes(a + 1L), random));
+                }
+            }
+        }
+        // Boundaries: a session exactly at midnight and one that is still open today.
+        LocalDateTime midnight = now.toLocalDate().minusDays(3).atStartOfDay();
+        compileAttemptLogRepository.save(
+                attempt(sessionRepository.save(session(midnight, false, random)), midnight, random));
+        sessionRepository.save(session(now.minusMinutes(5), true, random));
+    }
+
+    private RishiCodingSession session(LocalDateTime startedAt, boolean open, Random random) {
+        long totalMs = 60_000L + random.nextInt(3_600_000);
+        int compileAttempts = random.nextInt(6);
+        int successful = compileAttempts == 0 ? 0 : random.nextInt(compileAttempts + 1);
+        long typingMs = random.nextInt((int) totalMs / 2);
+        long cursorIdleMs = random.nextInt((int) totalMs / 4);
+        return RishiCodingSession.builder()
+                .student(student)
+                .language("java")
+                .startedAt(startedAt)
+                .lastActivityAt(startedAt)
+                .endedAt(open ? null : startedAt.plusNanos(totalMs * 1_000_000L))
+                .totalDurationMs(open ? null : totalMs)
+                .totalChangeEvents(random.nextInt(200))
+                .compileAttempts(compileAttempts)
+                .successfulCompiles(successful)
+                .failedCompiles(compileAttempts - successful)
+                .firstSuccessDurationMs(successful > 0 ? (long) random.nextInt((int) totalMs) : null)
+                .typingDurationMs(typingMs)
+                .cursorIdleDurationMs(cursorIdleMs)
+                .editorUnfocusedDurationMs(random.nextInt(5) == 0 ? 0L : totalMs - typingMs - cursorIdleMs)
+                .activeDurationMs(typingMs + cursorIdleMs)
+                .build();
+    }
+
+    private static RishiCompileAttemptLog attempt(RishiCodingSession session, LocalDateTime at, Random random) {
+        boolean success = random.nextInt(3) == 0;
+        return RishiCompileAttemptLog.builder()
+                .session(session)
+                .student(session.getStudent())
+                .attemptedAt(at)
+                .attemptSource(SOURCES.get(random.nextInt(SOURCES.size())))
+                .success(success)
+                .accuracyPct(random.nextInt(4) == 0 ? null : random.nextInt(10_001) / 100.0)
+                .mistakeCategory(success ? "NONE" : CATEGORIES.get(random.nextInt(CATEGORIES.size())))
+                .build();
+    }
+
+    private RishiCodingTelemetryService telemetryService(boolean rollupReads) {
+        RishiTelemetryRollupService rollupService = new RishiTelemetryRollupService(
+                rollupRepository, jdbcTemplate, rollupReads);
+        return new RishiCodingTelemetryService(sessionRepository, changeEventRepository,
+                compileAttemptLogRepository, null, rollupService, null, null);
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}